@@ -0,0 +1,150 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import bom.BomGraph;
+import model.ProdItem;
+
+/**
+ * BOM sintètic en memòria per als benchmarks de BomGraph
+ *
+ * Formes:
+ * - PROFUND: cadena P0 → P1 → ... → P(n-1), cada producte amb un component propi
+ * - AMPLE: un sol producte amb n components
+ * - DIAMANT: nivells de 4 productes on cada producte conté els 4 del nivell següent
+ *   (subproductes compartits: sense memorització el cost és exponencial)
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public final class ArbreBom {
+
+    /**
+     * Forma de l'arbre
+     */
+    public enum Forma { PROFUND, AMPLE, DIAMANT }
+
+    private static final int AMPLADA_DIAMANT = 4;
+
+    private final Map<String, Double> preusComponents = new LinkedHashMap<>();
+    private final List<String> productes = new ArrayList<>();
+    private final List<ProdItem> linies = new ArrayList<>();
+    private String arrel;
+    private String fulla;
+
+    private ArbreBom() {
+    }
+
+    /**
+     * Genera un arbre
+     * @param forma Forma de l'arbre
+     * @param mida Nombre aproximat de nodes
+     * @return Dades de l'arbre
+     */
+    public static ArbreBom generar(Forma forma, int mida) {
+        ArbreBom arbre = new ArbreBom();
+        switch (forma) {
+            case PROFUND -> arbre.profund(mida);
+            case AMPLE -> arbre.ample(mida);
+            case DIAMANT -> arbre.diamant(Math.max(1, mida / AMPLADA_DIAMANT));
+        }
+        return arbre;
+    }
+
+    private void profund(int mida) {
+        for (int p = 0; p < mida; p++) {
+            productes.add(producte(p));
+            String component = component(p);
+            preusComponents.put(component, 1.0 + p % 10);
+            linies.add(new ProdItem(producte(p), component, 2));
+            if (p > 0) {
+                linies.add(new ProdItem(producte(p - 1), producte(p), 1));
+            }
+        }
+        arrel = producte(0);
+        fulla = component(mida - 1);
+    }
+
+    private void ample(int mida) {
+        productes.add(producte(0));
+        for (int c = 0; c < mida; c++) {
+            preusComponents.put(component(c), 1.0 + c % 10);
+            linies.add(new ProdItem(producte(0), component(c), 1 + c % 3));
+        }
+        arrel = producte(0);
+        fulla = component(mida - 1);
+    }
+
+    private void diamant(int nivells) {
+        // Nivell 0: l'arrel; nivells 1..n: AMPLADA_DIAMANT productes cadascun
+        productes.add(producte(0));
+        for (int p = 1; p <= nivells * AMPLADA_DIAMANT; p++) {
+            productes.add(producte(p));
+        }
+        for (int k = 0; k < AMPLADA_DIAMANT; k++) {
+            linies.add(new ProdItem(producte(0), producte(1 + k), 1));
+        }
+        for (int nivell = 1; nivell < nivells; nivell++) {
+            for (int a = 0; a < AMPLADA_DIAMANT; a++) {
+                for (int b = 0; b < AMPLADA_DIAMANT; b++) {
+                    linies.add(new ProdItem(producte(posicio(nivell, a)), producte(posicio(nivell + 1, b)), 1));
+                }
+            }
+        }
+        for (int a = 0; a < AMPLADA_DIAMANT; a++) {
+            String component = component(a);
+            preusComponents.put(component, 0.5 + a);
+            linies.add(new ProdItem(producte(posicio(nivells, a)), component, 1));
+        }
+        arrel = producte(0);
+        fulla = component(0);
+    }
+
+    private static int posicio(int nivell, int k) {
+        return 1 + (nivell - 1) * AMPLADA_DIAMANT + k;
+    }
+
+    private static String producte(int n) {
+        return "P" + n;
+    }
+
+    private static String component(int n) {
+        return "C" + n;
+    }
+
+    /**
+     * @return Graf nou (sense preus calculats)
+     */
+    public BomGraph construir() {
+        return new BomGraph(preusComponents, productes, linies);
+    }
+
+    public Map<String, Double> getPreusComponents() {
+        return preusComponents;
+    }
+
+    public List<String> getProductes() {
+        return productes;
+    }
+
+    public List<ProdItem> getLinies() {
+        return linies;
+    }
+
+    /**
+     * @return Producte que conté tot l'arbre
+     */
+    public String getArrel() {
+        return arrel;
+    }
+
+    /**
+     * @return Component del fons de l'arbre (where-used més llarg)
+     */
+    public String getFulla() {
+        return fulla;
+    }
+}
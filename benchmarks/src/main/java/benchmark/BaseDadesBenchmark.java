@@ -0,0 +1,157 @@
+package benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import util.ConnexioOracle;
+
+/**
+ * BD local (H2 en mode Oracle) amb un catàleg sintètic per als benchmarks de DAOs
+ *
+ * La connexió la configura el benchmark amb les propietats db.* de la JVM
+ * (ConnexioOracle les fa prevaler sobre db.properties).
+ *
+ * Catàleg:
+ * - COMPONENTS components (C00000...) amb preu mitjà
+ * - PRODUCTES productes (P0000...) amb LINIES_PER_PRODUCTE components
+ *   i, a partir del desè, el producte de deu posicions enrere com a subproducte
+ * - PROVEIDORS proveïdors, cada component amb dos d'ells a Prov_Comp
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public final class BaseDadesBenchmark {
+
+    public static final String URL = "jdbc:h2:mem:benchmarkdao;MODE=Oracle;DB_CLOSE_DELAY=-1";
+
+    public static final int COMPONENTS = 2000;
+    public static final int PRODUCTES = 200;
+    public static final int LINIES_PER_PRODUCTE = 10;
+    public static final int PROVEIDORS = 20;
+
+    private BaseDadesBenchmark() {
+    }
+
+    public static String component(int n) {
+        return String.format("C%05d", n);
+    }
+
+    public static String producte(int n) {
+        return String.format("P%04d", n);
+    }
+
+    public static String proveidor(int n) {
+        return String.format("V%02d", n);
+    }
+
+    /**
+     * Crea l'esquema (esquema-benchmark.sql) i hi carrega el catàleg
+     * @throws SQLException si falla alguna sentència
+     */
+    public static void crear() throws SQLException {
+        try (Connection conn = ConnexioOracle.getConnection()) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("DROP ALL OBJECTS");
+                for (String sentencia : llegirEsquema().split(";")) {
+                    String sql = sentencia.replaceAll("(?m)^\\s*--.*$", "").trim();
+                    if (!sql.isEmpty()) {
+                        stmt.execute(sql);
+                    }
+                }
+                stmt.execute("INSERT INTO UnitatMesura VALUES ('UN', 'Unitats')");
+                stmt.execute("INSERT INTO Provincia VALUES ('08', 'Barcelona')");
+                stmt.execute("INSERT INTO Municipi VALUES ('08', '019', 'Barcelona')");
+            }
+
+            try (PreparedStatement item = conn.prepareStatement(
+                         "INSERT INTO Item (it_codi, it_tipus, it_nom, it_desc, it_stock) VALUES (?, ?, ?, ?, ?)");
+                 PreparedStatement comp = conn.prepareStatement(
+                         "INSERT INTO Component (cm_codi, cm_um_codi, cm_codi_fabricant, cm_preu_mig) VALUES (?, 'UN', ?, ?)");
+                 PreparedStatement prod = conn.prepareStatement(
+                         "INSERT INTO Producte (pr_codi) VALUES (?)")) {
+                for (int c = 0; c < COMPONENTS; c++) {
+                    afegirItem(item, component(c), "C", c);
+                    comp.setString(1, component(c));
+                    comp.setString(2, "FAB-" + c);
+                    comp.setDouble(3, 0.05 + (c % 100) * 0.25);
+                    comp.addBatch();
+                }
+                for (int p = 0; p < PRODUCTES; p++) {
+                    afegirItem(item, producte(p), "P", p);
+                    prod.setString(1, producte(p));
+                    prod.addBatch();
+                }
+                item.executeBatch();
+                comp.executeBatch();
+                prod.executeBatch();
+            }
+
+            try (PreparedStatement linia = conn.prepareStatement(
+                    "INSERT INTO Prod_Item (pi_pr_codi, pi_it_codi, quantitat) VALUES (?, ?, ?)")) {
+                for (int p = 0; p < PRODUCTES; p++) {
+                    for (int l = 0; l < LINIES_PER_PRODUCTE; l++) {
+                        afegirLinia(linia, producte(p), component((p * LINIES_PER_PRODUCTE + l) % COMPONENTS), 1 + l % 4);
+                    }
+                    if (p >= 10) {
+                        afegirLinia(linia, producte(p), producte(p - 10), 1);
+                    }
+                }
+                linia.executeBatch();
+            }
+
+            try (PreparedStatement prov = conn.prepareStatement(
+                         "INSERT INTO Proveidor VALUES (?, ?, ?, 'C/ Major 1', 'Contacte', '930000000', '08', '019')");
+                 PreparedStatement pc = conn.prepareStatement(
+                         "INSERT INTO Prov_Comp (pc_cm_codi, pc_pv_codi, pc_preu) VALUES (?, ?, ?)")) {
+                for (int v = 0; v < PROVEIDORS; v++) {
+                    prov.setString(1, proveidor(v));
+                    prov.setString(2, "B" + (10000000 + v));
+                    prov.setString(3, "Proveïdor " + v + " SL");
+                    prov.addBatch();
+                }
+                prov.executeBatch();
+                for (int c = 0; c < COMPONENTS; c++) {
+                    for (int k = 0; k < 2; k++) {
+                        pc.setString(1, component(c));
+                        pc.setString(2, proveidor((c + k) % PROVEIDORS));
+                        pc.setDouble(3, 0.05 + (c % 100) * 0.25);
+                        pc.addBatch();
+                    }
+                }
+                pc.executeBatch();
+            }
+        }
+    }
+
+    private static void afegirItem(PreparedStatement ps, String codi, String tipus, int n) throws SQLException {
+        ps.setString(1, codi);
+        ps.setString(2, tipus);
+        ps.setString(3, (tipus.equals("C") ? "Component " : "Producte ") + n);
+        ps.setString(4, "Descripció de l'item " + codi);
+        ps.setInt(5, n % 50);
+        ps.addBatch();
+    }
+
+    private static void afegirLinia(PreparedStatement ps, String prCodi, String itCodi, int quantitat) throws SQLException {
+        ps.setString(1, prCodi);
+        ps.setString(2, itCodi);
+        ps.setInt(3, quantitat);
+        ps.addBatch();
+    }
+
+    private static String llegirEsquema() {
+        try (InputStream input = BaseDadesBenchmark.class
+                .getClassLoader()
+                .getResourceAsStream("esquema-benchmark.sql")) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
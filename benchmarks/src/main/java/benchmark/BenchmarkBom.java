@@ -0,0 +1,86 @@
+package benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bom.BomGraph;
+
+/**
+ * Càlcul de preus del BOM (BomGraph) sobre arbres sintètics
+ *
+ * BomGraph memoritza els preus, per tant cada iteració construeix un graf nou:
+ * construir() mesura només la construcció i la resta el cost del càlcul.
+ *
+ * Execució:
+ *   java -jar target/benchmarks.jar BenchmarkBom -p forma=DIAMANT
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BenchmarkBom {
+
+    @Param({ "PROFUND", "AMPLE", "DIAMANT" })
+    public ArbreBom.Forma forma;
+
+    @Param({ "100", "1000" })
+    public int mida;
+
+    private ArbreBom arbre;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        arbre = ArbreBom.generar(forma, mida);
+    }
+
+    /**
+     * Només construcció del graf (interning + CSR + índex invers)
+     */
+    @Benchmark
+    public BomGraph construir() {
+        return arbre.construir();
+    }
+
+    /**
+     * Preu del producte arrel (recorregut de tot l'arbre)
+     */
+    @Benchmark
+    public double priceOf() {
+        return arbre.construir().priceOf(arbre.getArrel());
+    }
+
+    /**
+     * Preus de tots els productes
+     */
+    @Benchmark
+    public Map<String, Double> priceAll() {
+        return arbre.construir().priceAll();
+    }
+
+    /**
+     * Productes afectats pel canvi de preu d'un component del fons
+     */
+    @Benchmark
+    public List<String> whereUsed() {
+        return arbre.construir().whereUsed(arbre.getFulla());
+    }
+}
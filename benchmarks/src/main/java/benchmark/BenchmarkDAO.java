@@ -0,0 +1,159 @@
+package benchmark;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bom.BomGraph;
+import dao.DAOComponent;
+import dao.DAOItem;
+import dao.DAOProdItem;
+import dao.DAOProducte;
+import dao.DAOProvComp;
+import model.Component;
+import model.ComponentResum;
+import model.Item;
+import model.ProdItem;
+import model.VistaProveidorComponent;
+
+/**
+ * Anada i tornada completa dels DAOs (pool, SQL, mapejat) contra H2 en memòria
+ *
+ * H2 s'executa dins la mateixa JVM: no hi ha latència de xarxa, per tant
+ * aquests números mesuren el cost de la capa de persistència i de la BD,
+ * no el d'Oracle. Serveixen per comparar canvis d'una execució a l'altra.
+ *
+ * Els missatges dels DAOs a System.out es descarten durant la mesura
+ * (a la consola serien la major part del temps).
+ *
+ * Execució:
+ *   java -jar target/benchmarks.jar BenchmarkDAO
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {
+        "-Ddb.url=" + BaseDadesBenchmark.URL,
+        "-Ddb.user=sa",
+        "-Ddb.password=",
+        "-Ddb.driver=org.h2.Driver"
+})
+@State(Scope.Benchmark)
+public class BenchmarkDAO {
+
+    private final DAOItem daoItem = new DAOItem();
+    private final DAOComponent daoComponent = new DAOComponent();
+    private final DAOProducte daoProducte = new DAOProducte();
+    private final DAOProdItem daoProdItem = new DAOProdItem();
+    private final DAOProvComp daoProvComp = new DAOProvComp();
+
+    private final List<String> centComponents = new ArrayList<>();
+    private final String component = BaseDadesBenchmark.component(1234);
+    private final String producte = BaseDadesBenchmark.producte(BaseDadesBenchmark.PRODUCTES - 1);
+
+    private PrintStream outOriginal;
+
+    @Setup(Level.Trial)
+    public void preparar() throws SQLException {
+        BaseDadesBenchmark.crear();
+        for (int c = 0; c < 100; c++) {
+            centComponents.add(BaseDadesBenchmark.component(c * 7));
+        }
+        outOriginal = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tancar() {
+        System.setOut(outOriginal);
+    }
+
+    // ==========================================
+    // LECTURES
+    // ==========================================
+
+    @Benchmark
+    public Component componentFindById() {
+        return daoComponent.findById(component);
+    }
+
+    @Benchmark
+    public Map<String, Component> componentFindByIds() {
+        return daoComponent.findByIds(centComponents);
+    }
+
+    @Benchmark
+    public List<Item> itemFindAll() {
+        return daoItem.findAll();
+    }
+
+    @Benchmark
+    public List<ComponentResum> componentFindAllResum() {
+        return daoComponent.findAllResum();
+    }
+
+    @Benchmark
+    public List<ProdItem> prodItemGetItemsDelProducte() {
+        return daoProdItem.getItemsDelProducte(producte);
+    }
+
+    @Benchmark
+    public List<VistaProveidorComponent> provCompVista() {
+        return daoProvComp.getVistaProveidorsDelComponent(component);
+    }
+
+    // ==========================================
+    // PREU DEL BOM
+    // ==========================================
+
+    /**
+     * Preu d'un producte amb 19 nivells de subproductes (WITH recursiu)
+     */
+    @Benchmark
+    public double producteCalcularPreuTotal() {
+        return daoProducte.calcularPreuTotal(producte);
+    }
+
+    /**
+     * Càrrega del graf sencer i preu de tot el catàleg
+     */
+    @Benchmark
+    public Map<String, Double> bomCarregarIPriceAll() throws SQLException {
+        return BomGraph.carregar().priceAll();
+    }
+
+    // ==========================================
+    // ESCRIPTURES
+    // ==========================================
+
+    /**
+     * Insereix i esborra la mateixa línia de BOM (dues transaccions)
+     */
+    @Benchmark
+    public boolean prodItemInsertarIEliminar() {
+        String itCodi = BaseDadesBenchmark.component(1000);
+        return daoProdItem.insertar(new ProdItem(producte, itCodi, 1))
+                & daoProdItem.eliminar(producte, itCodi);
+    }
+}
@@ -0,0 +1,148 @@
+package benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.Component;
+import util.ConnexioOracle;
+import util.MapejadorColumnes;
+
+/**
+ * Cost per fila de mapejar un Component: per nom de columna (abans) o per posició (ara)
+ *
+ * El ResultSet és d'H2 en memòria i està posicionat en una fila:
+ * cada iteració mapeja la mateixa fila, així només es mesura el mapejador
+ * (no next() ni la xarxa). El driver d'Oracle també busca el nom
+ * a cada getXxx(nom), per tant la diferència és del mateix ordre.
+ *
+ * origen:
+ * - DRIVER: ResultSet del driver directament (només el mapejador)
+ * - POOL: ResultSet que reben els DAOs (ConnexioOracle/PoolConnexions, amb el
+ *   comptatge de files i el registre de consultes lentes de db.properties):
+ *   la diferència amb DRIVER és el cost de l'embolcall per cada getXxx
+ *
+ * Execució:
+ *   java -jar target/benchmarks.jar BenchmarkMapejadors
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {
+        "-Ddb.url=" + BenchmarkMapejadors.URL,
+        "-Ddb.user=sa",
+        "-Ddb.password=",
+        "-Ddb.driver=org.h2.Driver"
+})
+@State(Scope.Thread)
+public class BenchmarkMapejadors {
+
+    static final String URL = "jdbc:h2:mem:benchmark;MODE=Oracle;DB_CLOSE_DELAY=-1";
+
+    private static final String SQL =
+            "SELECT i.it_codi, i.it_tipus, i.it_nom, i.it_desc, i.it_stock, i.it_foto, " +
+            "       c.cm_um_codi, c.cm_codi_fabricant, c.cm_preu_mig " +
+            "FROM Item i JOIN Component c ON i.it_codi = c.cm_codi";
+
+    // Mateix mapejador que DAOComponent
+    private static final MapejadorColumnes<Component> PER_POSICIO = new MapejadorColumnes<>(
+            (rs, c) -> {
+                Component comp = new Component();
+                String codi = rs.getString(c[0]);
+                comp.setItCodi(codi);
+                comp.setItTipus(rs.getString(c[1]));
+                comp.setItNom(rs.getString(c[2]));
+                comp.setItDesc(rs.getString(c[3]));
+                comp.setItStock(rs.getInt(c[4]));
+                comp.setItFoto(rs.getString(c[5]));
+                comp.setCmCodi(codi);
+                comp.setCmUmCodi(rs.getString(c[6]));
+                comp.setCmCodiFabricant(rs.getString(c[7]));
+                comp.setCmPreuMig(rs.getDouble(c[8]));
+                return comp;
+            },
+            "it_codi", "it_tipus", "it_nom", "it_desc", "it_stock", "it_foto",
+            "cm_um_codi", "cm_codi_fabricant", "cm_preu_mig");
+
+    @Param({ "DRIVER", "POOL" })
+    public String origen;
+
+    private Connection conn;
+    private PreparedStatement stmt;
+    private ResultSet rs;
+
+    @Setup(Level.Trial)
+    public void preparar() throws SQLException {
+        conn = "POOL".equals(origen)
+                ? ConnexioOracle.getConnection()
+                : DriverManager.getConnection(URL, "sa", "");
+        try (Statement ddl = conn.createStatement()) {
+            ddl.execute("CREATE TABLE IF NOT EXISTS Item (it_codi VARCHAR2(10) PRIMARY KEY, it_tipus CHAR(1), "
+                    + "it_nom VARCHAR2(100), it_desc VARCHAR2(4000), it_stock NUMBER(10), it_foto VARCHAR2(200))");
+            ddl.execute("CREATE TABLE IF NOT EXISTS Component (cm_codi VARCHAR2(10) PRIMARY KEY, "
+                    + "cm_um_codi VARCHAR2(10), cm_codi_fabricant VARCHAR2(50), cm_preu_mig NUMBER(12, 2))");
+            ddl.execute("MERGE INTO Item KEY (it_codi) VALUES ('C0001', 'C', 'Resistència 10k', "
+                    + "'Resistència de carbó 1/4 W', 250, 'c0001.png')");
+            ddl.execute("MERGE INTO Component KEY (cm_codi) VALUES ('C0001', 'UN', 'FAB-0001', 0.12)");
+        }
+        stmt = conn.prepareStatement(SQL);
+        rs = stmt.executeQuery();
+        rs.next();
+    }
+
+    @TearDown(Level.Trial)
+    public void tancar() throws SQLException {
+        rs.close();
+        stmt.close();
+        conn.close();
+    }
+
+    /**
+     * Mapejador anterior de DAOComponent: getXxx(nom) a cada columna
+     */
+    @Benchmark
+    public Component perNom() throws SQLException {
+        Component comp = new Component();
+        comp.setItCodi(rs.getString("it_codi"));
+        comp.setItTipus(rs.getString("it_tipus"));
+        comp.setItNom(rs.getString("it_nom"));
+        comp.setItDesc(rs.getString("it_desc"));
+        comp.setItStock(rs.getInt("it_stock"));
+        comp.setItFoto(rs.getString("it_foto"));
+        comp.setCmCodi(rs.getString("it_codi"));
+        comp.setCmUmCodi(rs.getString("cm_um_codi"));
+        comp.setCmCodiFabricant(rs.getString("cm_codi_fabricant"));
+        comp.setCmPreuMig(rs.getDouble("cm_preu_mig"));
+        return comp;
+    }
+
+    /**
+     * MapejadorColumnes: posicions resoltes un cop per ResultSet
+     */
+    @Benchmark
+    public Component perPosicio() throws SQLException {
+        return PER_POSICIO.mapejar(rs);
+    }
+}
@@ -0,0 +1,157 @@
+package benchmark;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import dao.DAOComponent;
+import dao.DAOItem;
+import dao.DAOProdItem;
+import dao.DAOProvComp;
+import model.Component;
+import model.Item;
+import model.ProdItem;
+import model.ProvComp;
+
+/**
+ * Cost de validarEntitat dels DAOs: camí vàlid i camins d'error
+ *
+ * Els camins d'error escriuen a System.err; durant el benchmark es redirigeix
+ * a un stream buit per mesurar la construcció del missatge i no la consola.
+ * No cal BD: validarEntitat no fa cap consulta.
+ *
+ * Execució:
+ *   java -jar target/benchmarks.jar BenchmarkValidacio
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BenchmarkValidacio {
+
+    // ==========================================
+    // ACCÉS A validarEntitat (protected)
+    // ==========================================
+
+    static final class ValidadorItem extends DAOItem {
+        boolean validar(Item item) {
+            return validarEntitat(item);
+        }
+    }
+
+    static final class ValidadorComponent extends DAOComponent {
+        boolean validar(Component c) {
+            return validarEntitat(c);
+        }
+    }
+
+    static final class ValidadorProdItem extends DAOProdItem {
+        boolean validar(ProdItem pi) {
+            return validarEntitat(pi);
+        }
+    }
+
+    static final class ValidadorProvComp extends DAOProvComp {
+        boolean validar(ProvComp pc) {
+            return validarEntitat(pc);
+        }
+    }
+
+    private final ValidadorItem validadorItem = new ValidadorItem();
+    private final ValidadorComponent validadorComponent = new ValidadorComponent();
+    private final ValidadorProdItem validadorProdItem = new ValidadorProdItem();
+    private final ValidadorProvComp validadorProvComp = new ValidadorProvComp();
+
+    private final Item itemValid = new Item("P0001", "P", "Placa base", null, 5, null);
+    private final Item itemTipusIncorrecte = new Item("P0001", "X", "Placa base", null, 5, null);
+    private final Component componentValid = new Component("C0001", "UN", "FAB-0001", 0.12);
+    private final Component componentSenseFabricant = new Component("C0001", "UN", "  ", 0.12);
+    private final ProdItem prodItemValid = new ProdItem("P0001", "C0001", 4);
+    private final ProdItem prodItemAutoreferencia = new ProdItem("P0001", "P0001", 1);
+    private final ProvComp provCompValid = new ProvComp("C0001", "V01", 0.10);
+    private final ProvComp provCompPreuNegatiu = new ProvComp("C0001", "V01", -1.0);
+
+    private PrintStream errOriginal;
+
+    @Setup(Level.Trial)
+    public void silenciarErrors() {
+        errOriginal = System.err;
+        System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void restaurarErrors() {
+        System.setErr(errOriginal);
+    }
+
+    // ==========================================
+    // CAMINS VÀLIDS (totes les comprovacions)
+    // ==========================================
+
+    @Benchmark
+    public boolean itemValid() {
+        return validadorItem.validar(itemValid);
+    }
+
+    @Benchmark
+    public boolean componentValid() {
+        return validadorComponent.validar(componentValid);
+    }
+
+    @Benchmark
+    public boolean prodItemValid() {
+        return validadorProdItem.validar(prodItemValid);
+    }
+
+    @Benchmark
+    public boolean provCompValid() {
+        return validadorProvComp.validar(provCompValid);
+    }
+
+    // ==========================================
+    // CAMINS D'ERROR (missatge a System.err)
+    // ==========================================
+
+    @Benchmark
+    public boolean itemNull() {
+        return validadorItem.validar(null);
+    }
+
+    @Benchmark
+    public boolean itemTipusIncorrecte() {
+        return validadorItem.validar(itemTipusIncorrecte);
+    }
+
+    @Benchmark
+    public boolean componentSenseFabricant() {
+        return validadorComponent.validar(componentSenseFabricant);
+    }
+
+    @Benchmark
+    public boolean prodItemAutoreferencia() {
+        return validadorProdItem.validar(prodItemAutoreferencia);
+    }
+
+    @Benchmark
+    public boolean provCompPreuNegatiu() {
+        return validadorProvComp.validar(provCompPreuNegatiu);
+    }
+}
@@ -0,0 +1,54 @@
+package benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Punt d'entrada de benchmarks.jar: org.openjdk.jmh.Main amb resultats en JSON
+ *
+ * Si no s'indica -rf/-rff, els resultats es guarden a
+ * resultats/jmh-AAAAMMDD-HHMMSS.json (un fitxer per execució) per poder-los
+ * comparar entre execucions, p.ex. amb https://jmh.morethan.io
+ *
+ * Ús:
+ *   java -jar target/benchmarks.jar                     (tots)
+ *   java -jar target/benchmarks.jar BenchmarkBom -p forma=DIAMANT
+ *   java -jar target/benchmarks.jar -rff base.json      (fitxer concret)
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public final class Executar {
+
+    private static final Path DIRECTORI_RESULTATS = Path.of("resultats");
+
+    private Executar() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> opcions = new ArrayList<>(Arrays.asList(args));
+
+        if (!opcions.contains("-rf")) {
+            opcions.add("-rf");
+            opcions.add("json");
+        }
+        if (!opcions.contains("-rff")) {
+            opcions.add("-rff");
+            opcions.add(fitxerResultats().toString());
+        }
+
+        org.openjdk.jmh.Main.main(opcions.toArray(String[]::new));
+    }
+
+    private static Path fitxerResultats() throws IOException {
+        Files.createDirectories(DIRECTORI_RESULTATS);
+        String marca = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        return DIRECTORI_RESULTATS.resolve("jmh-" + marca + ".json");
+    }
+}
@@ -4,11 +4,17 @@ import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import dao.IDAOComponent;
 import model.Component;
+import model.ComponentResum;
+import model.Pagina;
 import util.ConnexioOracle;
+import util.Registre;
 
 /**
  * Classe abstracta base per a DAOComponent
@@ -19,6 +25,8 @@ import util.ConnexioOracle;
  */
 public abstract class AbstractDAOComponent implements IDAOComponent {
 
+    protected static final Registre LOG = Registre.per("DAOComponent");
+
     public AbstractDAOComponent() {
     }
 
@@ -40,7 +48,7 @@ public abstract class AbstractDAOComponent implements IDAOComponent {
             try {
                 conn.close();
             } catch (SQLException e) {
-                System.err.println("⚠️  Error tancant connexió: " + e.getMessage());
+                LOG.warn(() -> "⚠️  Error tancant connexió: " + e.getMessage());
             }
         }
     }
@@ -54,7 +62,7 @@ public abstract class AbstractDAOComponent implements IDAOComponent {
             try {
                 stmt.close();
             } catch (SQLException e) {
-                System.err.println("⚠️  Error tancant statement: " + e.getMessage());
+                LOG.warn(() -> "⚠️  Error tancant statement: " + e.getMessage());
             }
         }
     }
@@ -68,7 +76,7 @@ public abstract class AbstractDAOComponent implements IDAOComponent {
             try {
                 rs.close();
             } catch (SQLException e) {
-                System.err.println("⚠️  Error tancant resultset: " + e.getMessage());
+                LOG.warn(() -> "⚠️  Error tancant resultset: " + e.getMessage());
             }
         }
     }
@@ -78,11 +86,10 @@ public abstract class AbstractDAOComponent implements IDAOComponent {
      * @param e Excepció SQL a registrar
      */
     protected void logError(SQLException e) {
-        System.err.println("❌ Error SQL en DAOComponent:");
-        System.err.println("   Missatge: " + e.getMessage());
-        System.err.println("   Codi error: " + e.getErrorCode());
-        System.err.println("   SQL State: " + e.getSQLState());
-        e.printStackTrace();
+        LOG.error(() -> "❌ Error SQL en DAOComponent:\n" +
+                "   Missatge: " + e.getMessage() + "\n" +
+                "   Codi error: " + e.getErrorCode() + "\n" +
+                "   SQL State: " + e.getSQLState(), e);
     }
 
     /**
@@ -92,19 +99,19 @@ public abstract class AbstractDAOComponent implements IDAOComponent {
      */
     protected boolean validarEntitat(Component c) {
         if (c == null) {
-            System.err.println("❌ Component no pot ser null");
+            LOG.error("❌ Component no pot ser null");
             return false;
         }
         if (c.getCmCodi() == null || c.getCmCodi().trim().isEmpty()) {
-            System.err.println("❌ Codi component obligatori");
+            LOG.error("❌ Codi component obligatori");
             return false;
         }
         if (c.getCmUmCodi() == null || c.getCmUmCodi().trim().isEmpty()) {
-            System.err.println("❌ Unitat mesura obligatòria");
+            LOG.error("❌ Unitat mesura obligatòria");
             return false;
         }
         if (c.getCmCodiFabricant() == null || c.getCmCodiFabricant().trim().isEmpty()) {
-            System.err.println("❌ Codi fabricant obligatori");
+            LOG.error("❌ Codi fabricant obligatori");
             return false;
         }
         return true;
@@ -138,9 +145,24 @@ public abstract class AbstractDAOComponent implements IDAOComponent {
     @Override
     public abstract Component findById(String codi);
 
+    @Override
+    public abstract Map<String, Component> findByIds(Collection<String> codis);
+
+    @Override
+    public abstract Pagina<Component> findPageAfter(String cursor, int size);
+
+    @Override
+    public abstract List<ComponentResum> findAllResum();
+
+    @Override
+    public abstract Pagina<ComponentResum> findPageResumAfter(String cursor, int size);
+
     @Override
     public abstract Component getComponentAmbPreuActualitzat(String cmCodi);
 
+    @Override
+    public abstract Stream<Component> streamAll();
+
     @Override
     public abstract boolean insertar(Component c);
 }
\ No newline at end of file
@@ -6,8 +6,12 @@ import java.sql.SQLException;
 import java.sql.Statement;
 
 import dao.IDAOItem;
+import model.Component;
 import model.Item;
+import model.Producte;
 import util.ConnexioOracle;
+import util.MapejadorColumnes;
+import util.Registre;
 
 /**
  * Classe abstracta base per a DAOItem
@@ -18,6 +22,8 @@ import util.ConnexioOracle;
  */
 public abstract class AbstractDAOItem implements IDAOItem {
 
+    protected static final Registre LOG = Registre.per("DAOItem");
+
     public AbstractDAOItem() {
     }
 
@@ -39,7 +45,7 @@ public abstract class AbstractDAOItem implements IDAOItem {
             try {
                 conn.close();
             } catch (SQLException e) {
-                System.err.println("⚠️  Error tancant connexió: " + e.getMessage());
+                LOG.warn(() -> "⚠️  Error tancant connexió: " + e.getMessage());
             }
         }
     }
@@ -53,7 +59,7 @@ public abstract class AbstractDAOItem implements IDAOItem {
             try {
                 stmt.close();
             } catch (SQLException e) {
-                System.err.println("⚠️  Error tancant statement: " + e.getMessage());
+                LOG.warn(() -> "⚠️  Error tancant statement: " + e.getMessage());
             }
         }
     }
@@ -67,7 +73,7 @@ public abstract class AbstractDAOItem implements IDAOItem {
             try {
                 rs.close();
             } catch (SQLException e) {
-                System.err.println("⚠️  Error tancant resultset: " + e.getMessage());
+                LOG.warn(() -> "⚠️  Error tancant resultset: " + e.getMessage());
             }
         }
     }
@@ -77,11 +83,10 @@ public abstract class AbstractDAOItem implements IDAOItem {
      * @param e Excepció SQL a registrar
      */
     protected void logError(SQLException e) {
-        System.err.println("❌ Error SQL en DAOItem:");
-        System.err.println("   Missatge: " + e.getMessage());
-        System.err.println("   Codi error: " + e.getErrorCode());
-        System.err.println("   SQL State: " + e.getSQLState());
-        e.printStackTrace();
+        LOG.error(() -> "❌ Error SQL en DAOItem:\n" +
+                "   Missatge: " + e.getMessage() + "\n" +
+                "   Codi error: " + e.getErrorCode() + "\n" +
+                "   SQL State: " + e.getSQLState(), e);
     }
 
     /**
@@ -91,42 +96,76 @@ public abstract class AbstractDAOItem implements IDAOItem {
      */
     protected boolean validarEntitat(Item item) {
         if (item == null) {
-            System.err.println("❌ Item no pot ser null");
+            LOG.error("❌ Item no pot ser null");
             return false;
         }
         if (item.getItCodi() == null || item.getItCodi().trim().isEmpty()) {
-            System.err.println("❌ Item: Codi no pot ser buit");
+            LOG.error("❌ Item: Codi no pot ser buit");
             return false;
         }
         if (item.getItTipus() == null || item.getItTipus().trim().isEmpty()) {
-            System.err.println("❌ Item: Tipus no pot ser buit");
+            LOG.error("❌ Item: Tipus no pot ser buit");
             return false;
         }
         if (!item.getItTipus().equals("C") && !item.getItTipus().equals("P")) {
-            System.err.println("❌ Item: Tipus ha de ser 'C' (Component) o 'P' (Producte)");
+            LOG.error("❌ Item: Tipus ha de ser 'C' (Component) o 'P' (Producte)");
             return false;
         }
         if (item.getItNom() == null || item.getItNom().trim().isEmpty()) {
-            System.err.println("❌ Item: Nom no pot ser buit");
+            LOG.error("❌ Item: Nom no pot ser buit");
             return false;
         }
         return true;
     }
 
     /**
-     * Mapeja un ResultSet a un objecte Item
+     * Mapeja un ResultSet a un objecte Item de la subclasse que toca
+     * 
+     * El ResultSet ha de portar les columnes del LEFT JOIN amb Component i Producte
+     * (cm_codi, cm_um_codi, cm_codi_fabricant, cm_preu_mig, pr_codi):
+     * - it_tipus 'C' amb fila a Component → model.Component
+     * - it_tipus 'P' amb fila a Producte → model.Producte
+     * - altrament → Item
+     * 
      * @param rs ResultSet amb les dades
-     * @return Item amb les dades del ResultSet
+     * @return Item, Component o Producte amb les dades del ResultSet
      * @throws SQLException si hi ha error llegint el ResultSet
      */
     protected Item mapResultSetToItem(ResultSet rs) throws SQLException {
-        Item item = new Item();
-        item.setItCodi(rs.getString("it_codi"));
-        item.setItTipus(rs.getString("it_tipus"));
-        item.setItNom(rs.getString("it_nom"));
-        item.setItDesc(rs.getString("it_desc"));
-        item.setItStock(rs.getInt("it_stock"));
-        item.setItFoto(rs.getString("it_foto"));
+        return MAPEJADOR_ITEM.mapejar(rs);
+    }
+
+    private static final MapejadorColumnes<Item> MAPEJADOR_ITEM = new MapejadorColumnes<>(
+            AbstractDAOItem::llegirItem,
+            "it_codi", "it_tipus", "it_nom", "it_desc", "it_stock", "it_foto",
+            "cm_codi", "cm_um_codi", "cm_codi_fabricant", "cm_preu_mig", "pr_codi");
+
+    private static Item llegirItem(ResultSet rs, int[] c) throws SQLException {
+        String tipus = rs.getString(c[1]);
+        Item item;
+        String cmCodi;
+        String prCodi;
+        if ("C".equals(tipus) && (cmCodi = rs.getString(c[6])) != null) {
+            Component comp = new Component();
+            comp.setCmCodi(cmCodi);
+            comp.setCmUmCodi(rs.getString(c[7]));
+            comp.setCmCodiFabricant(rs.getString(c[8]));
+            comp.setCmPreuMig(rs.getDouble(c[9]));
+            item = comp;
+        } else if ("P".equals(tipus) && (prCodi = rs.getString(c[10])) != null) {
+            Producte producte = new Producte();
+            producte.setPrCodi(prCodi);
+            item = producte;
+        } else {
+            item = new Item();
+        }
+
+        item.setItCodi(rs.getString(c[0]));
+        item.setItTipus(tipus);
+        item.setItNom(rs.getString(c[2]));
+        item.setItDesc(rs.getString(c[3]));
+        item.setItStock(rs.getInt(c[4]));
+        item.setItFoto(rs.getString(c[5]));
         return item;
     }
 }
\ No newline at end of file
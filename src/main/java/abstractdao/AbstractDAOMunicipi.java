@@ -8,6 +8,7 @@ import java.sql.Statement;
 import dao.IDAOMunicipi;
 import model.Municipi;
 import util.ConnexioOracle;
+import util.Registre;
 
 /**
  * Classe abstracta base per DAOMunicipi
@@ -18,6 +19,8 @@ import util.ConnexioOracle;
  */
 public abstract class AbstractDAOMunicipi implements IDAOMunicipi {
 
+    protected static final Registre LOG = Registre.per("DAOMunicipi");
+
     public AbstractDAOMunicipi() {
     }
 
@@ -30,7 +33,7 @@ public abstract class AbstractDAOMunicipi implements IDAOMunicipi {
             try {
                 conn.close();
             } catch (SQLException e) {
-                System.err.println("⚠️  Error tancant connexió: " + e.getMessage());
+                LOG.warn(() -> "⚠️  Error tancant connexió: " + e.getMessage());
             }
         }
     }
@@ -40,7 +43,7 @@ public abstract class AbstractDAOMunicipi implements IDAOMunicipi {
             try {
                 stmt.close();
             } catch (SQLException e) {
-                System.err.println("⚠️  Error tancant statement: " + e.getMessage());
+                LOG.warn(() -> "⚠️  Error tancant statement: " + e.getMessage());
             }
         }
     }
@@ -50,34 +53,33 @@ public abstract class AbstractDAOMunicipi implements IDAOMunicipi {
             try {
                 rs.close();
             } catch (SQLException e) {
-                System.err.println("⚠️  Error tancant resultset: " + e.getMessage());
+                LOG.warn(() -> "⚠️  Error tancant resultset: " + e.getMessage());
             }
         }
     }
 
     protected void logError(SQLException e) {
-        System.err.println("❌ Error SQL en DAOMunicipi:");
-        System.err.println("   Missatge: " + e.getMessage());
-        System.err.println("   Codi error: " + e.getErrorCode());
-        System.err.println("   SQL State: " + e.getSQLState());
-        e.printStackTrace();
+        LOG.error(() -> "❌ Error SQL en DAOMunicipi:\n" +
+                "   Missatge: " + e.getMessage() + "\n" +
+                "   Codi error: " + e.getErrorCode() + "\n" +
+                "   SQL State: " + e.getSQLState(), e);
     }
 
     protected boolean validarEntitat(Municipi m) {
         if (m == null) {
-            System.err.println("❌ Municipi no pot ser null");
+            LOG.error("❌ Municipi no pot ser null");
             return false;
         }
         if (m.getMuPrCodi() == null || m.getMuPrCodi().trim().isEmpty()) {
-            System.err.println("❌ Codi província del municipi obligatori");
+            LOG.error("❌ Codi província del municipi obligatori");
             return false;
         }
         if (m.getMuNum() == null || m.getMuNum().trim().isEmpty()) {
-            System.err.println("❌ Número municipi obligatori");
+            LOG.error("❌ Número municipi obligatori");
             return false;
         }
         if (m.getMuNom() == null || m.getMuNom().trim().isEmpty()) {
-            System.err.println("❌ Nom municipi obligatori");
+            LOG.error("❌ Nom municipi obligatori");
             return false;
         }
         return true;
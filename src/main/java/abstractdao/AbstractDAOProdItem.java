@@ -4,9 +4,14 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.function.Supplier;
 
+import bom.CachePreusProductes;
 import dao.IDAOProdItem;
 import model.ProdItem;
+import util.MapejadorColumnes;
+import util.Registre;
+import util.Transaccions;
 
 /**
  * Classe abstracta que implementa mètodes comuns per a DAOProdItem
@@ -17,6 +22,13 @@ import model.ProdItem;
  */
 public abstract class AbstractDAOProdItem implements IDAOProdItem {
 
+    protected static final Registre LOG = Registre.per("DAOProdItem");
+
+    /**
+     * Files per executeBatch a insertarBatch si no s'indica mida de lot
+     */
+    protected static final int MIDA_LOT_PER_DEFECTE = 500;
+
     /**
      * Constructor buit
      */
@@ -149,12 +161,23 @@ public abstract class AbstractDAOProdItem implements IDAOProdItem {
         }
     }
 
+    /**
+     * Marca com a obsoleta la cache de preus de productes (canvi d'estructura del BOM)
+     * Dins una unitat de treball, es fa després del commit.
+     */
+    protected void invalidarCachePreus() {
+        CachePreusProductes cache = CachePreusProductes.activa();
+        if (cache != null) {
+            Transaccions.despresDelCommit(cache::invalidar);
+        }
+    }
+
     /**
      * Registra un error al sistema de logging
      * @param missatge Missatge d'error a registrar
      */
     protected void logError(String missatge) {
-        System.err.println("[ERROR - DAOProdItem] " + missatge);
+        LOG.error(missatge);
     }
 
     /**
@@ -162,7 +185,16 @@ public abstract class AbstractDAOProdItem implements IDAOProdItem {
      * @param missatge Missatge informatiu a registrar
      */
     protected void logInfo(String missatge) {
-        System.out.println("[INFO - DAOProdItem] " + missatge);
+        LOG.info(missatge);
+    }
+
+    /**
+     * Registra informació només si el nivell INFO està actiu
+     * (el missatge no es construeix si no s'ha d'escriure)
+     * @param missatge Constructor del missatge
+     */
+    protected void logInfo(Supplier<String> missatge) {
+        LOG.info(missatge);
     }
 
     /**
@@ -176,13 +208,19 @@ public abstract class AbstractDAOProdItem implements IDAOProdItem {
      * @throws SQLException Si hi ha error accedint a les dades
      */
     protected ProdItem mapResultSetToProdItem(ResultSet rs) throws SQLException {
-        ProdItem prodItem = new ProdItem();
-        
-        prodItem.setPiPrCodi(rs.getString("pi_pr_codi"));
-        prodItem.setPiItCodi(rs.getString("pi_it_codi"));
-        prodItem.setQuantitat(rs.getInt("quantitat"));
-        
-        return prodItem;
+        return MAPEJADOR_PROD_ITEM.mapejar(rs);
     }
 
+    private static final MapejadorColumnes<ProdItem> MAPEJADOR_PROD_ITEM = new MapejadorColumnes<>(
+            (rs, c) -> {
+                ProdItem prodItem = new ProdItem();
+                
+                prodItem.setPiPrCodi(rs.getString(c[0]));
+                prodItem.setPiItCodi(rs.getString(c[1]));
+                prodItem.setQuantitat(rs.getInt(c[2]));
+                
+                return prodItem;
+            },
+            "pi_pr_codi", "pi_it_codi", "quantitat");
+
 }
\ No newline at end of file
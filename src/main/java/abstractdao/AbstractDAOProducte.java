@@ -4,9 +4,12 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.function.Supplier;
 
 import dao.IDAOProducte;
 import model.Producte;
+import util.MapejadorColumnes;
+import util.Registre;
 
 /**
  * Classe abstracta que implementa mètodes comuns per a DAOProducte
@@ -17,6 +20,8 @@ import model.Producte;
  */
 public abstract class AbstractDAOProducte implements IDAOProducte {
 
+    protected static final Registre LOG = Registre.per("DAOProducte");
+
     /**
      * Constructor buit
      */
@@ -119,7 +124,7 @@ public abstract class AbstractDAOProducte implements IDAOProducte {
      * @param missatge Missatge d'error a registrar
      */
     protected void logError(String missatge) {
-        System.err.println("[ERROR - DAOProducte] " + missatge);
+        LOG.error(missatge);
     }
 
     /**
@@ -127,7 +132,16 @@ public abstract class AbstractDAOProducte implements IDAOProducte {
      * @param missatge Missatge informatiu a registrar
      */
     protected void logInfo(String missatge) {
-        System.out.println("[INFO - DAOProducte] " + missatge);
+        LOG.info(missatge);
+    }
+
+    /**
+     * Registra informació només si el nivell INFO està actiu
+     * (el missatge no es construeix si no s'ha d'escriure)
+     * @param missatge Constructor del missatge
+     */
+    protected void logInfo(Supplier<String> missatge) {
+        LOG.info(missatge);
     }
 
     /**
@@ -143,20 +157,26 @@ public abstract class AbstractDAOProducte implements IDAOProducte {
      * @throws SQLException Si hi ha error accedint a les dades
      */
     protected Producte mapResultSetToProducte(ResultSet rs) throws SQLException {
-        Producte producte = new Producte();
-        
-        // Dades d'Item (taula pare)
-        producte.setItCodi(rs.getString("it_codi"));
-        producte.setItTipus(rs.getString("it_tipus"));
-        producte.setItNom(rs.getString("it_nom"));
-        producte.setItDesc(rs.getString("it_desc"));
-        producte.setItStock(rs.getInt("it_stock"));
-        producte.setItFoto(rs.getString("it_foto"));
-        
-        // Dades de Producte (taula filla)
-        producte.setPrCodi(rs.getString("pr_codi"));
-        
-        return producte;
+        return MAPEJADOR_PRODUCTE.mapejar(rs);
     }
 
+    private static final MapejadorColumnes<Producte> MAPEJADOR_PRODUCTE = new MapejadorColumnes<>(
+            (rs, c) -> {
+                Producte producte = new Producte();
+                
+                // Dades d'Item (taula pare)
+                producte.setItCodi(rs.getString(c[0]));
+                producte.setItTipus(rs.getString(c[1]));
+                producte.setItNom(rs.getString(c[2]));
+                producte.setItDesc(rs.getString(c[3]));
+                producte.setItStock(rs.getInt(c[4]));
+                producte.setItFoto(rs.getString(c[5]));
+                
+                // Dades de Producte (taula filla)
+                producte.setPrCodi(rs.getString(c[6]));
+                
+                return producte;
+            },
+            "it_codi", "it_tipus", "it_nom", "it_desc", "it_stock", "it_foto", "pr_codi");
+
 }
@@ -4,11 +4,20 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
+import bom.CachePreusProductes;
 import dao.IDAOProvComp;
 import model.ProvComp;
+import model.ResultatImportacio;
+import model.VistaProveidorComponent;
 import util.ConnexioOracle;
+import util.MapejadorColumnes;
+import util.Registre;
+import util.Transaccions;
 
 /**
  * Classe abstracta per DAOProvComp amb mètodes utils comuns
@@ -19,6 +28,8 @@ import util.ConnexioOracle;
  */
 public abstract class AbstractDAOProvComp implements IDAOProvComp {
 
+    protected static final Registre LOG = Registre.per("DAOProvComp");
+
     // ============================================
     // MÈTODES UTILS (comuns a totes les implementacions)
     // ============================================
@@ -83,10 +94,9 @@ public abstract class AbstractDAOProvComp implements IDAOProvComp {
      * @param e Excepció a registrar
      */
     protected void logError(SQLException e) {
-        System.err.println(" ERROR SQL: " + e.getMessage());
-        System.err.println("   Codi error: " + e.getErrorCode());
-        System.err.println("   SQLState: " + e.getSQLState());
-        e.printStackTrace();
+        LOG.error(() -> " ERROR SQL: " + e.getMessage() + "\n" +
+                "   Codi error: " + e.getErrorCode() + "\n" +
+                "   SQLState: " + e.getSQLState(), e);
     }
 
     /**
@@ -96,28 +106,83 @@ public abstract class AbstractDAOProvComp implements IDAOProvComp {
      */
     protected boolean validarEntitat(ProvComp pc) {
         if (pc == null) {
-            System.err.println("ProvComp null!");
+            LOG.error("ProvComp null!");
             return false;
         }
         
         if (pc.getPcCmCodi() == null || pc.getPcCmCodi().trim().isEmpty()) {
-            System.err.println("Codi component buit!");
+            LOG.error("Codi component buit!");
             return false;
         }
         
         if (pc.getPcPvCodi() == null || pc.getPcPvCodi().trim().isEmpty()) {
-            System.err.println("Codi proveïdor buit!");
+            LOG.error("Codi proveïdor buit!");
             return false;
         }
         
         if (pc.getPcPreu() == null || pc.getPcPreu() < 0) {
-            System.err.println("Preu invàlid!");
+            LOG.error("Preu invàlid!");
             return false;
         }
         
         return true;
     }
 
+    /**
+     * Propaga el nou cm_preu_mig (recalculat pel trigger) a la cache de preus de productes
+     * Només fa la consulta si hi ha una cache activa. Dins una unitat de treball,
+     * la cache s'actualitza després del commit.
+     * @param conn Connexió on s'ha fet el canvi (veu el valor encara no confirmat)
+     * @param cmCodi Codi del component modificat
+     */
+    protected void notificarCanviPreu(Connection conn, String cmCodi) {
+        CachePreusProductes cache = CachePreusProductes.activa();
+        if (cache == null) {
+            return;
+        }
+
+        String sql = "SELECT cm_preu_mig FROM Component WHERE cm_codi = ?";
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        try {
+            ps = conn.prepareStatement(sql);
+            ps.setString(1, cmCodi);
+            rs = ps.executeQuery();
+
+            Double preuMig = null;
+            if (rs.next()) {
+                double valor = rs.getDouble(1);
+                preuMig = rs.wasNull() ? null : valor;
+            }
+
+            final Double nouPreu = preuMig;
+            Transaccions.despresDelCommit(() -> cache.actualitzarPreuComponent(cmCodi, nouPreu));
+
+        } catch (SQLException e) {
+            // Si no es pot llegir el preu, la cache es recarregarà sencera
+            cache.invalidar();
+            logError(e);
+
+        } finally {
+            tancarRecursos(rs);
+            tancarRecursos(ps);
+        }
+    }
+
+    /**
+     * Propaga preus mitjans ja llegits a la cache de preus de productes
+     * Dins una unitat de treball, la cache s'actualitza després del commit.
+     * @param preusMigs Codi de component → nou cm_preu_mig
+     */
+    protected void notificarCanviPreus(Map<String, Double> preusMigs) {
+        CachePreusProductes cache = CachePreusProductes.activa();
+        if (cache == null || preusMigs.isEmpty()) {
+            return;
+        }
+        Transaccions.despresDelCommit(() -> preusMigs.forEach(cache::actualitzarPreuComponent));
+    }
+
     /**
      * Helper per mapejar ResultSet → ProvComp
      * @param rs ResultSet amb dades
@@ -125,13 +190,19 @@ public abstract class AbstractDAOProvComp implements IDAOProvComp {
      * @throws SQLException si error en lectura
      */
     protected ProvComp mapResultSetToProvComp(ResultSet rs) throws SQLException {
-        ProvComp pc = new ProvComp();
-        pc.setPcCmCodi(rs.getString("pc_cm_codi"));
-        pc.setPcPvCodi(rs.getString("pc_pv_codi"));
-        pc.setPcPreu(rs.getDouble("pc_preu"));
-        return pc;
+        return MAPEJADOR_PROV_COMP.mapejar(rs);
     }
 
+    private static final MapejadorColumnes<ProvComp> MAPEJADOR_PROV_COMP = new MapejadorColumnes<>(
+            (rs, c) -> {
+                ProvComp pc = new ProvComp();
+                pc.setPcCmCodi(rs.getString(c[0]));
+                pc.setPcPvCodi(rs.getString(c[1]));
+                pc.setPcPreu(rs.getDouble(c[2]));
+                return pc;
+            },
+            "pc_cm_codi", "pc_pv_codi", "pc_preu");
+
     // ============================================
     // MÈTODES ABSTRACTES (per implementar a subclasses)
     // ============================================
@@ -151,9 +222,30 @@ public abstract class AbstractDAOProvComp implements IDAOProvComp {
     @Override
     public abstract List<ProvComp> findAll();
 
+    @Override
+    public abstract Stream<ProvComp> streamAll();
+
     @Override
     public abstract List<ProvComp> getProveidorsDelComponent(String cmCodi);
 
+    @Override
+    public abstract List<VistaProveidorComponent> getVistaProveidorsDelComponent(String cmCodi);
+
+    @Override
+    public abstract Map<String, List<VistaProveidorComponent>> getVistaProveidorsDeComponents(Collection<String> cmCodis);
+
     @Override
     public abstract List<ProvComp> getComponentsDelProveidor(String pvCodi);
-}
\ No newline at end of file
+
+    @Override
+    public abstract Double insertarAmbPreu(ProvComp pc);
+
+    @Override
+    public abstract Double actualitzarAmbPreu(ProvComp pc);
+
+    @Override
+    public abstract Double eliminarAmbPreu(String cmCodi, String pvCodi);
+
+    @Override
+    public abstract ResultatImportacio importarPreus(List<ProvComp> preus);
+}
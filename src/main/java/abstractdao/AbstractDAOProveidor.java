@@ -8,6 +8,7 @@ import java.sql.Statement;
 import dao.IDAOProveidor;
 import model.Proveidor;
 import util.ConnexioOracle;
+import util.Registre;
 
 /**
  * Classe abstracta base per DAOProveidor
@@ -18,6 +19,8 @@ import util.ConnexioOracle;
  */
 public abstract class AbstractDAOProveidor implements IDAOProveidor {
 
+    protected static final Registre LOG = Registre.per("DAOProveidor");
+
     public AbstractDAOProveidor() {
     }
 
@@ -30,7 +33,7 @@ public abstract class AbstractDAOProveidor implements IDAOProveidor {
             try {
                 conn.close();
             } catch (SQLException e) {
-                System.err.println("⚠️  Error tancant connexió: " + e.getMessage());
+                LOG.warn(() -> "⚠️  Error tancant connexió: " + e.getMessage());
             }
         }
     }
@@ -40,7 +43,7 @@ public abstract class AbstractDAOProveidor implements IDAOProveidor {
             try {
                 stmt.close();
             } catch (SQLException e) {
-                System.err.println("⚠️  Error tancant statement: " + e.getMessage());
+                LOG.warn(() -> "⚠️  Error tancant statement: " + e.getMessage());
             }
         }
     }
@@ -50,34 +53,33 @@ public abstract class AbstractDAOProveidor implements IDAOProveidor {
             try {
                 rs.close();
             } catch (SQLException e) {
-                System.err.println("⚠️  Error tancant resultset: " + e.getMessage());
+                LOG.warn(() -> "⚠️  Error tancant resultset: " + e.getMessage());
             }
         }
     }
 
     protected void logError(SQLException e) {
-        System.err.println("❌ Error SQL en DAOProveidor:");
-        System.err.println("   Missatge: " + e.getMessage());
-        System.err.println("   Codi error: " + e.getErrorCode());
-        System.err.println("   SQL State: " + e.getSQLState());
-        e.printStackTrace();
+        LOG.error(() -> "❌ Error SQL en DAOProveidor:\n" +
+                "   Missatge: " + e.getMessage() + "\n" +
+                "   Codi error: " + e.getErrorCode() + "\n" +
+                "   SQL State: " + e.getSQLState(), e);
     }
 
     protected boolean validarEntitat(Proveidor p) {
         if (p == null) {
-            System.err.println("❌ Proveidor no pot ser null");
+            LOG.error("❌ Proveidor no pot ser null");
             return false;
         }
         if (p.getPvCodi() == null || p.getPvCodi().trim().isEmpty()) {
-            System.err.println("❌ Codi proveïdor obligatori");
+            LOG.error("❌ Codi proveïdor obligatori");
             return false;
         }
         if (p.getPvCif() == null || p.getPvCif().trim().isEmpty()) {
-            System.err.println("❌ CIF proveïdor obligatori");
+            LOG.error("❌ CIF proveïdor obligatori");
             return false;
         }
         if (p.getPvRaoSocial() == null || p.getPvRaoSocial().trim().isEmpty()) {
-            System.err.println("❌ Raó social proveïdor obligatòria");
+            LOG.error("❌ Raó social proveïdor obligatòria");
             return false;
         }
         return true;
@@ -8,6 +8,7 @@ import java.sql.Statement;
 import dao.IDAOProvincia;
 import model.Provincia;
 import util.ConnexioOracle;
+import util.Registre;
 
 /**
  * Classe abstracta base per DAOProvincia
@@ -18,6 +19,8 @@ import util.ConnexioOracle;
  */
 public abstract class AbstractDAOProvincia implements IDAOProvincia {
 
+    protected static final Registre LOG = Registre.per("DAOProvincia");
+
     public AbstractDAOProvincia() {
     }
 
@@ -30,7 +33,7 @@ public abstract class AbstractDAOProvincia implements IDAOProvincia {
             try {
                 conn.close();
             } catch (SQLException e) {
-                System.err.println("⚠️  Error tancant connexió: " + e.getMessage());
+                LOG.warn(() -> "⚠️  Error tancant connexió: " + e.getMessage());
             }
         }
     }
@@ -40,7 +43,7 @@ public abstract class AbstractDAOProvincia implements IDAOProvincia {
             try {
                 stmt.close();
             } catch (SQLException e) {
-                System.err.println("⚠️  Error tancant statement: " + e.getMessage());
+                LOG.warn(() -> "⚠️  Error tancant statement: " + e.getMessage());
             }
         }
     }
@@ -50,30 +53,29 @@ public abstract class AbstractDAOProvincia implements IDAOProvincia {
             try {
                 rs.close();
             } catch (SQLException e) {
-                System.err.println("⚠️  Error tancant resultset: " + e.getMessage());
+                LOG.warn(() -> "⚠️  Error tancant resultset: " + e.getMessage());
             }
         }
     }
 
     protected void logError(SQLException e) {
-        System.err.println("❌ Error SQL en DAOProvincia:");
-        System.err.println("   Missatge: " + e.getMessage());
-        System.err.println("   Codi error: " + e.getErrorCode());
-        System.err.println("   SQL State: " + e.getSQLState());
-        e.printStackTrace();
+        LOG.error(() -> "❌ Error SQL en DAOProvincia:\n" +
+                "   Missatge: " + e.getMessage() + "\n" +
+                "   Codi error: " + e.getErrorCode() + "\n" +
+                "   SQL State: " + e.getSQLState(), e);
     }
 
     protected boolean validarEntitat(Provincia p) {
         if (p == null) {
-            System.err.println("❌ Provincia no pot ser null");
+            LOG.error("❌ Provincia no pot ser null");
             return false;
         }
         if (p.getPrCodi() == null || p.getPrCodi().trim().isEmpty()) {
-            System.err.println("❌ Codi província obligatori");
+            LOG.error("❌ Codi província obligatori");
             return false;
         }
         if (p.getPrNom() == null || p.getPrNom().trim().isEmpty()) {
-            System.err.println("❌ Nom província obligatori");
+            LOG.error("❌ Nom província obligatori");
             return false;
         }
         return true;
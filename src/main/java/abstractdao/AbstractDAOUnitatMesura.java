@@ -8,6 +8,7 @@ import java.sql.Statement;
 import dao.IDAOUnitatMesura;
 import model.UnitatMesura;
 import util.ConnexioOracle;
+import util.Registre;
 
 /**
  * Classe abstracta base per DAOUnitatMesura
@@ -18,6 +19,8 @@ import util.ConnexioOracle;
  */
 public abstract class AbstractDAOUnitatMesura implements IDAOUnitatMesura {
 
+    protected static final Registre LOG = Registre.per("DAOUnitatMesura");
+
     public AbstractDAOUnitatMesura() {
     }
 
@@ -39,7 +42,7 @@ public abstract class AbstractDAOUnitatMesura implements IDAOUnitatMesura {
             try {
                 conn.close();
             } catch (SQLException e) {
-                System.err.println("⚠️  Error tancant connexió: " + e.getMessage());
+                LOG.warn(() -> "⚠️  Error tancant connexió: " + e.getMessage());
             }
         }
     }
@@ -53,7 +56,7 @@ public abstract class AbstractDAOUnitatMesura implements IDAOUnitatMesura {
             try {
                 stmt.close();
             } catch (SQLException e) {
-                System.err.println("⚠️  Error tancant statement: " + e.getMessage());
+                LOG.warn(() -> "⚠️  Error tancant statement: " + e.getMessage());
             }
         }
     }
@@ -67,7 +70,7 @@ public abstract class AbstractDAOUnitatMesura implements IDAOUnitatMesura {
             try {
                 rs.close();
             } catch (SQLException e) {
-                System.err.println("⚠️  Error tancant resultset: " + e.getMessage());
+                LOG.warn(() -> "⚠️  Error tancant resultset: " + e.getMessage());
             }
         }
     }
@@ -77,11 +80,10 @@ public abstract class AbstractDAOUnitatMesura implements IDAOUnitatMesura {
      * @param e Excepció SQL a registrar
      */
     protected void logError(SQLException e) {
-        System.err.println("❌ Error SQL en DAOUnitatMesura:");
-        System.err.println("   Missatge: " + e.getMessage());
-        System.err.println("   Codi error: " + e.getErrorCode());
-        System.err.println("   SQL State: " + e.getSQLState());
-        e.printStackTrace();
+        LOG.error(() -> "❌ Error SQL en DAOUnitatMesura:\n" +
+                "   Missatge: " + e.getMessage() + "\n" +
+                "   Codi error: " + e.getErrorCode() + "\n" +
+                "   SQL State: " + e.getSQLState(), e);
     }
 
     /**
@@ -91,15 +93,15 @@ public abstract class AbstractDAOUnitatMesura implements IDAOUnitatMesura {
      */
     protected boolean validarEntitat(UnitatMesura um) {
         if (um == null) {
-            System.err.println("❌ UnitatMesura no pot ser null");
+            LOG.error("❌ UnitatMesura no pot ser null");
             return false;
         }
         if (um.getUmCodi() == null || um.getUmCodi().trim().isEmpty()) {
-            System.err.println("❌ Codi unitat mesura obligatori");
+            LOG.error("❌ Codi unitat mesura obligatori");
             return false;
         }
         if (um.getUmNom() == null || um.getUmNom().trim().isEmpty()) {
-            System.err.println("❌ Nom unitat mesura obligatori");
+            LOG.error("❌ Nom unitat mesura obligatori");
             return false;
         }
         return true;
@@ -0,0 +1,437 @@
+package bom;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import model.ProdItem;
+import util.ConnexioOracle;
+import util.Registre;
+
+/**
+ * Graf del BOM (Bill of Materials) en memòria per calcular preus de tot el catàleg
+ *
+ * Es carrega un sol cop (Item + Component.cm_preu_mig + Prod_Item) i es guarda
+ * en arrays primitius indexats per enter:
+ * - Els codis d'item s'internen a enters (0..n-1)
+ * - Les línies de cada producte són contigües (format CSR): fills[inici[p] .. inici[p+1])
+ *
+ * El preu de tots els productes es calcula en un sol recorregut topològic
+ * (post-ordre) amb memorització: cada subproducte compartit es calcula un cop.
+ * Els resultats són els mateixos que DAOProducte.calcularPreuTotal.
+ *
+ * Si el BOM té cicles, els productes del cicle i els que en depenen queden
+ * amb preu NaN (i es registra un avís); la resta del catàleg es calcula igual.
+ *
+ * També guarda l'índex invers (on s'utilitza cada item) en format CSR,
+ * que fa servir CachePreusProductes per recalcular només els productes afectats.
+ *
+ * Ús:
+ *   BomGraph graf = BomGraph.carregar();
+ *   double preu = graf.priceOf("PR001");
+ *   Map<String, Double> llistaPreus = graf.priceAll();
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public class BomGraph {
+
+    private static final Registre LOG = Registre.per("BomGraph");
+
+    private static final byte PENDENT = 0;
+    private static final byte EN_CURS = 1;
+    private static final byte FET = 2;
+
+    // Interning codi ↔ enter
+    private final String[] codis;
+    private final Map<String, Integer> index;
+
+    // Dades dels nodes
+    private final boolean[] esProducte;
+    private final double[] preuComponent;
+
+    // Línies en format CSR
+    private final int[] inici;
+    private final int[] fills;
+    private final int[] quantitats;
+
+    // Índex invers (on s'utilitza): pares[iniciPares[i] .. iniciPares[i+1])
+    private final int[] iniciPares;
+    private final int[] pares;
+
+    // Preus calculats (null fins al primer ús) i productes que formen part d'un cicle
+    private volatile double[] preus;
+    private boolean[] ciclic;
+
+    // Espai de treball d'ascendents(), reutilitzat entre crides (visitat[v] == epoca)
+    private final Object lockAscendents = new Object();
+    private int[] visitat;
+    private int[] cursorAsc;
+    private int[] pilaAsc;
+    private int[] ordreAsc;
+    private int epoca = 0;
+
+    /**
+     * Construeix el graf a partir de dades ja carregades
+     * @param preusComponents Codi de component → cm_preu_mig (null = sense preu)
+     * @param productes Codis de tots els productes
+     * @param linies Línies del BOM (Prod_Item)
+     */
+    public BomGraph(Map<String, Double> preusComponents, Collection<String> productes,
+                    Collection<ProdItem> linies) {
+        int n = preusComponents.size() + productes.size();
+        this.codis = new String[n];
+        this.index = new HashMap<>(n * 2);
+        this.esProducte = new boolean[n];
+        this.preuComponent = new double[n];
+
+        int id = 0;
+        for (Map.Entry<String, Double> e : preusComponents.entrySet()) {
+            codis[id] = e.getKey();
+            index.put(e.getKey(), id);
+            preuComponent[id] = e.getValue() != null ? e.getValue() : 0.0;
+            id++;
+        }
+        for (String prCodi : productes) {
+            codis[id] = prCodi;
+            index.put(prCodi, id);
+            esProducte[id] = true;
+            id++;
+        }
+
+        // Comptar línies per pare i construir els offsets CSR
+        int[] paresTmp = new int[linies.size()];
+        int[] fillsTmp = new int[linies.size()];
+        int[] quantitatsTmp = new int[linies.size()];
+        this.inici = new int[n + 1];
+
+        int m = 0;
+        for (ProdItem linia : linies) {
+            Integer pare = index.get(linia.getPiPrCodi());
+            Integer fill = index.get(linia.getPiItCodi());
+            if (pare == null || fill == null || !esProducte[pare]) {
+                continue;  // Línia que no penja d'un producte conegut
+            }
+            paresTmp[m] = pare;
+            fillsTmp[m] = fill;
+            quantitatsTmp[m] = linia.getQuantitat() != null ? linia.getQuantitat() : 0;
+            inici[pare + 1]++;
+            m++;
+        }
+        for (int i = 0; i < n; i++) {
+            inici[i + 1] += inici[i];
+        }
+
+        this.fills = new int[m];
+        this.quantitats = new int[m];
+        int[] posicio = new int[n];
+        System.arraycopy(inici, 0, posicio, 0, n);
+        for (int e = 0; e < m; e++) {
+            int p = posicio[paresTmp[e]]++;
+            fills[p] = fillsTmp[e];
+            quantitats[p] = quantitatsTmp[e];
+        }
+
+        // Índex invers: per cada fill, els productes que el contenen
+        this.iniciPares = new int[n + 1];
+        for (int e = 0; e < m; e++) {
+            iniciPares[fills[e] + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            iniciPares[i + 1] += iniciPares[i];
+        }
+        this.pares = new int[m];
+        System.arraycopy(iniciPares, 0, posicio, 0, n);
+        for (int pare = 0; pare < n; pare++) {
+            for (int e = inici[pare]; e < inici[pare + 1]; e++) {
+                this.pares[posicio[fills[e]]++] = pare;
+            }
+        }
+    }
+
+    // ==========================================
+    // CÀRREGA DES DE LA BD
+    // ==========================================
+
+    /**
+     * Carrega el graf sencer de la BD (dues consultes sobre una connexió)
+     * @return Graf amb tots els items i línies de Prod_Item
+     * @throws SQLException si hi ha error llegint la BD
+     */
+    public static BomGraph carregar() throws SQLException {
+        Map<String, Double> preusComponents = new HashMap<>();
+        List<String> productes = new ArrayList<>();
+        List<ProdItem> linies = new ArrayList<>();
+
+        String sqlItems = """
+            SELECT i.it_codi, i.it_tipus, c.cm_preu_mig
+            FROM Item i
+            LEFT JOIN Component c ON i.it_codi = c.cm_codi
+            """;
+
+        String sqlLinies = "SELECT pi_pr_codi, pi_it_codi, quantitat FROM Prod_Item";
+
+        try (Connection conn = ConnexioOracle.getConnection()) {
+            try (PreparedStatement ps = conn.prepareStatement(sqlItems);
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String codi = rs.getString(1);
+                    String tipus = rs.getString(2);
+                    if ("P".equals(tipus)) {
+                        productes.add(codi);
+                    } else {
+                        double preu = rs.getDouble(3);
+                        // Items que no són C ni P compten com a preu 0 (igual que calcularPreuTotal)
+                        preusComponents.put(codi, rs.wasNull() || !"C".equals(tipus) ? null : preu);
+                    }
+                }
+            }
+
+            try (PreparedStatement ps = conn.prepareStatement(sqlLinies);
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    linies.add(new ProdItem(rs.getString(1), rs.getString(2), rs.getInt(3)));
+                }
+            }
+        }
+
+        return new BomGraph(preusComponents, productes, linies);
+    }
+
+    // ==========================================
+    // CONSULTES DE PREU
+    // ==========================================
+
+    /**
+     * Preu total d'un producte (mateix resultat que calcularPreuTotal)
+     * @param prCodi Codi del producte
+     * @return Preu total, 0.0 si el producte no existeix o NaN si depèn d'un cicle
+     */
+    public double priceOf(String prCodi) {
+        Integer id = index.get(prCodi);
+        if (id == null || !esProducte[id]) {
+            return 0.0;
+        }
+        return calcularTots()[id];
+    }
+
+    /**
+     * Preu total de tots els productes del catàleg
+     * @return Codi de producte → preu total (NaN si depèn d'un cicle)
+     */
+    public Map<String, Double> priceAll() {
+        double[] calculats = calcularTots();
+        Map<String, Double> resultat = new HashMap<>(codis.length * 2);
+        for (int i = 0; i < codis.length; i++) {
+            if (esProducte[i]) {
+                resultat.put(codis[i], calculats[i]);
+            }
+        }
+        return resultat;
+    }
+
+    /**
+     * Productes que contenen l'item, directament o a través de subproductes (where-used)
+     * @param itCodi Codi del component o producte
+     * @return Codis dels productes afectats si canvia el preu de l'item
+     */
+    public List<String> whereUsed(String itCodi) {
+        Integer id = index.get(itCodi);
+        if (id == null) {
+            return List.of();
+        }
+        int[] ordre = ascendents(id);
+        List<String> resultat = new ArrayList<>(ordre.length - 1);
+        for (int k = 1; k < ordre.length; k++) {
+            resultat.add(codis[ordre[k]]);
+        }
+        return resultat;
+    }
+
+    /**
+     * @return Nombre d'items (components + productes) del graf
+     */
+    public int getNombreItems() {
+        return codis.length;
+    }
+
+    /**
+     * @return Nombre de línies (arestes) del graf
+     */
+    public int getNombreLinies() {
+        return fills.length;
+    }
+
+    // ==========================================
+    // ACCÉS INTERN (CachePreusProductes)
+    // ==========================================
+
+    int idDe(String codi) {
+        Integer id = index.get(codi);
+        return id != null ? id : -1;
+    }
+
+    boolean esProducte(int id) {
+        return esProducte[id];
+    }
+
+    /**
+     * Preus calculats de tots els nodes (còpia: la cache la modifica)
+     */
+    double[] copiaPreus() {
+        return calcularTots().clone();
+    }
+
+    /**
+     * Recalcula el preu d'un producte a partir dels preus actuals dels seus fills
+     */
+    double recalcular(int producte, double[] preu) {
+        if (ciclic[producte]) {
+            return Double.NaN;
+        }
+        double total = 0.0;
+        for (int e = inici[producte]; e < inici[producte + 1]; e++) {
+            total += quantitats[e] * preu[fills[e]];
+        }
+        return total;
+    }
+
+    /**
+     * Ascendents d'un node en ordre topològic (primer el node, després els pares
+     * i cada producte després de tots els seus fills afectats)
+     * Cost proporcional al subgraf afectat, no al catàleg.
+     */
+    int[] ascendents(int node) {
+        synchronized (lockAscendents) {
+            if (visitat == null) {
+                int n = codis.length;
+                visitat = new int[n];
+                cursorAsc = new int[n];
+                pilaAsc = new int[n];
+                ordreAsc = new int[n];
+            }
+            if (++epoca == Integer.MAX_VALUE) {
+                Arrays.fill(visitat, 0);
+                epoca = 1;
+            }
+
+            // DFS iteratiu sobre l'índex invers: el post-ordre invertit és topològic
+            int cim = 0;
+            int fets = 0;
+            pilaAsc[cim++] = node;
+            visitat[node] = epoca;
+            cursorAsc[node] = iniciPares[node];
+
+            while (cim > 0) {
+                int v = pilaAsc[cim - 1];
+                if (cursorAsc[v] < iniciPares[v + 1]) {
+                    int pare = pares[cursorAsc[v]++];
+                    if (visitat[pare] != epoca) {
+                        visitat[pare] = epoca;
+                        cursorAsc[pare] = iniciPares[pare];
+                        pilaAsc[cim++] = pare;
+                    }
+                } else {
+                    cim--;
+                    ordreAsc[fets++] = v;
+                }
+            }
+
+            int[] ordre = new int[fets];
+            for (int k = 0; k < fets; k++) {
+                ordre[k] = ordreAsc[fets - 1 - k];
+            }
+            return ordre;
+        }
+    }
+
+    // ==========================================
+    // RECORREGUT TOPOLÒGIC
+    // ==========================================
+
+    private double[] calcularTots() {
+        double[] calculats = preus;
+        if (calculats == null) {
+            synchronized (this) {
+                calculats = preus;
+                if (calculats == null) {
+                    calculats = recorrer();
+                    preus = calculats;
+                }
+            }
+        }
+        return calculats;
+    }
+
+    /**
+     * DFS iteratiu en post-ordre: un producte es calcula quan tots els seus fills ja ho estan
+     * Els nodes d'un cicle queden a NaN, que es propaga als productes que els contenen.
+     */
+    private double[] recorrer() {
+        int n = codis.length;
+        double[] preu = new double[n];
+        boolean[] enCicle = new boolean[n];
+        byte[] estat = new byte[n];
+        int[] pila = new int[n];
+        int[] cursor = new int[n];
+
+        for (int i = 0; i < n; i++) {
+            if (!esProducte[i]) {
+                preu[i] = preuComponent[i];
+                estat[i] = FET;
+            }
+        }
+
+        for (int arrel = 0; arrel < n; arrel++) {
+            if (estat[arrel] != PENDENT) {
+                continue;
+            }
+
+            int cim = 0;
+            pila[cim++] = arrel;
+            estat[arrel] = EN_CURS;
+            cursor[arrel] = inici[arrel];
+
+            while (cim > 0) {
+                int v = pila[cim - 1];
+
+                if (cursor[v] < inici[v + 1]) {
+                    int w = fills[cursor[v]++];
+                    if (estat[w] == EN_CURS) {
+                        // Tots els nodes de la pila des de w fins a v formen el cicle
+                        int k = cim - 1;
+                        while (pila[k] != w) {
+                            enCicle[pila[k--]] = true;
+                        }
+                        enCicle[w] = true;
+                        LOG.warn(() -> "⚠️  Cicle al BOM: " + codis[v] + " → " + codis[w]
+                                + " (preu NaN per als productes afectats)");
+                    }
+                    if (estat[w] == PENDENT) {
+                        estat[w] = EN_CURS;
+                        cursor[w] = inici[w];
+                        pila[cim++] = w;
+                    }
+                } else {
+                    double total = 0.0;
+                    for (int e = inici[v]; e < inici[v + 1]; e++) {
+                        total += quantitats[e] * preu[fills[e]];
+                    }
+                    preu[v] = enCicle[v] ? Double.NaN : total;
+                    estat[v] = FET;
+                    cim--;
+                }
+            }
+        }
+
+        ciclic = enCicle;
+        return preu;
+    }
+}
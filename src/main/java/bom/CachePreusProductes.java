@@ -0,0 +1,187 @@
+package bom;
+
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Cache del preu total de tots els productes amb propagació incremental
+ *
+ * Quan canvia el cm_preu_mig d'un component (via DAOProvComp, que dispara
+ * el trigger trg_prov_comp_after), només es recalculen els productes que el
+ * contenen (índex invers de BomGraph), en ordre topològic. El cost és
+ * proporcional al subgraf afectat, no al catàleg.
+ *
+ * Els canvis d'estructura del BOM (Prod_Item) marquen la cache com a obsoleta
+ * i es recarrega sencera en la següent consulta. Només un fil fa la recàrrega;
+ * els altres continuen llegint els preus anteriors mentrestant.
+ *
+ * Ús:
+ *   CachePreusProductes.activar();
+ *   double preu = CachePreusProductes.activa().getPreu("PR001");
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public class CachePreusProductes {
+
+    private static volatile CachePreusProductes activa;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private BomGraph graf;
+    private double[] preus;
+    private volatile boolean obsoleta = false;
+    // S'incrementa a cada invalidació o actualització; la recàrrega només
+    // treu la marca d'obsoleta si no n'hi ha hagut cap mentre llegia la BD
+    private final AtomicLong generacio = new AtomicLong();
+    private final ReentrantLock recarrega = new ReentrantLock();
+
+    /**
+     * Crea la cache a partir d'un graf ja carregat
+     * @param graf Graf del BOM
+     */
+    public CachePreusProductes(BomGraph graf) {
+        this.graf = graf;
+        this.preus = graf.copiaPreus();
+    }
+
+    // ==========================================
+    // CACHE ACTIVA (la que actualitzen els DAOs)
+    // ==========================================
+
+    /**
+     * Carrega el BOM de la BD i activa la cache perquè els DAOs la mantinguin
+     * @return Cache activa
+     * @throws SQLException si hi ha error carregant el BOM
+     */
+    public static CachePreusProductes activar() throws SQLException {
+        CachePreusProductes cache = new CachePreusProductes(BomGraph.carregar());
+        activa = cache;
+        return cache;
+    }
+
+    /**
+     * @return Cache activa o null si no se n'ha activat cap
+     */
+    public static CachePreusProductes activa() {
+        return activa;
+    }
+
+    /**
+     * Desactiva la cache (els DAOs deixen de mantenir-la)
+     */
+    public static void desactivar() {
+        activa = null;
+    }
+
+    // ==========================================
+    // CONSULTA
+    // ==========================================
+
+    /**
+     * Preu total d'un producte
+     * @param prCodi Codi del producte
+     * @return Preu total o 0.0 si el producte no existeix
+     * @throws SQLException si la cache era obsoleta i falla la recàrrega
+     */
+    public double getPreu(String prCodi) throws SQLException {
+        if (obsoleta && recarrega.tryLock()) {
+            try {
+                if (obsoleta) {
+                    carregarGraf();
+                }
+            } finally {
+                recarrega.unlock();
+            }
+        }
+
+        lock.readLock().lock();
+        try {
+            int id = graf.idDe(prCodi);
+            if (id < 0 || !graf.esProducte(id)) {
+                return 0.0;
+            }
+            return preus[id];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ==========================================
+    // ACTUALITZACIÓ
+    // ==========================================
+
+    /**
+     * Aplica el nou preu mitjà d'un component i recalcula els productes que el contenen
+     * @param cmCodi Codi del component
+     * @param preuMig Nou cm_preu_mig (null = sense preu)
+     * @return Nombre de productes recalculats
+     */
+    public int actualitzarPreuComponent(String cmCodi, Double preuMig) {
+        lock.writeLock().lock();
+        try {
+            generacio.incrementAndGet();
+            int id = graf.idDe(cmCodi);
+            if (id < 0 || graf.esProducte(id)) {
+                // Component nou (no era al graf quan es va carregar)
+                obsoleta = true;
+                return 0;
+            }
+
+            double nouPreu = preuMig != null ? preuMig : 0.0;
+            if (preus[id] == nouPreu) {
+                return 0;
+            }
+            preus[id] = nouPreu;
+
+            // ascendents() retorna el component primer i cada producte després dels seus fills
+            int[] ordre = graf.ascendents(id);
+            for (int k = 1; k < ordre.length; k++) {
+                preus[ordre[k]] = graf.recalcular(ordre[k], preus);
+            }
+            return ordre.length - 1;
+
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Marca la cache com a obsoleta (canvi d'estructura del BOM)
+     */
+    public void invalidar() {
+        generacio.incrementAndGet();
+        obsoleta = true;
+    }
+
+    /**
+     * Torna a carregar el graf sencer de la BD
+     * @throws SQLException si hi ha error carregant el BOM
+     */
+    public void recarregar() throws SQLException {
+        recarrega.lock();
+        try {
+            carregarGraf();
+        } finally {
+            recarrega.unlock();
+        }
+    }
+
+    /**
+     * Carrega el graf fora del lock de lectura; cal tenir el lock de recàrrega
+     */
+    private void carregarGraf() throws SQLException {
+        long abans = generacio.get();
+        BomGraph nou = BomGraph.carregar();
+        lock.writeLock().lock();
+        try {
+            graf = nou;
+            preus = nou.copiaPreus();
+            // Un canvi durant la càrrega pot no ser al graf nou: es torna a carregar
+            obsoleta = generacio.get() != abans;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
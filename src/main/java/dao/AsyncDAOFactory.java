@@ -0,0 +1,182 @@
+package dao;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import util.ConnexioOracle;
+
+/**
+ * Factory de DAOs asíncrons: cada crida s'executa en un fil virtual
+ * i retorna un CompletableFuture
+ *
+ * Les consultes independents d'una pàgina s'encavalquen: la latència
+ * és la de la crida més lenta, no la suma de totes.
+ *
+ * Ús:
+ *   CompletableFuture<Integer> total = AsyncDAOFactory.getDAOItem().cridar(IDAOItem::countTotal);
+ *   CompletableFuture<List<Item>> baix = AsyncDAOFactory.getDAOItem().cridar(d -> d.obtenirItemsAmbStockBaix(5));
+ *   CompletableFuture.allOf(total, baix).join();
+ *
+ * Limitador: com a màxim db.async.maxConcurrent crides alhora (per defecte db.pool.max),
+ * perquè les crides asíncrones no esgotin el pool de connexions.
+ * Les que sobren esperen (en un fil virtual esperar no costa res).
+ *
+ * Les crides no participen de la unitat de treball (Transaccions) del fil que les fa:
+ * cada una fa servir la seva connexió del pool.
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public final class AsyncDAOFactory {
+
+    // Constructor privat per evitar instanciació
+    private AsyncDAOFactory() {
+        throw new AssertionError("AsyncDAOFactory no es pot instanciar");
+    }
+
+    /**
+     * Executor i limitador (es creen el primer cop que es demanen)
+     */
+    private static final class Execucio {
+        static final ExecutorService EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+        static final int MAX_CONCURRENT = ConnexioOracle.getPropietatInt("db.async.maxConcurrent",
+                ConnexioOracle.getPropietatInt("db.pool.max", 10));
+        static final Semaphore PERMISOS = new Semaphore(MAX_CONCURRENT, true);
+    }
+
+    // ============================================
+    // DAO ASÍNCRON
+    // ============================================
+
+    /**
+     * Embolcall asíncron d'un DAO
+     * @param <D> Interfície del DAO (IDAOItem, IDAOComponent...)
+     */
+    public static final class DAOAsincron<D> {
+        private final D dao;
+
+        private DAOAsincron(D dao) {
+            this.dao = dao;
+        }
+
+        /**
+         * Executa una crida al DAO en un fil virtual
+         * @param crida Crida a fer (p.ex. IDAOItem::countTotal)
+         * @return Future amb el resultat de la crida
+         */
+        public <R> CompletableFuture<R> cridar(Function<? super D, ? extends R> crida) {
+            return CompletableFuture.supplyAsync(() -> ambPermis(() -> crida.apply(dao)), Execucio.EXECUTOR);
+        }
+
+        /**
+         * @return DAO síncron que hi ha al darrere
+         */
+        public D getDAO() {
+            return dao;
+        }
+    }
+
+    private static <R> R ambPermis(Supplier<R> crida) {
+        try {
+            Execucio.PERMISOS.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+        try {
+            return crida.get();
+        } finally {
+            Execucio.PERMISOS.release();
+        }
+    }
+
+    // ============================================
+    // DAOs
+    // ============================================
+
+    /**
+     * @return DAO d'items asíncron
+     */
+    public static DAOAsincron<IDAOItem> getDAOItem() {
+        return new DAOAsincron<>(DAOFactory.getDAOItem());
+    }
+
+    /**
+     * @return DAO de components asíncron
+     */
+    public static DAOAsincron<IDAOComponent> getDAOComponent() {
+        return new DAOAsincron<>(DAOFactory.getDAOComponent());
+    }
+
+    /**
+     * @return DAO de productes asíncron
+     */
+    public static DAOAsincron<IDAOProducte> getDAOProducte() {
+        return new DAOAsincron<>(DAOFactory.getDAOProducte());
+    }
+
+    /**
+     * @return DAO de relacions proveïdor-component asíncron
+     */
+    public static DAOAsincron<IDAOProvComp> getDAOProvComp() {
+        return new DAOAsincron<>(DAOFactory.getDAOProvComp());
+    }
+
+    /**
+     * @return DAO de línies de producte asíncron
+     */
+    public static DAOAsincron<IDAOProdItem> getDAOProdItem() {
+        return new DAOAsincron<>(DAOFactory.getDAOProdItem());
+    }
+
+    /**
+     * @return DAO de proveïdors asíncron (amb cache)
+     */
+    public static DAOAsincron<IDAOProveidor> getDAOProveidor() {
+        return new DAOAsincron<>(DAOFactory.getDAOProveidor());
+    }
+
+    /**
+     * @return DAO d'unitats de mesura asíncron (amb cache)
+     */
+    public static DAOAsincron<IDAOUnitatMesura> getDAOUnitatMesura() {
+        return new DAOAsincron<>(DAOFactory.getDAOUnitatMesura());
+    }
+
+    /**
+     * @return DAO de províncies asíncron (amb cache)
+     */
+    public static DAOAsincron<IDAOProvincia> getDAOProvincia() {
+        return new DAOAsincron<>(DAOFactory.getDAOProvincia());
+    }
+
+    /**
+     * @return DAO de municipis asíncron (amb cache)
+     */
+    public static DAOAsincron<IDAOMunicipi> getDAOMunicipi() {
+        return new DAOAsincron<>(DAOFactory.getDAOMunicipi());
+    }
+
+    // ============================================
+    // ESTADÍSTIQUES
+    // ============================================
+
+    /**
+     * @return Crides asíncrones que es poden executar alhora
+     */
+    public static int getMaxConcurrent() {
+        return Execucio.MAX_CONCURRENT;
+    }
+
+    /**
+     * @return Crides asíncrones en execució en aquest moment
+     */
+    public static int getEnCurs() {
+        return Execucio.MAX_CONCURRENT - Execucio.PERMISOS.availablePermits();
+    }
+}
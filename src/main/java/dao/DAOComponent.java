@@ -6,10 +6,19 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import abstractdao.AbstractDAOComponent;
 import model.Component;
+import model.ComponentResum;
+import model.Pagina;
+import util.ConsultaStream;
+import util.LlistaIn;
+import util.MapejadorColumnes;
 
 /**
  * Implementació DAO per a Component
@@ -65,7 +74,7 @@ public class DAOComponent extends AbstractDAOComponent {
             psComponent.executeUpdate();
             
             conn.commit();
-            System.out.println(" Component " + c.getCmCodi() + " inserit correctament");
+            LOG.info(() -> " Component " + c.getCmCodi() + " inserit correctament");
             return true;
             
         } catch (SQLException e) {
@@ -73,9 +82,9 @@ public class DAOComponent extends AbstractDAOComponent {
             if (conn != null) {
                 try { 
                     conn.rollback();
-                    System.err.println("  Rollback executat");
+                    LOG.error("  Rollback executat");
                 } catch (SQLException ex) {
-                    System.err.println(" Error fent rollback: " + ex.getMessage());
+                    LOG.error(() -> " Error fent rollback: " + ex.getMessage());
                 }
             }
             logError(e);
@@ -131,11 +140,11 @@ public class DAOComponent extends AbstractDAOComponent {
             
             if (rowsItem > 0 && rowsComponent > 0) {
                 conn.commit();
-                System.out.println(" Component " + c.getCmCodi() + " actualitzat");
+                LOG.info(() -> " Component " + c.getCmCodi() + " actualitzat");
                 return true;
             } else {
                 conn.rollback();
-                System.err.println(" Component no trobat: " + c.getCmCodi());
+                LOG.error(() -> " Component no trobat: " + c.getCmCodi());
                 return false;
             }
             
@@ -163,7 +172,7 @@ public class DAOComponent extends AbstractDAOComponent {
     @Override
     public boolean eliminar(String codi) {
         if (codi == null || codi.trim().isEmpty()) {
-            System.err.println(" Codi no pot ser buit");
+            LOG.error(" Codi no pot ser buit");
             return false;
         }
         
@@ -189,11 +198,11 @@ public class DAOComponent extends AbstractDAOComponent {
             
             if (rowsComponent > 0 && rowsItem > 0) {
                 conn.commit();
-                System.out.println(" Component " + codi + " eliminat");
+                LOG.info(() -> " Component " + codi + " eliminat");
                 return true;
             } else {
                 conn.rollback();
-                System.err.println("  Component no trobat: " + codi);
+                LOG.error(() -> "  Component no trobat: " + codi);
                 return false;
             }
             
@@ -247,6 +256,43 @@ public class DAOComponent extends AbstractDAOComponent {
         }
     }
 
+    // ============================================
+    // FIND BY IDS - Busca molts components alhora
+    // ============================================
+    
+    @Override
+    public Map<String, Component> findByIds(Collection<String> codis) {
+        Map<String, Component> components = new LinkedHashMap<>();
+        if (codis == null || codis.isEmpty()) {
+            return components;
+        }
+        
+        try (Connection conn = getConnection()) {
+            for (List<String> tros : LlistaIn.trossos(codis)) {
+                String sql = "SELECT i.it_codi, i.it_tipus, i.it_nom, i.it_desc, i.it_stock, i.it_foto, " +
+                             "       c.cm_um_codi, c.cm_codi_fabricant, c.cm_preu_mig " +
+                             "FROM Item i " +
+                             "JOIN Component c ON i.it_codi = c.cm_codi " +
+                             "WHERE c.cm_codi IN (" + LlistaIn.marcadors(tros.size()) + ")";
+                
+                try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                    LlistaIn.assignar(ps, tros);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            Component c = mapResultSetToComponent(rs);
+                            components.put(c.getItCodi(), c);
+                        }
+                    }
+                }
+            }
+            return components;
+            
+        } catch (SQLException e) {
+            logError(e);
+            return new LinkedHashMap<>();
+        }
+    }
+
     // ============================================
     // FIND ALL - Llista tots els components
     // ============================================
@@ -276,6 +322,25 @@ public class DAOComponent extends AbstractDAOComponent {
         return llista;
     }
 
+    // ============================================
+    // STREAM ALL - Recorre tots els components sense llista
+    // ============================================
+    
+    @Override
+    public Stream<Component> streamAll() {
+        String sql = "SELECT i.it_codi, i.it_tipus, i.it_nom, i.it_desc, i.it_stock, i.it_foto, " +
+                     "       c.cm_um_codi, c.cm_codi_fabricant, c.cm_preu_mig " +
+                     "FROM Item i " +
+                     "JOIN Component c ON i.it_codi = c.cm_codi " +
+                     "ORDER BY i.it_codi";
+        try {
+            return ConsultaStream.obrir(sql, ConsultaStream.getFetchSizePerDefecte(), this::mapResultSetToComponent);
+        } catch (SQLException e) {
+            logError(e);
+            return Stream.empty();
+        }
+    }
+
     // ============================================
     // FIND ALL PAGINAT
     // ============================================
@@ -313,6 +378,142 @@ public class DAOComponent extends AbstractDAOComponent {
         return llista;
     }
 
+    // ============================================
+    // PAGINACIÓ PER CLAU (keyset) - cost constant
+    // ============================================
+    
+    @Override
+    public Pagina<Component> findPageAfter(String cursor, int size) {
+        List<Component> llista = new ArrayList<>();
+        
+        if (size < 1) {
+            LOG.error("❌ La mida ha de ser >= 1");
+            return new Pagina<>(llista, null);
+        }
+        
+        String darrerCodi = null;
+        if (cursor != null) {
+            try {
+                darrerCodi = Pagina.descodificarCursor(cursor);
+            } catch (IllegalArgumentException e) {
+                LOG.error("❌ Cursor de paginació invàlid");
+                return new Pagina<>(llista, null);
+            }
+        }
+        
+        // Es llegeix una fila de més per saber si hi ha pàgina següent
+        String sql = "SELECT i.it_codi, i.it_tipus, i.it_nom, i.it_desc, i.it_stock, i.it_foto, " +
+                     "       c.cm_um_codi, c.cm_codi_fabricant, c.cm_preu_mig " +
+                     "FROM Item i " +
+                     "JOIN Component c ON i.it_codi = c.cm_codi " +
+                     (darrerCodi != null ? "WHERE i.it_codi > ? " : "") +
+                     "ORDER BY i.it_codi " +
+                     "FETCH FIRST ? ROWS ONLY";
+        
+        try (Connection conn = getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            
+            int i = 1;
+            if (darrerCodi != null) {
+                ps.setString(i++, darrerCodi);
+            }
+            ps.setInt(i, size + 1);
+            
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    llista.add(mapResultSetToComponent(rs));
+                }
+            }
+            
+        } catch (SQLException e) {
+            logError(e);
+            return new Pagina<>(llista, null);
+        }
+        
+        String seguent = null;
+        if (llista.size() > size) {
+            llista.remove(size);
+            seguent = Pagina.codificarCursor(llista.get(size - 1).getItCodi());
+        }
+        return new Pagina<>(llista, seguent);
+    }
+
+    // ============================================
+    // RESUMS - Graelles sense it_desc ni it_foto
+    // ============================================
+    
+    @Override
+    public List<ComponentResum> findAllResum() {
+        return llistarResums(null, 0);
+    }
+    
+    @Override
+    public Pagina<ComponentResum> findPageResumAfter(String cursor, int size) {
+        if (size < 1) {
+            LOG.error("❌ La mida ha de ser >= 1");
+            return new Pagina<>(new ArrayList<>(), null);
+        }
+        
+        String darrerCodi = null;
+        if (cursor != null) {
+            try {
+                darrerCodi = Pagina.descodificarCursor(cursor);
+            } catch (IllegalArgumentException e) {
+                LOG.error("❌ Cursor de paginació invàlid");
+                return new Pagina<>(new ArrayList<>(), null);
+            }
+        }
+        
+        // Una fila de més per saber si hi ha pàgina següent
+        List<ComponentResum> llista = llistarResums(darrerCodi, size + 1);
+        String seguent = null;
+        if (llista.size() > size) {
+            llista.remove(size);
+            seguent = Pagina.codificarCursor(llista.get(size - 1).cmCodi());
+        }
+        return new Pagina<>(llista, seguent);
+    }
+    
+    /**
+     * Resums ordenats per codi
+     * @param darrerCodi Només codis posteriors a aquest (null = des del principi)
+     * @param limit Màxim de files (0 = totes)
+     */
+    private List<ComponentResum> llistarResums(String darrerCodi, int limit) {
+        List<ComponentResum> llista = new ArrayList<>();
+        
+        String sql = "SELECT c.cm_codi, i.it_nom, i.it_stock, c.cm_um_codi, c.cm_preu_mig " +
+                     "FROM Item i " +
+                     "JOIN Component c ON i.it_codi = c.cm_codi " +
+                     (darrerCodi != null ? "WHERE i.it_codi > ? " : "") +
+                     "ORDER BY i.it_codi" +
+                     (limit > 0 ? " FETCH FIRST ? ROWS ONLY" : "");
+        
+        try (Connection conn = getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            
+            int i = 1;
+            if (darrerCodi != null) {
+                ps.setString(i++, darrerCodi);
+            }
+            if (limit > 0) {
+                ps.setInt(i, limit);
+            }
+            
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    llista.add(MAPEJADOR_RESUM.mapejar(rs));
+                }
+            }
+            
+        } catch (SQLException e) {
+            logError(e);
+            llista.clear();
+        }
+        
+        return llista;
+    }
+
     // ============================================
     // FILTRAR PER CODI - Search amb LIKE
     // ============================================
@@ -421,22 +622,39 @@ public class DAOComponent extends AbstractDAOComponent {
      * Assumeix que el ResultSet té totes les columnes necessàries
      */
     private Component mapResultSetToComponent(ResultSet rs) throws SQLException {
-        Component comp = new Component();
-        
-        // Dades d'Item (classe pare)
-        comp.setItCodi(rs.getString("it_codi"));
-        comp.setItTipus(rs.getString("it_tipus"));
-        comp.setItNom(rs.getString("it_nom"));
-        comp.setItDesc(rs.getString("it_desc"));
-        comp.setItStock(rs.getInt("it_stock"));
-        comp.setItFoto(rs.getString("it_foto"));
-        
-        // Dades de Component (classe filla)
-        comp.setCmCodi(rs.getString("it_codi"));
-        comp.setCmUmCodi(rs.getString("cm_um_codi"));
-        comp.setCmCodiFabricant(rs.getString("cm_codi_fabricant"));
-        comp.setCmPreuMig(rs.getDouble("cm_preu_mig"));
-        
-        return comp;
+        return MAPEJADOR_COMPONENT.mapejar(rs);
     }
+
+    private static final MapejadorColumnes<Component> MAPEJADOR_COMPONENT = new MapejadorColumnes<>(
+            (rs, c) -> {
+                Component comp = new Component();
+                
+                // Dades d'Item (classe pare)
+                String codi = rs.getString(c[0]);
+                comp.setItCodi(codi);
+                comp.setItTipus(rs.getString(c[1]));
+                comp.setItNom(rs.getString(c[2]));
+                comp.setItDesc(rs.getString(c[3]));
+                comp.setItStock(rs.getInt(c[4]));
+                comp.setItFoto(rs.getString(c[5]));
+                
+                // Dades de Component (classe filla)
+                comp.setCmCodi(codi);
+                comp.setCmUmCodi(rs.getString(c[6]));
+                comp.setCmCodiFabricant(rs.getString(c[7]));
+                comp.setCmPreuMig(rs.getDouble(c[8]));
+                
+                return comp;
+            },
+            "it_codi", "it_tipus", "it_nom", "it_desc", "it_stock", "it_foto",
+            "cm_um_codi", "cm_codi_fabricant", "cm_preu_mig");
+
+    private static final MapejadorColumnes<ComponentResum> MAPEJADOR_RESUM = new MapejadorColumnes<>(
+            (rs, c) -> {
+                double valor = rs.getDouble(c[4]);
+                Double preu = rs.wasNull() ? null : valor;
+                return new ComponentResum(rs.getString(c[0]), rs.getString(c[1]), rs.getInt(c[2]),
+                        rs.getString(c[3]), preu);
+            },
+            "cm_codi", "it_nom", "it_stock", "cm_um_codi", "cm_preu_mig");
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package dao;
 
+import util.DaoMetrics;
+
 /**
  * Factory per obtenir instàncies de DAOs
  * Patró Factory Method - Encapsula la creació d'objectes DAO
@@ -8,6 +10,9 @@ package dao;
  *   IDAOComponent dao = DAOFactory.getDAOComponent();
  *   List<Component> components = dao.findAll();
  * 
+ * Amb db.metriques.actives=true (per defecte) els DAOs es retornen
+ * embolcallats per DaoMetrics, que mesura cada mètode de la interfície.
+ * 
  * @author DomenechObiolAlbert
  * @version 1.0
  */
@@ -19,39 +24,67 @@ public class DAOFactory {
     }
     
     // ============================================
-    // DAOs READ-ONLY (Taules Mestres)
+    // DAOs READ-ONLY (Taules Mestres) - amb cache
     // ============================================
     
     /**
-     * Obté una instància de DAOUnitatMesura
+     * Instàncies úniques dels DAOs amb cache (es creen el primer cop que es demanen)
+     */
+    private static final class CachesReferencia {
+        static final DAOUnitatMesuraAmbCache UNITATS = new DAOUnitatMesuraAmbCache();
+        static final DAOProvinciaAmbCache PROVINCIES = new DAOProvinciaAmbCache();
+        static final DAOMunicipiAmbCache MUNICIPIS = new DAOMunicipiAmbCache();
+        static final DAOProveidorAmbCache PROVEIDORS = new DAOProveidorAmbCache();
+
+        static final IDAOUnitatMesura DAO_UNITATS = instrumentar(IDAOUnitatMesura.class, UNITATS);
+        static final IDAOProvincia DAO_PROVINCIES = instrumentar(IDAOProvincia.class, PROVINCIES);
+        static final IDAOMunicipi DAO_MUNICIPIS = instrumentar(IDAOMunicipi.class, MUNICIPIS);
+        static final IDAOProveidor DAO_PROVEIDORS = instrumentar(IDAOProveidor.class, PROVEIDORS);
+    }
+    
+    /**
+     * Obté el DAO d'unitats de mesura (amb cache en memòria)
      * @return Implementació concreta d'IDAOUnitatMesura
      */
     public static IDAOUnitatMesura getDAOUnitatMesura() {
-        return new DAOUnitatMesura();
+        return CachesReferencia.DAO_UNITATS;
     }
     
     /**
-     * Obté una instància de DAOProvincia
+     * Obté el DAO de províncies (amb cache en memòria)
      * @return Implementació concreta d'IDAOProvincia
      */
     public static IDAOProvincia getDAOProvincia() {
-        return new DAOProvincia();
+        return CachesReferencia.DAO_PROVINCIES;
     }
     
     /**
-     * Obté una instància de DAOMunicipi
+     * Obté el DAO de municipis (amb cache en memòria)
      * @return Implementació concreta d'IDAOMunicipi
      */
     public static IDAOMunicipi getDAOMunicipi() {
-        return new DAOMunicipi();
+        return CachesReferencia.DAO_MUNICIPIS;
     }
     
     /**
-     * Obté una instància de DAOProveidor
+     * Obté el DAO de proveïdors (amb cache en memòria)
      * @return Implementació concreta d'IDAOProveidor
      */
     public static IDAOProveidor getDAOProveidor() {
-        return new DAOProveidor();
+        return CachesReferencia.DAO_PROVEIDORS;
+    }
+    
+    /**
+     * Torna a carregar les caches de les taules mestres
+     * (a més del refresc automàtic cada db.cache.ttlMs)
+     * @return true si totes s'han carregat correctament
+     */
+    public static boolean refrescarCachesReferencia() {
+        boolean ok = CachesReferencia.UNITATS.refrescar();
+        ok &= CachesReferencia.PROVINCIES.refrescar();
+        ok &= CachesReferencia.MUNICIPIS.refrescar();
+        ok &= CachesReferencia.PROVEIDORS.refrescar();
+        return ok;
     }
     
     // ============================================
@@ -63,7 +96,7 @@ public class DAOFactory {
      * @return Implementació concreta d'IDAOComponent
      */
     public static IDAOComponent getDAOComponent() {
-        return new DAOComponent();
+        return instrumentar(IDAOComponent.class, new DAOComponent());
     }
     
     /**
@@ -72,7 +105,7 @@ public class DAOFactory {
      * @throws UnsupportedOperationException si encara no està implementat
      */
     public static IDAOItem getDAOItem() {
-        return new DAOItem();
+        return instrumentar(IDAOItem.class, new DAOItem());
     }
     
     /**
@@ -81,7 +114,7 @@ public class DAOFactory {
      * @throws UnsupportedOperationException si encara no està implementat
      */
     public static IDAOProducte getDAOProducte() {
-        return new DAOProducte();
+        return instrumentar(IDAOProducte.class, new DAOProducte());
     }
     
     /**
@@ -94,7 +127,7 @@ public class DAOFactory {
      */
     public static IDAOProvComp getDAOProvComp() {
         // TODO: Implementar DAOProvComp (CRÍTICA - triggers!)
-        return new DAOProvComp();
+        return instrumentar(IDAOProvComp.class, new DAOProvComp());
     }
     
     /**
@@ -104,7 +137,7 @@ public class DAOFactory {
      */
     public static IDAOProdItem getDAOProdItem() {
         // TODO: Implementar DAOProdItem
-        return new DAOProdItem();
+        return instrumentar(IDAOProdItem.class, new DAOProdItem());
     }
     /**
  * Obté una instància de DAOProvComp
@@ -128,6 +161,13 @@ public class DAOFactory {
     // Mètodes Utility
     // ============================================
     
+    /**
+     * Posa el proxy de mètriques davant del DAO si estan actives
+     */
+    private static <I> I instrumentar(Class<I> interficie, I dao) {
+        return DaoMetrics.isActiu() ? DaoMetrics.instrumentar(interficie, dao) : dao;
+    }
+    
     /**
      * Tanca tots els recursos d'un DAO si és necessari
      * (per a futures implementacions amb connection pooling)
@@ -5,23 +5,43 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import abstractdao.AbstractDAOItem;
 import model.Item;
+import model.ItemResum;
+import model.Pagina;
+import util.ConsultaStream;
+import util.LlistaIn;
+import util.MapejadorColumnes;
 
 /**
  * Implementació DAO per a Item
  * Gestiona operacions CRUD sobre la taula Item (taula base)
  * 
  * IMPORTANT: Item és la taula base. Component i Producte hereten d'Item.
- * Aquesta classe gestiona només la taula Item, no les taules filles.
+ * Aquesta classe escriu només la taula Item, no les taules filles.
+ * Les consultes sí que fan LEFT JOIN amb Component i Producte i retornen
+ * la subclasse de cada fila (model.Component / model.Producte) en una sola consulta.
  * 
  * @author DomenechObiolAlbert
  * @version 1.0
  */
 public class DAOItem extends AbstractDAOItem {
 
+    // Item + Component + Producte: cada fila es mapeja a la subclasse del seu it_tipus
+    // (veure mapResultSetToItem), sense cap findById per fila
+    private static final String SELECT_ITEMS =
+            "SELECT i.it_codi, i.it_tipus, i.it_nom, i.it_desc, i.it_stock, i.it_foto, " +
+            "       c.cm_codi, c.cm_um_codi, c.cm_codi_fabricant, c.cm_preu_mig, p.pr_codi " +
+            "FROM Item i " +
+            "LEFT JOIN Component c ON c.cm_codi = i.it_codi " +
+            "LEFT JOIN Producte p ON p.pr_codi = i.it_codi ";
+
     // ============================================
     // INSERTAR - Crea un item nou
     // ============================================
@@ -51,7 +71,7 @@ public class DAOItem extends AbstractDAOItem {
             ps.setString(6, item.getItFoto());
             
             int files = ps.executeUpdate();
-            System.out.println("✅ Item inserit: " + item.getItCodi());
+            LOG.info(() -> "✅ Item inserit: " + item.getItCodi());
             return files > 0;
             
         } catch (SQLException e) {
@@ -95,10 +115,10 @@ public class DAOItem extends AbstractDAOItem {
             int files = ps.executeUpdate();
             
             if (files > 0) {
-                System.out.println("✅ Item actualitzat: " + item.getItCodi());
+                LOG.info(() -> "✅ Item actualitzat: " + item.getItCodi());
                 return true;
             } else {
-                System.err.println("⚠️  Item no trobat: " + item.getItCodi());
+                LOG.warn(() -> "⚠️  Item no trobat: " + item.getItCodi());
                 return false;
             }
             
@@ -118,7 +138,7 @@ public class DAOItem extends AbstractDAOItem {
     @Override
     public boolean eliminar(String codi) {
         if (codi == null || codi.trim().isEmpty()) {
-            System.err.println("❌ Codi no pot ser buit");
+            LOG.error("❌ Codi no pot ser buit");
             return false;
         }
         
@@ -136,10 +156,10 @@ public class DAOItem extends AbstractDAOItem {
             int files = ps.executeUpdate();
             
             if (files > 0) {
-                System.out.println("✅ Item eliminat: " + codi);
+                LOG.info(() -> "✅ Item eliminat: " + codi);
                 return true;
             } else {
-                System.err.println("⚠️  Item no trobat: " + codi);
+                LOG.warn(() -> "⚠️  Item no trobat: " + codi);
                 return false;
             }
             
@@ -159,7 +179,7 @@ public class DAOItem extends AbstractDAOItem {
     @Override
     public Item findById(String codi) {
         if (codi == null || codi.trim().isEmpty()) {
-            System.err.println("❌ Codi no pot ser buit");
+            LOG.error("❌ Codi no pot ser buit");
             return null;
         }
         
@@ -170,8 +190,7 @@ public class DAOItem extends AbstractDAOItem {
         try {
             conn = getConnection();
             
-            String sql = "SELECT it_codi, it_tipus, it_nom, it_desc, it_stock, it_foto " +
-                        "FROM Item " +
+            String sql = SELECT_ITEMS +
                         "WHERE it_codi = ?";
             
             ps = conn.prepareStatement(sql);
@@ -182,7 +201,7 @@ public class DAOItem extends AbstractDAOItem {
                 return mapResultSetToItem(rs);
             }
             
-            System.out.println("⚠️  Item no trobat: " + codi);
+            LOG.info(() -> "⚠️  Item no trobat: " + codi);
             return null;
             
         } catch (SQLException e) {
@@ -195,6 +214,68 @@ public class DAOItem extends AbstractDAOItem {
         }
     }
 
+    // ============================================
+    // FINDBYIDS - Cerca de molts items alhora
+    // ============================================
+    
+    @Override
+    public Map<String, Item> findByIds(Collection<String> codis) {
+        Map<String, Item> items = new LinkedHashMap<>();
+        if (codis == null || codis.isEmpty()) {
+            return items;
+        }
+        
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        
+        try {
+            conn = getConnection();
+            
+            for (List<String> tros : LlistaIn.trossos(codis)) {
+                String sql = SELECT_ITEMS +
+                            "WHERE it_codi IN (" + LlistaIn.marcadors(tros.size()) + ")";
+                
+                ps = conn.prepareStatement(sql);
+                LlistaIn.assignar(ps, tros);
+                rs = ps.executeQuery();
+                
+                while (rs.next()) {
+                    Item item = mapResultSetToItem(rs);
+                    items.put(item.getItCodi(), item);
+                }
+                tancarRecursos(rs);
+                tancarRecursos(ps);
+            }
+            
+            return items;
+            
+        } catch (SQLException e) {
+            logError(e);
+            return new LinkedHashMap<>();
+        } finally {
+            tancarRecursos(rs);
+            tancarRecursos(ps);
+            tancarRecursos(conn);
+        }
+    }
+
+    // ============================================
+    // STREAM ALL - Recorre tots els items sense llista
+    // ============================================
+    
+    @Override
+    public Stream<Item> streamAll() {
+        String sql = SELECT_ITEMS +
+                    "ORDER BY it_codi";
+        try {
+            return ConsultaStream.obrir(sql, ConsultaStream.getFetchSizePerDefecte(), this::mapResultSetToItem);
+        } catch (SQLException e) {
+            logError(e);
+            return Stream.empty();
+        }
+    }
+
     // ============================================
     // FINDALL - Obté tots els items
     // ============================================
@@ -209,8 +290,7 @@ public class DAOItem extends AbstractDAOItem {
         try {
             conn = getConnection();
             
-            String sql = "SELECT it_codi, it_tipus, it_nom, it_desc, it_stock, it_foto " +
-                        "FROM Item " +
+            String sql = SELECT_ITEMS +
                         "ORDER BY it_codi";
             
             ps = conn.prepareStatement(sql);
@@ -220,7 +300,7 @@ public class DAOItem extends AbstractDAOItem {
                 items.add(mapResultSetToItem(rs));
             }
             
-            System.out.println("📋 Items trobats: " + items.size());
+            LOG.info(() -> "📋 Items trobats: " + items.size());
             return items;
             
         } catch (SQLException e) {
@@ -242,12 +322,12 @@ public class DAOItem extends AbstractDAOItem {
         List<Item> items = new ArrayList<>();
         
         if (tipus == null || tipus.trim().isEmpty()) {
-            System.err.println("❌ Tipus no pot ser buit");
+            LOG.error("❌ Tipus no pot ser buit");
             return items;
         }
         
         if (!tipus.equals("C") && !tipus.equals("P")) {
-            System.err.println("❌ Tipus ha de ser 'C' o 'P'");
+            LOG.error("❌ Tipus ha de ser 'C' o 'P'");
             return items;
         }
         
@@ -258,8 +338,7 @@ public class DAOItem extends AbstractDAOItem {
         try {
             conn = getConnection();
             
-            String sql = "SELECT it_codi, it_tipus, it_nom, it_desc, it_stock, it_foto " +
-                        "FROM Item " +
+            String sql = SELECT_ITEMS +
                         "WHERE it_tipus = ? " +
                         "ORDER BY it_codi";
             
@@ -272,7 +351,7 @@ public class DAOItem extends AbstractDAOItem {
             }
             
             String tipusNom = tipus.equals("C") ? "Components" : "Productes";
-            System.out.println("📋 " + tipusNom + " trobats: " + items.size());
+            LOG.info(() -> "📋 " + tipusNom + " trobats: " + items.size());
             return items;
             
         } catch (SQLException e) {
@@ -294,7 +373,7 @@ public class DAOItem extends AbstractDAOItem {
         List<Item> items = new ArrayList<>();
         
         if (nomPattern == null || nomPattern.trim().isEmpty()) {
-            System.err.println("❌ Patró de cerca no pot ser buit");
+            LOG.error("❌ Patró de cerca no pot ser buit");
             return items;
         }
         
@@ -305,8 +384,7 @@ public class DAOItem extends AbstractDAOItem {
         try {
             conn = getConnection();
             
-            String sql = "SELECT it_codi, it_tipus, it_nom, it_desc, it_stock, it_foto " +
-                        "FROM Item " +
+            String sql = SELECT_ITEMS +
                         "WHERE UPPER(it_nom) LIKE UPPER(?) " +
                         "ORDER BY it_codi";
             
@@ -318,7 +396,7 @@ public class DAOItem extends AbstractDAOItem {
                 items.add(mapResultSetToItem(rs));
             }
             
-            System.out.println("🔍 Items trobats amb nom '" + nomPattern + "': " + items.size());
+            LOG.info(() -> "🔍 Items trobats amb nom '" + nomPattern + "': " + items.size());
             return items;
             
         } catch (SQLException e) {
@@ -345,8 +423,7 @@ public class DAOItem extends AbstractDAOItem {
         try {
             conn = getConnection();
             
-            String sql = "SELECT it_codi, it_tipus, it_nom, it_desc, it_stock, it_foto " +
-                        "FROM Item " +
+            String sql = SELECT_ITEMS +
                         "WHERE it_stock < ? " +
                         "ORDER BY it_stock ASC, it_codi";
             
@@ -358,7 +435,7 @@ public class DAOItem extends AbstractDAOItem {
                 items.add(mapResultSetToItem(rs));
             }
             
-            System.out.println("⚠️  Items amb stock < " + stockMinim + ": " + items.size());
+            LOG.info(() -> "⚠️  Items amb stock < " + stockMinim + ": " + items.size());
             return items;
             
         } catch (SQLException e) {
@@ -391,7 +468,7 @@ public class DAOItem extends AbstractDAOItem {
             
             if (rs.next()) {
                 int total = rs.getInt("total");
-                System.out.println("📊 Total items: " + total);
+                LOG.info(() -> "📊 Total items: " + total);
                 return total;
             }
             
@@ -416,11 +493,11 @@ public class DAOItem extends AbstractDAOItem {
         List<Item> items = new ArrayList<>();
         
         if (page < 1) {
-            System.err.println("❌ La pàgina ha de ser >= 1");
+            LOG.error("❌ La pàgina ha de ser >= 1");
             return items;
         }
         if (size < 1) {
-            System.err.println("❌ La mida ha de ser >= 1");
+            LOG.error("❌ La mida ha de ser >= 1");
             return items;
         }
         
@@ -433,8 +510,12 @@ public class DAOItem extends AbstractDAOItem {
             
             // Oracle: ROW_NUMBER() per paginació
             String sql = "SELECT * FROM ( " +
-                        "  SELECT i.*, ROW_NUMBER() OVER (ORDER BY it_codi) as rnum " +
+                        "  SELECT i.it_codi, i.it_tipus, i.it_nom, i.it_desc, i.it_stock, i.it_foto, " +
+                        "         c.cm_codi, c.cm_um_codi, c.cm_codi_fabricant, c.cm_preu_mig, p.pr_codi, " +
+                        "         ROW_NUMBER() OVER (ORDER BY i.it_codi) as rnum " +
                         "  FROM Item i " +
+                        "  LEFT JOIN Component c ON c.cm_codi = i.it_codi " +
+                        "  LEFT JOIN Producte p ON p.pr_codi = i.it_codi " +
                         ") " +
                         "WHERE rnum BETWEEN ? AND ?";
             
@@ -450,7 +531,7 @@ public class DAOItem extends AbstractDAOItem {
                 items.add(mapResultSetToItem(rs));
             }
             
-            System.out.println("📄 Pàgina " + page + " (mida " + size + "): " + items.size() + " items");
+            LOG.info(() -> "📄 Pàgina " + page + " (mida " + size + "): " + items.size() + " items");
             return items;
             
         } catch (SQLException e) {
@@ -462,4 +543,166 @@ public class DAOItem extends AbstractDAOItem {
             tancarRecursos(conn);
         }
     }
-}
\ No newline at end of file
+
+    // ============================================
+    // PAGINACIÓ PER CLAU (keyset) - cost constant
+    // ============================================
+    
+    @Override
+    public Pagina<Item> findPageAfter(String cursor, int size) {
+        List<Item> items = new ArrayList<>();
+        
+        if (size < 1) {
+            LOG.error("❌ La mida ha de ser >= 1");
+            return new Pagina<>(items, null);
+        }
+        
+        String darrerCodi = null;
+        if (cursor != null) {
+            try {
+                darrerCodi = Pagina.descodificarCursor(cursor);
+            } catch (IllegalArgumentException e) {
+                LOG.error("❌ Cursor de paginació invàlid");
+                return new Pagina<>(items, null);
+            }
+        }
+        
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        
+        try {
+            conn = getConnection();
+            
+            // Es llegeix una fila de més per saber si hi ha pàgina següent
+            String sql = SELECT_ITEMS +
+                        (darrerCodi != null ? "WHERE it_codi > ? " : "") +
+                        "ORDER BY it_codi " +
+                        "FETCH FIRST ? ROWS ONLY";
+            
+            ps = conn.prepareStatement(sql);
+            int i = 1;
+            if (darrerCodi != null) {
+                ps.setString(i++, darrerCodi);
+            }
+            ps.setInt(i, size + 1);
+            rs = ps.executeQuery();
+            
+            while (rs.next()) {
+                items.add(mapResultSetToItem(rs));
+            }
+            
+            String seguent = null;
+            if (items.size() > size) {
+                items.remove(size);
+                seguent = Pagina.codificarCursor(items.get(size - 1).getItCodi());
+            }
+            
+            String desDe = darrerCodi;
+            LOG.info(() -> "📄 Pàgina després de " + desDe + " (mida " + size + "): " + items.size() + " items");
+            return new Pagina<>(items, seguent);
+            
+        } catch (SQLException e) {
+            logError(e);
+            return new Pagina<>(items, null);
+        } finally {
+            tancarRecursos(rs);
+            tancarRecursos(ps);
+            tancarRecursos(conn);
+        }
+    }
+
+    // ============================================
+    // RESUMS - Graelles sense it_desc ni it_foto
+    // ============================================
+    
+    @Override
+    public List<ItemResum> findAllResum() {
+        List<ItemResum> resums = llistarResums(null, 0);
+        LOG.info(() -> "📋 Resums d'items: " + resums.size());
+        return resums;
+    }
+    
+    @Override
+    public Pagina<ItemResum> findPageResumAfter(String cursor, int size) {
+        if (size < 1) {
+            LOG.error("❌ La mida ha de ser >= 1");
+            return new Pagina<>(new ArrayList<>(), null);
+        }
+        
+        String darrerCodi = null;
+        if (cursor != null) {
+            try {
+                darrerCodi = Pagina.descodificarCursor(cursor);
+            } catch (IllegalArgumentException e) {
+                LOG.error("❌ Cursor de paginació invàlid");
+                return new Pagina<>(new ArrayList<>(), null);
+            }
+        }
+        
+        // Una fila de més per saber si hi ha pàgina següent
+        List<ItemResum> resums = llistarResums(darrerCodi, size + 1);
+        String seguent = null;
+        if (resums.size() > size) {
+            resums.remove(size);
+            seguent = Pagina.codificarCursor(resums.get(size - 1).itCodi());
+        }
+        return new Pagina<>(resums, seguent);
+    }
+    
+    /**
+     * Resums ordenats per codi
+     * @param darrerCodi Només codis posteriors a aquest (null = des del principi)
+     * @param limit Màxim de files (0 = totes)
+     */
+    private List<ItemResum> llistarResums(String darrerCodi, int limit) {
+        List<ItemResum> resums = new ArrayList<>();
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        
+        try {
+            conn = getConnection();
+            
+            String sql = "SELECT i.it_codi, i.it_tipus, i.it_nom, i.it_stock, c.cm_preu_mig " +
+                        "FROM Item i " +
+                        "LEFT JOIN Component c ON c.cm_codi = i.it_codi " +
+                        (darrerCodi != null ? "WHERE i.it_codi > ? " : "") +
+                        "ORDER BY i.it_codi" +
+                        (limit > 0 ? " FETCH FIRST ? ROWS ONLY" : "");
+            
+            ps = conn.prepareStatement(sql);
+            int i = 1;
+            if (darrerCodi != null) {
+                ps.setString(i++, darrerCodi);
+            }
+            if (limit > 0) {
+                ps.setInt(i, limit);
+            }
+            rs = ps.executeQuery();
+            
+            while (rs.next()) {
+                resums.add(MAPEJADOR_RESUM.mapejar(rs));
+            }
+            
+        } catch (SQLException e) {
+            logError(e);
+            resums.clear();
+        } finally {
+            tancarRecursos(rs);
+            tancarRecursos(ps);
+            tancarRecursos(conn);
+        }
+        
+        return resums;
+    }
+
+    private static final MapejadorColumnes<ItemResum> MAPEJADOR_RESUM = new MapejadorColumnes<>(
+            (rs, c) -> {
+                double valor = rs.getDouble(c[4]);
+                Double preu = rs.wasNull() ? null : valor;
+                return new ItemResum(rs.getString(c[0]), rs.getString(c[1]), rs.getString(c[2]),
+                        rs.getInt(c[3]), preu);
+            },
+            "it_codi", "it_tipus", "it_nom", "it_stock", "cm_preu_mig");
+}
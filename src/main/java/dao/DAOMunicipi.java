@@ -10,6 +10,7 @@ import java.util.List;
 
 import abstractdao.AbstractDAOMunicipi;
 import model.Municipi;
+import util.MapejadorColumnes;
 
 /**
  * Implementació DAO per Municipi (READ-ONLY)
@@ -28,37 +29,39 @@ public class DAOMunicipi extends AbstractDAOMunicipi {
     @Override
     public List<Municipi> findAll() {
         List<Municipi> municipis = new ArrayList<>();
-        Connection conn = null;
-        Statement stmt = null;
-        ResultSet rs = null;
         
         try {
-            conn = getConnection();
-            String sql = "SELECT mu_pr_codi, mu_num, mu_nom " +
-                        "FROM Municipi " +
-                        "ORDER BY mu_pr_codi, mu_num";
-            
-            stmt = conn.createStatement();
-            rs = stmt.executeQuery(sql);
-            
-            while (rs.next()) {
-                Municipi m = mapResultSetToMunicipi(rs);
-                municipis.add(m);
-            }
-            
-            System.out.println("✅ findAll() - Trobats " + municipis.size() + " municipis");
+            municipis.addAll(carregarTots());
+            LOG.info(() -> "✅ findAll() - Trobats " + municipis.size() + " municipis");
             
         } catch (SQLException e) {
             logError(e);
-        } finally {
-            tancarRecursos(rs);
-            tancarRecursos(stmt);
-            tancarRecursos(conn);
         }
         
         return municipis;
     }
 
+    /**
+     * Tots els municipis ordenats per (mu_pr_codi, mu_num)
+     * Els errors es propaguen: DAOMunicipiAmbCache manté la instantània anterior si falla
+     * @return Llista amb totes les files
+     * @throws SQLException si falla la consulta
+     */
+    List<Municipi> carregarTots() throws SQLException {
+        List<Municipi> municipis = new ArrayList<>();
+        String sql = "SELECT mu_pr_codi, mu_num, mu_nom " +
+                    "FROM Municipi " +
+                    "ORDER BY mu_pr_codi, mu_num";
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                municipis.add(mapResultSetToMunicipi(rs));
+            }
+        }
+        return municipis;
+    }
+
     // ============================================
     // FIND BY ID - Cerca per PK composta
     // ============================================
@@ -67,7 +70,7 @@ public class DAOMunicipi extends AbstractDAOMunicipi {
     public Municipi findById(String prCodi, String muNum) {
         if (prCodi == null || prCodi.trim().isEmpty() || 
             muNum == null || muNum.trim().isEmpty()) {
-            System.err.println("❌ Codi província i número municipi obligatoris");
+            LOG.error("❌ Codi província i número municipi obligatoris");
             return null;
         }
         
@@ -88,10 +91,10 @@ public class DAOMunicipi extends AbstractDAOMunicipi {
             
             if (rs.next()) {
                 Municipi m = mapResultSetToMunicipi(rs);
-                System.out.println("✅ findById(" + prCodi + "," + muNum + ") - Trobat: " + m.getMuNom());
+                LOG.info(() -> "✅ findById(" + prCodi + "," + muNum + ") - Trobat: " + m.getMuNom());
                 return m;
             } else {
-                System.out.println("⚠️  findById(" + prCodi + "," + muNum + ") - No trobat");
+                LOG.info(() -> "⚠️  findById(" + prCodi + "," + muNum + ") - No trobat");
                 return null;
             }
             
@@ -114,7 +117,7 @@ public class DAOMunicipi extends AbstractDAOMunicipi {
         List<Municipi> municipis = new ArrayList<>();
         
         if (prCodi == null || prCodi.trim().isEmpty()) {
-            System.err.println("❌ Codi província no pot ser buit");
+            LOG.error("❌ Codi província no pot ser buit");
             return municipis;
         }
         
@@ -138,7 +141,7 @@ public class DAOMunicipi extends AbstractDAOMunicipi {
                 municipis.add(m);
             }
             
-            System.out.println("✅ getMunicipisDeProvincia(" + prCodi + ") - Trobats " + municipis.size() + " municipis");
+            LOG.info(() -> "✅ getMunicipisDeProvincia(" + prCodi + ") - Trobats " + municipis.size() + " municipis");
             
         } catch (SQLException e) {
             logError(e);
@@ -156,10 +159,16 @@ public class DAOMunicipi extends AbstractDAOMunicipi {
     // ============================================
     
     private Municipi mapResultSetToMunicipi(ResultSet rs) throws SQLException {
-        Municipi m = new Municipi();
-        m.setMuPrCodi(rs.getString("mu_pr_codi"));
-        m.setMuNum(rs.getString("mu_num"));
-        m.setMuNom(rs.getString("mu_nom"));
-        return m;
+        return MAPEJADOR_MUNICIPI.mapejar(rs);
     }
+
+    private static final MapejadorColumnes<Municipi> MAPEJADOR_MUNICIPI = new MapejadorColumnes<>(
+            (rs, c) -> {
+                Municipi m = new Municipi();
+                m.setMuPrCodi(rs.getString(c[0]));
+                m.setMuNum(rs.getString(c[1]));
+                m.setMuNom(rs.getString(c[2]));
+                return m;
+            },
+            "mu_pr_codi", "mu_num", "mu_nom");
 }
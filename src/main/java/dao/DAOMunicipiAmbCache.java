@@ -0,0 +1,109 @@
+package dao;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import model.Municipi;
+import util.CacheReferencia;
+import util.ConnexioOracle;
+
+/**
+ * DAOMunicipi amb cache en memòria (taula mestre READ-ONLY)
+ * 
+ * Índexs de la instantània (immutables):
+ * - PK composta (mu_pr_codi, mu_num) → findById O(1)
+ * - mu_pr_codi → municipis ordenats per mu_num (getMunicipisDeProvincia)
+ * 
+ * Si la cache no es pot carregar, delega a DAOMunicipi.
+ * Es retornen còpies: modificar-les no altera la instantània compartida.
+ * 
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public class DAOMunicipiAmbCache implements IDAOMunicipi {
+
+    /**
+     * Clau composta de Municipi
+     */
+    record ClauMunicipi(String prCodi, String muNum) {
+    }
+
+    private record Instantania(List<Municipi> tots,
+                               Map<ClauMunicipi, Municipi> perClau,
+                               Map<String, List<Municipi>> perProvincia) {
+    }
+
+    private final DAOMunicipi bd = new DAOMunicipi();
+    private final CacheReferencia<Instantania> cache = new CacheReferencia<>(
+            "Municipi", this::carregar,
+            ConnexioOracle.getPropietatInt("db.cache.ttlMs", 600000));
+
+    @Override
+    public List<Municipi> findAll() {
+        Instantania inst = cache.get();
+        return inst != null ? copiar(inst.tots()) : bd.findAll();
+    }
+
+    @Override
+    public Municipi findById(String prCodi, String muNum) {
+        if (prCodi == null || prCodi.trim().isEmpty() ||
+            muNum == null || muNum.trim().isEmpty()) {
+            return null;
+        }
+        Instantania inst = cache.get();
+        if (inst == null) {
+            return bd.findById(prCodi, muNum);
+        }
+        Municipi trobat = inst.perClau().get(new ClauMunicipi(prCodi, muNum));
+        return trobat != null ? new Municipi(trobat) : null;
+    }
+
+    @Override
+    public List<Municipi> getMunicipisDeProvincia(String prCodi) {
+        if (prCodi == null || prCodi.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+        Instantania inst = cache.get();
+        if (inst == null) {
+            return bd.getMunicipisDeProvincia(prCodi);
+        }
+        return copiar(inst.perProvincia().getOrDefault(prCodi, List.of()));
+    }
+
+    /**
+     * Torna a carregar la taula (p.ex. després d'un canvi fet fora de l'aplicació)
+     * @return true si s'ha carregat
+     */
+    public boolean refrescar() {
+        return cache.refrescar();
+    }
+
+    /**
+     * Còpies de les entitats de la instantània (les originals són compartides entre fils)
+     */
+    private static List<Municipi> copiar(List<Municipi> originals) {
+        List<Municipi> copies = new ArrayList<>(originals.size());
+        for (Municipi original : originals) {
+            copies.add(new Municipi(original));
+        }
+        return copies;
+    }
+
+    private Instantania carregar() throws SQLException {
+        // Ordenat per (mu_pr_codi, mu_num): cada llista per província queda ordenada per mu_num
+        List<Municipi> tots = bd.carregarTots();
+        Map<ClauMunicipi, Municipi> perClau = new HashMap<>();
+        Map<String, List<Municipi>> perProvincia = new HashMap<>();
+        for (Municipi m : tots) {
+            perClau.put(new ClauMunicipi(m.getMuPrCodi(), m.getMuNum()), m);
+            perProvincia.computeIfAbsent(m.getMuPrCodi(), k -> new ArrayList<>()).add(m);
+        }
+
+        Map<String, List<Municipi>> perProvinciaImmutable = new HashMap<>();
+        perProvincia.forEach((pr, llista) -> perProvinciaImmutable.put(pr, List.copyOf(llista)));
+        return new Instantania(List.copyOf(tots), Map.copyOf(perClau), Map.copyOf(perProvinciaImmutable));
+    }
+}
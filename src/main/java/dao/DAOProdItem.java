@@ -1,15 +1,22 @@
 package dao;
 
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import abstractdao.AbstractDAOProdItem;
 import model.ProdItem;
 import util.ConnexioOracle;
+import util.ConsultaStream;
 
 /**
  * Implementació Oracle de IDAOProdItem
@@ -70,8 +77,9 @@ public class DAOProdItem extends AbstractDAOProdItem {
             int rows = ps.executeUpdate();
 
             if (rows > 0) {
-                logInfo("ProdItem inserit correctament: " + 
+                logInfo(() -> "ProdItem inserit correctament: " + 
                        prodItem.getPiPrCodi() + " - " + prodItem.getPiItCodi());
+                invalidarCachePreus();
                 return true;
             } else {
                 logError("No s'ha pogut inserir el ProdItem");
@@ -117,8 +125,9 @@ public class DAOProdItem extends AbstractDAOProdItem {
             int rows = ps.executeUpdate();
 
             if (rows > 0) {
-                logInfo("ProdItem actualitzat correctament: " + 
+                logInfo(() -> "ProdItem actualitzat correctament: " + 
                        prodItem.getPiPrCodi() + " - " + prodItem.getPiItCodi());
+                invalidarCachePreus();
                 return true;
             } else {
                 logError("No s'ha trobat el ProdItem a actualitzar: " + 
@@ -163,7 +172,8 @@ public class DAOProdItem extends AbstractDAOProdItem {
             int rows = ps.executeUpdate();
 
             if (rows > 0) {
-                logInfo("ProdItem eliminat correctament: " + prCodi + " - " + itCodi);
+                logInfo(() -> "ProdItem eliminat correctament: " + prCodi + " - " + itCodi);
+                invalidarCachePreus();
                 return true;
             } else {
                 logError("No s'ha trobat el ProdItem a eliminar: " + prCodi + " - " + itCodi);
@@ -179,6 +189,139 @@ public class DAOProdItem extends AbstractDAOProdItem {
         }
     }
 
+    // ==========================================
+    // INSERCIÓ MASSIVA (JDBC BATCH)
+    // ==========================================
+
+    /**
+     * Insereix moltes línies de BOM amb la mida de lot per defecte
+     */
+    @Override
+    public int[] insertarBatch(List<ProdItem> linies) {
+        return insertarBatch(linies, MIDA_LOT_PER_DEFECTE);
+    }
+
+    /**
+     * Insereix moltes línies de BOM amb addBatch/executeBatch
+     * 
+     * 1. Valida totes les línies (i PKs repetides dins la llista) sense tocar la BD
+     * 2. Una connexió, una sentència i una transacció per tota la llista
+     * 3. executeBatch cada midaLot files
+     * 4. Si qualsevol lot falla, es desfà tot
+     */
+    @Override
+    public int[] insertarBatch(List<ProdItem> linies, int midaLot) {
+        if (linies == null || linies.isEmpty()) {
+            return new int[0];
+        }
+        if (midaLot <= 0) {
+            logError("La mida de lot ha de ser > 0, valor actual: " + midaLot);
+            midaLot = MIDA_LOT_PER_DEFECTE;
+        }
+
+        int[] resultat = new int[linies.size()];
+
+        // Validació prèvia: si una línia és invàlida no s'envia res
+        boolean totesValides = true;
+        Set<String> claus = new HashSet<>();
+        for (int i = 0; i < linies.size(); i++) {
+            ProdItem linia = linies.get(i);
+            boolean valida = validarEntitat(linia)
+                    && validarPKComposta(linia.getPiPrCodi(), linia.getPiItCodi());
+            if (valida && !claus.add(linia.getPiPrCodi() + "|" + linia.getPiItCodi())) {
+                logError("Línia repetida dins el lot: " + linia.getPiPrCodi() + " - " + linia.getPiItCodi());
+                valida = false;
+            }
+            if (!valida) {
+                resultat[i] = Statement.EXECUTE_FAILED;
+                totesValides = false;
+            }
+        }
+        if (!totesValides) {
+            logError("Lot rebutjat: hi ha línies invàlides, no s'ha inserit cap línia");
+            return resultat;
+        }
+
+        String sql = """
+            INSERT INTO Prod_Item (pi_pr_codi, pi_it_codi, quantitat)
+            VALUES (?, ?, ?)
+            """;
+
+        Connection conn = null;
+        PreparedStatement ps = null;
+        int inici = 0;
+
+        try {
+            conn = getConnection();
+            conn.setAutoCommit(false);
+            ps = conn.prepareStatement(sql);
+
+            while (inici < linies.size()) {
+                int fi = Math.min(inici + midaLot, linies.size());
+                for (int i = inici; i < fi; i++) {
+                    ProdItem linia = linies.get(i);
+                    ps.setString(1, linia.getPiPrCodi());
+                    ps.setString(2, linia.getPiItCodi());
+                    ps.setInt(3, linia.getQuantitat());
+                    ps.addBatch();
+                }
+                int[] comptes = ps.executeBatch();
+                System.arraycopy(comptes, 0, resultat, inici, comptes.length);
+                inici = fi;
+            }
+
+            conn.commit();
+            int lot = midaLot;
+            logInfo(() -> "Inserides " + linies.size() + " línies de BOM en lots de " + lot);
+            invalidarCachePreus();
+            return resultat;
+
+        } catch (SQLException e) {
+            logError("Error insertant lot de ProdItem: " + e.getMessage());
+            desfer(conn);
+
+            // Tot s'ha desfet: només es marquen les files que han fallat
+            Arrays.fill(resultat, 0);
+            if (e instanceof BatchUpdateException bue && bue.getUpdateCounts() != null) {
+                int[] comptes = bue.getUpdateCounts();
+                int midaLotActual = Math.min(midaLot, linies.size() - inici);
+                for (int k = 0; k < comptes.length && inici + k < resultat.length; k++) {
+                    if (comptes[k] == Statement.EXECUTE_FAILED) {
+                        resultat[inici + k] = Statement.EXECUTE_FAILED;
+                    }
+                }
+                // El driver s'atura a la primera fila errònia
+                if (comptes.length < midaLotActual) {
+                    resultat[inici + comptes.length] = Statement.EXECUTE_FAILED;
+                }
+            }
+            return resultat;
+
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                } catch (SQLException e) {
+                    logError("Error restaurant autocommit: " + e.getMessage());
+                }
+            }
+            tancarRecursos(null, ps, conn);
+        }
+    }
+
+    /**
+     * Desfà la transacció de forma segura
+     */
+    private void desfer(Connection conn) {
+        if (conn != null) {
+            try {
+                conn.rollback();
+            } catch (SQLException e) {
+                logError("Error fent rollback: " + e.getMessage());
+            }
+        }
+    }
+
     // ==========================================
     // MÈTODES DE CONSULTA
     // ==========================================
@@ -215,7 +358,7 @@ public class DAOProdItem extends AbstractDAOProdItem {
             if (rs.next()) {
                 return mapResultSetToProdItem(rs);
             } else {
-                logInfo("No s'ha trobat el ProdItem: " + prCodi + " - " + itCodi);
+                logInfo(() -> "No s'ha trobat el ProdItem: " + prCodi + " - " + itCodi);
                 return null;
             }
 
@@ -254,7 +397,7 @@ public class DAOProdItem extends AbstractDAOProdItem {
                 prodItems.add(mapResultSetToProdItem(rs));
             }
 
-            logInfo("S'han trobat " + prodItems.size() + " relacions Producte-Item");
+            logInfo(() -> "S'han trobat " + prodItems.size() + " relacions Producte-Item");
 
         } catch (SQLException e) {
             logError("Error obtenint totes les relacions: " + e.getMessage());
@@ -266,6 +409,24 @@ public class DAOProdItem extends AbstractDAOProdItem {
         return prodItems;
     }
 
+    /**
+     * Recorre totes les relacions Producte-Item sense carregar-les en una llista
+     */
+    @Override
+    public Stream<ProdItem> streamAll() {
+        String sql = """
+            SELECT pi_pr_codi, pi_it_codi, quantitat
+            FROM Prod_Item
+            ORDER BY pi_pr_codi, pi_it_codi
+            """;
+        try {
+            return ConsultaStream.obrir(sql, ConsultaStream.getFetchSizePerDefecte(), this::mapResultSetToProdItem);
+        } catch (SQLException e) {
+            logError("Error obrint el recorregut de relacions: " + e.getMessage());
+            return Stream.empty();
+        }
+    }
+
     /**
      * Obté tots els items (components/subproductes) d'un producte
      * Útil per generar el BOM (Bill of Materials)
@@ -301,7 +462,7 @@ public class DAOProdItem extends AbstractDAOProdItem {
                 items.add(mapResultSetToProdItem(rs));
             }
 
-            logInfo("Producte " + prCodi + " té " + items.size() + " items");
+            logInfo(() -> "Producte " + prCodi + " té " + items.size() + " items");
 
         } catch (SQLException e) {
             logError("Error obtenint items del producte: " + e.getMessage());
@@ -352,7 +513,7 @@ public class DAOProdItem extends AbstractDAOProdItem {
 
             if (rs.next()) {
                 int total = rs.getInt("total");
-                logInfo("Total de relacions Producte-Item: " + total);
+                logInfo(() -> "Total de relacions Producte-Item: " + total);
                 return total;
             }
 
@@ -5,11 +5,19 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import abstractdao.AbstractDAOProducte;
+import model.Pagina;
 import model.Producte;
 import util.ConnexioOracle;
+import util.LlistaIn;
 
 /**
  * Implementació Oracle de IDAOProducte
@@ -20,6 +28,9 @@ import util.ConnexioOracle;
  */
 public class DAOProducte extends AbstractDAOProducte {
 
+    // Profunditat màxima del BOM que recorre calcularPreuTotal (topall de cicles i camins)
+    private final int maxNivellsBom = ConnexioOracle.getPropietatInt("db.bom.maxNivells", 50);
+
     /**
      * Constructor buit
      */
@@ -88,7 +99,7 @@ public class DAOProducte extends AbstractDAOProducte {
             // ✅ Commit si ambdós INSERTs van bé
             if (rowsItem > 0 && rowsProducte > 0) {
                 conn.commit();
-                logInfo("Producte inserit correctament: " + producte.getPrCodi());
+                logInfo(() -> "Producte inserit correctament: " + producte.getPrCodi());
                 return true;
             } else {
                 conn.rollback();
@@ -149,7 +160,7 @@ public class DAOProducte extends AbstractDAOProducte {
             int rows = ps.executeUpdate();
 
             if (rows > 0) {
-                logInfo("Producte actualitzat correctament: " + producte.getPrCodi());
+                logInfo(() -> "Producte actualitzat correctament: " + producte.getPrCodi());
                 return true;
             } else {
                 logError("No s'ha trobat el producte a actualitzar: " + producte.getPrCodi());
@@ -198,7 +209,7 @@ public class DAOProducte extends AbstractDAOProducte {
             // ✅ Commit si ambdós DELETEs van bé
             if (rowsProducte > 0 && rowsItem > 0) {
                 conn.commit();
-                logInfo("Producte eliminat correctament: " + prCodi);
+                logInfo(() -> "Producte eliminat correctament: " + prCodi);
                 return true;
             } else {
                 conn.rollback();
@@ -260,7 +271,7 @@ public class DAOProducte extends AbstractDAOProducte {
             if (rs.next()) {
                 return mapResultSetToProducte(rs);
             } else {
-                logInfo("No s'ha trobat el producte: " + prCodi);
+                logInfo(() -> "No s'ha trobat el producte: " + prCodi);
                 return null;
             }
 
@@ -273,6 +284,55 @@ public class DAOProducte extends AbstractDAOProducte {
         }
     }
 
+    /**
+     * Cerca molts productes alhora (llistes IN de com a màxim 1000 codis)
+     */
+    @Override
+    public Map<String, Producte> findByIds(Collection<String> codis) {
+        Map<String, Producte> productes = new LinkedHashMap<>();
+        if (codis == null || codis.isEmpty()) {
+            return productes;
+        }
+
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        try {
+            conn = getConnection();
+
+            for (List<String> tros : LlistaIn.trossos(codis)) {
+                String sql = """
+                    SELECT i.it_codi, i.it_tipus, i.it_nom, i.it_desc, i.it_stock, i.it_foto,
+                           p.pr_codi
+                    FROM Item i
+                    JOIN Producte p ON i.it_codi = p.pr_codi
+                    WHERE p.pr_codi IN (%s)
+                    """.formatted(LlistaIn.marcadors(tros.size()));
+
+                ps = conn.prepareStatement(sql);
+                LlistaIn.assignar(ps, tros);
+                rs = ps.executeQuery();
+
+                while (rs.next()) {
+                    Producte producte = mapResultSetToProducte(rs);
+                    productes.put(producte.getPrCodi(), producte);
+                }
+                tancarRecursos(rs, ps, null);
+            }
+
+            logInfo(() -> "Trobats " + productes.size() + " de " + codis.size() + " productes");
+            return productes;
+
+        } catch (SQLException e) {
+            logError("Error cercant productes: " + e.getMessage());
+            return new LinkedHashMap<>();
+
+        } finally {
+            tancarRecursos(rs, ps, conn);
+        }
+    }
+
     /**
      * Obté tots els productes
      */
@@ -301,7 +361,7 @@ public class DAOProducte extends AbstractDAOProducte {
                 productes.add(mapResultSetToProducte(rs));
             }
 
-            logInfo("S'han trobat " + productes.size() + " productes");
+            logInfo(() -> "S'han trobat " + productes.size() + " productes");
 
         } catch (SQLException e) {
             logError("Error obtenint tots els productes: " + e.getMessage());
@@ -355,7 +415,7 @@ public class DAOProducte extends AbstractDAOProducte {
                 productes.add(mapResultSetToProducte(rs));
             }
 
-            logInfo("Pàgina " + page + " amb " + productes.size() + " productes");
+            logInfo(() -> "Pàgina " + page + " amb " + productes.size() + " productes");
 
         } catch (SQLException e) {
             logError("Error obtenint productes paginats: " + e.getMessage());
@@ -367,6 +427,79 @@ public class DAOProducte extends AbstractDAOProducte {
         return productes;
     }
 
+    /**
+     * Obté la pàgina següent per clau (keyset)
+     * Cost constant: l'índex de la PK salta directament després del cursor
+     */
+    @Override
+    public Pagina<Producte> findPageAfter(String cursor, int size) {
+        List<Producte> productes = new ArrayList<>();
+
+        if (size < 1) {
+            logError("Mida de pàgina invàlida: size=" + size);
+            return new Pagina<>(productes, null);
+        }
+
+        String darrerCodi = null;
+        if (cursor != null) {
+            try {
+                darrerCodi = Pagina.descodificarCursor(cursor);
+            } catch (IllegalArgumentException e) {
+                logError("Cursor de paginació invàlid: " + cursor);
+                return new Pagina<>(productes, null);
+            }
+        }
+
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        try {
+            conn = getConnection();
+
+            // Es llegeix una fila de més per saber si hi ha pàgina següent
+            String sql = """
+                SELECT i.it_codi, i.it_tipus, i.it_nom, i.it_desc, i.it_stock, i.it_foto,
+                       p.pr_codi
+                FROM Item i
+                JOIN Producte p ON i.it_codi = p.pr_codi
+                %s
+                ORDER BY p.pr_codi
+                FETCH FIRST ? ROWS ONLY
+                """.formatted(darrerCodi != null ? "WHERE p.pr_codi > ?" : "");
+
+            ps = conn.prepareStatement(sql);
+            int i = 1;
+            if (darrerCodi != null) {
+                ps.setString(i++, darrerCodi);
+            }
+            ps.setInt(i, size + 1);
+
+            rs = ps.executeQuery();
+
+            while (rs.next()) {
+                productes.add(mapResultSetToProducte(rs));
+            }
+
+            String seguent = null;
+            if (productes.size() > size) {
+                productes.remove(size);
+                seguent = Pagina.codificarCursor(productes.get(size - 1).getPrCodi());
+            }
+
+            String desDe = darrerCodi;
+            logInfo(() -> "Pàgina després de " + desDe + " amb " + productes.size() + " productes");
+            return new Pagina<>(productes, seguent);
+
+        } catch (SQLException e) {
+            logError("Error obtenint pàgina de productes: " + e.getMessage());
+            return new Pagina<>(productes, null);
+
+        } finally {
+            tancarRecursos(rs, ps, conn);
+        }
+    }
+
     /**
      * Filtra productes per patró de codi (case-insensitive)
      */
@@ -404,7 +537,7 @@ public class DAOProducte extends AbstractDAOProducte {
                 productes.add(mapResultSetToProducte(rs));
             }
 
-            logInfo("Filtrant per '" + codiPattern + "': " + productes.size() + " productes trobats");
+            logInfo(() -> "Filtrant per '" + codiPattern + "': " + productes.size() + " productes trobats");
 
         } catch (SQLException e) {
             logError("Error filtrant per codi: " + e.getMessage());
@@ -421,10 +554,17 @@ public class DAOProducte extends AbstractDAOProducte {
      * el preu de tots els seus components (BOM)
      * 
      * Algoritme:
-     * 1. Si el producte no té components → preu = 0
-     * 2. Per cada component del producte:
+     * 1. Una sola consulta: el WITH recursiu només recorre els codis dels
+     *    subproductes (fins a db.bom.maxNivells nivells, topall per als cicles) i
+     *    en retorna cada línia de Prod_Item un sol cop (arestes, no camins:
+     *    un subproducte compartit no multiplica les files que arriben a Java)
+     * 2. En Java, per cada producte (memoritzat, els subproductes compartits
+     *    només es calculen un cop):
      *    - Si és Component → sumar (quantitat × preu_mig del component)
-     *    - Si és Producte → sumar (quantitat × calcularPreuTotal recursiu)
+     *    - Si és Producte → sumar (quantitat × preu del subproducte)
+     * 3. Si el producte no té components → preu = 0
+     * 4. Si el BOM té un cicle o és més profund que db.bom.maxNivells → error i preu = 0
+     *    (mai una suma parcial)
      */
     @Override
     public double calcularPreuTotal(String prCodi) {
@@ -441,46 +581,74 @@ public class DAOProducte extends AbstractDAOProducte {
         try {
             conn = getConnection();
 
-            // Obtenir tots els items (components/subproductes) d'aquest producte
+            // Productes del BOM (qualsevol nivell) i, un cop cadascuna, les seves línies
             String sql = """
-                SELECT 
-                    pi.pi_it_codi,
+                WITH bom (codi, nivell) AS (
+                    SELECT pr_codi, 0
+                    FROM Producte
+                    WHERE pr_codi = ?
+                    UNION ALL
+                    SELECT pi.pi_it_codi, b.nivell + 1
+                    FROM Prod_Item pi
+                    JOIN bom b ON pi.pi_pr_codi = b.codi
+                    JOIN Producte p ON p.pr_codi = pi.pi_it_codi
+                    WHERE b.nivell < ?
+                )
+                SELECT
+                    pi.pi_pr_codi AS pare,
+                    pi.pi_it_codi AS fill,
                     pi.quantitat,
                     i.it_tipus,
-                    c.cm_preu_mig
-                FROM Prod_Item pi
+                    c.cm_preu_mig,
+                    MIN(b.nivell) AS nivell
+                FROM bom b
+                JOIN Prod_Item pi ON pi.pi_pr_codi = b.codi
                 JOIN Item i ON pi.pi_it_codi = i.it_codi
                 LEFT JOIN Component c ON i.it_codi = c.cm_codi
-                WHERE pi.pi_pr_codi = ?
+                GROUP BY pi.pi_pr_codi, pi.pi_it_codi, pi.quantitat, i.it_tipus, c.cm_preu_mig
                 """;
 
             ps = conn.prepareStatement(sql);
             ps.setString(1, prCodi);
+            ps.setInt(2, maxNivellsBom);
 
             rs = ps.executeQuery();
 
+            // Línies agrupades per producte pare
+            Map<String, List<LiniaBOM>> liniesPerPare = new HashMap<>();
+            // Subproductes que el WITH no ha expandit (només hi arriben des del darrer nivell)
+            Set<String> alLimit = new HashSet<>();
+            Set<String> expandits = new HashSet<>();
+
             while (rs.next()) {
-                String itCodi = rs.getString("pi_it_codi");
+                String pare = rs.getString("pare");
+                String itCodi = rs.getString("fill");
                 int quantitat = rs.getInt("quantitat");
                 String itTipus = rs.getString("it_tipus");
-                
-                double preuItem = 0.0;
-
-                if ("C".equals(itTipus)) {
-                    // És un Component → usar cm_preu_mig directament
-                    Double preuMig = rs.getDouble("cm_preu_mig");
-                    if (!rs.wasNull()) {
-                        preuItem = preuMig;
-                    }
-                } else if ("P".equals(itTipus)) {
-                    // És un Producte → calcular recursivament
-                    preuItem = calcularPreuTotal(itCodi);
+
+                double preuMig = rs.getDouble("cm_preu_mig");
+                if (rs.wasNull()) {
+                    preuMig = 0.0;
                 }
 
-                preuTotal += (quantitat * preuItem);
+                liniesPerPare.computeIfAbsent(pare, k -> new ArrayList<>())
+                        .add(new LiniaBOM(itCodi, quantitat, itTipus, preuMig));
+
+                if ("P".equals(itTipus)) {
+                    (rs.getInt("nivell") >= maxNivellsBom ? alLimit : expandits).add(itCodi);
+                }
+            }
+
+            alLimit.removeAll(expandits);
+            if (!alLimit.isEmpty()) {
+                throw new SQLException("BOM de " + prCodi + " més profund que " + maxNivellsBom
+                        + " nivells (db.bom.maxNivells): " + alLimit);
             }
 
-            logInfo("Preu total de " + prCodi + ": " + preuTotal);
+            preuTotal = sumarPreu(prCodi, liniesPerPare, new HashMap<>(), new HashSet<>());
+
+            double calculat = preuTotal;
+            logInfo(() -> "Preu total de " + prCodi + ": " + calculat);
 
         } catch (SQLException e) {
             logError("Error calculant preu total: " + e.getMessage());
@@ -492,6 +660,52 @@ public class DAOProducte extends AbstractDAOProducte {
         return preuTotal;
     }
 
+    /**
+     * Línia del BOM explotat (fill d'un producte)
+     */
+    private record LiniaBOM(String itCodi, int quantitat, String itTipus, double preuMig) {
+    }
+
+    /**
+     * Suma el preu d'un producte a partir de les línies ja carregades
+     * @param prCodi Producte a calcular
+     * @param liniesPerPare Línies del BOM agrupades per producte pare
+     * @param memo Preus ja calculats (subproductes compartits)
+     * @param enCurs Productes del camí actual (detecció de cicles)
+     * @return Preu total del producte
+     * @throws SQLException si el BOM té un cicle
+     */
+    private double sumarPreu(String prCodi, Map<String, List<LiniaBOM>> liniesPerPare,
+                             Map<String, Double> memo, Set<String> enCurs) throws SQLException {
+        Double calculat = memo.get(prCodi);
+        if (calculat != null) {
+            return calculat;
+        }
+        if (!enCurs.add(prCodi)) {
+            throw new SQLException("Cicle al BOM: " + prCodi + " es conté a si mateix");
+        }
+
+        double preuTotal = 0.0;
+
+        for (LiniaBOM linia : liniesPerPare.getOrDefault(prCodi, List.of())) {
+            double preuItem = 0.0;
+
+            if ("C".equals(linia.itTipus())) {
+                // És un Component → usar cm_preu_mig directament
+                preuItem = linia.preuMig();
+            } else if ("P".equals(linia.itTipus())) {
+                // És un Producte → preu del subproducte
+                preuItem = sumarPreu(linia.itCodi(), liniesPerPare, memo, enCurs);
+            }
+
+            preuTotal += (linia.quantitat() * preuItem);
+        }
+
+        enCurs.remove(prCodi);
+        memo.put(prCodi, preuTotal);
+        return preuTotal;
+    }
+
     /**
      * Compta el total de productes
      */
@@ -511,7 +725,7 @@ public class DAOProducte extends AbstractDAOProducte {
 
             if (rs.next()) {
                 int total = rs.getInt("total");
-                logInfo("Total de productes: " + total);
+                logInfo(() -> "Total de productes: " + total);
                 return total;
             }
 
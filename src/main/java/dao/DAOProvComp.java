@@ -1,14 +1,27 @@
 package dao;
 
+import java.sql.CallableStatement;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import abstractdao.AbstractDAOProvComp;
 import model.ProvComp;
+import model.ResultatImportacio;
+import model.VistaProveidorComponent;
+import util.ConsultaStream;
+import util.LlistaIn;
 
 /**
  * Implementació DAO per Proveïdor-Component (relació N:N)
@@ -23,12 +36,44 @@ import model.ProvComp;
  * 2. Trigger trg_prov_comp_after (AFTER STATEMENT)
  * 3. Crida preu_mig_pkg.recalcula_tots_preus()
  * 4. UPDATE Component SET cm_preu_mig = AVG(pc_preu)
+ * 5. Si hi ha CachePreusProductes activa, es propaga el nou preu als productes
+ * 
+ * Per carregar tarifes senceres, importarPreus() escalona les files a la taula
+ * temporal global Prov_Comp_Tarifa (executeBatch) i fa un sol MERGE de text fix
+ * des d'aquesta taula: el trigger es dispara un cop per tarifa, no per fila,
+ * i Oracle analitza el MERGE un sol cop sigui quina sigui la mida de la tarifa.
+ * 
+ * DDL de la taula temporal (les files només les veu la sessió i desapareixen amb el commit):
+ *   CREATE GLOBAL TEMPORARY TABLE Prov_Comp_Tarifa (
+ *       pt_cm_codi  VARCHAR2(10)  NOT NULL,
+ *       pt_pv_codi  VARCHAR2(10)  NOT NULL,
+ *       pt_preu     NUMBER(12, 2) NOT NULL,
+ *       PRIMARY KEY (pt_cm_codi, pt_pv_codi)
+ *   ) ON COMMIT DELETE ROWS;
  * 
  * @author DomenechObiolAlbert
  * @version 1.0
  */
 public class DAOProvComp extends AbstractDAOProvComp {
 
+    // Files per executeBatch en escalonar una tarifa
+    private static final int MIDA_LOT_TARIFA = 1000;
+
+    private static final String SQL_ESCALONAR_TARIFA =
+            "INSERT INTO Prov_Comp_Tarifa (pt_cm_codi, pt_pv_codi, pt_preu) VALUES (?, ?, ?)";
+
+    private static final String SQL_EXISTENTS_TARIFA =
+            "SELECT COUNT(*) FROM Prov_Comp_Tarifa t " +
+            "JOIN Prov_Comp d ON d.pc_cm_codi = t.pt_cm_codi AND d.pc_pv_codi = t.pt_pv_codi";
+
+    private static final String SQL_MERGE_TARIFA =
+            "MERGE INTO Prov_Comp d " +
+            "USING Prov_Comp_Tarifa s " +
+            "ON (d.pc_cm_codi = s.pt_cm_codi AND d.pc_pv_codi = s.pt_pv_codi) " +
+            "WHEN MATCHED THEN UPDATE SET d.pc_preu = s.pt_preu " +
+            "WHEN NOT MATCHED THEN INSERT (pc_cm_codi, pc_pv_codi, pc_preu) " +
+            "VALUES (s.pt_cm_codi, s.pt_pv_codi, s.pt_preu)";
+
     // ============================================
     // INSERT - Afegeix nou proveïdor a component
     //  DISPARA TRIGGER!
@@ -49,7 +94,7 @@ public class DAOProvComp extends AbstractDAOProvComp {
         try {
             conn = getConnection();
             if (conn == null) {
-                System.err.println("No s'ha pogut obtenir connexió");
+                LOG.error("No s'ha pogut obtenir connexió");
                 return false;
             }
 
@@ -61,9 +106,10 @@ public class DAOProvComp extends AbstractDAOProvComp {
             int rows = ps.executeUpdate();
 
             if (rows > 0) {
-                System.out.println(" Relació inserida: " + pc.getPcCmCodi() + 
+                LOG.info(() -> " Relació inserida: " + pc.getPcCmCodi() + 
                                  " - " + pc.getPcPvCodi() + " = " + pc.getPcPreu() + "€");
-                System.out.println("Trigger activat! cm_preu_mig recalculat automàticament");
+                LOG.info("Trigger activat! cm_preu_mig recalculat automàticament");
+                notificarCanviPreu(conn, pc.getPcCmCodi());
                 return true;
             }
 
@@ -72,11 +118,11 @@ public class DAOProvComp extends AbstractDAOProvComp {
         } catch (SQLException e) {
             // Error comú: FK constraint (component o proveïdor no existeix)
             if (e.getErrorCode() == 2291) {
-                System.err.println(" Component o Proveïdor no existeix a la BD");
+                LOG.error(" Component o Proveïdor no existeix a la BD");
             }
             // Error comú: PK duplicada
             else if (e.getErrorCode() == 1) {
-                System.err.println(" Aquesta relació ja existeix!");
+                LOG.error(" Aquesta relació ja existeix!");
             }
             logError(e);
             return false;
@@ -108,7 +154,7 @@ public class DAOProvComp extends AbstractDAOProvComp {
         try {
             conn = getConnection();
             if (conn == null) {
-                System.err.println("No s'ha pogut obtenir connexió");
+                LOG.error("No s'ha pogut obtenir connexió");
                 return false;
             }
 
@@ -120,12 +166,13 @@ public class DAOProvComp extends AbstractDAOProvComp {
             int rows = ps.executeUpdate();
 
             if (rows > 0) {
-                System.out.println("Preu actualitzat: " + pc.getPcCmCodi() + 
+                LOG.info(() -> "Preu actualitzat: " + pc.getPcCmCodi() + 
                                  " - " + pc.getPcPvCodi() + " → " + pc.getPcPreu() + "€");
-                System.out.println(" Trigger activat! cm_preu_mig recalculat automàticament");
+                LOG.info(" Trigger activat! cm_preu_mig recalculat automàticament");
+                notificarCanviPreu(conn, pc.getPcCmCodi());
                 return true;
             } else {
-                System.err.println(" Relació no trobada: " + 
+                LOG.error(() -> " Relació no trobada: " + 
                                  pc.getPcCmCodi() + " - " + pc.getPcPvCodi());
                 return false;
             }
@@ -149,7 +196,7 @@ public class DAOProvComp extends AbstractDAOProvComp {
     public boolean eliminar(String cmCodi, String pvCodi) {
         if (cmCodi == null || cmCodi.trim().isEmpty() || 
             pvCodi == null || pvCodi.trim().isEmpty()) {
-            System.err.println("  Codis buits!");
+            LOG.error("  Codis buits!");
             return false;
         }
 
@@ -162,7 +209,7 @@ public class DAOProvComp extends AbstractDAOProvComp {
         try {
             conn = getConnection();
             if (conn == null) {
-                System.err.println("No s'ha pogut obtenir connexió");
+                LOG.error("No s'ha pogut obtenir connexió");
                 return false;
             }
 
@@ -173,11 +220,12 @@ public class DAOProvComp extends AbstractDAOProvComp {
             int rows = ps.executeUpdate();
 
             if (rows > 0) {
-                System.out.println("Relació eliminada: " + cmCodi + " - " + pvCodi);
-                System.out.println("  Trigger activat! cm_preu_mig recalculat automàticament");
+                LOG.info(() -> "Relació eliminada: " + cmCodi + " - " + pvCodi);
+                LOG.info("  Trigger activat! cm_preu_mig recalculat automàticament");
+                notificarCanviPreu(conn, cmCodi);
                 return true;
             } else {
-                System.err.println(" Relació no trobada: " + cmCodi + " - " + pvCodi);
+                LOG.error(() -> " Relació no trobada: " + cmCodi + " - " + pvCodi);
                 return false;
             }
 
@@ -191,6 +239,200 @@ public class DAOProvComp extends AbstractDAOProvComp {
         }
     }
 
+    // ============================================
+    // ESCRIPTURES QUE RETORNEN EL NOU cm_preu_mig
+    // DML + lectura del preu en una sola anada i tornada
+    // ============================================
+
+    // null fins a la primera escriptura (depèn del driver configurat)
+    private static volatile Boolean esOracle;
+
+    @Override
+    public Double insertarAmbPreu(ProvComp pc) {
+        if (!validarEntitat(pc)) {
+            return null;
+        }
+
+        String sql = "INSERT INTO Prov_Comp (pc_cm_codi, pc_pv_codi, pc_preu) " +
+                     "VALUES (?, ?, ?)";
+
+        Double preuMig = escriureAmbPreu(sql, pc.getPcCmCodi(),
+                pc.getPcCmCodi(), pc.getPcPvCodi(), pc.getPcPreu());
+        if (preuMig != null) {
+            LOG.info(() -> " Relació inserida: " + pc.getPcCmCodi() +
+                             " - " + pc.getPcPvCodi() + " → cm_preu_mig = " + preuMig + "€");
+        }
+        return preuMig;
+    }
+
+    @Override
+    public Double actualitzarAmbPreu(ProvComp pc) {
+        if (!validarEntitat(pc)) {
+            return null;
+        }
+
+        String sql = "UPDATE Prov_Comp " +
+                     "SET pc_preu = ? " +
+                     "WHERE pc_cm_codi = ? AND pc_pv_codi = ?";
+
+        Double preuMig = escriureAmbPreu(sql, pc.getPcCmCodi(),
+                pc.getPcPreu(), pc.getPcCmCodi(), pc.getPcPvCodi());
+        if (preuMig != null) {
+            LOG.info(() -> "Preu actualitzat: " + pc.getPcCmCodi() +
+                             " - " + pc.getPcPvCodi() + " → cm_preu_mig = " + preuMig + "€");
+        } else {
+            LOG.error(() -> " Relació no actualitzada: " +
+                             pc.getPcCmCodi() + " - " + pc.getPcPvCodi());
+        }
+        return preuMig;
+    }
+
+    @Override
+    public Double eliminarAmbPreu(String cmCodi, String pvCodi) {
+        if (cmCodi == null || cmCodi.trim().isEmpty() ||
+            pvCodi == null || pvCodi.trim().isEmpty()) {
+            LOG.error("  Codis buits!");
+            return null;
+        }
+
+        String sql = "DELETE FROM Prov_Comp " +
+                     "WHERE pc_cm_codi = ? AND pc_pv_codi = ?";
+
+        Double preuMig = escriureAmbPreu(sql, cmCodi, cmCodi, pvCodi);
+        if (preuMig != null) {
+            LOG.info(() -> "Relació eliminada: " + cmCodi + " - " + pvCodi +
+                             " → cm_preu_mig = " + preuMig + "€");
+        } else {
+            LOG.error(() -> " Relació no eliminada: " + cmCodi + " - " + pvCodi);
+        }
+        return preuMig;
+    }
+
+    /**
+     * Executa una DML sobre Prov_Comp i llegeix el cm_preu_mig que ha deixat el trigger
+     * 
+     * Oracle: un bloc PL/SQL anònim (DML; SQL%ROWCOUNT; SELECT ... INTO) → una anada i tornada
+     * Altres BD (H2 als tests): DML + SELECT sobre la mateixa connexió
+     * 
+     * @param dml Sentència INSERT/UPDATE/DELETE amb paràmetres
+     * @param cmCodi Component del qual es llegeix el preu
+     * @param parametres Valors dels paràmetres de la DML
+     * @return cm_preu_mig (0.0 si és null) o null si no s'ha modificat cap fila
+     */
+    private Double escriureAmbPreu(String dml, String cmCodi, Object... parametres) {
+        Connection conn = null;
+
+        try {
+            conn = getConnection();
+            if (conn == null) {
+                LOG.error("No s'ha pogut obtenir connexió");
+                return null;
+            }
+
+            Double preuMig = esOracle(conn)
+                    ? escriureAmbBlocPlsql(conn, dml, cmCodi, parametres)
+                    : escriureIConsultar(conn, dml, cmCodi, parametres);
+
+            if (preuMig != null) {
+                notificarCanviPreus(Map.of(cmCodi, preuMig));
+            }
+            return preuMig;
+
+        } catch (SQLException e) {
+            if (e.getErrorCode() == 2291) {
+                LOG.error(" Component o Proveïdor no existeix a la BD");
+            } else if (e.getErrorCode() == 1) {
+                LOG.error(" Aquesta relació ja existeix!");
+            }
+            logError(e);
+            return null;
+
+        } finally {
+            tancarRecursos(conn);
+        }
+    }
+
+    private Double escriureAmbBlocPlsql(Connection conn, String dml, String cmCodi,
+                                        Object... parametres) throws SQLException {
+        String bloc = "BEGIN " +
+                      dml + "; " +
+                      "? := SQL%ROWCOUNT; " +
+                      "SELECT cm_preu_mig INTO ? FROM Component WHERE cm_codi = ?; " +
+                      "END;";
+
+        CallableStatement cs = null;
+        try {
+            cs = conn.prepareCall(bloc);
+            int i = assignarParametres(cs, parametres);
+            cs.registerOutParameter(i, Types.INTEGER);
+            cs.registerOutParameter(i + 1, Types.DOUBLE);
+            cs.setString(i + 2, cmCodi);
+
+            cs.execute();
+
+            if (cs.getInt(i) == 0) {
+                return null;
+            }
+            double preuMig = cs.getDouble(i + 1);
+            return cs.wasNull() ? 0.0 : preuMig;
+
+        } finally {
+            tancarRecursos(cs);
+        }
+    }
+
+    private Double escriureIConsultar(Connection conn, String dml, String cmCodi,
+                                      Object... parametres) throws SQLException {
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            ps = conn.prepareStatement(dml);
+            assignarParametres(ps, parametres);
+            if (ps.executeUpdate() == 0) {
+                return null;
+            }
+            tancarRecursos(ps);
+
+            ps = conn.prepareStatement("SELECT cm_preu_mig FROM Component WHERE cm_codi = ?");
+            ps.setString(1, cmCodi);
+            rs = ps.executeQuery();
+            if (!rs.next()) {
+                return 0.0;
+            }
+            double preuMig = rs.getDouble(1);
+            return rs.wasNull() ? 0.0 : preuMig;
+
+        } finally {
+            tancarRecursos(rs);
+            tancarRecursos(ps);
+        }
+    }
+
+    /**
+     * Assigna String/Double als primers paràmetres
+     * @return Índex del següent paràmetre lliure
+     */
+    private static int assignarParametres(PreparedStatement ps, Object... parametres) throws SQLException {
+        int i = 1;
+        for (Object valor : parametres) {
+            if (valor instanceof Double d) {
+                ps.setDouble(i++, d);
+            } else {
+                ps.setString(i++, (String) valor);
+            }
+        }
+        return i;
+    }
+
+    private static boolean esOracle(Connection conn) throws SQLException {
+        Boolean oracle = esOracle;
+        if (oracle == null) {
+            oracle = conn.getMetaData().getDatabaseProductName().toUpperCase().contains("ORACLE");
+            esOracle = oracle;
+        }
+        return oracle;
+    }
+
     // ============================================
     // FIND BY ID - Busca relació per PK composta
     // ============================================
@@ -264,7 +506,7 @@ public class DAOProvComp extends AbstractDAOProvComp {
                 llista.add(mapResultSetToProvComp(rs));
             }
 
-            System.out.println(" Trobades " + llista.size() + " relacions proveïdor-component");
+            LOG.info(() -> " Trobades " + llista.size() + " relacions proveïdor-component");
 
         } catch (SQLException e) {
             logError(e);
@@ -278,6 +520,24 @@ public class DAOProvComp extends AbstractDAOProvComp {
         return llista;
     }
 
+    // ============================================
+    // STREAM ALL - Recorre totes les relacions sense llista
+    // Per exportacions i processos nocturns
+    // ============================================
+
+    @Override
+    public Stream<ProvComp> streamAll() {
+        String sql = "SELECT pc_cm_codi, pc_pv_codi, pc_preu " +
+                     "FROM Prov_Comp " +
+                     "ORDER BY pc_cm_codi, pc_pv_codi";
+        try {
+            return ConsultaStream.obrir(sql, ConsultaStream.getFetchSizePerDefecte(), this::mapResultSetToProvComp);
+        } catch (SQLException e) {
+            logError(e);
+            return Stream.empty();
+        }
+    }
+
     // ============================================
     // GET PROVEÏDORS DEL COMPONENT
     // Utilitzat pel dropdown del formulari editComponent.jsp
@@ -313,7 +573,7 @@ public class DAOProvComp extends AbstractDAOProvComp {
                 llista.add(mapResultSetToProvComp(rs));
             }
 
-            System.out.println("Component " + cmCodi + " té " + 
+            LOG.info(() -> "Component " + cmCodi + " té " + 
                              llista.size() + " proveïdors");
 
         } catch (SQLException e) {
@@ -328,6 +588,94 @@ public class DAOProvComp extends AbstractDAOProvComp {
         return llista;
     }
 
+    // ============================================
+    // VISTA PROVEÏDORS DEL COMPONENT
+    // Prov_Comp + Proveidor + Municipi + Provincia en una sola consulta
+    // ============================================
+
+    private static final String SQL_VISTA_PROVEIDORS =
+            "SELECT pc.pc_cm_codi, pc.pc_preu, " +
+            "       pv.pv_codi, pv.pv_cif, pv.pv_rao_social, pv.pv_lin_adre_fac, " +
+            "       pv.pv_persona_contacte, pv.pv_telef_contacte, " +
+            "       pr.pr_codi, pr.pr_nom, mu.mu_num, mu.mu_nom " +
+            "FROM Prov_Comp pc " +
+            "JOIN Proveidor pv ON pv.pv_codi = pc.pc_pv_codi " +
+            "LEFT JOIN Municipi mu ON mu.mu_pr_codi = pv.pv_mu_pr_codi AND mu.mu_num = pv.pv_mu_num " +
+            "LEFT JOIN Provincia pr ON pr.pr_codi = mu.mu_pr_codi ";
+
+    @Override
+    public List<VistaProveidorComponent> getVistaProveidorsDelComponent(String cmCodi) {
+        if (cmCodi == null || cmCodi.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<VistaProveidorComponent> llista = getVistaProveidorsDeComponents(List.of(cmCodi)).get(cmCodi);
+        return llista != null ? llista : new ArrayList<>();
+    }
+
+    @Override
+    public Map<String, List<VistaProveidorComponent>> getVistaProveidorsDeComponents(Collection<String> cmCodis) {
+        Map<String, List<VistaProveidorComponent>> perComponent = new LinkedHashMap<>();
+        if (cmCodis == null || cmCodis.isEmpty()) {
+            return perComponent;
+        }
+
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        try {
+            conn = getConnection();
+            if (conn == null) return perComponent;
+
+            for (List<String> tros : LlistaIn.trossos(cmCodis)) {
+                String sql = SQL_VISTA_PROVEIDORS +
+                             "WHERE pc.pc_cm_codi IN (" + LlistaIn.marcadors(tros.size()) + ") " +
+                             "ORDER BY pc.pc_cm_codi, pc.pc_pv_codi";
+
+                ps = conn.prepareStatement(sql);
+                LlistaIn.assignar(ps, tros);
+                rs = ps.executeQuery();
+
+                while (rs.next()) {
+                    VistaProveidorComponent vista = mapResultSetToVista(rs);
+                    perComponent.computeIfAbsent(vista.cmCodi(), k -> new ArrayList<>()).add(vista);
+                }
+                tancarRecursos(rs);
+                tancarRecursos(ps);
+            }
+
+            LOG.info(() -> "Vista de proveïdors: " + perComponent.size() + " de " +
+                             cmCodis.size() + " components amb proveïdors");
+
+        } catch (SQLException e) {
+            logError(e);
+            perComponent.clear();
+
+        } finally {
+            tancarRecursos(rs);
+            tancarRecursos(ps);
+            tancarRecursos(conn);
+        }
+
+        return perComponent;
+    }
+
+    private VistaProveidorComponent mapResultSetToVista(ResultSet rs) throws SQLException {
+        return new VistaProveidorComponent(
+                rs.getString("pc_cm_codi"),
+                rs.getDouble("pc_preu"),
+                rs.getString("pv_codi"),
+                rs.getString("pv_cif"),
+                rs.getString("pv_rao_social"),
+                rs.getString("pv_lin_adre_fac"),
+                rs.getString("pv_persona_contacte"),
+                rs.getString("pv_telef_contacte"),
+                rs.getString("pr_codi"),
+                rs.getString("pr_nom"),
+                rs.getString("mu_num"),
+                rs.getString("mu_nom"));
+    }
+
     // ============================================
     // GET COMPONENTS DEL PROVEÏDOR
     // ============================================
@@ -362,7 +710,7 @@ public class DAOProvComp extends AbstractDAOProvComp {
                 llista.add(mapResultSetToProvComp(rs));
             }
 
-            System.out.println("Proveïdor " + pvCodi + " subministra " + 
+            LOG.info(() -> "Proveïdor " + pvCodi + " subministra " + 
                              llista.size() + " components");
 
         } catch (SQLException e) {
@@ -376,4 +724,148 @@ public class DAOProvComp extends AbstractDAOProvComp {
 
         return llista;
     }
-}
\ No newline at end of file
+
+    // ============================================
+    // IMPORTACIÓ MASSIVA - Tarifa de preus sencera
+    // DISPARA TRIGGER UN SOL COP!
+    // ============================================
+
+    @Override
+    public ResultatImportacio importarPreus(List<ProvComp> preus) {
+        if (preus == null || preus.isEmpty()) {
+            return new ResultatImportacio(0, 0, Map.of());
+        }
+
+        // Validació prèvia: una relació invàlida o repetida rebutja tota la tarifa
+        Set<String> claus = new HashSet<>();
+        Set<String> components = new LinkedHashSet<>();
+        for (ProvComp pc : preus) {
+            if (!validarEntitat(pc)) {
+                LOG.error(" Tarifa rebutjada: relació invàlida");
+                return null;
+            }
+            if (!claus.add(pc.getPcCmCodi() + "|" + pc.getPcPvCodi())) {
+                LOG.error(() -> " Tarifa rebutjada: relació repetida " +
+                                 pc.getPcCmCodi() + " - " + pc.getPcPvCodi());
+                return null;
+            }
+            components.add(pc.getPcCmCodi());
+        }
+
+        Connection conn = null;
+        PreparedStatement ps = null;
+
+        try {
+            conn = getConnection();
+            if (conn == null) {
+                LOG.error("No s'ha pogut obtenir connexió");
+                return null;
+            }
+            conn.setAutoCommit(false);
+
+            // 1. Escalonar la tarifa a la taula temporal (no té trigger)
+            ps = conn.prepareStatement(SQL_ESCALONAR_TARIFA);
+            int pendents = 0;
+            for (ProvComp pc : preus) {
+                ps.setString(1, pc.getPcCmCodi());
+                ps.setString(2, pc.getPcPvCodi());
+                ps.setDouble(3, pc.getPcPreu());
+                ps.addBatch();
+                if (++pendents == MIDA_LOT_TARIFA) {
+                    ps.executeBatch();
+                    pendents = 0;
+                }
+            }
+            if (pendents > 0) {
+                ps.executeBatch();
+            }
+            tancarRecursos(ps);
+
+            // 2. Relacions que ja existeixen (mateixa transacció, just abans del MERGE)
+            int actualitzades;
+            ps = conn.prepareStatement(SQL_EXISTENTS_TARIFA);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                actualitzades = rs.getInt(1);
+            }
+            tancarRecursos(ps);
+
+            // 3. Un sol MERGE: el trigger (per sentència) es dispara un cop
+            ps = conn.prepareStatement(SQL_MERGE_TARIFA);
+            int files = ps.executeUpdate();
+
+            // cm_preu_mig ja recalculat pel trigger (mateixa transacció)
+            Map<String, Double> preusMigs = llegirPreusMigs(conn, components);
+
+            conn.commit();
+
+            ResultatImportacio resultat = new ResultatImportacio(files - actualitzades, actualitzades, preusMigs);
+            LOG.info(() -> " Tarifa importada: " + resultat.inserides() + " inserides, " +
+                             resultat.actualitzades() + " actualitzades");
+            LOG.info(() -> "Trigger activat un sol cop! cm_preu_mig recalculat per " +
+                             preusMigs.size() + " components");
+            notificarCanviPreus(preusMigs);
+            return resultat;
+
+        } catch (SQLException e) {
+            if (e.getErrorCode() == 2291) {
+                LOG.error(" Algun component o proveïdor de la tarifa no existeix a la BD");
+            }
+            desfer(conn);
+            logError(e);
+            return null;
+
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                } catch (SQLException e) {
+                    logError(e);
+                }
+            }
+            tancarRecursos(ps);
+            tancarRecursos(conn);
+        }
+    }
+
+    /**
+     * cm_preu_mig dels components indicats (IN de fins a 1000 codis, límit d'Oracle)
+     */
+    private Map<String, Double> llegirPreusMigs(Connection conn, Set<String> components) throws SQLException {
+        Map<String, Double> preusMigs = new LinkedHashMap<>();
+
+        for (List<String> tros : LlistaIn.trossos(components)) {
+            String sql = "SELECT cm_codi, cm_preu_mig FROM Component WHERE cm_codi IN (" +
+                         LlistaIn.marcadors(tros.size()) + ")";
+
+            PreparedStatement ps = null;
+            ResultSet rs = null;
+            try {
+                ps = conn.prepareStatement(sql);
+                LlistaIn.assignar(ps, tros);
+                rs = ps.executeQuery();
+                while (rs.next()) {
+                    double preu = rs.getDouble(2);
+                    preusMigs.put(rs.getString(1), rs.wasNull() ? null : preu);
+                }
+            } finally {
+                tancarRecursos(rs);
+                tancarRecursos(ps);
+            }
+        }
+        return preusMigs;
+    }
+
+    /**
+     * Desfà la transacció de forma segura
+     */
+    private void desfer(Connection conn) {
+        if (conn != null) {
+            try {
+                conn.rollback();
+            } catch (SQLException e) {
+                logError(e);
+            }
+        }
+    }
+}
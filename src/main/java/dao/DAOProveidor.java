@@ -6,10 +6,15 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import abstractdao.AbstractDAOProveidor;
 import model.Proveidor;
+import util.LlistaIn;
+import util.MapejadorColumnes;
 
 /**
  * Implementació DAO per Proveidor (READ-ONLY)
@@ -27,38 +32,40 @@ public class DAOProveidor extends AbstractDAOProveidor {
     @Override
     public List<Proveidor> findAll() {
         List<Proveidor> proveidors = new ArrayList<>();
-        Connection conn = null;
-        Statement stmt = null;
-        ResultSet rs = null;
         
         try {
-            conn = getConnection();
-            String sql = "SELECT pv_codi, pv_cif, pv_rao_social, pv_lin_adre_fac, " +
-                        "pv_persona_contacte, pv_telef_contacte, pv_mu_pr_codi, pv_mu_num " +
-                        "FROM Proveidor " +
-                        "ORDER BY pv_rao_social";
-            
-            stmt = conn.createStatement();
-            rs = stmt.executeQuery(sql);
-            
-            while (rs.next()) {
-                Proveidor p = mapResultSetToProveidor(rs);
-                proveidors.add(p);
-            }
-            
-            System.out.println("findAll() - Trobats " + proveidors.size() + " proveïdors");
+            proveidors.addAll(carregarTots());
+            LOG.info(() -> "findAll() - Trobats " + proveidors.size() + " proveïdors");
             
         } catch (SQLException e) {
             logError(e);
-        } finally {
-            tancarRecursos(rs);
-            tancarRecursos(stmt);
-            tancarRecursos(conn);
         }
         
         return proveidors;
     }
 
+    /**
+     * Tots els proveïdors ordenats per pv_rao_social
+     * Els errors es propaguen: DAOProveidorAmbCache manté la instantània anterior si falla
+     * @return Llista amb totes les files
+     * @throws SQLException si falla la consulta
+     */
+    List<Proveidor> carregarTots() throws SQLException {
+        List<Proveidor> proveidors = new ArrayList<>();
+        String sql = "SELECT pv_codi, pv_cif, pv_rao_social, pv_lin_adre_fac, " +
+                    "pv_persona_contacte, pv_telef_contacte, pv_mu_pr_codi, pv_mu_num " +
+                    "FROM Proveidor " +
+                    "ORDER BY pv_rao_social";
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                proveidors.add(mapResultSetToProveidor(rs));
+            }
+        }
+        return proveidors;
+    }
+
     // ============================================
     // FIND BY ID - Cerca per codi
     // ============================================
@@ -66,7 +73,7 @@ public class DAOProveidor extends AbstractDAOProveidor {
     @Override
     public Proveidor findById(String codi) {
         if (codi == null || codi.trim().isEmpty()) {
-            System.err.println("❌ Codi proveïdor no pot ser buit");
+            LOG.error("❌ Codi proveïdor no pot ser buit");
             return null;
         }
         
@@ -87,10 +94,10 @@ public class DAOProveidor extends AbstractDAOProveidor {
             
             if (rs.next()) {
                 Proveidor p = mapResultSetToProveidor(rs);
-                System.out.println("findById(" + codi + ") - Trobat: " + p.getPvRaoSocial());
+                LOG.info(() -> "findById(" + codi + ") - Trobat: " + p.getPvRaoSocial());
                 return p;
             } else {
-                System.out.println("findById(" + codi + ") - No trobat");
+                LOG.info(() -> "findById(" + codi + ") - No trobat");
                 return null;
             }
             
@@ -104,6 +111,54 @@ public class DAOProveidor extends AbstractDAOProveidor {
         }
     }
 
+    // ============================================
+    // FIND BY IDS - Cerca de molts proveïdors alhora
+    // ============================================
+    
+    @Override
+    public Map<String, Proveidor> findByIds(Collection<String> codis) {
+        Map<String, Proveidor> proveidors = new LinkedHashMap<>();
+        if (codis == null || codis.isEmpty()) {
+            return proveidors;
+        }
+        
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        
+        try {
+            conn = getConnection();
+            for (List<String> tros : LlistaIn.trossos(codis)) {
+                String sql = "SELECT pv_codi, pv_cif, pv_rao_social, pv_lin_adre_fac, " +
+                            "pv_persona_contacte, pv_telef_contacte, pv_mu_pr_codi, pv_mu_num " +
+                            "FROM Proveidor " +
+                            "WHERE pv_codi IN (" + LlistaIn.marcadors(tros.size()) + ")";
+                
+                ps = conn.prepareStatement(sql);
+                LlistaIn.assignar(ps, tros);
+                rs = ps.executeQuery();
+                
+                while (rs.next()) {
+                    Proveidor p = mapResultSetToProveidor(rs);
+                    proveidors.put(p.getPvCodi(), p);
+                }
+                tancarRecursos(rs);
+                tancarRecursos(ps);
+            }
+            
+            LOG.info(() -> "findByIds() - Trobats " + proveidors.size() + " de " + codis.size() + " proveïdors");
+            return proveidors;
+            
+        } catch (SQLException e) {
+            logError(e);
+            return new LinkedHashMap<>();
+        } finally {
+            tancarRecursos(rs);
+            tancarRecursos(ps);
+            tancarRecursos(conn);
+        }
+    }
+
     // ============================================
     // FILTRAR PER MUNICIPI
     // ============================================
@@ -114,7 +169,7 @@ public class DAOProveidor extends AbstractDAOProveidor {
         
         if (prCodi == null || prCodi.trim().isEmpty() || 
             muNum == null || muNum.trim().isEmpty()) {
-            System.err.println("❌ Codi província i número municipi obligatoris");
+            LOG.error("❌ Codi província i número municipi obligatoris");
             return proveidors;
         }
         
@@ -140,7 +195,7 @@ public class DAOProveidor extends AbstractDAOProveidor {
                 proveidors.add(p);
             }
             
-            System.out.println("✅ filtrarPerMunicipi(" + prCodi + "," + muNum + ") - Trobats " + proveidors.size());
+            LOG.info(() -> "✅ filtrarPerMunicipi(" + prCodi + "," + muNum + ") - Trobats " + proveidors.size());
             
         } catch (SQLException e) {
             logError(e);
@@ -162,7 +217,7 @@ public class DAOProveidor extends AbstractDAOProveidor {
         List<Proveidor> proveidors = new ArrayList<>();
         
         if (nomPattern == null || nomPattern.trim().isEmpty()) {
-            System.err.println("❌ Patró de cerca no pot ser buit");
+            LOG.error("❌ Patró de cerca no pot ser buit");
             return proveidors;
         }
         
@@ -187,7 +242,7 @@ public class DAOProveidor extends AbstractDAOProveidor {
                 proveidors.add(p);
             }
             
-            System.out.println("✅ filtrarPerNom('" + nomPattern + "') - Trobats " + proveidors.size());
+            LOG.info(() -> "✅ filtrarPerNom('" + nomPattern + "') - Trobats " + proveidors.size());
             
         } catch (SQLException e) {
             logError(e);
@@ -205,15 +260,22 @@ public class DAOProveidor extends AbstractDAOProveidor {
     // ============================================
     
     private Proveidor mapResultSetToProveidor(ResultSet rs) throws SQLException {
-        Proveidor p = new Proveidor();
-        p.setPvCodi(rs.getString("pv_codi"));
-        p.setPvCif(rs.getString("pv_cif"));
-        p.setPvRaoSocial(rs.getString("pv_rao_social"));
-        p.setPvLinAdreFac(rs.getString("pv_lin_adre_fac"));
-        p.setPvPersonaContacte(rs.getString("pv_persona_contacte"));
-        p.setPvTelefContacte(rs.getString("pv_telef_contacte"));
-        p.setPvMuPrCodi(rs.getString("pv_mu_pr_codi"));
-        p.setPvMuNum(rs.getString("pv_mu_num"));
-        return p;
+        return MAPEJADOR_PROVEIDOR.mapejar(rs);
     }
+
+    private static final MapejadorColumnes<Proveidor> MAPEJADOR_PROVEIDOR = new MapejadorColumnes<>(
+            (rs, c) -> {
+                Proveidor p = new Proveidor();
+                p.setPvCodi(rs.getString(c[0]));
+                p.setPvCif(rs.getString(c[1]));
+                p.setPvRaoSocial(rs.getString(c[2]));
+                p.setPvLinAdreFac(rs.getString(c[3]));
+                p.setPvPersonaContacte(rs.getString(c[4]));
+                p.setPvTelefContacte(rs.getString(c[5]));
+                p.setPvMuPrCodi(rs.getString(c[6]));
+                p.setPvMuNum(rs.getString(c[7]));
+                return p;
+            },
+            "pv_codi", "pv_cif", "pv_rao_social", "pv_lin_adre_fac",
+            "pv_persona_contacte", "pv_telef_contacte", "pv_mu_pr_codi", "pv_mu_num");
 }
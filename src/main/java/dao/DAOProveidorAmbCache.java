@@ -0,0 +1,175 @@
+package dao;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import model.Proveidor;
+import util.CacheReferencia;
+import util.ConnexioOracle;
+
+/**
+ * DAOProveidor amb cache en memòria (taula mestre READ-ONLY)
+ * 
+ * Índexs de la instantània (immutables):
+ * - pv_codi → findById O(1)
+ * - (pv_mu_pr_codi, pv_mu_num) → proveïdors del municipi (filtrarPerMunicipi)
+ * filtrarPerNom recorre la llista en memòria amb la mateixa semàntica que el LIKE.
+ * 
+ * Si la cache no es pot carregar, delega a DAOProveidor.
+ * Es retornen còpies: modificar-les no altera la instantània compartida.
+ * 
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public class DAOProveidorAmbCache implements IDAOProveidor {
+
+    private record Instantania(List<Proveidor> tots,
+                               Map<String, Proveidor> perCodi,
+                               Map<DAOMunicipiAmbCache.ClauMunicipi, List<Proveidor>> perMunicipi) {
+    }
+
+    private final DAOProveidor bd = new DAOProveidor();
+    private final CacheReferencia<Instantania> cache = new CacheReferencia<>(
+            "Proveidor", this::carregar,
+            ConnexioOracle.getPropietatInt("db.cache.ttlMs", 600000));
+
+    @Override
+    public List<Proveidor> findAll() {
+        Instantania inst = cache.get();
+        return inst != null ? copiar(inst.tots()) : bd.findAll();
+    }
+
+    @Override
+    public Proveidor findById(String codi) {
+        if (codi == null || codi.trim().isEmpty()) {
+            return null;
+        }
+        Instantania inst = cache.get();
+        if (inst == null) {
+            return bd.findById(codi);
+        }
+        Proveidor trobat = inst.perCodi().get(codi);
+        return trobat != null ? new Proveidor(trobat) : null;
+    }
+
+    @Override
+    public Map<String, Proveidor> findByIds(Collection<String> codis) {
+        Map<String, Proveidor> proveidors = new LinkedHashMap<>();
+        if (codis == null || codis.isEmpty()) {
+            return proveidors;
+        }
+        Instantania inst = cache.get();
+        if (inst == null) {
+            return bd.findByIds(codis);
+        }
+        for (String codi : codis) {
+            Proveidor p = codi != null ? inst.perCodi().get(codi) : null;
+            if (p != null) {
+                proveidors.put(codi, new Proveidor(p));
+            }
+        }
+        return proveidors;
+    }
+
+    @Override
+    public List<Proveidor> filtrarPerMunicipi(String prCodi, String muNum) {
+        if (prCodi == null || prCodi.trim().isEmpty() ||
+            muNum == null || muNum.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+        Instantania inst = cache.get();
+        if (inst == null) {
+            return bd.filtrarPerMunicipi(prCodi, muNum);
+        }
+        return copiar(inst.perMunicipi().getOrDefault(
+                new DAOMunicipiAmbCache.ClauMunicipi(prCodi, muNum), List.of()));
+    }
+
+    @Override
+    public List<Proveidor> filtrarPerNom(String nomPattern) {
+        List<Proveidor> proveidors = new ArrayList<>();
+        if (nomPattern == null || nomPattern.trim().isEmpty()) {
+            return proveidors;
+        }
+        Instantania inst = cache.get();
+        if (inst == null) {
+            return bd.filtrarPerNom(nomPattern);
+        }
+
+        // Equivalent a UPPER(pv_rao_social) LIKE UPPER('%' || patró || '%')
+        Pattern like = patroLike(nomPattern.toUpperCase(Locale.ROOT));
+        for (Proveidor p : inst.tots()) {
+            if (p.getPvRaoSocial() != null && like.matcher(p.getPvRaoSocial().toUpperCase(Locale.ROOT)).find()) {
+                proveidors.add(new Proveidor(p));
+            }
+        }
+        return proveidors;
+    }
+
+    /**
+     * Torna a carregar la taula (p.ex. després d'un canvi fet fora de l'aplicació)
+     * @return true si s'ha carregat
+     */
+    public boolean refrescar() {
+        return cache.refrescar();
+    }
+
+    /**
+     * Tradueix els comodins de LIKE (% i _) a una expressió regular
+     */
+    private static Pattern patroLike(String patro) {
+        StringBuilder regex = new StringBuilder();
+        StringBuilder literal = new StringBuilder();
+        for (char c : patro.toCharArray()) {
+            if (c == '%' || c == '_') {
+                if (literal.length() > 0) {
+                    regex.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                regex.append(c == '%' ? ".*" : ".");
+            } else {
+                literal.append(c);
+            }
+        }
+        if (literal.length() > 0) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        return Pattern.compile(regex.toString(), Pattern.DOTALL);
+    }
+
+    /**
+     * Còpies de les entitats de la instantània (les originals són compartides entre fils)
+     */
+    private static List<Proveidor> copiar(List<Proveidor> originals) {
+        List<Proveidor> copies = new ArrayList<>(originals.size());
+        for (Proveidor original : originals) {
+            copies.add(new Proveidor(original));
+        }
+        return copies;
+    }
+
+    private Instantania carregar() throws SQLException {
+        List<Proveidor> tots = bd.carregarTots();
+        Map<String, Proveidor> perCodi = new HashMap<>();
+        Map<DAOMunicipiAmbCache.ClauMunicipi, List<Proveidor>> perMunicipi = new HashMap<>();
+        for (Proveidor p : tots) {
+            perCodi.put(p.getPvCodi(), p);
+            if (p.getPvMuPrCodi() != null && p.getPvMuNum() != null) {
+                perMunicipi.computeIfAbsent(
+                        new DAOMunicipiAmbCache.ClauMunicipi(p.getPvMuPrCodi(), p.getPvMuNum()),
+                        k -> new ArrayList<>()).add(p);
+            }
+        }
+
+        Map<DAOMunicipiAmbCache.ClauMunicipi, List<Proveidor>> perMunicipiImmutable = new HashMap<>();
+        perMunicipi.forEach((clau, llista) -> perMunicipiImmutable.put(clau, List.copyOf(llista)));
+        return new Instantania(List.copyOf(tots), Map.copyOf(perCodi), Map.copyOf(perMunicipiImmutable));
+    }
+}
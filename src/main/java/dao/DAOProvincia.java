@@ -10,6 +10,7 @@ import java.util.List;
 
 import abstractdao.AbstractDAOProvincia;
 import model.Provincia;
+import util.MapejadorColumnes;
 
 /**
  * Implementació DAO per Provincia (READ-ONLY)
@@ -27,35 +28,37 @@ public class DAOProvincia extends AbstractDAOProvincia {
     @Override
     public List<Provincia> findAll() {
         List<Provincia> provincies = new ArrayList<>();
-        Connection conn = null;
-        Statement stmt = null;
-        ResultSet rs = null;
         
         try {
-            conn = getConnection();
-            String sql = "SELECT pr_codi, pr_nom FROM Provincia ORDER BY pr_codi";
-            
-            stmt = conn.createStatement();
-            rs = stmt.executeQuery(sql);
-            
-            while (rs.next()) {
-                Provincia p = mapResultSetToProvincia(rs);
-                provincies.add(p);
-            }
-            
-            System.out.println("✅ findAll() - Trobades " + provincies.size() + " províncies");
+            provincies.addAll(carregarTots());
+            LOG.info(() -> "✅ findAll() - Trobades " + provincies.size() + " províncies");
             
         } catch (SQLException e) {
             logError(e);
-        } finally {
-            tancarRecursos(rs);
-            tancarRecursos(stmt);
-            tancarRecursos(conn);
         }
         
         return provincies;
     }
 
+    /**
+     * Totes les províncies ordenades per pr_codi
+     * Els errors es propaguen: DAOProvinciaAmbCache manté la instantània anterior si falla
+     * @return Llista amb totes les files
+     * @throws SQLException si falla la consulta
+     */
+    List<Provincia> carregarTots() throws SQLException {
+        List<Provincia> provincies = new ArrayList<>();
+        String sql = "SELECT pr_codi, pr_nom FROM Provincia ORDER BY pr_codi";
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                provincies.add(mapResultSetToProvincia(rs));
+            }
+        }
+        return provincies;
+    }
+
     // ============================================
     // FIND BY ID - Cerca per codi
     // ============================================
@@ -63,7 +66,7 @@ public class DAOProvincia extends AbstractDAOProvincia {
     @Override
     public Provincia findById(String codi) {
         if (codi == null || codi.trim().isEmpty()) {
-            System.err.println("❌ Codi província no pot ser buit");
+            LOG.error("❌ Codi província no pot ser buit");
             return null;
         }
         
@@ -81,10 +84,10 @@ public class DAOProvincia extends AbstractDAOProvincia {
             
             if (rs.next()) {
                 Provincia p = mapResultSetToProvincia(rs);
-                System.out.println("✅ findById(" + codi + ") - Trobat: " + p.getPrNom());
+                LOG.info(() -> "✅ findById(" + codi + ") - Trobat: " + p.getPrNom());
                 return p;
             } else {
-                System.out.println("⚠️  findById(" + codi + ") - No trobat");
+                LOG.info(() -> "⚠️  findById(" + codi + ") - No trobat");
                 return null;
             }
             
@@ -103,9 +106,15 @@ public class DAOProvincia extends AbstractDAOProvincia {
     // ============================================
     
     private Provincia mapResultSetToProvincia(ResultSet rs) throws SQLException {
-        Provincia p = new Provincia();
-        p.setPrCodi(rs.getString("pr_codi"));
-        p.setPrNom(rs.getString("pr_nom"));
-        return p;
+        return MAPEJADOR_PROVINCIA.mapejar(rs);
     }
+
+    private static final MapejadorColumnes<Provincia> MAPEJADOR_PROVINCIA = new MapejadorColumnes<>(
+            (rs, c) -> {
+                Provincia p = new Provincia();
+                p.setPrCodi(rs.getString(c[0]));
+                p.setPrNom(rs.getString(c[1]));
+                return p;
+            },
+            "pr_codi", "pr_nom");
 }
@@ -0,0 +1,79 @@
+package dao;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import model.Provincia;
+import util.CacheReferencia;
+import util.ConnexioOracle;
+
+/**
+ * DAOProvincia amb cache en memòria (taula mestre READ-ONLY)
+ * Carrega la taula sencera un cop; findById és una consulta O(1) a un mapa immutable.
+ * Si la cache no es pot carregar, delega a DAOProvincia.
+ * 
+ * Es retornen còpies: modificar-les no altera la instantània compartida.
+ * 
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public class DAOProvinciaAmbCache implements IDAOProvincia {
+
+    private record Instantania(List<Provincia> totes, Map<String, Provincia> perCodi) {
+    }
+
+    private final DAOProvincia bd = new DAOProvincia();
+    private final CacheReferencia<Instantania> cache = new CacheReferencia<>(
+            "Provincia", this::carregar,
+            ConnexioOracle.getPropietatInt("db.cache.ttlMs", 600000));
+
+    @Override
+    public List<Provincia> findAll() {
+        Instantania inst = cache.get();
+        return inst != null ? copiar(inst.totes()) : bd.findAll();
+    }
+
+    @Override
+    public Provincia findById(String codi) {
+        if (codi == null || codi.trim().isEmpty()) {
+            return null;
+        }
+        Instantania inst = cache.get();
+        if (inst == null) {
+            return bd.findById(codi);
+        }
+        Provincia trobada = inst.perCodi().get(codi);
+        return trobada != null ? new Provincia(trobada) : null;
+    }
+
+    /**
+     * Torna a carregar la taula (p.ex. després d'un canvi fet fora de l'aplicació)
+     * @return true si s'ha carregat
+     */
+    public boolean refrescar() {
+        return cache.refrescar();
+    }
+
+    /**
+     * Còpies de les entitats de la instantània (les originals són compartides entre fils)
+     */
+    private static List<Provincia> copiar(List<Provincia> originals) {
+        List<Provincia> copies = new ArrayList<>(originals.size());
+        for (Provincia original : originals) {
+            copies.add(new Provincia(original));
+        }
+        return copies;
+    }
+
+    private Instantania carregar() throws SQLException {
+        List<Provincia> totes = bd.carregarTots();
+        Map<String, Provincia> perCodi = new HashMap<>();
+        for (Provincia pr : totes) {
+            perCodi.put(pr.getPrCodi(), pr);
+        }
+        return new Instantania(List.copyOf(totes), Map.copyOf(perCodi));
+    }
+}
@@ -10,6 +10,7 @@ import java.util.List;
 
 import abstractdao.AbstractDAOUnitatMesura;
 import model.UnitatMesura;
+import util.MapejadorColumnes;
 
 /**
  * Implementació DAO per UnitatMesura (READ-ONLY)
@@ -27,35 +28,37 @@ public class DAOUnitatMesura extends AbstractDAOUnitatMesura {
     @Override
     public List<UnitatMesura> findAll() {
         List<UnitatMesura> unitats = new ArrayList<>();
-        Connection conn = null;
-        Statement stmt = null;
-        ResultSet rs = null;
         
         try {
-            conn = getConnection();
-            String sql = "SELECT um_codi, um_nom FROM UnitatMesura ORDER BY um_codi";
-            
-            stmt = conn.createStatement();
-            rs = stmt.executeQuery(sql);
-            
-            while (rs.next()) {
-                UnitatMesura um = mapResultSetToUnitatMesura(rs);
-                unitats.add(um);
-            }
-            
-            System.out.println("✅ findAll() - Trobades " + unitats.size() + " unitats de mesura");
+            unitats.addAll(carregarTots());
+            LOG.info(() -> "✅ findAll() - Trobades " + unitats.size() + " unitats de mesura");
             
         } catch (SQLException e) {
             logError(e);
-        } finally {
-            tancarRecursos(rs);
-            tancarRecursos(stmt);
-            tancarRecursos(conn);
         }
         
         return unitats;
     }
 
+    /**
+     * Totes les unitats de mesura ordenades per um_codi
+     * Els errors es propaguen: DAOUnitatMesuraAmbCache manté la instantània anterior si falla
+     * @return Llista amb totes les files
+     * @throws SQLException si falla la consulta
+     */
+    List<UnitatMesura> carregarTots() throws SQLException {
+        List<UnitatMesura> unitats = new ArrayList<>();
+        String sql = "SELECT um_codi, um_nom FROM UnitatMesura ORDER BY um_codi";
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                unitats.add(mapResultSetToUnitatMesura(rs));
+            }
+        }
+        return unitats;
+    }
+
     // ============================================
     // FIND BY ID - Cerca per codi
     // ============================================
@@ -63,7 +66,7 @@ public class DAOUnitatMesura extends AbstractDAOUnitatMesura {
     @Override
     public UnitatMesura findById(String codi) {
         if (codi == null || codi.trim().isEmpty()) {
-            System.err.println("❌ Codi unitat mesura no pot ser buit");
+            LOG.error("❌ Codi unitat mesura no pot ser buit");
             return null;
         }
         
@@ -81,10 +84,10 @@ public class DAOUnitatMesura extends AbstractDAOUnitatMesura {
             
             if (rs.next()) {
                 UnitatMesura um = mapResultSetToUnitatMesura(rs);
-                System.out.println("✅ findById(" + codi + ") - Trobat: " + um.getUmNom());
+                LOG.info(() -> "✅ findById(" + codi + ") - Trobat: " + um.getUmNom());
                 return um;
             } else {
-                System.out.println("⚠️  findById(" + codi + ") - No trobat");
+                LOG.info(() -> "⚠️  findById(" + codi + ") - No trobat");
                 return null;
             }
             
@@ -103,9 +106,15 @@ public class DAOUnitatMesura extends AbstractDAOUnitatMesura {
     // ============================================
     
     private UnitatMesura mapResultSetToUnitatMesura(ResultSet rs) throws SQLException {
-        UnitatMesura um = new UnitatMesura();
-        um.setUmCodi(rs.getString("um_codi"));
-        um.setUmNom(rs.getString("um_nom"));
-        return um;
+        return MAPEJADOR_UNITAT_MESURA.mapejar(rs);
     }
+
+    private static final MapejadorColumnes<UnitatMesura> MAPEJADOR_UNITAT_MESURA = new MapejadorColumnes<>(
+            (rs, c) -> {
+                UnitatMesura um = new UnitatMesura();
+                um.setUmCodi(rs.getString(c[0]));
+                um.setUmNom(rs.getString(c[1]));
+                return um;
+            },
+            "um_codi", "um_nom");
 }
@@ -0,0 +1,79 @@
+package dao;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import model.UnitatMesura;
+import util.CacheReferencia;
+import util.ConnexioOracle;
+
+/**
+ * DAOUnitatMesura amb cache en memòria (taula mestre READ-ONLY)
+ * Carrega la taula sencera un cop; findById és una consulta O(1) a un mapa immutable.
+ * Si la cache no es pot carregar, delega a DAOUnitatMesura.
+ * 
+ * Es retornen còpies: modificar-les no altera la instantània compartida.
+ * 
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public class DAOUnitatMesuraAmbCache implements IDAOUnitatMesura {
+
+    private record Instantania(List<UnitatMesura> totes, Map<String, UnitatMesura> perCodi) {
+    }
+
+    private final DAOUnitatMesura bd = new DAOUnitatMesura();
+    private final CacheReferencia<Instantania> cache = new CacheReferencia<>(
+            "UnitatMesura", this::carregar,
+            ConnexioOracle.getPropietatInt("db.cache.ttlMs", 600000));
+
+    @Override
+    public List<UnitatMesura> findAll() {
+        Instantania inst = cache.get();
+        return inst != null ? copiar(inst.totes()) : bd.findAll();
+    }
+
+    @Override
+    public UnitatMesura findById(String codi) {
+        if (codi == null || codi.trim().isEmpty()) {
+            return null;
+        }
+        Instantania inst = cache.get();
+        if (inst == null) {
+            return bd.findById(codi);
+        }
+        UnitatMesura trobada = inst.perCodi().get(codi);
+        return trobada != null ? new UnitatMesura(trobada) : null;
+    }
+
+    /**
+     * Torna a carregar la taula (p.ex. després d'un canvi fet fora de l'aplicació)
+     * @return true si s'ha carregat
+     */
+    public boolean refrescar() {
+        return cache.refrescar();
+    }
+
+    /**
+     * Còpies de les entitats de la instantània (les originals són compartides entre fils)
+     */
+    private static List<UnitatMesura> copiar(List<UnitatMesura> originals) {
+        List<UnitatMesura> copies = new ArrayList<>(originals.size());
+        for (UnitatMesura original : originals) {
+            copies.add(new UnitatMesura(original));
+        }
+        return copies;
+    }
+
+    private Instantania carregar() throws SQLException {
+        List<UnitatMesura> totes = bd.carregarTots();
+        Map<String, UnitatMesura> perCodi = new HashMap<>();
+        for (UnitatMesura um : totes) {
+            perCodi.put(um.getUmCodi(), um);
+        }
+        return new Instantania(List.copyOf(totes), Map.copyOf(perCodi));
+    }
+}
@@ -1,8 +1,13 @@
 package dao;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import model.Component;
+import model.ComponentResum;
+import model.Pagina;
 
 /**
  * Interfície DAO per a la gestió de Components
@@ -41,12 +46,28 @@ public interface IDAOComponent {
      */
     Component findById(String codi);
 
+    /**
+     * Cerca molts components alhora (evita una crida a findById per fila)
+     * Les claus es consulten en llistes IN de com a màxim 1000: 500 claus són una sola consulta.
+     * @param codis Codis a cercar (els null, buits o repetits s'ignoren)
+     * @return Mapa codi → Component; els codis que no existeixen no hi són
+     */
+    Map<String, Component> findByIds(Collection<String> codis);
+
     /**
      * Llista tots els components
      * @return Llista de tots els components
      */
     List<Component> findAll();
 
+    /**
+     * Recorre tots els components sense carregar-los en memòria
+     * Les files es llegeixen per lots (fetch size) a mesura que es consumeix el Stream.
+     * S'ha de tancar (try-with-resources): retorna la connexió al pool.
+     * @return Stream ordenat per PK (buit si hi ha error obrint la consulta)
+     */
+    Stream<Component> streamAll();
+
     /**
      * Llista components paginats
      * @param page Número de pàgina (començant per 1)
@@ -55,6 +76,29 @@ public interface IDAOComponent {
      */
     List<Component> findAllPaginat(int page, int size);
 
+    /**
+     * Obté la pàgina següent per clau (keyset): cost constant sigui quina sigui la pàgina
+     * @param cursor Cursor retornat per la pàgina anterior (null = primera pàgina)
+     * @param size Mida de la pàgina
+     * @return Pàgina amb els elements i el cursor de la següent
+     */
+    Pagina<Component> findPageAfter(String cursor, int size);
+
+    /**
+     * Obté el resum de tots els components (sense it_desc ni it_foto)
+     * El component sencer es carrega quan cal amb findById
+     * @return Llista de resums ordenada per codi
+     */
+    List<ComponentResum> findAllResum();
+
+    /**
+     * Com findPageAfter però amb resums
+     * @param cursor Cursor retornat per la pàgina anterior (null = primera pàgina)
+     * @param size Mida de la pàgina
+     * @return Pàgina de resums i el cursor de la següent
+     */
+    Pagina<ComponentResum> findPageResumAfter(String cursor, int size);
+
     /**
      * Filtra components per codi (LIKE)
      * @param codiPattern Patró de cerca (ex: "CMP%")
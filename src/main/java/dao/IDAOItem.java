@@ -1,8 +1,13 @@
 package dao;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import model.Item;
+import model.ItemResum;
+import model.Pagina;
 
 /**
  * Interfície DAO per Item (taula base)
@@ -49,11 +54,27 @@ public interface IDAOItem {
      */
     Item findById(String codi);
     
+    /**
+     * Cerca molts items alhora (evita una crida a findById per fila)
+     * Les claus es consulten en llistes IN de com a màxim 1000: 500 claus són una sola consulta.
+     * @param codis Codis a cercar (els null, buits o repetits s'ignoren)
+     * @return Mapa codi → Item; els codis que no existeixen no hi són
+     */
+    Map<String, Item> findByIds(Collection<String> codis);
+    
     /**
      * Obté tots els items
      * @return Llista amb tots els items
      */
     List<Item> findAll();
+
+    /**
+     * Recorre tots els items sense carregar-los en memòria
+     * Les files es llegeixen per lots (fetch size) a mesura que es consumeix el Stream.
+     * S'ha de tancar (try-with-resources): retorna la connexió al pool.
+     * @return Stream ordenat per PK (buit si hi ha error obrint la consulta)
+     */
+    Stream<Item> streamAll();
     
     // ============================================
     // MÈTODES ESPECÍFICS
@@ -93,4 +114,31 @@ public interface IDAOItem {
      * @return Llista d'items de la pàgina especificada
      */
     List<Item> findAllPaginat(int page, int size);
+
+    /**
+     * Obté la pàgina següent per clau (keyset): cost constant sigui quina sigui la pàgina
+     * @param cursor Cursor retornat per la pàgina anterior (null = primera pàgina)
+     * @param size Mida de la pàgina
+     * @return Pàgina amb els elements i el cursor de la següent
+     */
+    Pagina<Item> findPageAfter(String cursor, int size);
+
+    // ============================================
+    // RESUMS (graelles sense it_desc ni it_foto)
+    // ============================================
+
+    /**
+     * Obté el resum de tots els items (codi, tipus, nom, stock i preu)
+     * L'item sencer es carrega quan cal amb findById
+     * @return Llista de resums ordenada per codi
+     */
+    List<ItemResum> findAllResum();
+
+    /**
+     * Com findPageAfter però amb resums
+     * @param cursor Cursor retornat per la pàgina anterior (null = primera pàgina)
+     * @param size Mida de la pàgina
+     * @return Pàgina de resums i el cursor de la següent
+     */
+    Pagina<ItemResum> findPageResumAfter(String cursor, int size);
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package dao;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 import model.ProdItem;
 
@@ -53,6 +54,14 @@ public interface IDAOProdItem {
      */
     List<ProdItem> findAll();
 
+    /**
+     * Recorre tots els relacions Producte-Item sense carregar-los en memòria
+     * Les files es llegeixen per lots (fetch size) a mesura que es consumeix el Stream.
+     * S'ha de tancar (try-with-resources): retorna la connexió al pool.
+     * @return Stream ordenat per PK (buit si hi ha error obrint la consulta)
+     */
+    Stream<ProdItem> streamAll();
+
     /**
      * Obté tots els items (components/subproductes) d'un producte
      * Útil per generar el BOM (Bill of Materials)
@@ -71,6 +80,24 @@ public interface IDAOProdItem {
      */
     boolean afegirItemAProducte(String prCodi, String itCodi, int quantitat);
 
+    /**
+     * Insereix moltes línies de BOM amb JDBC batch, en una sola transacció
+     * Totes les línies es validen abans d'enviar res a la BD.
+     * @param linies Línies a inserir
+     * @return Resultat per fila: 1 (o Statement.SUCCESS_NO_INFO) si s'ha inserit,
+     *         Statement.EXECUTE_FAILED a les files invàlides o que han fallat,
+     *         0 a la resta si la transacció s'ha desfet
+     */
+    int[] insertarBatch(List<ProdItem> linies);
+
+    /**
+     * Insereix moltes línies de BOM amb JDBC batch, en lots de la mida indicada
+     * @param linies Línies a inserir
+     * @param midaLot Nombre de files per executeBatch
+     * @return Resultat per fila (vegeu insertarBatch(List))
+     */
+    int[] insertarBatch(List<ProdItem> linies, int midaLot);
+
     /**
      * Compta el total de relacions Producte-Item
      * @return Número total de relacions
@@ -1,7 +1,10 @@
 package dao;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
+import model.Pagina;
 import model.Producte;
 
 /**
@@ -46,6 +49,14 @@ public interface IDAOProducte {
      */
     Producte findById(String prCodi);
 
+    /**
+     * Cerca molts productes alhora (evita una crida a findById per fila)
+     * Les claus es consulten en llistes IN de com a màxim 1000: 500 claus són una sola consulta.
+     * @param codis Codis a cercar (els null, buits o repetits s'ignoren)
+     * @return Mapa codi → Producte; els codis que no existeixen no hi són
+     */
+    Map<String, Producte> findByIds(Collection<String> codis);
+
     /**
      * Obté tots els productes ordenats per codi
      * @return Llista de tots els productes
@@ -60,6 +71,14 @@ public interface IDAOProducte {
      */
     List<Producte> findAllPaginat(int page, int size);
 
+    /**
+     * Obté la pàgina següent per clau (keyset): cost constant sigui quina sigui la pàgina
+     * @param cursor Cursor retornat per la pàgina anterior (null = primera pàgina)
+     * @param size Mida de la pàgina
+     * @return Pàgina amb els elements i el cursor de la següent
+     */
+    Pagina<Producte> findPageAfter(String cursor, int size);
+
     /**
      * Filtra productes per patró de codi (case-insensitive amb LIKE)
      * @param codiPattern Patró de codi a cercar (usa % automàticament)
@@ -76,6 +95,9 @@ public interface IDAOProducte {
      *   - Si és Component (tipus='C'): preu = quantitat × preu_mig
      *   - Si és Producte (tipus='P'): preu = quantitat × calcularPreuTotal(recursiu)
      * 
+     * El BOM sencer es llegeix amb una sola consulta (WITH recursiu)
+     * i el càlcul es fa en memòria.
+     * 
      * @param prCodi Codi del producte
      * @return Preu total del producte o 0.0 si no existeix o no té components
      */
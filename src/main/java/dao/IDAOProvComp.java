@@ -1,8 +1,13 @@
 package dao;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import model.ProvComp;
+import model.ResultatImportacio;
+import model.VistaProveidorComponent;
 
 /**
  * Interfície DAO per a la gestió de Proveïdor-Component (relació N:N)
@@ -60,6 +65,14 @@ public interface IDAOProvComp {
      */
     List<ProvComp> findAll();
 
+    /**
+     * Recorre tots els relacions proveïdor-component sense carregar-los en memòria
+     * Les files es llegeixen per lots (fetch size) a mesura que es consumeix el Stream.
+     * S'ha de tancar (try-with-resources): retorna la connexió al pool.
+     * @return Stream ordenat per PK (buit si hi ha error obrint la consulta)
+     */
+    Stream<ProvComp> streamAll();
+
     /**
      * Obté tots els proveïdors d'un component concret
      * Utilitzat pel dropdown "PROVEÏDOR" del formulari editComponent.jsp
@@ -69,6 +82,24 @@ public interface IDAOProvComp {
      */
     List<ProvComp> getProveidorsDelComponent(String cmCodi);
 
+    /**
+     * Proveïdors d'un component amb les dades del proveïdor, municipi i província
+     * Una sola consulta JOIN (en lloc de findById de cada proveïdor i municipi)
+     * 
+     * @param cmCodi Codi del component
+     * @return Vistes ordenades per codi de proveïdor (llista buida si no en té)
+     */
+    List<VistaProveidorComponent> getVistaProveidorsDelComponent(String cmCodi);
+
+    /**
+     * Com getVistaProveidorsDelComponent però per a molts components alhora
+     * (llistes IN de com a màxim 1000 codis)
+     * 
+     * @param cmCodis Codis dels components
+     * @return Mapa codi de component → vistes; els components sense proveïdors no hi són
+     */
+    Map<String, List<VistaProveidorComponent>> getVistaProveidorsDeComponents(Collection<String> cmCodis);
+
     /**
      * Obté tots els components subministrats per un proveïdor
      * 
@@ -76,4 +107,41 @@ public interface IDAOProvComp {
      * @return Llista de relacions (components) d'aquest proveïdor
      */
     List<ProvComp> getComponentsDelProveidor(String pvCodi);
-}
\ No newline at end of file
+
+    /**
+     * Insereix una relació i retorna el cm_preu_mig recalculat pel trigger
+     * A Oracle, DML i lectura del preu van en un sol bloc PL/SQL (una anada i tornada)
+     * 
+     * @param pc Relació proveïdor-component a inserir
+     * @return Nou cm_preu_mig del component (0.0 si no en té) o null si no s'ha inserit
+     */
+    Double insertarAmbPreu(ProvComp pc);
+
+    /**
+     * Actualitza el preu d'una relació i retorna el cm_preu_mig recalculat
+     * 
+     * @param pc Relació amb dades actualitzades
+     * @return Nou cm_preu_mig del component (0.0 si no en té) o null si no s'ha actualitzat
+     */
+    Double actualitzarAmbPreu(ProvComp pc);
+
+    /**
+     * Elimina una relació i retorna el cm_preu_mig recalculat
+     * 
+     * @param cmCodi Codi del component
+     * @param pvCodi Codi del proveïdor
+     * @return Nou cm_preu_mig del component (0.0 si no en té) o null si no s'ha eliminat
+     */
+    Double eliminarAmbPreu(String cmCodi, String pvCodi);
+
+    /**
+     * Aplica una tarifa de preus sencera (insereix o actualitza cada relació)
+     * ⚠️ Les files s'escalonen a una taula temporal i s'aplica un sol MERGE:
+     * el trigger es dispara un cop per tarifa
+     * 
+     * @param preus Relacions amb el preu nou
+     * @return Relacions inserides i actualitzades i cm_preu_mig dels components tocats,
+     *         o null si alguna relació és invàlida o hi ha error (no s'aplica res)
+     */
+    ResultatImportacio importarPreus(List<ProvComp> preus);
+}
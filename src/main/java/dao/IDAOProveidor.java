@@ -1,6 +1,8 @@
 package dao;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import model.Proveidor;
 
@@ -27,6 +29,14 @@ public interface IDAOProveidor {
      */
     Proveidor findById(String codi);
     
+    /**
+     * Cerca molts proveïdors alhora (evita una crida a findById per fila)
+     * Les claus es consulten en llistes IN de com a màxim 1000: 500 claus són una sola consulta.
+     * @param codis Codis a cercar (els null, buits o repetits s'ignoren)
+     * @return Mapa codi → Proveidor; els codis que no existeixen no hi són
+     */
+    Map<String, Proveidor> findByIds(Collection<String> codis);
+    
     /**
      * Filtra proveïdors per municipi
      * @param prCodi Codi de província
@@ -0,0 +1,18 @@
+package model;
+
+/**
+ * Resum d'un Component per a graelles i llistats (sense it_desc ni it_foto)
+ *
+ * L'entitat sencera es carrega quan cal amb findById(cmCodi()).
+ *
+ * @param cmCodi Codi del component
+ * @param itNom Nom
+ * @param itStock Stock
+ * @param cmUmCodi Unitat de mesura
+ * @param cmPreuMig Preu mitjà (null si encara no té proveïdors)
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public record ComponentResum(String cmCodi, String itNom, int itStock, String cmUmCodi, Double cmPreuMig) {
+}
@@ -0,0 +1,20 @@
+package model;
+
+/**
+ * Resum d'un Item per a graelles i llistats (sense it_desc ni it_foto)
+ *
+ * La descripció és text lliure llarg i és la major part de la transferència:
+ * els llistats porten només aquestes columnes i l'entitat sencera
+ * es carrega quan cal amb findById(itCodi()).
+ *
+ * @param itCodi Codi de l'item
+ * @param itTipus Tipus ('C' component, 'P' producte)
+ * @param itNom Nom
+ * @param itStock Stock
+ * @param cmPreuMig Preu mitjà si és un component amb preu (null altrament)
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public record ItemResum(String itCodi, String itTipus, String itNom, int itStock, Double cmPreuMig) {
+}
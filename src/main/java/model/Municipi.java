@@ -38,6 +38,16 @@ public class Municipi {
         this.muNum = muNum;
         this.muNom = muNom;
     }
+
+    /**
+     * Constructor de còpia
+     * @param altre Municipi a copiar
+     */
+    public Municipi(Municipi altre) {
+        this.muPrCodi = altre.muPrCodi;
+        this.muNum = altre.muNum;
+        this.muNom = altre.muNom;
+    }
     
     // ==========================================
     // GETTERS I SETTERS
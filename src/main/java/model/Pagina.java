@@ -0,0 +1,54 @@
+package model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Pàgina d'una llista paginada per clau (keyset / seek)
+ *
+ * El cursor és opac per a qui el rep: només s'ha de tornar tal qual
+ * a findPageAfter per obtenir la pàgina següent.
+ *
+ * @param elements Files de la pàgina
+ * @param seguent Cursor de la pàgina següent o null si és l'última
+ * @param <T> Tipus d'entitat
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public record Pagina<T>(List<T> elements, String seguent) {
+
+    private static final String VERSIO = "v1:";
+
+    /**
+     * @return true si hi ha una pàgina següent
+     */
+    public boolean teMes() {
+        return seguent != null;
+    }
+
+    /**
+     * Codifica la darrera clau d'una pàgina com a cursor opac
+     * @param darreraClau Codi de la darrera fila retornada
+     * @return Cursor (Base64 URL-safe)
+     */
+    public static String codificarCursor(String darreraClau) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((VERSIO + darreraClau).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Descodifica un cursor generat per codificarCursor
+     * @param cursor Cursor rebut del client
+     * @return Darrera clau de la pàgina anterior
+     * @throws IllegalArgumentException si el cursor no és vàlid
+     */
+    public static String descodificarCursor(String cursor) {
+        String text = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        if (!text.startsWith(VERSIO) || text.length() == VERSIO.length()) {
+            throw new IllegalArgumentException("Cursor de paginació invàlid");
+        }
+        return text.substring(VERSIO.length());
+    }
+}
@@ -46,6 +46,21 @@ public class Proveidor {
         this.pvMuNum = pvMuNum;
     }
 
+    /**
+     * Constructor de còpia
+     * @param altre Proveidor a copiar
+     */
+    public Proveidor(Proveidor altre) {
+        this.pvCodi = altre.pvCodi;
+        this.pvCif = altre.pvCif;
+        this.pvRaoSocial = altre.pvRaoSocial;
+        this.pvLinAdreFac = altre.pvLinAdreFac;
+        this.pvPersonaContacte = altre.pvPersonaContacte;
+        this.pvTelefContacte = altre.pvTelefContacte;
+        this.pvMuPrCodi = altre.pvMuPrCodi;
+        this.pvMuNum = altre.pvMuNum;
+    }
+
     public String getPvCodi() {
         return pvCodi;
     }
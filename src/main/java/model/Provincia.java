@@ -28,6 +28,15 @@ public class Provincia {
         this.prNom = prNom;
     }
 
+    /**
+     * Constructor de còpia
+     * @param altre Provincia a copiar
+     */
+    public Provincia(Provincia altre) {
+        this.prCodi = altre.prCodi;
+        this.prNom = altre.prNom;
+    }
+
     public String getPrCodi() {
         return prCodi;
     }
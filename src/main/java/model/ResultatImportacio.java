@@ -0,0 +1,26 @@
+package model;
+
+import java.util.Map;
+
+/**
+ * Resultat d'una importació massiva de preus de proveïdor (Prov_Comp)
+ *
+ * Les actualitzades es compten abans del MERGE, dins la mateixa transacció,
+ * com les files de la tarifa que ja existien a Prov_Comp; la resta són inserides.
+ *
+ * @param inserides Relacions proveïdor-component noves
+ * @param actualitzades Relacions existents amb el preu actualitzat
+ * @param preusMigs cm_preu_mig recalculat de cada component tocat (null = sense preu)
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public record ResultatImportacio(int inserides, int actualitzades, Map<String, Double> preusMigs) {
+
+    /**
+     * @return Total de files aplicades
+     */
+    public int total() {
+        return inserides + actualitzades;
+    }
+}
@@ -26,6 +26,15 @@ public class UnitatMesura {
         this.umCodi = umCodi;
         this.umNom = umNom;
     }
+
+    /**
+     * Constructor de còpia
+     * @param altre UnitatMesura a copiar
+     */
+    public UnitatMesura(UnitatMesura altre) {
+        this.umCodi = altre.umCodi;
+        this.umNom = altre.umNom;
+    }
     
     public String getUmCodi() {
         return umCodi;
@@ -0,0 +1,29 @@
+package model;
+
+/**
+ * Vista de lectura d'un proveïdor d'un component (dropdown de editComponent.jsp)
+ *
+ * Una fila de Prov_Comp amb les dades del Proveidor i els noms
+ * del municipi i la província ja resolts, tot d'una sola consulta.
+ *
+ * @param cmCodi Codi del component
+ * @param pcPreu Preu del proveïdor per aquest component
+ * @param pvCodi Codi del proveïdor
+ * @param pvCif CIF del proveïdor
+ * @param pvRaoSocial Raó social
+ * @param pvLinAdreFac Adreça de facturació (pot ser null)
+ * @param pvPersonaContacte Persona de contacte (pot ser null)
+ * @param pvTelefContacte Telèfon de contacte (pot ser null)
+ * @param prCodi Codi de la província (null si el proveïdor no té municipi)
+ * @param prNom Nom de la província (null si el proveïdor no té municipi)
+ * @param muNum Número del municipi (null si el proveïdor no té municipi)
+ * @param muNom Nom del municipi (null si el proveïdor no té municipi)
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public record VistaProveidorComponent(String cmCodi, double pcPreu,
+                                      String pvCodi, String pvCif, String pvRaoSocial,
+                                      String pvLinAdreFac, String pvPersonaContacte, String pvTelefContacte,
+                                      String prCodi, String prNom, String muNum, String muNom) {
+}
@@ -0,0 +1,180 @@
+package util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sortida de Registre asíncrona sobre un buffer circular
+ *
+ * Funcionament:
+ * - Els fils que registren reserven una posició amb un compareAndSet
+ *   i hi deixen l'entrada: cap bloqueig ni cap escriptura a la consola
+ * - Un sol fil (dimoni) buida el buffer en ordre i escriu a la sortida real
+ * - Si el buffer és ple l'entrada es descarta (es compta i s'avisa):
+ *   el registre mai no frena les peticions
+ *
+ * En aturar la JVM es buiden les entrades pendents (shutdown hook); tancar()
+ * atura el fil i treu el hook (Registre.tancar, des de ConnexioOracle.tancarPool).
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public final class AppenderAsincron implements Registre.Sortida {
+
+    public static final int CAPACITAT_PER_DEFECTE = 8192;
+
+    private static final long ESPERA_BUIT_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final int VOLTES_ESPERA_ACTIVA = 100;
+    private static final long ESPERA_RESERVA_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long TIMEOUT_BUIDAR_MS = 2000;
+
+    private final AtomicReferenceArray<Registre.Entrada> posicions;
+    private final int mascara;
+    private final AtomicLong escrites = new AtomicLong();
+    private final AtomicLong llegides = new AtomicLong();
+    private final LongAdder descartades = new LongAdder();
+    private final Registre.Sortida desti;
+    private final Thread consumidor;
+    private final Thread aturada;
+    private volatile boolean dormint = false;
+    private volatile boolean actiu = true;
+
+    /**
+     * @param capacitat Entrades del buffer (s'arrodoneix a potència de 2)
+     * @param desti Sortida real (p.ex. Registre.CONSOLA)
+     */
+    public AppenderAsincron(int capacitat, Registre.Sortida desti) {
+        int mida = Integer.highestOneBit(Math.max(2, capacitat - 1)) << 1;
+        this.posicions = new AtomicReferenceArray<>(mida);
+        this.mascara = mida - 1;
+        this.desti = desti;
+
+        this.consumidor = new Thread(this::consumir, "registre-asincron");
+        consumidor.setDaemon(true);
+        consumidor.start();
+
+        this.aturada = new Thread(this::buidar, "registre-asincron-aturada");
+        Runtime.getRuntime().addShutdownHook(aturada);
+    }
+
+    // ==========================================
+    // PRODUCTORS (fils de les peticions)
+    // ==========================================
+
+    @Override
+    public void escriure(Registre.Entrada entrada) {
+        long posicio;
+        do {
+            posicio = escrites.get();
+            if (posicio - llegides.get() >= posicions.length() || !actiu) {
+                descartades.increment();
+                return;
+            }
+        } while (!escrites.compareAndSet(posicio, posicio + 1));
+
+        posicions.set((int) (posicio & mascara), entrada);
+        if (dormint) {
+            LockSupport.unpark(consumidor);
+        }
+    }
+
+    // ==========================================
+    // CONSUMIDOR
+    // ==========================================
+
+    private void consumir() {
+        long avisades = 0;
+        while (actiu || llegides.get() < escrites.get()) {
+            if (!buidarPendents()) {
+                dormint = true;
+                if (llegides.get() == escrites.get()) {
+                    LockSupport.parkNanos(this, ESPERA_BUIT_NANOS);
+                }
+                dormint = false;
+            }
+
+            long perdudes = descartades.sum();
+            if (perdudes > avisades) {
+                desti.escriure(new Registre.Entrada(System.currentTimeMillis(), Registre.Nivell.WARN,
+                        "Registre", (perdudes - avisades) + " entrades descartades (buffer ple)", null));
+                avisades = perdudes;
+            }
+        }
+    }
+
+    /**
+     * Escriu totes les entrades publicades
+     * @return true si n'ha escrit alguna
+     */
+    private boolean buidarPendents() {
+        boolean alguna = false;
+        int voltes = 0;
+        long posicio = llegides.get();
+        while (posicio < escrites.get()) {
+            int index = (int) (posicio & mascara);
+            Registre.Entrada entrada = posicions.get(index);
+            if (entrada == null) {
+                // Posició reservada però encara no escrita pel productor
+                // (si el productor s'ha desplanificat, no es crema la CPU esperant-lo)
+                if (++voltes < VOLTES_ESPERA_ACTIVA) {
+                    Thread.onSpinWait();
+                } else {
+                    LockSupport.parkNanos(this, ESPERA_RESERVA_NANOS);
+                }
+                continue;
+            }
+            voltes = 0;
+            // Primer es buida la posició i després s'allibera
+            posicions.set(index, null);
+            llegides.set(++posicio);
+            try {
+                desti.escriure(entrada);
+            } catch (RuntimeException e) {
+                // Una sortida que falla no pot aturar el registre
+            }
+            alguna = true;
+        }
+        return alguna;
+    }
+
+    // ==========================================
+    // CONTROL
+    // ==========================================
+
+    /**
+     * Espera que s'escriguin totes les entrades publicades fins ara
+     * (com a màxim TIMEOUT_BUIDAR_MS)
+     */
+    public void buidar() {
+        long objectiu = escrites.get();
+        long limit = System.currentTimeMillis() + TIMEOUT_BUIDAR_MS;
+        while (llegides.get() < objectiu && consumidor.isAlive() && System.currentTimeMillis() < limit) {
+            LockSupport.unpark(consumidor);
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+        }
+    }
+
+    /**
+     * Escriu les pendents i atura el fil consumidor
+     */
+    public void tancar() {
+        buidar();
+        actiu = false;
+        LockSupport.unpark(consumidor);
+        try {
+            Runtime.getRuntime().removeShutdownHook(aturada);
+        } catch (IllegalStateException e) {
+            // Ja s'està aturant la JVM
+        }
+    }
+
+    /**
+     * @return Entrades descartades perquè el buffer era ple
+     */
+    public long getDescartades() {
+        return descartades.sum();
+    }
+}
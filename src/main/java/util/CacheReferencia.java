@@ -0,0 +1,118 @@
+package util;
+
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Instantània immutable d'una taula mestra amb refresc per TTL (copy-on-write)
+ *
+ * Les lectures només fan un get() de l'AtomicReference: sense bloquejos.
+ * Un refresc carrega una instantània nova sencera i la substitueix d'una vegada.
+ * Quan el TTL caduca, el refresc es fa en un fil virtual: cap petició espera
+ * la BD, totes continuen amb l'anterior fins que la nova està a punt.
+ * Només la primera càrrega (encara no hi ha res a servir) és síncrona.
+ *
+ * Si la càrrega falla es manté la instantània anterior. Si no n'hi ha cap,
+ * get() retorna null i el DAO amb cache consulta la BD directament.
+ *
+ * @param <T> Tipus de la instantània (estructura immutable amb els índexs)
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public final class CacheReferencia<T> {
+
+    private static final Registre LOG = Registre.per("CacheReferencia");
+
+    /**
+     * Carrega la instantània sencera de la BD
+     */
+    @FunctionalInterface
+    public interface Carregador<T> {
+        T carregar() throws SQLException;
+    }
+
+    private record Instantania<T>(T dades, long carregadaMs) {
+    }
+
+    private final String nom;
+    private final Carregador<T> carregador;
+    private final long ttlMs;
+    private final AtomicReference<Instantania<T>> actual = new AtomicReference<>();
+    private final AtomicBoolean refrescant = new AtomicBoolean(false);
+    // ReentrantLock i no synchronized: no fixa el fil portador dels fils virtuals durant el JDBC
+    private final ReentrantLock primeraCarrega = new ReentrantLock();
+
+    /**
+     * @param nom Nom per als missatges (p.ex. "Municipi")
+     * @param carregador Consulta que construeix la instantània
+     * @param ttlMs Edat màxima d'una instantània (0 = sense refresc automàtic)
+     */
+    public CacheReferencia(String nom, Carregador<T> carregador, long ttlMs) {
+        this.nom = nom;
+        this.carregador = carregador;
+        this.ttlMs = ttlMs;
+    }
+
+    /**
+     * Instantània actual (la carrega el primer cop; si ha caducat, engega el
+     * refresc en segon pla i retorna l'anterior)
+     * @return Dades o null si mai s'han pogut carregar
+     */
+    public T get() {
+        Instantania<T> inst = actual.get();
+        if (inst == null) {
+            return carregarPrimerCop();
+        }
+        if (ttlMs > 0 && System.currentTimeMillis() - inst.carregadaMs() > ttlMs
+                && refrescant.compareAndSet(false, true)) {
+            // Només un refresc alhora
+            Thread.ofVirtual().name("cache-" + nom).start(() -> {
+                try {
+                    refrescar();
+                } finally {
+                    refrescant.set(false);
+                }
+            });
+        }
+        return inst.dades();
+    }
+
+    /**
+     * Torna a carregar la taula ara i substitueix la instantània
+     * @return true si s'ha carregat; false si ha fallat (es manté l'anterior)
+     */
+    public boolean refrescar() {
+        try {
+            T dades = carregador.carregar();
+            actual.set(new Instantania<>(dades, System.currentTimeMillis()));
+            LOG.info(() -> "✅ Cache " + nom + " carregada");
+            return true;
+        } catch (SQLException e) {
+            LOG.warn(() -> "⚠️  Error carregant la cache " + nom + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Descarta la instantània (la propera lectura tornarà a carregar)
+     */
+    public void invalidar() {
+        actual.set(null);
+    }
+
+    private T carregarPrimerCop() {
+        primeraCarrega.lock();
+        try {
+            Instantania<T> inst = actual.get();
+            if (inst == null && refrescar()) {
+                inst = actual.get();
+            }
+            return inst != null ? inst.dades() : null;
+        } finally {
+            primeraCarrega.unlock();
+        }
+    }
+}
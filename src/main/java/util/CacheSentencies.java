@@ -0,0 +1,91 @@
+package util;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache LRU de sentències preparades d'una connexió física
+ * Clau: text SQL + tipus de ResultSet + concurrència + (Prepared o Callable)
+ *
+ * Només conté les sentències lliures: prendre() la treu de la cache
+ * i retornar() la torna quan el DAO la tanca.
+ * No és thread-safe: una connexió només la fa servir un fil alhora.
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+class CacheSentencies {
+
+    private static final Registre LOG = Registre.per("CacheSentencies");
+
+    /**
+     * Clau de la cache
+     */
+    record Clau(String sql, int tipusResultSet, int concurrencia, boolean callable) {
+    }
+
+    private final int mida;
+    private final LinkedHashMap<Clau, PreparedStatement> lliures;
+
+    /**
+     * @param mida Nombre màxim de sentències lliures guardades
+     */
+    CacheSentencies(int mida) {
+        this.mida = mida;
+        this.lliures = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Clau, PreparedStatement> eldest) {
+                if (size() > CacheSentencies.this.mida) {
+                    tancarFisica(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Treu una sentència lliure de la cache
+     * @return Sentència física o null si no n'hi ha
+     */
+    PreparedStatement prendre(Clau clau) {
+        return lliures.remove(clau);
+    }
+
+    /**
+     * Torna una sentència a la cache (l'LRU expulsa i tanca la més antiga)
+     */
+    void retornar(Clau clau, PreparedStatement ps) {
+        PreparedStatement anterior = lliures.put(clau, ps);
+        if (anterior != null && anterior != ps) {
+            tancarFisica(anterior);
+        }
+    }
+
+    /**
+     * Tanca totes les sentències de la cache
+     */
+    void buidar() {
+        List<PreparedStatement> totes = new ArrayList<>(lliures.values());
+        lliures.clear();
+        for (PreparedStatement ps : totes) {
+            tancarFisica(ps);
+        }
+    }
+
+    int getMida() {
+        return mida;
+    }
+
+    private static void tancarFisica(PreparedStatement ps) {
+        try {
+            ps.close();
+        } catch (SQLException e) {
+            LOG.warn(() -> "⚠️  Error tancant sentència de la cache: " + e.getMessage());
+        }
+    }
+}
@@ -3,7 +3,6 @@ package util;
 
 import java.io.InputStream;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.Properties;
 
@@ -11,11 +10,28 @@ import java.util.Properties;
  * Classe simple per obtenir connexió a Oracle
  * Per tests bàsics dels models
  * 
+ * Les connexions surten d'un pool acotat (veure PoolConnexions).
+ * close() sobre la connexió la retorna al pool, per tant els DAOs
+ * poden continuar tancant-la com sempre.
+ * 
+ * Propietats del pool (db.properties, totes opcionals):
+ * - db.pool.min / db.pool.max: connexions mínimes i màximes
+ * - db.pool.timeoutEsperaMs: espera màxima per obtenir connexió
+ * - db.pool.tempsInactiuMaxMs: temps màxim d'inactivitat abans de tancar-la
+ * - db.pool.timeoutValidacioSeg: timeout de la validació en el préstec
+ * - db.pool.midaCacheSentencies: sentències preparades cachejades per connexió (0 = sense cache)
+ * 
+ * Fetch size de les sentències dels DAOs: propietats db.fetch.* (veure PoliticaFetchSize).
+ * 
+ * Qualsevol propietat db.* es pot sobreescriure amb una propietat de sistema
+ * (-Ddb.url=...), com fan els tests amb la BD local.
+ * 
  * @author DomenechObiolAlbert
  */
 public class ConnexioOracle {
     
     private static Properties props = new Properties();
+    private static PoolConnexions pool;
     
     // Carrega propietats
     static {
@@ -29,22 +45,95 @@ public class ConnexioOracle {
             }
             
             props.load(input);
+            
+            // Les propietats de sistema db.* tenen prioritat (p.ex. tests amb BD local)
+            for (String clau : System.getProperties().stringPropertyNames()) {
+                if (clau.startsWith("db.")) {
+                    props.setProperty(clau, System.getProperty(clau));
+                }
+            }
+            
+            Registre.configurar(props);
             Class.forName(props.getProperty("db.driver"));
             
+            pool = new PoolConnexions(
+                props.getProperty("db.url"),
+                props.getProperty("db.user"),
+                props.getProperty("db.password"),
+                getPropietatInt("db.pool.min", 2),
+                getPropietatInt("db.pool.max", 10),
+                getPropietatInt("db.pool.timeoutEsperaMs", 5000),
+                getPropietatInt("db.pool.tempsInactiuMaxMs", 300000),
+                getPropietatInt("db.pool.timeoutValidacioSeg", 2),
+                getPropietatInt("db.pool.midaCacheSentencies", 20)
+            );
+            pool.setPoliticaFetchSize(PoliticaFetchSize.desDePropietats(props));
+            pool.setRegistreConsultesLentes(RegistreConsultesLentes.desDePropietats(props));
+            
         } catch (Exception e) {
             throw new RuntimeException("Error inicialitzant connexió: " + e.getMessage());
         }
     }
     
     /**
-     * Obté connexió a Oracle
+     * Obté connexió a Oracle (prestada pel pool)
+     * close() la retorna al pool en lloc de tancar-la
+     * 
+     * Dins una unitat de treball (Transaccions) retorna sempre
+     * la connexió compartida de la unitat.
      */
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(
-            props.getProperty("db.url"),
-            props.getProperty("db.user"),
-            props.getProperty("db.password")
-        );
+        Connection compartida = Transaccions.connexioActual();
+        if (compartida != null) {
+            return compartida;
+        }
+        return pool.obtenir();
+    }
+    
+    /**
+     * Obté el pool de connexions (estadístiques)
+     */
+    public static PoolConnexions getPool() {
+        return pool;
+    }
+    
+    /**
+     * Tanca el pool i totes les connexions físiques, desregistra l'MBean de DaoMetrics
+     * i atura el fil del registre asíncron
+     * Cridar en aturar l'aplicació (p.ex. contextDestroyed)
+     */
+    public static void tancarPool() {
+        pool.tancar();
+        DaoMetrics.desregistrarJmx();
+        Registre.tancar();
+    }
+    
+    /**
+     * Llegeix una propietat entera de db.properties amb valor per defecte
+     * @param clau Nom de la propietat (p.ex. "db.pool.max")
+     * @param perDefecte Valor si la propietat no hi és
+     * @return Valor de la propietat
+     */
+    public static int getPropietatInt(String clau, int perDefecte) {
+        String valor = props.getProperty(clau);
+        if (valor == null || valor.trim().isEmpty()) {
+            return perDefecte;
+        }
+        return Integer.parseInt(valor.trim());
+    }
+    
+    /**
+     * Llegeix una propietat booleana de db.properties amb valor per defecte
+     * @param clau Nom de la propietat (p.ex. "db.metriques.actives")
+     * @param perDefecte Valor si la propietat no hi és
+     * @return Valor de la propietat
+     */
+    public static boolean getPropietatBoolean(String clau, boolean perDefecte) {
+        String valor = props.getProperty(clau);
+        if (valor == null || valor.trim().isEmpty()) {
+            return perDefecte;
+        }
+        return Boolean.parseBoolean(valor.trim());
     }
     
     /**
@@ -58,6 +147,7 @@ public class ConnexioOracle {
             System.out.println("   BD: " + conn.getMetaData().getDatabaseProductName());
             System.out.println("   Versió: " + conn.getMetaData().getDatabaseProductVersion());
             System.out.println("   URL: " + conn.getMetaData().getURL());
+            System.out.println("   Pool: " + pool);
             
         } catch (SQLException e) {
             System.err.println(" Error de connexió:");
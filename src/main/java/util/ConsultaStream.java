@@ -0,0 +1,143 @@
+package util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Consulta que retorna les files com a Stream sense materialitzar-les en una llista
+ *
+ * El ResultSet es manté obert i cada fila es mapeja quan el Stream la demana:
+ * la memòria usada depèn del fetch size, no de la mida de la taula.
+ * close() del Stream tanca ResultSet, sentència i connexió (la retorna al pool).
+ *
+ * Ús (sempre amb try-with-resources):
+ *   try (Stream<Item> items = daoItem.streamAll()) {
+ *       items.forEach(exportador::escriure);
+ *   }
+ *
+ * Si s'arriba al final de les dades, els recursos es tanquen igualment.
+ * Un error SQL durant la lectura es llança com a IllegalStateException.
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public final class ConsultaStream {
+
+    private static final Registre LOG = Registre.per("ConsultaStream");
+
+    /**
+     * Mapeja la fila actual del ResultSet a un objecte
+     */
+    @FunctionalInterface
+    public interface MapejadorFila<T> {
+        T mapejar(ResultSet rs) throws SQLException;
+    }
+
+    // Constructor privat per evitar instanciació
+    private ConsultaStream() {
+        throw new AssertionError("ConsultaStream no es pot instanciar");
+    }
+
+    /**
+     * Fetch size per defecte dels Streams (db.stream.fetchSize)
+     * @return Files per anada i tornada
+     */
+    public static int getFetchSizePerDefecte() {
+        return ConnexioOracle.getPropietatInt("db.stream.fetchSize", 500);
+    }
+
+    /**
+     * Executa la consulta i retorna les files com a Stream
+     * @param sql Consulta amb paràmetres
+     * @param fetchSize Files per anada i tornada
+     * @param mapejador Conversió fila → objecte
+     * @param parametres Valors dels paràmetres (setObject)
+     * @return Stream lazy que s'ha de tancar
+     * @throws SQLException si la consulta no es pot executar
+     */
+    public static <T> Stream<T> obrir(String sql, int fetchSize, MapejadorFila<T> mapejador,
+                                      Object... parametres) throws SQLException {
+        Connection conn = ConnexioOracle.getConnection();
+        PreparedStatement ps = null;
+        ResultSet rs;
+
+        try {
+            ps = conn.prepareStatement(sql);
+            ps.setFetchSize(fetchSize);
+            for (int i = 0; i < parametres.length; i++) {
+                ps.setObject(i + 1, parametres[i]);
+            }
+            rs = ps.executeQuery();
+        } catch (SQLException e) {
+            Recursos.tancar(null, ps, conn);
+            throw e;
+        }
+
+        Recursos recursos = new Recursos(rs, ps, conn);
+        Spliterator<T> files = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> accio) {
+                if (recursos.tancats) {
+                    return false;
+                }
+                try {
+                    if (!rs.next()) {
+                        recursos.run();
+                        return false;
+                    }
+                    accio.accept(mapejador.mapejar(rs));
+                    return true;
+                } catch (SQLException e) {
+                    recursos.run();
+                    throw new IllegalStateException("Error llegint files: " + e.getMessage(), e);
+                }
+            }
+        };
+
+        return StreamSupport.stream(files, false).onClose(recursos);
+    }
+
+    /**
+     * Recursos JDBC d'un Stream obert (es tanquen un sol cop)
+     */
+    private static final class Recursos implements Runnable {
+        private final ResultSet rs;
+        private final PreparedStatement ps;
+        private final Connection conn;
+        private boolean tancats = false;
+
+        Recursos(ResultSet rs, PreparedStatement ps, Connection conn) {
+            this.rs = rs;
+            this.ps = ps;
+            this.conn = conn;
+        }
+
+        @Override
+        public void run() {
+            if (!tancats) {
+                tancats = true;
+                tancar(rs, ps, conn);
+            }
+        }
+
+        static void tancar(ResultSet rs, PreparedStatement ps, Connection conn) {
+            for (AutoCloseable recurs : new AutoCloseable[] { rs, ps, conn }) {
+                if (recurs != null) {
+                    try {
+                        recurs.close();
+                    } catch (Exception e) {
+                        LOG.warn(() -> "⚠️  Error tancant recurs del Stream: " + e.getMessage());
+                    }
+                }
+            }
+        }
+    }
+}
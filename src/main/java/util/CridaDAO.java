@@ -0,0 +1,67 @@
+package util;
+
+import java.util.Optional;
+
+/**
+ * Mètode DAO que ha originat una sentència (el primer frame de dao.* o abstractdao.* a la pila)
+ *
+ * Ho fan servir la política de fetch size i el registre de consultes lentes
+ * per saber quin mètode (DAOItem.cercarPerNom...) executa cada SQL.
+ *
+ * @param classe Nom simple de la classe DAO (p.ex. "DAOItem")
+ * @param metode Nom del mètode (p.ex. "findAll"; les lambdes compten com el mètode que les conté)
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public record CridaDAO(String classe, String metode) {
+
+    private static final StackWalker PILA = StackWalker.getInstance();
+
+    /**
+     * Busca el mètode DAO a la pila del fil actual
+     *
+     * Es prefereix el primer frame de dao.*: els d'abstractdao.* solen ser
+     * ajudants (tancarRecursos, logError...) cridats des del mètode concret.
+     * @return Crida o buit si la sentència no ve d'un DAO
+     */
+    public static Optional<CridaDAO> actual() {
+        return PILA.walk(s -> {
+            StackWalker.StackFrame abstracte = null;
+            for (StackWalker.StackFrame f : (Iterable<StackWalker.StackFrame>) s::iterator) {
+                String classe = f.getClassName();
+                if (classe.startsWith("dao.")) {
+                    return Optional.of(crida(f));
+                }
+                if (abstracte == null && classe.startsWith("abstractdao.")) {
+                    abstracte = f;
+                }
+            }
+            return Optional.ofNullable(abstracte).map(CridaDAO::crida);
+        });
+    }
+
+    @Override
+    public String toString() {
+        return classe + "." + metode;
+    }
+
+    private static CridaDAO crida(StackWalker.StackFrame f) {
+        return new CridaDAO(nomSimple(f.getClassName()), nomMetode(f.getMethodName()));
+    }
+
+    private static String nomSimple(String classe) {
+        String nom = classe.substring(classe.lastIndexOf('.') + 1);
+        int dolar = nom.indexOf('$');
+        return dolar >= 0 ? nom.substring(0, dolar) : nom;
+    }
+
+    // lambda$findAll$0 → findAll
+    private static String nomMetode(String metode) {
+        if (metode.startsWith("lambda$")) {
+            int fi = metode.indexOf('$', 7);
+            return fi > 7 ? metode.substring(7, fi) : metode;
+        }
+        return metode;
+    }
+}
@@ -0,0 +1,384 @@
+package util;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+/**
+ * Registre de mètriques dels DAOs
+ *
+ * Per cada mètode públic d'una interfície IDAO* (clau "DAOComponent.findById"):
+ * - Histograma de latència sense bloquejos (HistogramaLatencia): p50, p99, p999
+ * - Crides, errors i files llegides
+ * - Temps total esperant connexió del pool
+ *
+ * Les mesures es prenen amb un proxy dinàmic (instrumentar) que DAOFactory posa
+ * davant de cada DAO. El pool (PoolConnexions) informa de l'espera de connexió,
+ * de les files de cada ResultSet i de les SQLException, i DaoMetrics les assigna
+ * a l'operació en curs del fil. Un error és una crida que llança una excepció
+ * o en la qual alguna sentència ha fallat (encara que el DAO la capturi i retorni false/null).
+ *
+ * Les files dels streams (streamAll) es compten quan es tanca el stream:
+ * si es tanca fora de la crida no s'assignen a cap mètode.
+ *
+ * Consulta:
+ *   System.out.println(DaoMetrics.bolcat());
+ *   DaoMetrics.Resum r = DaoMetrics.resum("DAOProducte.calcularPreuTotal");
+ *
+ * També es publica per JMX com a CapaPersistencia:type=DaoMetrics (desregistrarJmx en
+ * aturar l'aplicació) i, amb una gravació de JFR activa, cada crida és un esdeveniment dao.Operation (EsdevenimentsJfr).
+ * Desactivable amb db.metriques.actives=false (DAOFactory retorna els DAOs sense proxy).
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public final class DaoMetrics {
+
+    public static final String NOM_JMX = "CapaPersistencia:type=DaoMetrics";
+
+    private static final Registre LOG = Registre.per("DaoMetrics");
+
+    /**
+     * Foto de les mesures d'un mètode (temps en mil·lisegons)
+     */
+    public record Resum(String metode, long crides, long errors, long files,
+                        double mitjanaMs, double p50Ms, double p99Ms, double p999Ms,
+                        double maximMs, double esperaConnexioMs) {
+    }
+
+    /**
+     * Comptadors d'un mètode
+     */
+    private static final class MetriquesMetode {
+        final String nom;
+        final HistogramaLatencia latencia = new HistogramaLatencia();
+        final LongAdder errors = new LongAdder();
+        final LongAdder files = new LongAdder();
+        final LongAdder esperaNanos = new LongAdder();
+
+        MetriquesMetode(String nom) {
+            this.nom = nom;
+        }
+    }
+
+    /**
+     * Crida en curs d'un fil (les crides niades guarden l'anterior)
+     */
+    private static final class Operacio {
+        final MetriquesMetode metode;
+        final Operacio anterior;
+        long files;
+        long esperaNanos;
+        boolean error;
+
+        Operacio(MetriquesMetode metode, Operacio anterior) {
+            this.metode = metode;
+            this.anterior = anterior;
+        }
+    }
+
+    private static final Map<String, MetriquesMetode> METODES = new ConcurrentHashMap<>();
+    private static final HistogramaLatencia ESPERA_CONNEXIO = new HistogramaLatencia();
+    private static final ThreadLocal<Operacio> ACTUAL = new ThreadLocal<>();
+
+    static {
+        registrarJmx();
+    }
+
+    private DaoMetrics() {
+    }
+
+    /**
+     * Configuració (es llegeix el primer cop, no en carregar la classe:
+     * el pool crida DaoMetrics mentre ConnexioOracle s'està inicialitzant)
+     */
+    private static final class Configuracio {
+        static final boolean ACTIU = ConnexioOracle.getPropietatBoolean("db.metriques.actives", true);
+    }
+
+    /**
+     * @return true si DAOFactory ha d'instrumentar els DAOs (db.metriques.actives)
+     */
+    public static boolean isActiu() {
+        return Configuracio.ACTIU;
+    }
+
+    // ==========================================
+    // INSTRUMENTACIÓ
+    // ==========================================
+
+    /**
+     * Embolcalla un DAO amb un proxy que mesura cada mètode de la interfície
+     * @param interficie Interfície del DAO (IDAOComponent.class...)
+     * @param dao Implementació
+     * @return Proxy que implementa la interfície i delega al DAO
+     */
+    public static <I> I instrumentar(Class<I> interficie, I dao) {
+        return interficie.cast(Proxy.newProxyInstance(
+                interficie.getClassLoader(),
+                new Class<?>[] { interficie },
+                new Instrumentacio(dao)));
+    }
+
+    private static final class Instrumentacio implements InvocationHandler {
+        private final Object dao;
+        private final String classe;
+        private final String prefix;
+        private final Map<Method, MetriquesMetode> perMetode = new ConcurrentHashMap<>();
+
+        Instrumentacio(Object dao) {
+            this.dao = dao;
+            this.classe = dao.getClass().getSimpleName();
+            this.prefix = classe + ".";
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> dao.toString();
+                };
+            }
+
+            MetriquesMetode metriques = perMetode.computeIfAbsent(method,
+                    m -> METODES.computeIfAbsent(prefix + m.getName(), MetriquesMetode::new));
+            Operacio operacio = new Operacio(metriques, ACTUAL.get());
+            ACTUAL.set(operacio);
+            EsdevenimentsJfr.Operacio jfr = EsdevenimentsJfr.Operacio.iniciar();
+            long inici = System.nanoTime();
+            try {
+                return method.invoke(dao, args);
+            } catch (InvocationTargetException e) {
+                operacio.error = true;
+                throw e.getCause();
+            } finally {
+                long durada = System.nanoTime() - inici;
+                if (operacio.anterior != null) {
+                    ACTUAL.set(operacio.anterior);
+                } else {
+                    ACTUAL.remove();
+                }
+                metriques.latencia.registrar(durada);
+                metriques.files.add(operacio.files);
+                metriques.esperaNanos.add(operacio.esperaNanos);
+                if (operacio.error) {
+                    metriques.errors.increment();
+                }
+                if (jfr != null) {
+                    jfr.acabar(classe, method.getName(), operacio.files, operacio.esperaNanos, operacio.error);
+                }
+            }
+        }
+    }
+
+    // ==========================================
+    // AVISOS DEL POOL (operació en curs del fil)
+    // ==========================================
+
+    /**
+     * @return true si el fil és dins d'un mètode instrumentat
+     */
+    static boolean enOperacio() {
+        return ACTUAL.get() != null;
+    }
+
+    static void registrarEsperaConnexio(long nanos) {
+        ESPERA_CONNEXIO.registrar(nanos);
+        Operacio operacio = ACTUAL.get();
+        if (operacio != null) {
+            operacio.esperaNanos += nanos;
+        }
+    }
+
+    static void registrarFiles(long files) {
+        Operacio operacio = ACTUAL.get();
+        if (operacio != null) {
+            operacio.files += files;
+        }
+    }
+
+    static void registrarErrorSql() {
+        Operacio operacio = ACTUAL.get();
+        if (operacio != null) {
+            operacio.error = true;
+        }
+    }
+
+    // ==========================================
+    // CONSULTA
+    // ==========================================
+
+    /**
+     * Mesures d'un mètode
+     * @param metode Clau "DAOComponent.findById"
+     * @return Resum o null si el mètode no s'ha cridat
+     */
+    public static Resum resum(String metode) {
+        MetriquesMetode metriques = METODES.get(metode);
+        return metriques != null ? resumir(metriques) : null;
+    }
+
+    /**
+     * Mesures de tots els mètodes, primer els que acumulen més temps
+     * @return Llista de resums
+     */
+    public static List<Resum> resums() {
+        List<MetriquesMetode> ordenats = new ArrayList<>(METODES.values());
+        ordenats.sort(Comparator.comparingLong((MetriquesMetode m) -> m.latencia.getSumaNanos()).reversed());
+        List<Resum> resultat = new ArrayList<>(ordenats.size());
+        for (MetriquesMetode m : ordenats) {
+            resultat.add(resumir(m));
+        }
+        return resultat;
+    }
+
+    /**
+     * @return Histograma de l'espera per obtenir connexió (totes les crides al pool)
+     */
+    public static HistogramaLatencia getEsperaConnexio() {
+        return ESPERA_CONNEXIO;
+    }
+
+    /**
+     * Posa totes les mesures a zero
+     */
+    public static void reiniciar() {
+        for (MetriquesMetode m : METODES.values()) {
+            m.latencia.reiniciar();
+            m.errors.reset();
+            m.files.reset();
+            m.esperaNanos.reset();
+        }
+        ESPERA_CONNEXIO.reiniciar();
+    }
+
+    /**
+     * Taula de text amb totes les mesures (per a operacions)
+     * @return Una línia per mètode més l'espera del pool
+     */
+    public static String bolcat() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "%-45s %9s %7s %10s %9s %9s %9s %9s %9s %10s%n",
+                "Mètode", "crides", "errors", "files", "mitj ms", "p50 ms", "p99 ms", "p999 ms", "màx ms", "espera ms"));
+        for (Resum r : resums()) {
+            sb.append(String.format(Locale.ROOT, "%-45s %9d %7d %10d %9.3f %9.3f %9.3f %9.3f %9.3f %10.3f%n",
+                    r.metode(), r.crides(), r.errors(), r.files(), r.mitjanaMs(),
+                    r.p50Ms(), r.p99Ms(), r.p999Ms(), r.maximMs(), r.esperaConnexioMs()));
+        }
+        sb.append(String.format(Locale.ROOT, "Espera connexió pool: %d préstecs, p50 %.3f ms, p99 %.3f ms, màx %.3f ms%n",
+                ESPERA_CONNEXIO.getTotal(), ms(ESPERA_CONNEXIO.percentil(50)),
+                ms(ESPERA_CONNEXIO.percentil(99)), ms(ESPERA_CONNEXIO.getMaximNanos())));
+        return sb.toString();
+    }
+
+    private static Resum resumir(MetriquesMetode m) {
+        HistogramaLatencia h = m.latencia;
+        return new Resum(m.nom, h.getTotal(), m.errors.sum(), m.files.sum(),
+                h.getMitjanaNanos() / TimeUnit.MILLISECONDS.toNanos(1),
+                ms(h.percentil(50)), ms(h.percentil(99)), ms(h.percentil(99.9)),
+                ms(h.getMaximNanos()), ms(m.esperaNanos.sum()));
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    // ==========================================
+    // JMX
+    // ==========================================
+
+    /**
+     * Publica les mètriques per JMX (es crida en carregar la classe)
+     *
+     * Idempotent: si ja hi ha un MBean amb el mateix nom (p.ex. d'un desplegament
+     * anterior que no va cridar desregistrarJmx), se substitueix pel d'aquesta còpia.
+     * @return true si ha quedat registrat
+     */
+    public static synchronized boolean registrarJmx() {
+        try {
+            MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+            ObjectName nom = new ObjectName(NOM_JMX);
+            if (servidor.isRegistered(nom)) {
+                servidor.unregisterMBean(nom);
+            }
+            servidor.registerMBean(new StandardMBean(new Jmx(), DaoMetricsMBean.class), nom);
+            return true;
+        } catch (JMException | SecurityException e) {
+            LOG.warn(() -> "⚠️  DaoMetrics: no s'ha pogut registrar a JMX: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Treu l'MBean del servidor JMX de la plataforma
+     * Cridar en aturar l'aplicació (ConnexioOracle.tancarPool ho fa): el servidor JMX
+     * és de la JVM i, si no, reté aquesta classe i el seu classloader després d'un redeploy.
+     */
+    public static synchronized void desregistrarJmx() {
+        try {
+            MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+            ObjectName nom = new ObjectName(NOM_JMX);
+            if (servidor.isRegistered(nom)) {
+                servidor.unregisterMBean(nom);
+            }
+        } catch (JMException | SecurityException e) {
+            LOG.warn(() -> "⚠️  DaoMetrics: no s'ha pogut desregistrar de JMX: " + e.getMessage());
+        }
+    }
+
+    private static final class Jmx implements DaoMetricsMBean {
+
+        @Override
+        public String[] getMetodes() {
+            return resums().stream().map(Resum::metode).toArray(String[]::new);
+        }
+
+        @Override
+        public long getTotalCrides() {
+            return resums().stream().mapToLong(Resum::crides).sum();
+        }
+
+        @Override
+        public long getTotalErrors() {
+            return resums().stream().mapToLong(Resum::errors).sum();
+        }
+
+        @Override
+        public double getEsperaConnexioP99Ms() {
+            return ms(ESPERA_CONNEXIO.percentil(99));
+        }
+
+        @Override
+        public String getBolcat() {
+            return bolcat();
+        }
+
+        @Override
+        public double percentilMs(String metode, double percentil) {
+            MetriquesMetode m = METODES.get(metode);
+            return m != null ? ms(m.latencia.percentil(percentil)) : 0.0;
+        }
+
+        @Override
+        public void reiniciar() {
+            DaoMetrics.reiniciar();
+        }
+    }
+}
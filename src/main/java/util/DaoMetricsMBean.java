@@ -0,0 +1,44 @@
+package util;
+
+/**
+ * Interfície JMX de DaoMetrics (CapaPersistencia:type=DaoMetrics)
+ *
+ * Des de JConsole/VisualVM: atributs per a una vista ràpida
+ * i operacions per consultar un mètode concret.
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public interface DaoMetricsMBean {
+
+    /**
+     * @return Mètodes amb mesures ("DAOComponent.findById", ...)
+     */
+    String[] getMetodes();
+
+    long getTotalCrides();
+
+    long getTotalErrors();
+
+    /**
+     * @return Percentil 99 de l'espera per obtenir connexió del pool (ms)
+     */
+    double getEsperaConnexioP99Ms();
+
+    /**
+     * @return Taula de text de DaoMetrics.bolcat()
+     */
+    String getBolcat();
+
+    /**
+     * @param metode Clau del mètode ("DAOComponent.findById")
+     * @param percentil Entre 0 i 100 (50, 99, 99.9...)
+     * @return Latència en ms (0 si el mètode no té mesures)
+     */
+    double percentilMs(String metode, double percentil);
+
+    /**
+     * Posa totes les mesures a zero
+     */
+    void reiniciar();
+}
@@ -0,0 +1,219 @@
+package util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Esdeveniments de JDK Flight Recorder de la capa de persistència
+ *
+ * - dao.Query: cada sentència executada (execució + lectura del ResultSet), des del pool
+ * - dao.Operation: cada crida a un mètode d'un DAO instrumentat (DaoMetrics)
+ * - dao.Transaction: des de setAutoCommit(false) fins al commit/rollback d'una connexió del pool
+ *
+ * Sense cap gravació activa, iniciar() retorna null després d'un isEnabled()
+ * (el JIT el redueix a una lectura d'un camp) i no es mira la pila ni es calcula res.
+ *
+ * Gravació (sense cap agent extern):
+ *   java -XX:StartFlightRecording=filename=dao.jfr,settings=profile ...
+ *   jfr print --events dao.Query dao.jfr
+ *
+ * Així es poden relacionar pauses de GC i CPU amb crides com DAOProducte.calcularPreuTotal.
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public final class EsdevenimentsJfr {
+
+    private static final String CATEGORIA = "Capa de persistència";
+
+    private EsdevenimentsJfr() {
+    }
+
+    /**
+     * Identificador curt i estable d'un SQL (per agrupar a JMC sense comparar el text sencer)
+     * @param sql Text SQL
+     * @return 8 xifres hexadecimals
+     */
+    static String idSql(String sql) {
+        return sql == null ? null : String.format("%08x", sql.hashCode());
+    }
+
+    // ==========================================
+    // dao.Query
+    // ==========================================
+
+    @Name("dao.Query")
+    @Label("Consulta DAO")
+    @Description("Sentència SQL executada per un DAO: execució i lectura de files")
+    @Category({ CATEGORIA, "DAO" })
+    @StackTrace(false)
+    public static final class Consulta extends Event {
+
+        @Label("Classe DAO")
+        String classeDao;
+
+        @Label("Mètode")
+        String metode;
+
+        @Label("Id SQL")
+        String idSql;
+
+        @Label("SQL")
+        String sql;
+
+        @Label("Files")
+        @Description("Files llegides (consulta) o afectades (actualització)")
+        long files;
+
+        @Label("Espera de connexió")
+        @Description("Espera del préstec de la connexió (només a la primera sentència del préstec)")
+        @Timespan(Timespan.NANOSECONDS)
+        long esperaConnexio;
+
+        @Label("Error")
+        boolean error;
+
+        /**
+         * @return Esdeveniment començat, o null si no hi ha cap gravació que el vulgui
+         */
+        static Consulta iniciar() {
+            Consulta esdeveniment = new Consulta();
+            if (!esdeveniment.isEnabled()) {
+                return null;
+            }
+            esdeveniment.begin();
+            return esdeveniment;
+        }
+
+        /**
+         * @return true si alguna gravació activa recull dao.Query
+         */
+        static boolean actiu() {
+            return new Consulta().isEnabled();
+        }
+
+        void acabar(String sql, long files, long esperaConnexio, boolean error) {
+            end();
+            if (shouldCommit()) {
+                CridaDAO.actual().ifPresent(c -> {
+                    classeDao = c.classe();
+                    metode = c.metode();
+                });
+                this.idSql = idSql(sql);
+                this.sql = sql;
+                this.files = files;
+                this.esperaConnexio = esperaConnexio;
+                this.error = error;
+                commit();
+            }
+        }
+    }
+
+    // ==========================================
+    // dao.Operation
+    // ==========================================
+
+    @Name("dao.Operation")
+    @Label("Operació DAO")
+    @Description("Crida a un mètode d'un DAO de DAOFactory (pot executar diverses sentències)")
+    @Category({ CATEGORIA, "DAO" })
+    @StackTrace(false)
+    public static final class Operacio extends Event {
+
+        @Label("Classe DAO")
+        String classeDao;
+
+        @Label("Mètode")
+        String metode;
+
+        @Label("Files")
+        long files;
+
+        @Label("Espera de connexió")
+        @Timespan(Timespan.NANOSECONDS)
+        long esperaConnexio;
+
+        @Label("Error")
+        boolean error;
+
+        static Operacio iniciar() {
+            Operacio esdeveniment = new Operacio();
+            if (!esdeveniment.isEnabled()) {
+                return null;
+            }
+            esdeveniment.begin();
+            return esdeveniment;
+        }
+
+        void acabar(String classeDao, String metode, long files, long esperaConnexio, boolean error) {
+            end();
+            if (shouldCommit()) {
+                this.classeDao = classeDao;
+                this.metode = metode;
+                this.files = files;
+                this.esperaConnexio = esperaConnexio;
+                this.error = error;
+                commit();
+            }
+        }
+    }
+
+    // ==========================================
+    // dao.Transaction
+    // ==========================================
+
+    @Name("dao.Transaction")
+    @Label("Transacció DAO")
+    @Description("Transacció d'una connexió del pool, de setAutoCommit(false) al commit o rollback")
+    @Category({ CATEGORIA, "DAO" })
+    @StackTrace(false)
+    public static final class Transaccio extends Event {
+
+        @Label("Classe DAO")
+        @Description("DAO que l'ha començada (buit si és una unitat de Transaccions)")
+        String classeDao;
+
+        @Label("Mètode")
+        String metode;
+
+        @Label("Sentències")
+        long sentencies;
+
+        @Label("Rollback")
+        boolean rollback;
+
+        /**
+         * Comença la transacció i anota el mètode DAO que la comença
+         * @return Esdeveniment començat, o null si no hi ha cap gravació que el vulgui
+         */
+        static Transaccio iniciar() {
+            Transaccio esdeveniment = new Transaccio();
+            if (!esdeveniment.isEnabled()) {
+                return null;
+            }
+            CridaDAO.actual().ifPresent(c -> {
+                esdeveniment.classeDao = c.classe();
+                esdeveniment.metode = c.metode();
+            });
+            esdeveniment.begin();
+            return esdeveniment;
+        }
+
+        void sentenciaExecutada() {
+            sentencies++;
+        }
+
+        void acabar(boolean rollback) {
+            end();
+            if (shouldCommit()) {
+                this.rollback = rollback;
+                commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latències sense bloquejos (log-lineal)
+ *
+ * Cada potència de 2 (en nanosegons) es divideix en SUBDIVISIONS intervals iguals:
+ * l'error relatiu dels percentils és com a màxim 1/SUBDIVISIONS (6,25%).
+ * registrar() només fa un incrementAndGet sobre un AtomicLongArray i dues sumes
+ * a LongAdder: es pot cridar des de molts fils sense contenció apreciable.
+ *
+ * Rang: de 0 ns a 2^41 ns (uns 36 minuts); els valors més grans van a l'últim interval.
+ *
+ * Els percentils es calculen sobre una lectura no atòmica dels comptadors
+ * (els registres concurrents poden quedar-hi o no), que és suficient per a mètriques.
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public final class HistogramaLatencia {
+
+    private static final int BITS_SUBDIVISIO = 4;
+    private static final int SUBDIVISIONS = 1 << BITS_SUBDIVISIO;
+    private static final int BIT_MAXIM = 40;
+    private static final int INTERVALS = (BIT_MAXIM - BITS_SUBDIVISIO + 2) * SUBDIVISIONS;
+
+    private final AtomicLongArray comptadors = new AtomicLongArray(INTERVALS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sumaNanos = new LongAdder();
+    private final AtomicLong maximNanos = new AtomicLong();
+
+    /**
+     * Registra una mesura
+     * @param nanos Durada en nanosegons (els negatius compten com a 0)
+     */
+    public void registrar(long nanos) {
+        long valor = Math.max(0, nanos);
+        comptadors.incrementAndGet(interval(valor));
+        total.increment();
+        sumaNanos.add(valor);
+        if (valor > maximNanos.get()) {
+            maximNanos.accumulateAndGet(valor, Math::max);
+        }
+    }
+
+    /**
+     * @return Nombre de mesures registrades
+     */
+    public long getTotal() {
+        return total.sum();
+    }
+
+    /**
+     * @return Suma de totes les mesures en nanosegons
+     */
+    public long getSumaNanos() {
+        return sumaNanos.sum();
+    }
+
+    /**
+     * @return Mesura més gran en nanosegons
+     */
+    public long getMaximNanos() {
+        return maximNanos.get();
+    }
+
+    /**
+     * @return Mitjana en nanosegons (0 si no hi ha mesures)
+     */
+    public double getMitjanaNanos() {
+        long n = total.sum();
+        return n == 0 ? 0.0 : (double) sumaNanos.sum() / n;
+    }
+
+    /**
+     * Percentil aproximat
+     * @param percentil Entre 0 i 100 (p.ex. 99.9)
+     * @return Valor en nanosegons (punt mig de l'interval, sense passar del màxim)
+     */
+    public long percentil(double percentil) {
+        long[] copia = new long[INTERVALS];
+        long n = 0;
+        for (int i = 0; i < INTERVALS; i++) {
+            copia[i] = comptadors.get(i);
+            n += copia[i];
+        }
+        if (n == 0) {
+            return 0;
+        }
+
+        long posicio = Math.max(1, (long) Math.ceil(percentil / 100.0 * n));
+        long acumulat = 0;
+        for (int i = 0; i < INTERVALS; i++) {
+            acumulat += copia[i];
+            if (acumulat >= posicio) {
+                long mig = (limitInferior(i) + limitInferior(i + 1) - 1) / 2;
+                return Math.min(mig, maximNanos.get());
+            }
+        }
+        return maximNanos.get();
+    }
+
+    /**
+     * Posa tots els comptadors a zero
+     */
+    public void reiniciar() {
+        for (int i = 0; i < INTERVALS; i++) {
+            comptadors.set(i, 0);
+        }
+        total.reset();
+        sumaNanos.reset();
+        maximNanos.set(0);
+    }
+
+    // ==========================================
+    // INTERVALS
+    // ==========================================
+
+    static int interval(long valor) {
+        if (valor < SUBDIVISIONS) {
+            return (int) valor;
+        }
+        int bit = 63 - Long.numberOfLeadingZeros(valor);
+        if (bit > BIT_MAXIM) {
+            return INTERVALS - 1;
+        }
+        int sub = (int) (valor >>> (bit - BITS_SUBDIVISIO)) & (SUBDIVISIONS - 1);
+        return (bit - BITS_SUBDIVISIO + 1) * SUBDIVISIONS + sub;
+    }
+
+    static long limitInferior(int interval) {
+        if (interval < SUBDIVISIONS) {
+            return interval;
+        }
+        int bit = interval / SUBDIVISIONS + BITS_SUBDIVISIO - 1;
+        int sub = interval % SUBDIVISIONS;
+        return (long) (SUBDIVISIONS + sub) << (bit - BITS_SUBDIVISIO);
+    }
+}
@@ -0,0 +1,94 @@
+package util;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Llistes IN (...) amb variables d'enllaç per cercar moltes claus alhora
+ *
+ * Les claus es reparteixen en trossos de com a màxim 1000 (límit d'Oracle)
+ * i cada tros s'omple fins a una mida fixa (1, 8, 32, 128, 512 o 1000)
+ * repetint la darrera clau. Així només hi ha sis SQL diferents per consulta
+ * i la cache de sentències (i la del servidor) les reaprofita.
+ *
+ * Ús:
+ *   for (List<String> tros : LlistaIn.trossos(codis)) {
+ *       ps = conn.prepareStatement("SELECT ... WHERE it_codi IN (" + LlistaIn.marcadors(tros.size()) + ")");
+ *       LlistaIn.assignar(ps, tros);
+ *       ...
+ *   }
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public final class LlistaIn {
+
+    /**
+     * Màxim d'elements d'una llista IN a Oracle
+     */
+    public static final int MAX_ELEMENTS = 1000;
+
+    private static final int[] MIDES = { 1, 8, 32, 128, 512, MAX_ELEMENTS };
+
+    // Constructor privat per evitar instanciació
+    private LlistaIn() {
+        throw new AssertionError("LlistaIn no es pot instanciar");
+    }
+
+    /**
+     * Reparteix les claus en trossos de mida fixa
+     * Les claus null, buides o repetides es descarten.
+     * @param claus Claus a cercar
+     * @return Trossos amb mida de MIDES (la darrera clau repetida per omplir)
+     */
+    public static List<List<String>> trossos(Collection<String> claus) {
+        List<String> uniques = new ArrayList<>(new LinkedHashSet<>(claus));
+        uniques.removeIf(c -> c == null || c.trim().isEmpty());
+
+        List<List<String>> trossos = new ArrayList<>();
+        for (int inici = 0; inici < uniques.size(); inici += MAX_ELEMENTS) {
+            List<String> tros = new ArrayList<>(uniques.subList(inici, Math.min(inici + MAX_ELEMENTS, uniques.size())));
+            int mida = midaTros(tros.size());
+            tros.addAll(Collections.nCopies(mida - tros.size(), tros.get(tros.size() - 1)));
+            trossos.add(tros);
+        }
+        return trossos;
+    }
+
+    /**
+     * Mida fixa més petita on caben n claus
+     */
+    static int midaTros(int n) {
+        for (int mida : MIDES) {
+            if (n <= mida) {
+                return mida;
+            }
+        }
+        return MAX_ELEMENTS;
+    }
+
+    /**
+     * @param n Nombre de variables
+     * @return "?, ?, ..., ?" amb n marcadors
+     */
+    public static String marcadors(int n) {
+        return String.join(", ", Collections.nCopies(n, "?"));
+    }
+
+    /**
+     * Assigna les claus d'un tros als paràmetres 1..n
+     * @param ps Sentència preparada amb marcadors(tros.size())
+     * @param tros Claus del tros
+     * @throws SQLException si falla l'assignació
+     */
+    public static void assignar(PreparedStatement ps, List<String> tros) throws SQLException {
+        for (int i = 0; i < tros.size(); i++) {
+            ps.setString(i + 1, tros.get(i));
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package util;
+
+import java.lang.ref.WeakReference;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Mapejador de files que llegeix les columnes per posició
+ *
+ * rs.getString("it_nom") fa una cerca del nom (sense distingir majúscules)
+ * a cada columna de cada fila. Aquest mapejador resol les posicions un sol cop
+ * per ResultSet a partir de les metadades i després llegeix per índex.
+ *
+ * Ús (una instància estàtica per entitat, compartida per tots els DAOs):
+ *   private static final MapejadorColumnes<Provincia> MAPEJADOR = new MapejadorColumnes<>(
+ *           (rs, c) -> new Provincia(rs.getString(c[0]), rs.getString(c[1])),
+ *           "pr_codi", "pr_nom");
+ *   ...
+ *   while (rs.next()) {
+ *       llista.add(MAPEJADOR.mapejar(rs));
+ *   }
+ *
+ * c[i] és la posició al ResultSet de la columna i de la llista de noms.
+ * Les posicions es guarden per fil (l'últim ResultSet de cada fil),
+ * per tant la mateixa instància es pot fer servir des de diversos fils.
+ * El ResultSet es recorda amb una referència feble: els mapejadors són estàtics
+ * i els fils del pool viuen molt, i no han de retenir el ResultSet tancat
+ * (ni la sentència i la connexió que referencia) fins a la propera consulta.
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public final class MapejadorColumnes<T> implements ConsultaStream.MapejadorFila<T> {
+
+    /**
+     * Construeix l'objecte de la fila actual llegint per posició
+     */
+    @FunctionalInterface
+    public interface LectorFila<T> {
+        T llegir(ResultSet rs, int[] c) throws SQLException;
+    }
+
+    private record Resolucio(WeakReference<ResultSet> rs, int[] posicions) {}
+
+    private final String[] columnes;
+    private final LectorFila<T> lector;
+    private final ThreadLocal<Resolucio> darrera = new ThreadLocal<>();
+
+    /**
+     * @param lector Construcció de l'objecte a partir de les posicions
+     * @param columnes Noms (o àlies) de les columnes que llegeix el lector
+     */
+    public MapejadorColumnes(LectorFila<T> lector, String... columnes) {
+        this.lector = lector;
+        this.columnes = columnes.clone();
+    }
+
+    /**
+     * Mapeja la fila actual
+     * @param rs ResultSet posicionat en una fila
+     * @return Objecte de la fila
+     * @throws SQLException si falta alguna columna o falla la lectura
+     */
+    @Override
+    public T mapejar(ResultSet rs) throws SQLException {
+        return lector.llegir(rs, posicions(rs));
+    }
+
+    /**
+     * Posicions de les columnes en aquest ResultSet (es resolen el primer cop)
+     * @param rs ResultSet
+     * @return Posició (1..n) de cada columna, en l'ordre del constructor
+     * @throws SQLException si alguna columna no hi és
+     */
+    public int[] posicions(ResultSet rs) throws SQLException {
+        Resolucio r = darrera.get();
+        if (r == null || r.rs().get() != rs) {
+            r = new Resolucio(new WeakReference<>(rs), resoldre(rs.getMetaData()));
+            darrera.set(r);
+        }
+        return r.posicions();
+    }
+
+    private int[] resoldre(ResultSetMetaData meta) throws SQLException {
+        Map<String, Integer> perNom = new HashMap<>();
+        for (int i = meta.getColumnCount(); i >= 1; i--) {
+            // Si hi ha noms repetits guanya el primer, com a rs.getString(nom)
+            perNom.put(meta.getColumnLabel(i).toLowerCase(Locale.ROOT), i);
+        }
+
+        int[] posicions = new int[columnes.length];
+        for (int i = 0; i < columnes.length; i++) {
+            Integer posicio = perNom.get(columnes[i].toLowerCase(Locale.ROOT));
+            if (posicio == null) {
+                throw new SQLException("Columna no trobada al ResultSet: " + columnes[i]);
+            }
+            posicions[i] = posicio;
+        }
+        return posicions;
+    }
+}
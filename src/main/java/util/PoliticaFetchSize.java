@@ -0,0 +1,211 @@
+package util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Política de fetch size (files per anada i tornada) de les sentències dels DAOs
+ *
+ * El pool l'aplica a cada sentència preparada des dels paquets dao i abstractdao:
+ * el mètode DAO que la crea es troba a la pila (CridaDAO).
+ *
+ * Mirar la pila a cada prepareStatement és car, per això:
+ * - Sense cap db.fetch.metode.* no es mira: el defecte i l'adaptatiu s'apliquen
+ *   a totes les sentències preparades amb el pool
+ * - Amb valors per mètode, l'origen es resol un sol cop per text SQL i es guarda
+ *   (un mateix SQL preparat des de dos mètodes rep el valor del primer)
+ *
+ * Propietats (db.properties, totes opcionals):
+ * - db.fetch.defecte: fetch size per defecte (0 = el del driver)
+ * - db.fetch.metode.<metode>: per a un mètode de qualsevol DAO (p.ex. db.fetch.metode.findById=2)
+ * - db.fetch.metode.<ClasseDAO>.<metode>: per a un mètode concret (p.ex. db.fetch.metode.DAOItem.findAll=1000)
+ * - db.fetch.adaptatiu: si és true, les consultes sense valor explícit
+ *   augmenten el fetch size segons les files que han retornat abans
+ * - db.fetch.maxim: límit del fetch size adaptatiu
+ *
+ * Prioritat: ClasseDAO.metode → metode → adaptatiu → defecte.
+ * Si el codi crida setFetchSize() (p.ex. ConsultaStream), mana el valor del codi.
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public final class PoliticaFetchSize {
+
+    private static final String PREFIX_METODE = "db.fetch.metode.";
+
+    // Consultes diferents (SQL) de les quals es guarden estadístiques i origen
+    private static final int MAX_CONSULTES = 1000;
+
+    private final int perDefecte;
+    private final Map<String, Integer> perMetode;
+    private final boolean adaptatiu;
+    private final int maxim;
+    private final ConcurrentHashMap<String, Integer> filesEstimades = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Origen> origenPerSql = new ConcurrentHashMap<>();
+
+    /**
+     * Origen d'un SQL: si el prepara un DAO i el valor explícit del mètode (null si no en té)
+     */
+    private record Origen(boolean desDAO, Decisio explicita) {
+        static final Origen FORA_DELS_DAOS = new Origen(false, null);
+    }
+
+    /**
+     * Constructor amb tota la configuració
+     * @param perDefecte Fetch size per defecte (0 = el del driver)
+     * @param perMetode Valors per "metode" o "ClasseDAO.metode"
+     * @param adaptatiu Si s'ajusta segons les files observades
+     * @param maxim Límit del fetch size adaptatiu
+     */
+    public PoliticaFetchSize(int perDefecte, Map<String, Integer> perMetode, boolean adaptatiu, int maxim) {
+        this.perDefecte = Math.max(0, perDefecte);
+        this.perMetode = Map.copyOf(perMetode);
+        this.adaptatiu = adaptatiu;
+        this.maxim = Math.max(1, maxim);
+    }
+
+    /**
+     * Crea la política a partir de les propietats db.fetch.*
+     * @param props Propietats de db.properties
+     * @return Política configurada
+     */
+    public static PoliticaFetchSize desDePropietats(Properties props) {
+        Map<String, Integer> perMetode = new HashMap<>();
+        for (String clau : props.stringPropertyNames()) {
+            if (clau.startsWith(PREFIX_METODE)) {
+                perMetode.put(clau.substring(PREFIX_METODE.length()),
+                        Integer.parseInt(props.getProperty(clau).trim()));
+            }
+        }
+        return new PoliticaFetchSize(
+                enter(props, "db.fetch.defecte", 0),
+                perMetode,
+                Boolean.parseBoolean(props.getProperty("db.fetch.adaptatiu", "false").trim()),
+                enter(props, "db.fetch.maxim", 5000));
+    }
+
+    private static int enter(Properties props, String clau, int perDefecte) {
+        String valor = props.getProperty(clau);
+        if (valor == null || valor.trim().isEmpty()) {
+            return perDefecte;
+        }
+        return Integer.parseInt(valor.trim());
+    }
+
+    // ==========================================
+    // DECISIÓ
+    // ==========================================
+
+    /**
+     * Decisió per a una sentència concreta
+     * @param fetchSize Valor a aplicar (0 = no tocar el del driver)
+     * @param comptarFiles Si cal comptar les files retornades (mode adaptatiu)
+     */
+    public record Decisio(int fetchSize, boolean comptarFiles) {
+        static final Decisio CAP = new Decisio(0, false);
+    }
+
+    /**
+     * Decideix el fetch size d'una sentència que s'està preparant ara
+     * Amb valors per mètode, només s'aplica si la crida ve d'un DAO.
+     * @param sql SQL de la sentència
+     * @return Decisió (CAP si no ve d'un DAO)
+     */
+    public Decisio decidir(String sql) {
+        if (perMetode.isEmpty()) {
+            return decidirSenseExplicit(sql);
+        }
+
+        Origen origen = sql != null ? origenPerSql.get(sql) : null;
+        if (origen == null) {
+            origen = CridaDAO.actual()
+                    .map(c -> new Origen(true, explicita(c.classe(), c.metode())))
+                    .orElse(Origen.FORA_DELS_DAOS);
+            if (sql != null && origenPerSql.size() < MAX_CONSULTES) {
+                origenPerSql.putIfAbsent(sql, origen);
+            }
+        }
+        if (!origen.desDAO()) {
+            return Decisio.CAP;
+        }
+        return origen.explicita() != null ? origen.explicita() : decidirSenseExplicit(sql);
+    }
+
+    /**
+     * Decideix el fetch size per a un mètode DAO conegut
+     * @param classe Nom simple de la classe DAO (p.ex. "DAOItem")
+     * @param metode Nom del mètode (p.ex. "findAll")
+     * @param sql SQL de la sentència
+     * @return Decisió
+     */
+    public Decisio decidir(String classe, String metode, String sql) {
+        Decisio explicita = explicita(classe, metode);
+        return explicita != null ? explicita : decidirSenseExplicit(sql);
+    }
+
+    /**
+     * Valor de db.fetch.metode.* per al mètode (ClasseDAO.metode → metode)
+     * @return Decisió o null si el mètode no en té
+     */
+    private Decisio explicita(String classe, String metode) {
+        Integer explicit = perMetode.get(classe + "." + metode);
+        if (explicit == null) {
+            explicit = perMetode.get(metode);
+        }
+        return explicit != null ? new Decisio(explicit, false) : null;
+    }
+
+    /**
+     * Adaptatiu o defecte
+     */
+    private Decisio decidirSenseExplicit(String sql) {
+        if (!adaptatiu || sql == null) {
+            return new Decisio(perDefecte, false);
+        }
+
+        Integer files = filesEstimades.get(sql);
+        int fetchSize = perDefecte;
+        if (files != null) {
+            // +1: el final de les dades arriba en la mateixa anada i tornada
+            fetchSize = Math.max(perDefecte, Math.min(maxim, files + 1));
+        }
+        return new Decisio(fetchSize, true);
+    }
+
+    /**
+     * Registra les files que ha retornat una consulta (mode adaptatiu)
+     * Creix de cop si en retorna més; si en retorna menys, baixa a poc a poc.
+     * @param sql SQL de la consulta
+     * @param files Files llegides amb next()
+     */
+    public void registrarFiles(String sql, int files) {
+        if (!adaptatiu || sql == null) {
+            return;
+        }
+        if (filesEstimades.size() >= MAX_CONSULTES && !filesEstimades.containsKey(sql)) {
+            return;
+        }
+        filesEstimades.merge(sql, files, (anterior, nou) -> nou >= anterior ? nou : (anterior * 3 + nou) / 4);
+    }
+
+    /**
+     * Files estimades d'una consulta (mode adaptatiu)
+     * @param sql SQL de la consulta
+     * @return Files estimades o null si encara no s'ha executat
+     */
+    public Integer getFilesEstimades(String sql) {
+        return filesEstimades.get(sql);
+    }
+
+    public boolean isAdaptatiu() {
+        return adaptatiu;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PoliticaFetchSize[defecte=%d, metodes=%s, adaptatiu=%s, maxim=%d]",
+                perDefecte, perMetode, adaptatiu, maxim);
+    }
+}
@@ -0,0 +1,1032 @@
+package util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool de connexions JDBC acotat
+ *
+ * Funcionament:
+ * - Com a màxim {@code max} connexions prestades alhora (semàfor)
+ * - Les connexions lliures es guarden en una pila (LIFO) per reutilitzar la més calenta
+ * - Validació en el préstec (isValid) si la connexió porta estona sense fer-se servir
+ * - Espera acotada: si no hi ha connexió lliure en {@code timeoutEsperaMs} → SQLException
+ * - Un fil de manteniment tanca les connexions inactives i manté el mínim obert
+ *
+ * Les connexions retornades són proxies: close() les torna al pool
+ * en lloc de tancar la connexió física.
+ *
+ * Cada connexió física té una cache LRU de sentències preparades
+ * (veure CacheSentencies): prepareStatement() amb el mateix SQL reutilitza
+ * la sentència ja parsejada i close() la torna a la cache.
+ *
+ * Si hi ha una PoliticaFetchSize, cada sentència que es prepara des d'un DAO
+ * rep el fetch size que toca (veure PoliticaFetchSize).
+ *
+ * El pool informa DaoMetrics de l'espera per obtenir connexió, de les files
+ * llegides i de les SQLException de les sentències.
+ *
+ * Si hi ha un RegistreConsultesLentes, cada sentència guarda els valors dels
+ * paràmetres i mesura l'execució i la lectura del ResultSet per separat.
+ *
+ * Amb una gravació de JFR activa, cada sentència executada és un esdeveniment
+ * dao.Query i cada setAutoCommit(false) ... commit/rollback un dao.Transaction
+ * (veure EsdevenimentsJfr).
+ *
+ * Si el fil té un PressupostAnades obert, cada execució s'hi compta amb els
+ * seus paràmetres (detecció de N+1).
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public class PoolConnexions {
+
+    private static final Registre LOG = Registre.per("PoolConnexions");
+
+    // Si la connexió s'ha fet servir fa menys d'aquest temps, no cal validar-la
+    private static final long FINESTRA_SENSE_VALIDACIO_MS = 500;
+
+    // Sentències d'un préstec a partir de les quals es treuen les ja tancades
+    private static final int MIN_PURGA_SENTENCIES = 16;
+
+    private final String url;
+    private final String usuari;
+    private final String contrasenya;
+    private final int min;
+    private final int max;
+    private final long timeoutEsperaMs;
+    private final long tempsInactiuMaxMs;
+    private final int timeoutValidacioSeg;
+    private final int midaCacheSentencies;
+
+    private final Semaphore permisos;
+    private final ConcurrentLinkedDeque<ConnexioFisica> lliures = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger totalObertes = new AtomicInteger();
+    private final LongAdder encertsCache = new LongAdder();
+    private final LongAdder falladesCache = new LongAdder();
+    private final ScheduledExecutorService manteniment;
+    private volatile PoliticaFetchSize politicaFetchSize;
+    private volatile RegistreConsultesLentes consultesLentes;
+    private volatile boolean tancat = false;
+
+    /**
+     * Constructor amb tota la configuració del pool
+     * @param url URL JDBC
+     * @param usuari Usuari de la BD
+     * @param contrasenya Contrasenya de la BD
+     * @param min Connexions mínimes obertes
+     * @param max Connexions màximes (prestades alhora)
+     * @param timeoutEsperaMs Temps màxim d'espera per obtenir connexió
+     * @param tempsInactiuMaxMs Temps màxim que una connexió lliure pot estar inactiva
+     * @param timeoutValidacioSeg Timeout de la validació en el préstec
+     * @param midaCacheSentencies Sentències preparades guardades per connexió (0 = sense cache)
+     */
+    public PoolConnexions(String url, String usuari, String contrasenya,
+                          int min, int max, long timeoutEsperaMs,
+                          long tempsInactiuMaxMs, int timeoutValidacioSeg,
+                          int midaCacheSentencies) {
+        if (max < 1 || min < 0 || min > max) {
+            throw new IllegalArgumentException("Configuració de pool invàlida: min=" + min + ", max=" + max);
+        }
+        this.url = url;
+        this.usuari = usuari;
+        this.contrasenya = contrasenya;
+        this.min = min;
+        this.max = max;
+        this.timeoutEsperaMs = timeoutEsperaMs;
+        this.tempsInactiuMaxMs = tempsInactiuMaxMs;
+        this.timeoutValidacioSeg = timeoutValidacioSeg;
+        this.midaCacheSentencies = midaCacheSentencies;
+        this.permisos = new Semaphore(max, true);
+
+        this.manteniment = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "pool-connexions-manteniment");
+            t.setDaemon(true);
+            return t;
+        });
+        long periode = Math.max(1000, tempsInactiuMaxMs / 2);
+        manteniment.scheduleWithFixedDelay(this::mantenir, 0, periode, TimeUnit.MILLISECONDS);
+    }
+
+    // ==========================================
+    // PRÉSTEC I RETORN
+    // ==========================================
+
+    /**
+     * Obté una connexió del pool (espera com a màxim timeoutEsperaMs)
+     * @return Connexió prestada; close() la retorna al pool
+     * @throws SQLException si el pool és tancat, hi ha timeout o error de connexió
+     */
+    public Connection obtenir() throws SQLException {
+        if (tancat) {
+            DaoMetrics.registrarErrorSql();
+            throw new SQLException("El pool de connexions està tancat");
+        }
+
+        long inici = System.nanoTime();
+        try {
+            if (!permisos.tryAcquire(timeoutEsperaMs, TimeUnit.MILLISECONDS)) {
+                DaoMetrics.registrarEsperaConnexio(System.nanoTime() - inici);
+                DaoMetrics.registrarErrorSql();
+                throw new SQLException("Timeout esperant connexió del pool (" + timeoutEsperaMs
+                        + " ms, màxim " + max + " connexions)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interromput esperant connexió del pool", e);
+        }
+
+        try {
+            ConnexioFisica fisica;
+            while ((fisica = lliures.pollFirst()) != null) {
+                if (esValida(fisica)) {
+                    break;
+                }
+                descartar(fisica);
+            }
+            if (fisica == null) {
+                fisica = crear();
+            }
+            long espera = System.nanoTime() - inici;
+            Connection prestada = fisica.prestar(espera);
+            DaoMetrics.registrarEsperaConnexio(espera);
+            return prestada;
+
+        } catch (SQLException | RuntimeException e) {
+            permisos.release();
+            DaoMetrics.registrarErrorSql();
+            throw e;
+        }
+    }
+
+    /**
+     * Retorna una connexió física al pool (cridat des del proxy)
+     */
+    private void retornar(ConnexioFisica fisica, boolean reutilitzable) {
+        try {
+            if (reutilitzable && !tancat) {
+                fisica.darrerUs = System.currentTimeMillis();
+                lliures.offerFirst(fisica);
+            } else {
+                descartar(fisica);
+            }
+        } finally {
+            permisos.release();
+        }
+    }
+
+    /**
+     * Tanca el pool i totes les connexions lliures
+     */
+    public void tancar() {
+        tancat = true;
+        manteniment.shutdownNow();
+        ConnexioFisica fisica;
+        while ((fisica = lliures.pollFirst()) != null) {
+            descartar(fisica);
+        }
+    }
+
+    /**
+     * Assigna la política de fetch size de les sentències dels DAOs
+     * @param politica Política (null = fetch size del driver)
+     */
+    public void setPoliticaFetchSize(PoliticaFetchSize politica) {
+        this.politicaFetchSize = politica;
+    }
+
+    /**
+     * @return Política de fetch size actual (pot ser null)
+     */
+    public PoliticaFetchSize getPoliticaFetchSize() {
+        return politicaFetchSize;
+    }
+
+    /**
+     * Assigna el registre de consultes lentes
+     * @param registre Registre (null = desactivat, les sentències no es mesuren)
+     */
+    public void setRegistreConsultesLentes(RegistreConsultesLentes registre) {
+        this.consultesLentes = registre;
+    }
+
+    /**
+     * @return Registre de consultes lentes actual (pot ser null)
+     */
+    public RegistreConsultesLentes getRegistreConsultesLentes() {
+        return consultesLentes;
+    }
+
+    // ==========================================
+    // ESTADÍSTIQUES
+    // ==========================================
+
+    /**
+     * @return Connexions físiques obertes (lliures + prestades)
+     */
+    public int getTotalObertes() {
+        return totalObertes.get();
+    }
+
+    /**
+     * @return Connexions lliures al pool
+     */
+    public int getLliures() {
+        return lliures.size();
+    }
+
+    /**
+     * @return Connexions prestades en aquest moment
+     */
+    public int getPrestades() {
+        return max - permisos.availablePermits();
+    }
+
+    /**
+     * @return Sentències preparades reutilitzades de la cache
+     */
+    public long getEncertsCacheSentencies() {
+        return encertsCache.sum();
+    }
+
+    /**
+     * @return Sentències preparades que s'han hagut de crear (no eren a la cache)
+     */
+    public long getFalladesCacheSentencies() {
+        return falladesCache.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "PoolConnexions{obertes=" + getTotalObertes() + ", lliures=" + getLliures()
+                + ", prestades=" + getPrestades() + ", min=" + min + ", max=" + max
+                + ", cacheSentencies=" + getEncertsCacheSentencies() + "/"
+                + (getEncertsCacheSentencies() + getFalladesCacheSentencies()) + '}';
+    }
+
+    // ==========================================
+    // MÈTODES INTERNS
+    // ==========================================
+
+    private ConnexioFisica crear() throws SQLException {
+        Connection conn = DriverManager.getConnection(url, usuari, contrasenya);
+        totalObertes.incrementAndGet();
+        return new ConnexioFisica(conn);
+    }
+
+    private boolean esValida(ConnexioFisica fisica) {
+        long ara = System.currentTimeMillis();
+        if (ara - fisica.darrerUs > tempsInactiuMaxMs) {
+            return false;
+        }
+        if (ara - fisica.darrerUs < FINESTRA_SENSE_VALIDACIO_MS) {
+            return true;
+        }
+        try {
+            return fisica.conn.isValid(timeoutValidacioSeg);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void descartar(ConnexioFisica fisica) {
+        totalObertes.decrementAndGet();
+        if (fisica.cache != null) {
+            fisica.cache.buidar();
+        }
+        try {
+            fisica.conn.close();
+        } catch (SQLException e) {
+            LOG.warn(() -> "⚠️  Error tancant connexió física: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Tasca periòdica: expulsa connexions inactives i omple fins al mínim
+     */
+    private void mantenir() {
+        long ara = System.currentTimeMillis();
+        Iterator<ConnexioFisica> it = lliures.descendingIterator();
+        while (it.hasNext() && totalObertes.get() > min) {
+            ConnexioFisica fisica = it.next();
+            if (ara - fisica.darrerUs > tempsInactiuMaxMs && lliures.remove(fisica)) {
+                descartar(fisica);
+            }
+        }
+
+        try {
+            while (!tancat && totalObertes.get() < min && permisos.tryAcquire()) {
+                try {
+                    ConnexioFisica fisica = crear();
+                    lliures.offerLast(fisica);
+                } finally {
+                    permisos.release();
+                }
+            }
+        } catch (SQLException e) {
+            LOG.warn(() -> "⚠️  Pool: no s'ha pogut obrir connexió mínima: " + e.getMessage());
+        }
+    }
+
+    private static boolean estaTancada(Statement stmt) {
+        try {
+            return stmt.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+
+    // ==========================================
+    // CONNEXIÓ FÍSICA I PROXY
+    // ==========================================
+
+    /**
+     * Connexió física gestionada pel pool
+     */
+    private final class ConnexioFisica {
+        final Connection conn;
+        final CacheSentencies cache;
+        volatile long darrerUs = System.currentTimeMillis();
+
+        ConnexioFisica(Connection conn) {
+            this.conn = conn;
+            this.cache = midaCacheSentencies > 0 ? new CacheSentencies(midaCacheSentencies) : null;
+        }
+
+        Connection prestar(long esperaNanos) {
+            ConnexioPrestada prestada = new ConnexioPrestada(this);
+            prestada.esperaNanos = esperaNanos;
+            prestada.proxy = (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class },
+                    prestada);
+            return prestada.proxy;
+        }
+    }
+
+    /**
+     * Proxy d'una connexió prestada
+     * close() retorna la connexió al pool i tanca les sentències obertes durant el préstec
+     *
+     * sentencies només guarda les obertes: les embolcallades (cache, SentenciaDirecta)
+     * se'n treuen en tancar-se; les directes sense embolcall, en purgar la llista.
+     */
+    private final class ConnexioPrestada implements InvocationHandler {
+        private final ConnexioFisica fisica;
+        private final List<Statement> sentencies = new ArrayList<>();
+        private int limitPurga = MIN_PURGA_SENTENCIES;
+        private Connection proxy;
+        private boolean tancada = false;
+        // Espera del préstec, pendent d'assignar a la primera sentència (JFR)
+        private long esperaNanos;
+        private EsdevenimentsJfr.Transaccio transaccio;
+
+        ConnexioPrestada(ConnexioFisica fisica) {
+            this.fisica = fisica;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    tancar();
+                    return null;
+                case "isClosed":
+                    return tancada || fisica.conn.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "ConnexioPrestada[" + fisica.conn + "]";
+                default:
+                    break;
+            }
+
+            if (tancada) {
+                throw new SQLException("La connexió ja s'ha retornat al pool");
+            }
+
+            CacheSentencies.Clau clau = fisica.cache != null ? clauCache(method, args) : null;
+            if (clau != null) {
+                PreparedStatement ps = prepararAmbCache(clau);
+                afegirSentencia(ps);
+                return ps;
+            }
+
+            Object resultat;
+            try {
+                resultat = method.invoke(fisica.conn, args);
+            } catch (InvocationTargetException e) {
+                if (e.getCause() instanceof SQLException) {
+                    DaoMetrics.registrarErrorSql();
+                }
+                throw e.getCause();
+            }
+            seguirTransaccio(method.getName(), args);
+
+            if (resultat instanceof Statement stmt) {
+                PoliticaFetchSize politica = politicaFetchSize;
+                if (politica != null && method.getName().startsWith("prepare")) {
+                    int fetchSize = politica.decidir((String) args[0]).fetchSize();
+                    if (fetchSize > 0) {
+                        stmt.setFetchSize(fetchSize);
+                    }
+                }
+                RegistreConsultesLentes lentes = consultesLentes;
+                boolean pressupost = PressupostAnades.actiu();
+                if (DaoMetrics.enOperacio() || lentes != null || pressupost || EsdevenimentsJfr.Consulta.actiu()) {
+                    String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+                    MesuraSentencia mesura = lentes != null || pressupost ? new MesuraSentencia(lentes) : null;
+                    Statement embolcall = SentenciaDirecta.embolcallar(stmt, this, sql, mesura);
+                    afegirSentencia(embolcall);
+                    return embolcall;
+                }
+                afegirSentencia(stmt);
+            }
+            return resultat;
+        }
+
+        /**
+         * Guarda una sentència per tancar-la amb la connexió
+         * Les directes no avisen en tancar-se: quan la llista arriba a limitPurga
+         * se'n treuen les tancades (cost amortitzat constant)
+         */
+        private void afegirSentencia(Statement stmt) {
+            if (sentencies.size() >= limitPurga) {
+                sentencies.removeIf(PoolConnexions::estaTancada);
+                limitPurga = Math.max(MIN_PURGA_SENTENCIES, sentencies.size() * 2);
+            }
+            sentencies.add(stmt);
+        }
+
+        /**
+         * Cridat quan el DAO tanca una sentència embolcallada
+         * (es busca des del final: normalment és la darrera que s'ha obert)
+         */
+        void sentenciaTancada(Statement stmt) {
+            for (int i = sentencies.size() - 1; i >= 0; i--) {
+                if (sentencies.get(i) == stmt) {
+                    sentencies.remove(i);
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Comença o acaba l'esdeveniment dao.Transaction (només amb una gravació de JFR activa)
+         */
+        private void seguirTransaccio(String metode, Object[] args) {
+            switch (metode) {
+                case "setAutoCommit":
+                    if (Boolean.FALSE.equals(args[0])) {
+                        if (transaccio == null) {
+                            transaccio = EsdevenimentsJfr.Transaccio.iniciar();
+                        }
+                    } else {
+                        // setAutoCommit(true) confirma la transacció oberta
+                        acabarTransaccio(false);
+                    }
+                    break;
+                case "commit":
+                    acabarTransaccio(false);
+                    break;
+                case "rollback":
+                    if (args == null) {
+                        acabarTransaccio(true);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private void acabarTransaccio(boolean rollback) {
+            if (transaccio != null) {
+                transaccio.acabar(rollback);
+                transaccio = null;
+            }
+        }
+
+        /**
+         * Cridat per les sentències en cada execute*
+         */
+        void sentenciaExecutada() {
+            if (transaccio != null) {
+                transaccio.sentenciaExecutada();
+            }
+        }
+
+        /**
+         * @return Espera del préstec la primera vegada, després 0
+         */
+        long consumirEspera() {
+            long espera = esperaNanos;
+            esperaNanos = 0;
+            return espera;
+        }
+
+        /**
+         * Calcula la clau de cache si el mètode és un prepareStatement/prepareCall cachejable
+         */
+        private CacheSentencies.Clau clauCache(Method method, Object[] args) {
+            boolean callable = method.getName().equals("prepareCall");
+            if (!callable && !method.getName().equals("prepareStatement")) {
+                return null;
+            }
+            if (args.length == 1) {
+                return new CacheSentencies.Clau((String) args[0],
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY, callable);
+            }
+            if (args.length == 3 && args[1] instanceof Integer tipus && args[2] instanceof Integer conc) {
+                return new CacheSentencies.Clau((String) args[0], tipus, conc, callable);
+            }
+            return null;
+        }
+
+        private PreparedStatement prepararAmbCache(CacheSentencies.Clau clau) throws SQLException {
+            PreparedStatement fisicaPs = fisica.cache.prendre(clau);
+            if (fisicaPs != null && !fisicaPs.isClosed()) {
+                encertsCache.increment();
+            } else {
+                falladesCache.increment();
+                if (clau.callable()) {
+                    fisicaPs = fisica.conn.prepareCall(clau.sql(), clau.tipusResultSet(), clau.concurrencia());
+                } else {
+                    fisicaPs = fisica.conn.prepareStatement(clau.sql(), clau.tipusResultSet(), clau.concurrencia());
+                }
+            }
+            // Sempre s'assigna: la sentència de la cache pot portar el fetch size d'un altre ús
+            PoliticaFetchSize politica = politicaFetchSize;
+            PoliticaFetchSize.Decisio decisio = null;
+            if (politica != null) {
+                decisio = politica.decidir(clau.sql());
+                fisicaPs.setFetchSize(decisio.fetchSize());
+            }
+
+            SentenciaPrestada sentencia = new SentenciaPrestada(fisica, this, clau, fisicaPs);
+            if (decisio != null && decisio.comptarFiles()) {
+                sentencia.politica = politica;
+            }
+            RegistreConsultesLentes lentes = consultesLentes;
+            if (lentes != null || PressupostAnades.actiu()) {
+                sentencia.mesura = new MesuraSentencia(lentes);
+            }
+            Class<?> interficie = clau.callable() ? CallableStatement.class : PreparedStatement.class;
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[] { interficie },
+                    sentencia);
+        }
+
+        private void tancar() {
+            if (tancada) {
+                return;
+            }
+            tancada = true;
+
+            // Es treu abans de tancar-la: així sentenciaTancada() no modifica la llista
+            while (!sentencies.isEmpty()) {
+                Statement stmt = sentencies.remove(sentencies.size() - 1);
+                try {
+                    stmt.close();
+                } catch (SQLException e) {
+                    // La sentència ja pot estar tancada
+                }
+            }
+            // La transacció oberta es desfà a continuació
+            acabarTransaccio(true);
+
+            boolean reutilitzable;
+            try {
+                if (!fisica.conn.getAutoCommit()) {
+                    fisica.conn.rollback();
+                    fisica.conn.setAutoCommit(true);
+                }
+                reutilitzable = !fisica.conn.isClosed();
+            } catch (SQLException e) {
+                reutilitzable = false;
+            }
+            retornar(fisica, reutilitzable);
+        }
+    }
+
+    /**
+     * Proxy d'una sentència de la cache
+     * close() tanca el ResultSet obert, neteja els paràmetres i la torna a la cache
+     *
+     * En mode adaptatiu (politica != null) o dins d'un mètode instrumentat
+     * (DaoMetrics) els ResultSet compten les files i en tancar-se les registren.
+     * Amb registre de consultes lentes (mesura != null) també es mesura el temps.
+     */
+    private final class SentenciaPrestada implements InvocationHandler {
+        private final ConnexioFisica fisica;
+        private final ConnexioPrestada connexio;
+        private final CacheSentencies.Clau clau;
+        private final PreparedStatement ps;
+        private PoliticaFetchSize politica;
+        private MesuraSentencia mesura;
+        private ResultSet darrerResultSet;
+        private boolean tancada = false;
+
+        SentenciaPrestada(ConnexioFisica fisica, ConnexioPrestada connexio,
+                          CacheSentencies.Clau clau, PreparedStatement ps) {
+            this.fisica = fisica;
+            this.connexio = connexio;
+            this.clau = clau;
+            this.ps = ps;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    tancar();
+                    connexio.sentenciaTancada((Statement) proxy);
+                    return null;
+                case "isClosed":
+                    return tancada || ps.isClosed();
+                case "getConnection":
+                    if (connexio.tancada) {
+                        throw new SQLException("La connexió ja s'ha retornat al pool");
+                    }
+                    return connexio.proxy;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "SentenciaPrestada[" + clau.sql() + "]";
+                case "setFetchSize":
+                    // El codi tria el seu fetch size: no es compten les files
+                    politica = null;
+                    break;
+                default:
+                    break;
+            }
+
+            if (tancada) {
+                throw new SQLException("La sentència ja està tancada");
+            }
+
+            Object resultat = executar(ps, method, args, clau.sql(), mesura, politica, connexio);
+            if (resultat instanceof ResultSet rs) {
+                darrerResultSet = rs;
+            }
+            return resultat;
+        }
+
+        private void tancar() {
+            if (tancada) {
+                return;
+            }
+            tancada = true;
+
+            try {
+                if (darrerResultSet != null) {
+                    darrerResultSet.close();
+                    darrerResultSet = null;
+                }
+                ps.clearParameters();
+                ps.clearBatch();
+                ps.clearWarnings();
+                fisica.cache.retornar(clau, ps);
+            } catch (SQLException e) {
+                try {
+                    ps.close();
+                } catch (SQLException ex) {
+                    // Ja no es pot fer res més
+                }
+            }
+        }
+    }
+
+    /**
+     * Proxy d'una sentència fora de la cache (createStatement o cache desactivada)
+     * dins d'un mètode instrumentat, amb registre de consultes lentes o amb JFR:
+     * compta files i errors per a DaoMetrics i mesura les execucions
+     */
+    private static final class SentenciaDirecta implements InvocationHandler {
+        private final Statement stmt;
+        private final ConnexioPrestada connexio;
+        private final String sql;
+        private final MesuraSentencia mesura;
+        private ResultSet darrerResultSet;
+
+        private SentenciaDirecta(Statement stmt, ConnexioPrestada connexio, String sql, MesuraSentencia mesura) {
+            this.stmt = stmt;
+            this.connexio = connexio;
+            this.sql = sql;
+            this.mesura = mesura;
+        }
+
+        static Statement embolcallar(Statement stmt, ConnexioPrestada connexio, String sql, MesuraSentencia mesura) {
+            Class<?> interficie = stmt instanceof CallableStatement ? CallableStatement.class
+                    : stmt instanceof PreparedStatement ? PreparedStatement.class
+                    : Statement.class;
+            return (Statement) Proxy.newProxyInstance(
+                    Statement.class.getClassLoader(),
+                    new Class<?>[] { interficie },
+                    new SentenciaDirecta(stmt, connexio, sql, mesura));
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "getConnection":
+                    return connexio.proxy;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "close":
+                    // Primer el ResultSet, perquè registri les files i el temps
+                    if (darrerResultSet != null) {
+                        darrerResultSet.close();
+                        darrerResultSet = null;
+                    }
+                    break;
+                default:
+                    break;
+            }
+
+            Object resultat = executar(stmt, method, args, sql, mesura, null, connexio);
+            if (resultat instanceof ResultSet rs) {
+                darrerResultSet = rs;
+            } else if (method.getName().equals("close")) {
+                connexio.sentenciaTancada((Statement) proxy);
+            }
+            return resultat;
+        }
+    }
+
+    // ==========================================
+    // EXECUCIÓ I MESURA DE LES SENTÈNCIES
+    // ==========================================
+
+    /**
+     * Invoca un mètode d'una sentència dels DAOs (SentenciaPrestada o SentenciaDirecta)
+     *
+     * - SQLException: s'avisa DaoMetrics
+     * - execute*: es compta al PressupostAnades del fil (si n'hi ha) i es mesura
+     *   per al registre de consultes lentes i per a JFR (dao.Query)
+     * - ResultSet: s'embolcalla si cal comptar files (política, DaoMetrics) o si
+     *   l'execució està pendent de registrar quan es tanqui
+     *
+     * @param sql SQL preparat (null en un Statement: el porta execute(sql))
+     * @return Resultat del mètode (el ResultSet, potser embolcallat)
+     */
+    private static Object executar(Statement stmt, Method method, Object[] args, String sql,
+                                   MesuraSentencia mesura, PoliticaFetchSize politica,
+                                   ConnexioPrestada connexio) throws Throwable {
+        if (mesura != null) {
+            mesura.anotar(method, args);
+        }
+        boolean execucio = method.getName().startsWith("execute");
+        if (execucio && args != null && args.length > 0 && args[0] instanceof String text) {
+            sql = text;
+        }
+        if (execucio && PressupostAnades.actiu()) {
+            PressupostAnades.registrar(sql, mesura != null ? mesura.valors() : null);
+        }
+        boolean mesurar = mesura != null && mesura.lentes != null;
+        EsdevenimentsJfr.Consulta jfr = execucio ? EsdevenimentsJfr.Consulta.iniciar() : null;
+        long inici = execucio && mesurar ? System.nanoTime() : 0;
+
+        Object resultat;
+        try {
+            resultat = method.invoke(stmt, args);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof SQLException) {
+                DaoMetrics.registrarErrorSql();
+                if (jfr != null) {
+                    jfr.acabar(sql, 0, connexio.consumirEspera(), true);
+                }
+            }
+            throw e.getCause();
+        }
+
+        Execucio pendent = null;
+        if (execucio) {
+            connexio.sentenciaExecutada();
+            if (mesurar || jfr != null) {
+                long execucioNanos = mesurar ? System.nanoTime() - inici : 0;
+                pendent = new Execucio(sql, mesura, execucioNanos, jfr, connexio.consumirEspera());
+            }
+        }
+
+        if (resultat instanceof ResultSet rs) {
+            if (politica != null || pendent != null || DaoMetrics.enOperacio()) {
+                return new ResultSetComptat(rs, sql, politica, pendent);
+            }
+            return rs;
+        }
+        if (pendent != null) {
+            pendent.acabar(filesAfectades(resultat), 0);
+        }
+        return resultat;
+    }
+
+    /**
+     * @return Files afectades segons el resultat d'executeUpdate / executeBatch
+     */
+    private static long filesAfectades(Object resultat) {
+        if (resultat instanceof Integer || resultat instanceof Long) {
+            return ((Number) resultat).longValue();
+        }
+        long total = 0;
+        if (resultat instanceof int[] comptes) {
+            for (int c : comptes) {
+                total += Math.max(0, c);
+            }
+        } else if (resultat instanceof long[] comptes) {
+            for (long c : comptes) {
+                total += Math.max(0, c);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Valors dels paràmetres d'una sentència per al registre de consultes lentes
+     * i per al PressupostAnades (lentes pot ser null)
+     *
+     * L'array es reutilitza entre execucions: només se'n fa una còpia si la
+     * consulta resulta lenta, o si el DAO canvia els valors abans que
+     * l'execució anterior s'hagi acabat de registrar (copiar en escriure).
+     */
+    private static final class MesuraSentencia {
+        private final RegistreConsultesLentes lentes;
+        private Object[] parametres = new Object[8];
+        private int nombreParametres = 0;
+        private Execucio pendent;
+
+        MesuraSentencia(RegistreConsultesLentes lentes) {
+            this.lentes = lentes;
+        }
+
+        /**
+         * Guarda el valor dels setXxx(index, valor); clearParameters els esborra
+         */
+        void anotar(Method method, Object[] args) {
+            String nom = method.getName();
+            if (nom.equals("clearParameters")) {
+                alliberarPendent();
+                Arrays.fill(parametres, 0, nombreParametres, null);
+                nombreParametres = 0;
+            } else if (nom.startsWith("set") && args != null && args.length >= 2
+                    && args[0] instanceof Integer index && index >= 1) {
+                alliberarPendent();
+                if (index > parametres.length) {
+                    parametres = Arrays.copyOf(parametres, Math.max(index, parametres.length * 2));
+                }
+                parametres[index - 1] = nom.equals("setNull") ? null : args[1];
+                nombreParametres = Math.max(nombreParametres, index);
+            }
+        }
+
+        Object[] valors() {
+            return Arrays.copyOf(parametres, nombreParametres);
+        }
+
+        /**
+         * Els valors canvien: l'execució encara pendent es queda amb una còpia dels actuals
+         */
+        private void alliberarPendent() {
+            if (pendent != null) {
+                pendent.congelarParametres();
+                pendent = null;
+            }
+        }
+    }
+
+    /**
+     * Execució pendent de registrar al registre de consultes lentes i a JFR
+     * (les consultes quan es tanca el ResultSet, les actualitzacions de seguida)
+     */
+    private static final class Execucio {
+        private final String sql;
+        private final RegistreConsultesLentes lentes;
+        private final MesuraSentencia mesura;
+        private final long execucioNanos;
+        private final EsdevenimentsJfr.Consulta jfr;
+        private final long esperaConnexio;
+        // Només si el DAO ha canviat els valors abans d'acabar (MesuraSentencia.alliberarPendent)
+        private Object[] parametres;
+
+        Execucio(String sql, MesuraSentencia mesura, long execucioNanos,
+                 EsdevenimentsJfr.Consulta jfr, long esperaConnexio) {
+            this.sql = sql;
+            this.lentes = mesura != null ? mesura.lentes : null;
+            this.mesura = lentes != null ? mesura : null;
+            this.execucioNanos = execucioNanos;
+            this.jfr = jfr;
+            this.esperaConnexio = esperaConnexio;
+            if (this.mesura != null) {
+                this.mesura.pendent = this;
+            }
+        }
+
+        boolean mesuraTemps() {
+            return lentes != null;
+        }
+
+        void congelarParametres() {
+            if (parametres == null && mesura != null) {
+                parametres = mesura.valors();
+            }
+        }
+
+        void acabar(long files, long lecturaNanos) {
+            if (lentes != null) {
+                if (mesura.pendent == this) {
+                    mesura.pendent = null;
+                }
+                // Els valors només es copien si la consulta és lenta
+                if (lentes.superaLlindar(execucioNanos + lecturaNanos)) {
+                    lentes.registrar(sql, parametres != null ? parametres : mesura.valors(),
+                            execucioNanos, lecturaNanos, files);
+                }
+            }
+            if (jfr != null) {
+                jfr.acabar(sql, files, esperaConnexio, false);
+            }
+        }
+    }
+
+    /**
+     * ResultSet que compta les files llegides (classe delegada, no un Proxy)
+     * close() registra les files a la política (si n'hi ha) i a DaoMetrics
+     * i acaba l'execució pendent (consultes lentes, JFR)
+     */
+    private static final class ResultSetComptat extends ResultSetDelegat {
+        private final String sql;
+        private final PoliticaFetchSize politica;
+        private final Execucio pendent;
+        private final boolean mesurarLectura;
+        private int files = 0;
+        private long lecturaNanos = 0;
+        private boolean registrat = false;
+
+        ResultSetComptat(ResultSet rs, String sql, PoliticaFetchSize politica, Execucio pendent) {
+            super(rs);
+            this.sql = sql;
+            this.politica = politica;
+            this.pendent = pendent;
+            this.mesurarLectura = pendent != null && pendent.mesuraTemps();
+        }
+
+        @Override
+        public boolean next() throws SQLException {
+            if (!mesurarLectura) {
+                boolean fila = rs.next();
+                if (fila) {
+                    files++;
+                }
+                return fila;
+            }
+            long inici = System.nanoTime();
+            boolean fila = rs.next();
+            lecturaNanos += System.nanoTime() - inici;
+            if (fila) {
+                files++;
+            }
+            return fila;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            if (!registrat) {
+                registrat = true;
+                if (politica != null) {
+                    politica.registrarFiles(sql, files);
+                }
+                DaoMetrics.registrarFiles(files);
+                if (pendent != null) {
+                    pendent.acabar(files, lecturaNanos);
+                }
+            }
+            rs.close();
+        }
+    }
+}
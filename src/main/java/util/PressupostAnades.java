@@ -0,0 +1,221 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Pressupost d'anades i tornades a la BD d'una petició i detector de N+1
+ *
+ * Dins d'un àmbit obert en el fil actual, el pool (PoolConnexions) avisa de cada
+ * sentència executada (execute*, un executeBatch compta com una anada):
+ * - Anades: si se supera el màxim de l'àmbit → infracció
+ * - N+1: el mateix SQL executat més de maxRepeticions vegades amb paràmetres
+ *   diferents (bucles de findById per fila, recursió per nivells...) → infracció
+ *
+ * Cada infracció s'escriu al registre "PressupostAnades" (WARN) amb el mètode DAO.
+ * Amb llancar=true, close() llança IllegalStateException si n'hi ha hagut alguna:
+ * no s'interromp el DAO a mitja sentència, però el test o la petició fallen.
+ *
+ * Ús (petició o test JUnit):
+ *   try (PressupostAnades pressupost = PressupostAnades.obrir("preuProducte", 3, 5, true)) {
+ *       daoProducte.calcularPreuTotal("PR001");
+ *   }
+ *
+ * Els àmbits niats també compten per als exteriors. Les sentències d'altres fils
+ * (AsyncDAOFactory) no compten a l'àmbit del fil que les ha demanat.
+ *
+ * Propietats (db.properties) de PressupostAnades.obrir(nom):
+ * - db.anades.maxim: anades màximes per àmbit
+ * - db.anades.maxRepeticions: execucions d'un mateix SQL amb paràmetres diferents
+ * - db.anades.llancar: true = close() llança excepció, false = només registre
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public final class PressupostAnades implements AutoCloseable {
+
+    private static final Registre LOG = Registre.per("PressupostAnades");
+    private static final ThreadLocal<PressupostAnades> ACTUAL = new ThreadLocal<>();
+
+    private final String nom;
+    private final int maxAnades;
+    private final int maxRepeticions;
+    private final boolean llancar;
+    private final PressupostAnades exterior;
+    private final Thread fil;
+
+    private int anades = 0;
+    private final Map<String, ExecucionsSql> perSql = new HashMap<>();
+    private final List<String> infraccions = new ArrayList<>();
+    private boolean tancat = false;
+
+    /**
+     * Execucions d'un SQL dins l'àmbit
+     */
+    private static final class ExecucionsSql {
+        int execucions;
+        final Set<Integer> parametresDiferents = new HashSet<>();
+        boolean avisat;
+    }
+
+    private PressupostAnades(String nom, int maxAnades, int maxRepeticions, boolean llancar) {
+        this.nom = nom;
+        this.maxAnades = maxAnades;
+        this.maxRepeticions = maxRepeticions;
+        this.llancar = llancar;
+        this.exterior = ACTUAL.get();
+        this.fil = Thread.currentThread();
+    }
+
+    // ==========================================
+    // OBRIR I TANCAR
+    // ==========================================
+
+    /**
+     * Obre un àmbit amb la configuració de db.properties
+     * @param nom Nom de l'àmbit (surt als avisos: "GET /productes/PR001")
+     * @return Àmbit actiu en el fil actual fins a close()
+     */
+    public static PressupostAnades obrir(String nom) {
+        return obrir(nom,
+                ConnexioOracle.getPropietatInt("db.anades.maxim", 50),
+                ConnexioOracle.getPropietatInt("db.anades.maxRepeticions", 10),
+                ConnexioOracle.getPropietatBoolean("db.anades.llancar", false));
+    }
+
+    /**
+     * Obre un àmbit en el fil actual
+     * @param nom Nom de l'àmbit
+     * @param maxAnades Sentències màximes dins l'àmbit
+     * @param maxRepeticions Execucions màximes d'un mateix SQL amb paràmetres diferents
+     * @param llancar true = close() llança IllegalStateException si hi ha infraccions
+     * @return Àmbit actiu fins a close()
+     */
+    public static PressupostAnades obrir(String nom, int maxAnades, int maxRepeticions, boolean llancar) {
+        if (maxAnades < 0 || maxRepeticions < 1) {
+            throw new IllegalArgumentException("Pressupost invàlid: maxAnades=" + maxAnades
+                    + ", maxRepeticions=" + maxRepeticions);
+        }
+        PressupostAnades pressupost = new PressupostAnades(nom, maxAnades, maxRepeticions, llancar);
+        ACTUAL.set(pressupost);
+        return pressupost;
+    }
+
+    /**
+     * Tanca l'àmbit (torna a l'exterior, si n'hi ha)
+     * @throws IllegalStateException si llancar=true i s'ha superat el pressupost
+     */
+    @Override
+    public void close() {
+        if (tancat) {
+            return;
+        }
+        tancat = true;
+        if (Thread.currentThread() == fil) {
+            if (exterior != null) {
+                ACTUAL.set(exterior);
+            } else {
+                ACTUAL.remove();
+            }
+        }
+
+        if (llancar && !infraccions.isEmpty()) {
+            throw new IllegalStateException("Pressupost d'anades superat a '" + nom + "':\n   "
+                    + String.join("\n   ", infraccions));
+        }
+    }
+
+    // ==========================================
+    // AVISOS DEL POOL
+    // ==========================================
+
+    /**
+     * @return true si el fil actual té un àmbit obert (el pool guarda els paràmetres)
+     */
+    static boolean actiu() {
+        return ACTUAL.get() != null;
+    }
+
+    /**
+     * Una sentència executada en el fil actual
+     * @param sql SQL executat
+     * @param parametres Valors dels ? (null si no es coneixen)
+     */
+    static void registrar(String sql, Object[] parametres) {
+        for (PressupostAnades p = ACTUAL.get(); p != null; p = p.exterior) {
+            p.comptar(sql, parametres);
+        }
+    }
+
+    private void comptar(String sql, Object[] parametres) {
+        if (tancat) {
+            return;
+        }
+        anades++;
+        if (anades == maxAnades + 1) {
+            infraccio("Més de " + maxAnades + " anades a la BD");
+        }
+
+        if (sql == null) {
+            return;
+        }
+        ExecucionsSql execucions = perSql.computeIfAbsent(sql, s -> new ExecucionsSql());
+        execucions.execucions++;
+        execucions.parametresDiferents.add(Arrays.deepHashCode(parametres));
+        if (!execucions.avisat && execucions.execucions > maxRepeticions
+                && execucions.parametresDiferents.size() > 1) {
+            execucions.avisat = true;
+            infraccio("Possible N+1: " + execucions.execucions + " execucions del mateix SQL amb paràmetres diferents: "
+                    + sql.replaceAll("\\s+", " ").trim());
+        }
+    }
+
+    private void infraccio(String descripcio) {
+        String metode = CridaDAO.actual().map(CridaDAO::toString).orElse("(fora dels DAOs)");
+        String text = descripcio + " (" + metode + ")";
+        infraccions.add(text);
+        LOG.warn(() -> "⚠️  Pressupost '" + nom + "': " + text);
+    }
+
+    // ==========================================
+    // CONSULTA
+    // ==========================================
+
+    /**
+     * @return Sentències executades dins l'àmbit
+     */
+    public int getAnades() {
+        return anades;
+    }
+
+    /**
+     * @param sql Text SQL exacte
+     * @return Vegades que s'ha executat dins l'àmbit
+     */
+    public int getExecucions(String sql) {
+        ExecucionsSql execucions = perSql.get(sql);
+        return execucions != null ? execucions.execucions : 0;
+    }
+
+    /**
+     * @return Infraccions detectades fins ara (buida si tot és dins el pressupost)
+     */
+    public List<String> getInfraccions() {
+        return List.copyOf(infraccions);
+    }
+
+    public String getNom() {
+        return nom;
+    }
+
+    @Override
+    public String toString() {
+        return "PressupostAnades{" + nom + ": " + anades + "/" + maxAnades + " anades, "
+                + infraccions.size() + " infraccions}";
+    }
+}
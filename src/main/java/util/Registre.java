@@ -0,0 +1,251 @@
+package util;
+
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Registre (log) de la capa de persistència amb nivells i escriptura asíncrona
+ *
+ * Substitueix els System.out/System.err dels DAOs:
+ * - Cada registre té un nom ("DAOProducte") i un nivell mínim
+ * - Si el nivell no està actiu, la crida només compara dos enters:
+ *   amb un Supplier<String> el missatge ni tan sols es construeix
+ * - Un cop configurat (db.log.asincron=true) les entrades passen per un
+ *   AppenderAsincron (buffer circular i un fil que escriu a la consola): els
+ *   fils de les peticions no es bloquegen al PrintStream sincronitzat de System.out
+ * - Fins a configurar() i després de tancar() s'escriu directament a la consola
+ *
+ * Ús:
+ *   private static final Registre LOG = Registre.per("DAOItem");
+ *   LOG.info(() -> "Items trobats: " + items.size());
+ *   LOG.error("Codi no pot ser buit");
+ *
+ * Configuració (db.properties, la llegeix ConnexioOracle):
+ *   db.log.nivell=INFO              nivell per defecte (DEBUG, INFO, WARN, ERROR, OFF)
+ *   db.log.nivell.DAOProducte=WARN  nivell d'un registre concret
+ *   db.log.asincron=true            false = escriptura directa a la consola
+ *   db.log.capacitat=8192           entrades del buffer circular
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public final class Registre {
+
+    /**
+     * Nivells de menys a més greu (OFF desactiva el registre)
+     */
+    public enum Nivell { DEBUG, INFO, WARN, ERROR, OFF }
+
+    /**
+     * Una línia de registre
+     */
+    public record Entrada(long instant, Nivell nivell, String nom, String missatge, Throwable error) {
+
+        /**
+         * @return Text de la línia: "[INFO - DAOProducte] missatge"
+         */
+        public String format() {
+            return "[" + nivell + " - " + nom + "] " + missatge;
+        }
+    }
+
+    /**
+     * Destinació de les entrades
+     */
+    @FunctionalInterface
+    public interface Sortida {
+        void escriure(Entrada entrada);
+    }
+
+    /**
+     * Consola: WARN i ERROR a System.err, la resta a System.out
+     * (es llegeixen a cada escriptura, per si algú els redirigeix)
+     */
+    public static final Sortida CONSOLA = entrada -> {
+        if (entrada.nivell().compareTo(Nivell.WARN) >= 0) {
+            System.err.println(entrada.format());
+            if (entrada.error() != null) {
+                entrada.error().printStackTrace();
+            }
+        } else {
+            System.out.println(entrada.format());
+        }
+    };
+
+    private static final Map<String, Registre> REGISTRES = new ConcurrentHashMap<>();
+    private static volatile Nivell nivellPerDefecte = Nivell.INFO;
+    private static final Map<String, Nivell> NIVELLS_PER_NOM = new ConcurrentHashMap<>();
+    private static volatile Sortida sortida = CONSOLA;
+
+    private final String nom;
+    private volatile int llindar;
+
+    private Registre(String nom) {
+        this.nom = nom;
+        this.llindar = nivellDe(nom).ordinal();
+    }
+
+    /**
+     * Registre amb el nom indicat (un per nom)
+     * @param nom Nom que surt a cada línia ("DAOItem")
+     * @return Registre
+     */
+    public static Registre per(String nom) {
+        return REGISTRES.computeIfAbsent(nom, Registre::new);
+    }
+
+    // ==========================================
+    // CONFIGURACIÓ
+    // ==========================================
+
+    /**
+     * Aplica la configuració db.log.* (cridat per ConnexioOracle)
+     * @param props Propietats de db.properties
+     */
+    public static void configurar(Properties props) {
+        String perDefecte = props.getProperty("db.log.nivell");
+        if (perDefecte != null && !perDefecte.isBlank()) {
+            nivellPerDefecte = Nivell.valueOf(perDefecte.trim().toUpperCase());
+        }
+        String prefix = "db.log.nivell.";
+        for (String clau : props.stringPropertyNames()) {
+            if (clau.startsWith(prefix)) {
+                NIVELLS_PER_NOM.put(clau.substring(prefix.length()),
+                        Nivell.valueOf(props.getProperty(clau).trim().toUpperCase()));
+            }
+        }
+
+        boolean asincron = Boolean.parseBoolean(props.getProperty("db.log.asincron", "true").trim());
+        int capacitat = Integer.parseInt(props.getProperty("db.log.capacitat",
+                String.valueOf(AppenderAsincron.CAPACITAT_PER_DEFECTE)).trim());
+        setSortida(asincron ? new AppenderAsincron(capacitat, CONSOLA) : CONSOLA);
+        recalcularLlindars();
+    }
+
+    /**
+     * Canvia el nivell per defecte (els registres amb nivell propi no canvien)
+     */
+    public static void setNivell(Nivell nivell) {
+        nivellPerDefecte = nivell;
+        recalcularLlindars();
+    }
+
+    /**
+     * Canvia el nivell d'un registre concret
+     */
+    public static void setNivell(String nom, Nivell nivell) {
+        NIVELLS_PER_NOM.put(nom, nivell);
+        recalcularLlindars();
+    }
+
+    /**
+     * Canvia la destinació de les entrades (buida l'anterior si és asíncrona)
+     * @param nova Sortida nova (p.ex. un AppenderAsincron sobre una altra Sortida)
+     */
+    public static void setSortida(Sortida nova) {
+        Sortida anterior = sortida;
+        sortida = nova;
+        if (anterior instanceof AppenderAsincron asincron && anterior != nova) {
+            asincron.tancar();
+        }
+    }
+
+    /**
+     * Escriu les pendents, atura el fil de l'AppenderAsincron (si n'hi ha)
+     * i torna a la consola directa (cridat per ConnexioOracle.tancarPool)
+     */
+    public static void tancar() {
+        setSortida(CONSOLA);
+    }
+
+    /**
+     * Espera que totes les entrades pendents s'hagin escrit
+     */
+    public static void buidar() {
+        if (sortida instanceof AppenderAsincron asincron) {
+            asincron.buidar();
+        }
+    }
+
+    private static Nivell nivellDe(String nom) {
+        return NIVELLS_PER_NOM.getOrDefault(nom, nivellPerDefecte);
+    }
+
+    private static void recalcularLlindars() {
+        for (Registre r : REGISTRES.values()) {
+            r.llindar = nivellDe(r.nom).ordinal();
+        }
+    }
+
+    // ==========================================
+    // ESCRIPTURA
+    // ==========================================
+
+    /**
+     * @return true si les entrades d'aquest nivell s'escriuen
+     */
+    public boolean isActiu(Nivell nivell) {
+        return nivell.ordinal() >= llindar;
+    }
+
+    public void debug(Supplier<String> missatge) {
+        if (isActiu(Nivell.DEBUG)) {
+            publicar(Nivell.DEBUG, missatge.get(), null);
+        }
+    }
+
+    public void info(String missatge) {
+        if (isActiu(Nivell.INFO)) {
+            publicar(Nivell.INFO, missatge, null);
+        }
+    }
+
+    public void info(Supplier<String> missatge) {
+        if (isActiu(Nivell.INFO)) {
+            publicar(Nivell.INFO, missatge.get(), null);
+        }
+    }
+
+    public void warn(String missatge) {
+        if (isActiu(Nivell.WARN)) {
+            publicar(Nivell.WARN, missatge, null);
+        }
+    }
+
+    public void warn(Supplier<String> missatge) {
+        if (isActiu(Nivell.WARN)) {
+            publicar(Nivell.WARN, missatge.get(), null);
+        }
+    }
+
+    public void error(String missatge) {
+        if (isActiu(Nivell.ERROR)) {
+            publicar(Nivell.ERROR, missatge, null);
+        }
+    }
+
+    public void error(Supplier<String> missatge) {
+        if (isActiu(Nivell.ERROR)) {
+            publicar(Nivell.ERROR, missatge.get(), null);
+        }
+    }
+
+    /**
+     * Error amb la traça de l'excepció
+     */
+    public void error(Supplier<String> missatge, Throwable error) {
+        if (isActiu(Nivell.ERROR)) {
+            publicar(Nivell.ERROR, missatge.get(), error);
+        }
+    }
+
+    private void publicar(Nivell nivell, String missatge, Throwable error) {
+        sortida.escriure(new Entrada(System.currentTimeMillis(), nivell, nom, missatge, error));
+    }
+
+    public String getNom() {
+        return nom;
+    }
+}
@@ -0,0 +1,267 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Registre de consultes lentes
+ *
+ * El pool (PoolConnexions) mesura cada sentència dels DAOs per separat:
+ * - execució: executeQuery / executeUpdate / executeBatch
+ * - lectura: temps dins de ResultSet.next() fins que es tanca
+ * Si execució + lectura supera el llindar, s'escriu un avís (Registre "ConsultesLentes")
+ * amb el SQL, els valors dels paràmetres, les files i el mètode DAO que l'ha executat,
+ * i es guarda entre les darreres consultes lentes (getDarreres).
+ *
+ * Els paràmetres de les columnes indicades a db.consultesLentes.emmascarar
+ * surten com a ****. La columna de cada ? es dedueix del SQL
+ * (col = ?, col LIKE ?, col IN (?, ?), INSERT (cols) VALUES (?, ?)...).
+ *
+ * Propietats (db.properties):
+ * - db.consultesLentes.llindarMs: llindar en ms (negatiu = desactivat, 0 = totes)
+ * - db.consultesLentes.emmascarar: columnes separades per comes
+ * - db.consultesLentes.memoria: darreres consultes lentes guardades
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public final class RegistreConsultesLentes {
+
+    private static final Registre LOG = Registre.per("ConsultesLentes");
+
+    private static final String MASCARA = "****";
+    private static final int MAX_LLARGADA_VALOR = 60;
+    private static final int MAX_SQL_ANALITZATS = 1000;
+
+    private static final String FUNCIO = "(?:\\w+\\s*\\(\\s*)?";
+    private static final Pattern COMPARACIO = Pattern.compile(
+            FUNCIO + "([\\w.]+)\\s*\\)?\\s*(?:=|<>|!=|<=|>=|<|>|(?:NOT\\s+)?LIKE)\\s*" + FUNCIO + "$",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern LLISTA_IN = Pattern.compile(
+            "([\\w.]+)\\s+(?:NOT\\s+)?IN\\s*\\(\\s*(?:\\?\\s*,\\s*)*$", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ENTRE = Pattern.compile(
+            "([\\w.]+)\\s+BETWEEN\\s+(?:\\?\\s+AND\\s+)?$", Pattern.CASE_INSENSITIVE);
+    private static final Pattern INSERT = Pattern.compile(
+            "^\\s*INSERT\\s+INTO\\s+[\\w.]+\\s*\\(([^)]*)\\)\\s*VALUES\\s*\\((.*)\\)\\s*$",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    /**
+     * Una consulta que ha superat el llindar
+     */
+    public record ConsultaLenta(long instant, String metodeDAO, String sql, List<String> parametres,
+                                long execucioNanos, long lecturaNanos, long files) {
+
+        public double totalMs() {
+            return (execucioNanos + lecturaNanos) / 1_000_000.0;
+        }
+
+        /**
+         * @return Text de l'avís (diverses línies)
+         */
+        public String format() {
+            return String.format(Locale.ROOT,
+                    "🐢 Consulta lenta a %s: %.1f ms (execució %.1f ms, lectura %.1f ms), %d files%n   SQL: %s%n   Paràmetres: %s",
+                    metodeDAO, totalMs(), execucioNanos / 1_000_000.0, lecturaNanos / 1_000_000.0,
+                    files, sql.replaceAll("\\s+", " ").trim(), parametres);
+        }
+    }
+
+    private final long llindarNanos;
+    private final Set<String> emmascarades;
+    private final int memoria;
+    private final ConcurrentLinkedDeque<ConsultaLenta> darreres = new ConcurrentLinkedDeque<>();
+    private final Map<String, String[]> columnesPerSql = new ConcurrentHashMap<>();
+    private final LongAdder total = new LongAdder();
+
+    /**
+     * @param llindarMs Llindar en ms (0 = totes les consultes)
+     * @param emmascarades Columnes amb valors sensibles (no distingeix majúscules)
+     * @param memoria Nombre de consultes lentes que es guarden
+     */
+    public RegistreConsultesLentes(long llindarMs, Set<String> emmascarades, int memoria) {
+        this.llindarNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, llindarMs));
+        this.emmascarades = new HashSet<>();
+        for (String columna : emmascarades) {
+            this.emmascarades.add(columna.trim().toLowerCase(Locale.ROOT));
+        }
+        this.memoria = Math.max(0, memoria);
+    }
+
+    /**
+     * Crea el registre a partir de db.properties
+     * @param props Propietats
+     * @return Registre, o null si està desactivat (llindar negatiu)
+     */
+    public static RegistreConsultesLentes desDePropietats(Properties props) {
+        long llindarMs = Long.parseLong(props.getProperty("db.consultesLentes.llindarMs", "-1").trim());
+        if (llindarMs < 0) {
+            return null;
+        }
+        Set<String> emmascarades = new HashSet<>();
+        for (String columna : props.getProperty("db.consultesLentes.emmascarar", "").split(",")) {
+            if (!columna.isBlank()) {
+                emmascarades.add(columna);
+            }
+        }
+        int memoria = Integer.parseInt(props.getProperty("db.consultesLentes.memoria", "100").trim());
+        return new RegistreConsultesLentes(llindarMs, emmascarades, memoria);
+    }
+
+    // ==========================================
+    // REGISTRE (cridat pel pool)
+    // ==========================================
+
+    /**
+     * @param nanos Temps d'execució + lectura
+     * @return true si una sentència amb aquest temps s'ha de registrar
+     */
+    boolean superaLlindar(long nanos) {
+        return nanos >= llindarNanos;
+    }
+
+    /**
+     * Registra una sentència acabada; només fa feina si supera el llindar
+     * @param sql SQL executat
+     * @param parametres Valors dels ? (posició 0 = primer ?), o null
+     * @param execucioNanos Temps d'execució
+     * @param lecturaNanos Temps de lectura de files
+     * @param files Files llegides (consultes) o afectades (actualitzacions)
+     */
+    public void registrar(String sql, Object[] parametres, long execucioNanos, long lecturaNanos, long files) {
+        if (execucioNanos + lecturaNanos < llindarNanos || sql == null) {
+            return;
+        }
+
+        String metode = CridaDAO.actual().map(CridaDAO::toString).orElse("(fora dels DAOs)");
+        ConsultaLenta lenta = new ConsultaLenta(System.currentTimeMillis(), metode, sql,
+                formatParametres(sql, parametres), execucioNanos, lecturaNanos, files);
+
+        total.increment();
+        if (memoria > 0) {
+            darreres.addFirst(lenta);
+            while (darreres.size() > memoria) {
+                darreres.pollLast();
+            }
+        }
+        LOG.warn(lenta::format);
+    }
+
+    /**
+     * @return Darreres consultes lentes (primer la més recent)
+     */
+    public List<ConsultaLenta> getDarreres() {
+        return new ArrayList<>(darreres);
+    }
+
+    /**
+     * @return Consultes lentes des de l'arrencada
+     */
+    public long getTotal() {
+        return total.sum();
+    }
+
+    public long getLlindarMs() {
+        return TimeUnit.NANOSECONDS.toMillis(llindarNanos);
+    }
+
+    // ==========================================
+    // PARÀMETRES
+    // ==========================================
+
+    private List<String> formatParametres(String sql, Object[] parametres) {
+        if (parametres == null) {
+            return List.of();
+        }
+        String[] columnes = columnesDelsMarcadors(sql);
+        List<String> resultat = new ArrayList<>(parametres.length);
+        for (int i = 0; i < parametres.length; i++) {
+            String columna = i < columnes.length ? columnes[i] : null;
+            String valor = columna != null && emmascarades.contains(columna) ? MASCARA : formatValor(parametres[i]);
+            resultat.add((columna != null ? columna : "?" + (i + 1)) + "=" + valor);
+        }
+        return resultat;
+    }
+
+    private static String formatValor(Object valor) {
+        if (valor == null) {
+            return "NULL";
+        }
+        if (valor instanceof CharSequence || valor instanceof java.util.Date || valor instanceof java.time.temporal.Temporal) {
+            String text = valor.toString();
+            if (text.length() > MAX_LLARGADA_VALOR) {
+                text = text.substring(0, MAX_LLARGADA_VALOR) + "…";
+            }
+            return "'" + text + "'";
+        }
+        return valor.toString();
+    }
+
+    /**
+     * Columna de cada ? del SQL (en minúscules, sense àlies de taula; null si no es pot saber)
+     */
+    String[] columnesDelsMarcadors(String sql) {
+        String[] columnes = columnesPerSql.get(sql);
+        if (columnes == null) {
+            columnes = analitzar(sql);
+            if (columnesPerSql.size() < MAX_SQL_ANALITZATS) {
+                columnesPerSql.put(sql, columnes);
+            }
+        }
+        return columnes;
+    }
+
+    private static String[] analitzar(String sql) {
+        Matcher insert = INSERT.matcher(sql);
+        if (insert.matches()) {
+            String[] noms = insert.group(1).split(",");
+            String[] valors = insert.group(2).split(",");
+            List<String> columnes = new ArrayList<>();
+            for (int i = 0; i < valors.length; i++) {
+                if (valors[i].contains("?")) {
+                    columnes.add(i < noms.length ? netejar(noms[i]) : null);
+                }
+            }
+            return columnes.toArray(String[]::new);
+        }
+
+        List<String> columnes = new ArrayList<>();
+        boolean dinsLiteral = false;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                dinsLiteral = !dinsLiteral;
+            } else if (c == '?' && !dinsLiteral) {
+                columnes.add(columnaAbans(sql.substring(0, i)));
+            }
+        }
+        return columnes.toArray(String[]::new);
+    }
+
+    private static String columnaAbans(String prefix) {
+        for (Pattern patro : Arrays.asList(COMPARACIO, LLISTA_IN, ENTRE)) {
+            Matcher m = patro.matcher(prefix);
+            if (m.find()) {
+                return netejar(m.group(1));
+            }
+        }
+        return null;
+    }
+
+    // "i.it_nom" → "it_nom"
+    private static String netejar(String columna) {
+        String nom = columna.trim();
+        return nom.substring(nom.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+    }
+}
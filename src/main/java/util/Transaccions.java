@@ -0,0 +1,296 @@
+package util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unitat de treball: diverses crides a DAOs comparteixen una connexió i una transacció
+ *
+ * Ús:
+ *   Transaccions.executarEnTransaccio(() -> {
+ *       daoComponent.insertar(c);
+ *       daoProvComp.insertar(pc);
+ *       daoProdItem.afegirItemAProducte("PR001", c.getCmCodi(), 2);
+ *   });
+ *
+ * Dins la unitat, ConnexioOracle.getConnection() retorna sempre la mateixa connexió.
+ * Els commit()/setAutoCommit() dels DAOs no fan res, un rollback() d'un DAO o un
+ * error SQL marquen la unitat per desfer-la, i close() no retorna la connexió al pool.
+ * El commit (o rollback) es fa una sola vegada en acabar.
+ *
+ * Les unitats niades s'afegeixen a la unitat exterior.
+ * despresDelCommit() permet diferir efectes en memòria (caches) fins al commit.
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public final class Transaccions {
+
+    private static final Registre LOG = Registre.per("Transaccions");
+
+    /**
+     * Feina que retorna un resultat
+     */
+    @FunctionalInterface
+    public interface Feina<T> {
+        T executar() throws Exception;
+    }
+
+    /**
+     * Feina sense resultat
+     */
+    @FunctionalInterface
+    public interface Accio {
+        void executar() throws Exception;
+    }
+
+    // La unitat només és visible durant l'execució de la feina (es desvincula al finally)
+    private static final ThreadLocal<UnitatTreball> ACTUAL = new ThreadLocal<>();
+
+    // Constructor privat per evitar instanciació
+    private Transaccions() {
+        throw new AssertionError("Transaccions no es pot instanciar");
+    }
+
+    // ==========================================
+    // API PÚBLICA
+    // ==========================================
+
+    /**
+     * Executa la feina dins una transacció amb una sola connexió
+     * @param feina Feina a executar (crides a DAOs)
+     * @return Resultat de la feina
+     * @throws SQLException si la feina falla o la unitat s'ha marcat per rollback
+     */
+    public static <T> T enTransaccio(Feina<T> feina) throws SQLException {
+        UnitatTreball exterior = ACTUAL.get();
+        if (exterior != null) {
+            // Unitat niada: s'afegeix a l'exterior
+            try {
+                return feina.executar();
+            } catch (Exception e) {
+                exterior.rollbackOnly = true;
+                throw comSQLException(e);
+            }
+        }
+
+        Connection conn = ConnexioOracle.getConnection();
+        UnitatTreball unitat = new UnitatTreball(conn);
+        T resultat;
+
+        try {
+            conn.setAutoCommit(false);
+            ACTUAL.set(unitat);
+            try {
+                resultat = feina.executar();
+            } finally {
+                ACTUAL.remove();
+            }
+
+            if (unitat.rollbackOnly) {
+                conn.rollback();
+                throw new SQLException("Unitat de treball desfeta: un DAO ha fet rollback o ha fallat");
+            }
+            conn.commit();
+            unitat.executarDespresDelCommit();
+            return resultat;
+
+        } catch (Exception e) {
+            try {
+                conn.rollback();
+            } catch (SQLException ex) {
+                LOG.error(() -> "❌ Error fent rollback de la unitat de treball: " + ex.getMessage(), ex);
+            }
+            throw comSQLException(e);
+
+        } finally {
+            try {
+                conn.setAutoCommit(true);
+            } catch (SQLException e) {
+                // La connexió es descartarà en tornar al pool
+            }
+            conn.close();
+        }
+    }
+
+    /**
+     * Executa una acció dins una transacció amb una sola connexió
+     * @param accio Acció a executar (crides a DAOs)
+     * @throws SQLException si l'acció falla o la unitat s'ha marcat per rollback
+     */
+    public static void executarEnTransaccio(Accio accio) throws SQLException {
+        enTransaccio(() -> {
+            accio.executar();
+            return null;
+        });
+    }
+
+    /**
+     * Marca la unitat actual perquè es desfaci en acabar
+     * Útil quan un DAO retorna false sense llançar excepció
+     */
+    public static void marcarRollback() {
+        UnitatTreball unitat = ACTUAL.get();
+        if (unitat == null) {
+            throw new IllegalStateException("No hi ha cap unitat de treball activa");
+        }
+        unitat.rollbackOnly = true;
+    }
+
+    /**
+     * Executa l'acció quan la unitat actual faci commit (es descarta si fa rollback)
+     * Sense unitat activa, l'acció s'executa immediatament (el DAO ja ha fet commit)
+     * @param accio Acció a executar (p.ex. actualitzar una cache en memòria)
+     */
+    public static void despresDelCommit(Runnable accio) {
+        UnitatTreball unitat = ACTUAL.get();
+        if (unitat == null) {
+            accio.run();
+        } else {
+            unitat.despresDelCommit.add(accio);
+        }
+    }
+
+    /**
+     * @return true si el fil actual és dins una unitat de treball
+     */
+    public static boolean actiu() {
+        return ACTUAL.get() != null;
+    }
+
+    /**
+     * Connexió de la unitat de treball actual (per ConnexioOracle)
+     * @return Connexió compartida o null si no hi ha unitat activa
+     */
+    static Connection connexioActual() {
+        UnitatTreball unitat = ACTUAL.get();
+        return unitat != null ? unitat.proxy : null;
+    }
+
+    private static SQLException comSQLException(Exception e) {
+        if (e instanceof SQLException sqle) {
+            return sqle;
+        }
+        if (e instanceof RuntimeException re) {
+            throw re;
+        }
+        return new SQLException("Error dins la unitat de treball: " + e.getMessage(), e);
+    }
+
+    // ==========================================
+    // UNITAT DE TREBALL
+    // ==========================================
+
+    /**
+     * Estat d'una unitat de treball i proxy de la connexió compartida
+     */
+    private static final class UnitatTreball implements InvocationHandler {
+        private final Connection conn;
+        private final Connection proxy;
+        private final List<Runnable> despresDelCommit = new ArrayList<>();
+        private volatile boolean rollbackOnly = false;
+
+        UnitatTreball(Connection conn) {
+            this.conn = conn;
+            this.proxy = (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class },
+                    this);
+        }
+
+        void executarDespresDelCommit() {
+            for (Runnable accio : despresDelCommit) {
+                try {
+                    accio.run();
+                } catch (RuntimeException e) {
+                    // La transacció ja està confirmada: només es registra
+                    LOG.error(() -> "❌ Error executant acció després del commit: " + e.getMessage(), e);
+                }
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                case "commit":
+                case "setAutoCommit":
+                    // Els gestiona la unitat de treball
+                    return null;
+                case "rollback":
+                    if (args == null) {
+                        rollbackOnly = true;
+                        return null;
+                    }
+                    break;
+                case "getAutoCommit":
+                    return false;
+                case "isClosed":
+                    return conn.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "UnitatTreball[" + conn + "]";
+                default:
+                    break;
+            }
+
+            Object resultat = invocar(conn, method, args);
+            if (resultat instanceof Statement stmt) {
+                return protegir(stmt);
+            }
+            return resultat;
+        }
+
+        /**
+         * Embolcalla la sentència perquè un error SQL marqui la unitat per rollback
+         */
+        private Statement protegir(Statement stmt) {
+            Class<?> interficie = stmt instanceof CallableStatement ? CallableStatement.class
+                    : stmt instanceof PreparedStatement ? PreparedStatement.class
+                    : Statement.class;
+            return (Statement) Proxy.newProxyInstance(
+                    Statement.class.getClassLoader(),
+                    new Class<?>[] { interficie },
+                    (p, m, a) -> {
+                        switch (m.getName()) {
+                            case "getConnection":
+                                return this.proxy;
+                            case "equals":
+                                return p == a[0];
+                            case "hashCode":
+                                return System.identityHashCode(p);
+                            default:
+                                break;
+                        }
+                        try {
+                            return invocar(stmt, m, a);
+                        } catch (SQLException e) {
+                            if (m.getName().startsWith("execute")) {
+                                rollbackOnly = true;
+                            }
+                            throw e;
+                        }
+                    });
+        }
+
+        private static Object invocar(Object objectiu, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(objectiu, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
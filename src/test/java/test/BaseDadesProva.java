@@ -0,0 +1,89 @@
+package test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import util.ConnexioOracle;
+
+/**
+ * BD local per als tests JUnit (H2 en mode Oracle)
+ * La connexió la configura el pom (propietats db.* de surefire)
+ * 
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public class BaseDadesProva {
+
+    private BaseDadesProva() {
+    }
+
+    /**
+     * Esborra tot i torna a crear l'esquema buit (esquema-h2.sql)
+     */
+    public static void crearEsquema() throws SQLException, IOException {
+        String esquema;
+        try (InputStream input = BaseDadesProva.class
+                .getClassLoader()
+                .getResourceAsStream("esquema-h2.sql")) {
+            esquema = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        executar("DROP ALL OBJECTS");
+        for (String sentencia : esquema.split(";")) {
+            String sql = sentencia.replaceAll("(?m)^\\s*--.*$", "").trim();
+            if (!sql.isEmpty()) {
+                executar(sql);
+            }
+        }
+    }
+
+    /**
+     * Executa sentències SQL (DDL o dades de prova)
+     */
+    public static void executar(String... sentencies) throws SQLException {
+        try (Connection conn = ConnexioOracle.getConnection();
+             Statement stmt = conn.createStatement()) {
+            for (String sql : sentencies) {
+                stmt.execute(sql);
+            }
+        }
+    }
+
+    /**
+     * Insereix un component (Item + Component) amb el preu mitjà indicat
+     */
+    public static void component(String codi, Double preuMig) throws SQLException {
+        executar("MERGE INTO UnitatMesura KEY (um_codi) VALUES ('UN', 'Unitats')",
+                "INSERT INTO Item (it_codi, it_tipus, it_nom, it_stock) VALUES ('" + codi + "', 'C', 'Component " + codi + "', 10)",
+                "INSERT INTO Component (cm_codi, cm_um_codi, cm_codi_fabricant, cm_preu_mig) VALUES ('"
+                        + codi + "', 'UN', 'FAB-" + codi + "', " + preuMig + ")");
+    }
+
+    /**
+     * Insereix un producte (Item + Producte)
+     */
+    public static void producte(String codi) throws SQLException {
+        executar("INSERT INTO Item (it_codi, it_tipus, it_nom, it_stock) VALUES ('" + codi + "', 'P', 'Producte " + codi + "', 5)",
+                "INSERT INTO Producte (pr_codi) VALUES ('" + codi + "')");
+    }
+
+    /**
+     * Insereix una línia de BOM (Prod_Item)
+     */
+    public static void linia(String prCodi, String itCodi, int quantitat) throws SQLException {
+        executar("INSERT INTO Prod_Item (pi_pr_codi, pi_it_codi, quantitat) VALUES ('"
+                + prCodi + "', '" + itCodi + "', " + quantitat + ")");
+    }
+
+    /**
+     * Insereix un proveïdor mínim (sense municipi)
+     */
+    public static void proveidor(String codi) throws SQLException {
+        executar("INSERT INTO Proveidor (pv_codi, pv_cif, pv_rao_social) VALUES ('"
+                + codi + "', 'CIF-" + codi + "', 'Proveïdor " + codi + "')");
+    }
+}
@@ -0,0 +1,75 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import dao.AsyncDAOFactory;
+import dao.DAOItem;
+import dao.IDAOItem;
+import model.Component;
+import model.Item;
+
+/**
+ * Test d'AsyncDAOFactory: mateixos resultats, crides encavalcades i límit de concurrència
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public class TestAsyncDAOFactory {
+
+    @BeforeAll
+    static void preparar() throws Exception {
+        BaseDadesProva.crearEsquema();
+        for (int c = 0; c < 15; c++) {
+            BaseDadesProva.component(String.format("C%02d", c), 1.0);
+        }
+        BaseDadesProva.producte("P1");
+    }
+
+    @Test
+    void testMateixosResultatsQueElDAOSincron() {
+        CompletableFuture<Integer> total = AsyncDAOFactory.getDAOItem().cridar(IDAOItem::countTotal);
+        CompletableFuture<List<Component>> pagina = AsyncDAOFactory.getDAOComponent().cridar(d -> d.findAllPaginat(1, 10));
+        CompletableFuture<List<Item>> stockBaix = AsyncDAOFactory.getDAOItem().cridar(d -> d.obtenirItemsAmbStockBaix(5));
+        CompletableFuture.allOf(total, pagina, stockBaix).join();
+
+        DAOItem dao = new DAOItem();
+        assertEquals(dao.countTotal(), total.join());
+        assertEquals(10, pagina.join().size());
+        assertEquals(dao.obtenirItemsAmbStockBaix(5).toString(), stockBaix.join().toString());
+    }
+
+    @Test
+    void testEncavalcaIRespectaElLimit() {
+        int limit = AsyncDAOFactory.getMaxConcurrent();
+        AtomicInteger enCurs = new AtomicInteger();
+        AtomicInteger maxim = new AtomicInteger();
+
+        List<CompletableFuture<Integer>> futurs = new ArrayList<>();
+        for (int i = 0; i < limit * 2; i++) {
+            futurs.add(AsyncDAOFactory.getDAOItem().cridar(d -> {
+                maxim.accumulateAndGet(enCurs.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                enCurs.decrementAndGet();
+                return d.countTotal();
+            }));
+        }
+        futurs.forEach(f -> assertEquals(16, f.join()));
+
+        assertTrue(maxim.get() <= limit, "Màxim alhora: " + maxim.get());
+        assertTrue(maxim.get() > 1, "Les crides no s'han encavalcat");
+        assertEquals(0, AsyncDAOFactory.getEnCurs());
+    }
+}
@@ -0,0 +1,142 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import bom.BomGraph;
+import dao.DAOProducte;
+import model.ProdItem;
+
+/**
+ * Test de BomGraph: mateixos preus que calcularPreuTotal i catàleg sintètic gran
+ * 
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public class TestBomGraph {
+
+    private static final double DELTA = 0.0001;
+
+    @BeforeAll
+    static void preparar() throws Exception {
+        BaseDadesProva.crearEsquema();
+
+        BaseDadesProva.component("C1", 10.0);
+        BaseDadesProva.component("C2", 2.5);
+        BaseDadesProva.component("C3", null);
+        for (String p : new String[] { "P1", "P2", "P3", "P4" }) {
+            BaseDadesProva.producte(p);
+        }
+        BaseDadesProva.linia("P3", "C1", 2);
+        BaseDadesProva.linia("P3", "C3", 4);
+        BaseDadesProva.linia("P2", "P3", 3);
+        BaseDadesProva.linia("P2", "C2", 4);
+        BaseDadesProva.linia("P1", "P2", 2);
+        BaseDadesProva.linia("P1", "P3", 1);
+    }
+
+    @Test
+    void testMateixosPreusQueCalcularPreuTotal() throws Exception {
+        BomGraph graf = BomGraph.carregar();
+        DAOProducte dao = new DAOProducte();
+
+        Map<String, Double> tots = graf.priceAll();
+        assertEquals(4, tots.size());
+
+        for (String p : tots.keySet()) {
+            double esperat = dao.calcularPreuTotal(p);
+            assertEquals(esperat, graf.priceOf(p), DELTA, "Preu de " + p);
+            assertEquals(esperat, tots.get(p), DELTA, "Preu de " + p);
+        }
+        assertEquals(0.0, graf.priceOf("XXXXX"), DELTA);
+        assertEquals(0.0, graf.priceOf("C1"), DELTA);
+    }
+
+    @Test
+    void testCatalegSinteticDe100kLinies() {
+        int components = 5000;
+        int productes = 10000;
+        int liniesPerProducte = 10;
+        Random random = new Random(42);
+
+        Map<String, Double> preus = new HashMap<>();
+        for (int c = 0; c < components; c++) {
+            preus.put("C" + c, (double) random.nextInt(100));
+        }
+
+        // El producte i només conté productes j < i (sense cicles)
+        List<String> codisProductes = new ArrayList<>();
+        List<ProdItem> linies = new ArrayList<>();
+        for (int i = 0; i < productes; i++) {
+            codisProductes.add("P" + i);
+            for (int k = 0; k < liniesPerProducte; k++) {
+                String fill = (i > 0 && random.nextBoolean())
+                        ? "P" + random.nextInt(i)
+                        : "C" + random.nextInt(components);
+                linies.add(new ProdItem("P" + i, fill, 1 + random.nextInt(3)));
+            }
+        }
+
+        BomGraph graf = new BomGraph(preus, codisProductes, linies);
+        assertEquals(productes * liniesPerProducte, graf.getNombreLinies());
+
+        // Referència: recursió memoritzada sobre les línies
+        Map<String, List<ProdItem>> perPare = new HashMap<>();
+        for (ProdItem linia : linies) {
+            perPare.computeIfAbsent(linia.getPiPrCodi(), k -> new ArrayList<>()).add(linia);
+        }
+        Map<String, Double> memo = new HashMap<>();
+        Map<String, Double> tots = graf.priceAll();
+        for (int i = 0; i < productes; i += 97) {
+            String p = "P" + i;
+            double esperat = referencia(p, perPare, preus, memo);
+            assertEquals(esperat, tots.get(p), Math.abs(esperat) * 1e-9, "Preu de " + p);
+        }
+    }
+
+    @Test
+    void testCicleNomesAfectaElsProductesQueEnDepenen() {
+        // P1 ↔ P2 és un cicle; P3 en depèn; P4 no
+        List<ProdItem> linies = List.of(
+                new ProdItem("P1", "P2", 1),
+                new ProdItem("P2", "P1", 1),
+                new ProdItem("P3", "P1", 1),
+                new ProdItem("P3", "C1", 1),
+                new ProdItem("P4", "C1", 3));
+        BomGraph graf = new BomGraph(Map.of("C1", 2.0), List.of("P1", "P2", "P3", "P4"), linies);
+
+        Map<String, Double> tots = graf.priceAll();
+        assertEquals(4, tots.size());
+        assertTrue(Double.isNaN(tots.get("P1")));
+        assertTrue(Double.isNaN(tots.get("P2")));
+        assertTrue(Double.isNaN(tots.get("P3")));
+        assertEquals(6.0, tots.get("P4"), DELTA);
+        assertEquals(Set.of("P3", "P4"), Set.copyOf(graf.whereUsed("C1")));
+    }
+
+    private static double referencia(String p, Map<String, List<ProdItem>> perPare,
+                                     Map<String, Double> preus, Map<String, Double> memo) {
+        Double fet = memo.get(p);
+        if (fet != null) {
+            return fet;
+        }
+        double total = 0.0;
+        for (ProdItem linia : perPare.getOrDefault(p, List.of())) {
+            String fill = linia.getPiItCodi();
+            double preuFill = fill.startsWith("P") ? referencia(fill, perPare, preus, memo) : preus.get(fill);
+            total += linia.getQuantitat() * preuFill;
+        }
+        memo.put(p, total);
+        return total;
+    }
+}
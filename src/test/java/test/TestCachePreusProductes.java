@@ -0,0 +1,159 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import bom.BomGraph;
+import bom.CachePreusProductes;
+import dao.DAOProdItem;
+import dao.DAOProducte;
+import dao.DAOProvComp;
+import model.ProdItem;
+import model.ProvComp;
+import util.Transaccions;
+
+/**
+ * Test de CachePreusProductes: la propagació incremental dona el mateix
+ * resultat que recalcular tot el catàleg
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public class TestCachePreusProductes {
+
+    private static final double DELTA = 0.0001;
+
+    private final DAOProvComp daoProvComp = new DAOProvComp();
+    private final DAOProducte daoProducte = new DAOProducte();
+
+    @BeforeEach
+    void preparar() throws Exception {
+        BaseDadesProva.crearEsquema();
+
+        BaseDadesProva.component("C1", null);
+        BaseDadesProva.component("C2", null);
+        BaseDadesProva.proveidor("V1");
+        BaseDadesProva.proveidor("V2");
+        for (String p : new String[] { "P1", "P2", "P3" }) {
+            BaseDadesProva.producte(p);
+        }
+        BaseDadesProva.linia("P3", "C1", 2);
+        BaseDadesProva.linia("P2", "P3", 3);
+        BaseDadesProva.linia("P2", "C2", 4);
+        BaseDadesProva.linia("P1", "P2", 2);
+        BaseDadesProva.linia("P1", "P3", 1);
+
+        // El trigger emulat calcula cm_preu_mig: C1 = 10, C2 = 2.5
+        daoProvComp.insertar(new ProvComp("C1", "V1", 10.0));
+        daoProvComp.insertar(new ProvComp("C2", "V1", 2.5));
+    }
+
+    @AfterEach
+    void netejar() {
+        CachePreusProductes.desactivar();
+    }
+
+    @Test
+    void testCanviDePreuEsPropagaAlsProductes() throws Exception {
+        CachePreusProductes cache = CachePreusProductes.activar();
+        assertEquals(20.0, cache.getPreu("P3"), DELTA);
+        assertEquals(70.0, cache.getPreu("P2"), DELTA);
+
+        // C1 passa a AVG(10, 20) = 15
+        assertTrue(daoProvComp.insertar(new ProvComp("C1", "V2", 20.0)));
+        comprovarContraBD(cache);
+        assertEquals(30.0, cache.getPreu("P3"), DELTA);
+
+        assertTrue(daoProvComp.actualitzar(new ProvComp("C2", "V1", 5.0)));
+        comprovarContraBD(cache);
+
+        assertTrue(daoProvComp.eliminar("C1", "V1"));
+        comprovarContraBD(cache);
+        assertEquals(40.0, cache.getPreu("P3"), DELTA);
+    }
+
+    @Test
+    void testUnitatDesfetaNoModificaLaCache() throws Exception {
+        CachePreusProductes cache = CachePreusProductes.activar();
+
+        assertThrows(SQLException.class, () -> Transaccions.executarEnTransaccio(() -> {
+            daoProvComp.actualitzar(new ProvComp("C1", "V1", 100.0));
+            Transaccions.marcarRollback();
+        }));
+        assertEquals(20.0, cache.getPreu("P3"), DELTA);
+
+        Transaccions.executarEnTransaccio(() -> daoProvComp.actualitzar(new ProvComp("C1", "V1", 100.0)));
+        assertEquals(200.0, cache.getPreu("P3"), DELTA);
+        comprovarContraBD(cache);
+    }
+
+    @Test
+    void testCanviDeBOMRecarregaLaCache() throws Exception {
+        CachePreusProductes cache = CachePreusProductes.activar();
+        assertEquals(20.0, cache.getPreu("P3"), DELTA);
+
+        assertTrue(new DAOProdItem().insertar(new ProdItem("P3", "C2", 2)));
+        assertEquals(25.0, cache.getPreu("P3"), DELTA);
+        comprovarContraBD(cache);
+    }
+
+    @Test
+    void testIncrementalIgualQueRecalculTotal() {
+        int components = 500;
+        int productes = 2000;
+        Random random = new Random(7);
+
+        Map<String, Double> preus = new HashMap<>();
+        for (int c = 0; c < components; c++) {
+            preus.put("C" + c, (double) random.nextInt(100));
+        }
+        List<String> codisProductes = new ArrayList<>();
+        List<ProdItem> linies = new ArrayList<>();
+        for (int i = 0; i < productes; i++) {
+            codisProductes.add("P" + i);
+            for (int k = 0; k < 5; k++) {
+                String fill = (i > 0 && random.nextBoolean())
+                        ? "P" + random.nextInt(i)
+                        : "C" + random.nextInt(components);
+                linies.add(new ProdItem("P" + i, fill, 1 + random.nextInt(3)));
+            }
+        }
+
+        CachePreusProductes cache = new CachePreusProductes(new BomGraph(preus, codisProductes, linies));
+
+        for (int canvi = 0; canvi < 50; canvi++) {
+            String cmCodi = "C" + random.nextInt(components);
+            double nouPreu = random.nextInt(100);
+            preus.put(cmCodi, nouPreu);
+            cache.actualitzarPreuComponent(cmCodi, nouPreu);
+        }
+
+        Map<String, Double> esperats = new BomGraph(preus, codisProductes, linies).priceAll();
+        for (Map.Entry<String, Double> e : esperats.entrySet()) {
+            try {
+                assertEquals(e.getValue(), cache.getPreu(e.getKey()), Math.abs(e.getValue()) * 1e-9 + DELTA,
+                        "Preu de " + e.getKey());
+            } catch (SQLException ex) {
+                throw new AssertionError(ex);
+            }
+        }
+    }
+
+    private void comprovarContraBD(CachePreusProductes cache) throws SQLException {
+        for (String p : new String[] { "P1", "P2", "P3" }) {
+            assertEquals(daoProducte.calcularPreuTotal(p), cache.getPreu(p), DELTA, "Preu de " + p);
+        }
+    }
+}
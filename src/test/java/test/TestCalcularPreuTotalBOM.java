@@ -0,0 +1,184 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import dao.DAOProducte;
+import util.ConnexioOracle;
+import util.PoolConnexions;
+import util.RegistreConsultesLentes;
+
+/**
+ * Test de regressió de DAOProducte.calcularPreuTotal (BOM amb una sola consulta)
+ * Compara amb el càlcul antic (una consulta per nivell) sobre la BD local H2
+ * 
+ * BOM de prova:
+ *   P1 = 2×P2 + 1×P3 + 1×C4      (P3 compartit: diamant)
+ *   P2 = 3×P3 + 4×C2
+ *   P3 = 2×C1 + 4×C3             (C3 sense preu)
+ *   P4 = (sense línies)
+ *   P10 → P11 → ... → P14 → C1   (2 unitats per nivell)
+ *   P20 → P21 → P20              (cicle)
+ *   P30..P40: cada nivell conté 2 línies cap al següent (diamants encadenats)
+ *   D0..D51: cadena de 52 nivells (supera db.bom.maxNivells)
+ * 
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public class TestCalcularPreuTotalBOM {
+
+    private static final double DELTA = 0.0001;
+
+    private final DAOProducte dao = new DAOProducte();
+
+    @BeforeAll
+    static void preparar() throws Exception {
+        BaseDadesProva.crearEsquema();
+
+        BaseDadesProva.component("C1", 10.0);
+        BaseDadesProva.component("C2", 2.5);
+        BaseDadesProva.component("C3", null);
+        BaseDadesProva.component("C4", 100.0);
+
+        for (String p : new String[] { "P1", "P2", "P3", "P4", "P10", "P11", "P12", "P13", "P14", "P20", "P21" }) {
+            BaseDadesProva.producte(p);
+        }
+
+        BaseDadesProva.linia("P3", "C1", 2);
+        BaseDadesProva.linia("P3", "C3", 4);
+        BaseDadesProva.linia("P2", "P3", 3);
+        BaseDadesProva.linia("P2", "C2", 4);
+        BaseDadesProva.linia("P1", "P2", 2);
+        BaseDadesProva.linia("P1", "P3", 1);
+        BaseDadesProva.linia("P1", "C4", 1);
+
+        BaseDadesProva.linia("P10", "P11", 2);
+        BaseDadesProva.linia("P11", "P12", 2);
+        BaseDadesProva.linia("P12", "P13", 2);
+        BaseDadesProva.linia("P13", "P14", 2);
+        BaseDadesProva.linia("P14", "C1", 2);
+
+        BaseDadesProva.linia("P20", "P21", 1);
+        BaseDadesProva.linia("P21", "P20", 1);
+        BaseDadesProva.linia("P21", "C1", 1);
+
+        // Pn conté 1×An i 1×Bn, i tots dos contenen 1×P(n+1): 2^10 camins, 41 línies
+        for (int n = 30; n <= 40; n++) {
+            BaseDadesProva.producte("P" + n);
+        }
+        for (int n = 30; n < 40; n++) {
+            BaseDadesProva.producte("A" + n);
+            BaseDadesProva.producte("B" + n);
+            BaseDadesProva.linia("P" + n, "A" + n, 1);
+            BaseDadesProva.linia("P" + n, "B" + n, 1);
+            BaseDadesProva.linia("A" + n, "P" + (n + 1), 1);
+            BaseDadesProva.linia("B" + n, "P" + (n + 1), 1);
+        }
+        BaseDadesProva.linia("P40", "C1", 1);
+
+        // D0 → D1 → ... → D51 → C1: D1 queda just al límit de 50 nivells, D0 el supera
+        for (int n = 0; n <= 51; n++) {
+            BaseDadesProva.producte("D" + n);
+        }
+        for (int n = 0; n < 51; n++) {
+            BaseDadesProva.linia("D" + n, "D" + (n + 1), 1);
+        }
+        BaseDadesProva.linia("D51", "C1", 1);
+        BaseDadesProva.linia("D0", "C2", 1);
+    }
+
+    @Test
+    void testPreusEsperats() {
+        assertEquals(20.0, dao.calcularPreuTotal("P3"), DELTA);
+        assertEquals(70.0, dao.calcularPreuTotal("P2"), DELTA);
+        assertEquals(260.0, dao.calcularPreuTotal("P1"), DELTA);
+        assertEquals(320.0, dao.calcularPreuTotal("P10"), DELTA);
+    }
+
+    @Test
+    void testCasosLimit() {
+        assertEquals(0.0, dao.calcularPreuTotal("P4"), DELTA);
+        assertEquals(0.0, dao.calcularPreuTotal("XXXXX"), DELTA);
+        assertEquals(0.0, dao.calcularPreuTotal(null), DELTA);
+        assertEquals(0.0, dao.calcularPreuTotal("  "), DELTA);
+    }
+
+    @Test
+    void testCicleNoPenjaLaConsulta() {
+        assertEquals(0.0, dao.calcularPreuTotal("P20"), DELTA);
+    }
+
+    @Test
+    void testBOMMesProfundQueElLimitNoDonaUnaSumaParcial() {
+        assertEquals(10.0, dao.calcularPreuTotal("D1"), DELTA);
+        // La suma parcial seria 2.5 (només la línia de C2): error i 0
+        assertEquals(0.0, dao.calcularPreuTotal("D0"), DELTA);
+    }
+
+    @Test
+    void testDiamantsEncadenats() {
+        PoolConnexions pool = ConnexioOracle.getPool();
+        RegistreConsultesLentes anterior = pool.getRegistreConsultesLentes();
+        RegistreConsultesLentes lentes = new RegistreConsultesLentes(0, Set.of(), 10);
+        pool.setRegistreConsultesLentes(lentes);
+        try {
+            // 2^10 camins fins a C1: el preu els compta tots
+            assertEquals(Math.pow(2, 10) * 10.0, dao.calcularPreuTotal("P30"), DELTA);
+        } finally {
+            pool.setRegistreConsultesLentes(anterior);
+        }
+        // ... però a Java només arriba cada línia un cop
+        assertEquals(41, lentes.getDarreres().get(0).files());
+    }
+
+    @Test
+    void testMateixosTotalsQueElCalculAntic() throws SQLException {
+        for (String p : new String[] { "P1", "P2", "P3", "P4", "P10", "P12", "P14" }) {
+            assertEquals(calculAntic(p), dao.calcularPreuTotal(p), DELTA, "Preu de " + p);
+        }
+    }
+
+    /**
+     * Càlcul antic: una consulta a Prod_Item per cada nivell del BOM
+     */
+    private static double calculAntic(String prCodi) throws SQLException {
+        String sql = """
+            SELECT pi.pi_it_codi, pi.quantitat, i.it_tipus, c.cm_preu_mig
+            FROM Prod_Item pi
+            JOIN Item i ON pi.pi_it_codi = i.it_codi
+            LEFT JOIN Component c ON i.it_codi = c.cm_codi
+            WHERE pi.pi_pr_codi = ?
+            """;
+
+        double preuTotal = 0.0;
+
+        try (Connection conn = ConnexioOracle.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, prCodi);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    double preuItem = 0.0;
+                    if ("C".equals(rs.getString("it_tipus"))) {
+                        double preuMig = rs.getDouble("cm_preu_mig");
+                        if (!rs.wasNull()) {
+                            preuItem = preuMig;
+                        }
+                    } else if ("P".equals(rs.getString("it_tipus"))) {
+                        preuItem = calculAntic(rs.getString("pi_it_codi"));
+                    }
+                    preuTotal += rs.getInt("quantitat") * preuItem;
+                }
+            }
+        }
+
+        return preuTotal;
+    }
+}
@@ -0,0 +1,70 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import dao.DAOItem;
+import util.ConnexioOracle;
+import util.PoolConnexions;
+import util.RegistreConsultesLentes;
+import util.RegistreConsultesLentes.ConsultaLenta;
+
+/**
+ * Test del registre de consultes lentes: SQL, paràmetres, temps i mètode DAO
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public class TestConsultesLentes {
+
+    @BeforeAll
+    static void preparar() throws Exception {
+        BaseDadesProva.crearEsquema();
+        BaseDadesProva.component("C1", 1.0);
+        BaseDadesProva.component("C2", 2.0);
+        BaseDadesProva.executar("UPDATE Item SET it_nom = 'Cargol M3' WHERE it_codi = 'C1'");
+    }
+
+    @Test
+    void testConsultaDelDAOAmbParametresIFiles() {
+        PoolConnexions pool = ConnexioOracle.getPool();
+        RegistreConsultesLentes anterior = pool.getRegistreConsultesLentes();
+        // Llindar 0: es registren totes les consultes
+        RegistreConsultesLentes lentes = new RegistreConsultesLentes(0, Set.of(), 10);
+        pool.setRegistreConsultesLentes(lentes);
+        try {
+            assertEquals(1, new DAOItem().cercarPerNom("cargol").size());
+        } finally {
+            pool.setRegistreConsultesLentes(anterior);
+        }
+
+        ConsultaLenta lenta = lentes.getDarreres().get(0);
+        assertEquals("DAOItem.cercarPerNom", lenta.metodeDAO());
+        assertTrue(lenta.sql().contains("LIKE UPPER(?)"));
+        assertEquals(List.of("it_nom='%cargol%'"), lenta.parametres());
+        assertEquals(1, lenta.files());
+        assertTrue(lenta.execucioNanos() > 0);
+        assertTrue(lenta.format().contains("DAOItem.cercarPerNom"));
+    }
+
+    @Test
+    void testEmmascaraColumnesSensibles() {
+        RegistreConsultesLentes lentes = new RegistreConsultesLentes(0, Set.of("PV_CIF"), 10);
+        lentes.registrar("INSERT INTO Proveidor (pv_codi, pv_cif, pv_rao_social) VALUES (?, ?, ?)",
+                new Object[] { "P1", "B12345678", null }, 1_000_000, 0, 1);
+        lentes.registrar("SELECT * FROM Proveidor WHERE pv_codi IN (?, ?) AND pv.pv_cif = ?",
+                new Object[] { "P1", "P2", "B12345678" }, 1_000_000, 0, 0);
+
+        List<ConsultaLenta> darreres = lentes.getDarreres();
+        assertEquals(2, lentes.getTotal());
+        assertEquals(List.of("pv_codi='P1'", "pv_codi='P2'", "pv_cif=****"), darreres.get(0).parametres());
+        assertEquals(List.of("pv_codi='P1'", "pv_cif=****", "pv_rao_social=NULL"), darreres.get(1).parametres());
+        assertEquals("(fora dels DAOs)", darreres.get(0).metodeDAO());
+    }
+}
@@ -0,0 +1,78 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import dao.DAOComponent;
+import dao.DAOItem;
+import dao.DAOProducte;
+import model.Component;
+import model.Item;
+import model.Producte;
+import util.ConnexioOracle;
+import util.PoolConnexions;
+
+/**
+ * Test de DAOItem polimòrfic: cada fila és Component o Producte segons it_tipus
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public class TestDAOItemPolimorfic {
+
+    @BeforeAll
+    static void preparar() throws Exception {
+        BaseDadesProva.crearEsquema();
+        for (int c = 0; c < 50; c++) {
+            BaseDadesProva.component(String.format("C%02d", c), c % 5 == 0 ? null : 1.5 * c);
+        }
+        BaseDadesProva.producte("P1");
+        BaseDadesProva.producte("P2");
+    }
+
+    @Test
+    void testSubclassesAmbLesDadesDeLaTaulaFilla() {
+        DAOComponent daoComponent = new DAOComponent();
+        DAOProducte daoProducte = new DAOProducte();
+
+        List<Item> items = new DAOItem().findAll();
+        assertEquals(52, items.size());
+        for (Item item : items) {
+            if (item.getItTipus().equals("C")) {
+                Component c = assertInstanceOf(Component.class, item);
+                assertEquals(daoComponent.findById(c.getItCodi()).toString(), c.toString());
+                assertEquals(daoComponent.findById(c.getItCodi()).getItStock(), c.getItStock());
+            } else {
+                Producte p = assertInstanceOf(Producte.class, item);
+                assertEquals(daoProducte.findById(p.getItCodi()).getPrCodi(), p.getPrCodi());
+            }
+        }
+
+        assertInstanceOf(Producte.class, new DAOItem().findById("P2"));
+        new DAOItem().filtrarPerTipus("C").forEach(i -> assertInstanceOf(Component.class, i));
+        new DAOItem().cercarPerNom("%C1%").forEach(i -> assertInstanceOf(Component.class, i));
+        new DAOItem().obtenirItemsAmbStockBaix(100).forEach(i ->
+                assertEquals(i.getItTipus().equals("C") ? Component.class : Producte.class, i.getClass()));
+        new DAOItem().findAllPaginat(2, 10).forEach(i -> assertInstanceOf(Component.class, i));
+    }
+
+    @Test
+    void testUnaSolaConsulta() {
+        PoolConnexions pool = ConnexioOracle.getPool();
+        long abans = pool.getEncertsCacheSentencies() + pool.getFalladesCacheSentencies();
+
+        List<Item> items = new DAOItem().findAll();
+        double total = items.stream()
+                .filter(i -> i instanceof Component)
+                .mapToDouble(i -> ((Component) i).getCmPreuMig())
+                .sum();
+
+        assertEquals(1, pool.getEncertsCacheSentencies() + pool.getFalladesCacheSentencies() - abans);
+        assertEquals(1.5 * (1225 - 225), total, 0.0001);
+    }
+}
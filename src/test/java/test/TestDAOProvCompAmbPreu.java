@@ -0,0 +1,56 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import dao.DAOComponent;
+import dao.DAOProvComp;
+import model.ProvComp;
+
+/**
+ * Test de les escriptures de DAOProvComp que retornen el nou cm_preu_mig
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public class TestDAOProvCompAmbPreu {
+
+    private static final double DELTA = 0.0001;
+
+    private final DAOProvComp dao = new DAOProvComp();
+
+    @BeforeEach
+    void preparar() throws Exception {
+        BaseDadesProva.crearEsquema();
+        BaseDadesProva.component("C1", null);
+        BaseDadesProva.proveidor("V1");
+        BaseDadesProva.proveidor("V2");
+    }
+
+    @Test
+    void testRetornaElPreuRecalculat() {
+        assertEquals(10.0, dao.insertarAmbPreu(new ProvComp("C1", "V1", 10.0)), DELTA);
+        assertEquals(15.0, dao.insertarAmbPreu(new ProvComp("C1", "V2", 20.0)), DELTA);
+        assertEquals(25.0, dao.actualitzarAmbPreu(new ProvComp("C1", "V1", 30.0)), DELTA);
+        assertEquals(20.0, dao.eliminarAmbPreu("C1", "V1"), DELTA);
+
+        // Mateix valor que la consulta separada que feia la UI
+        assertEquals(20.0, new DAOComponent().getComponentAmbPreuActualitzat("C1").getCmPreuMig(), DELTA);
+
+        assertEquals(0.0, dao.eliminarAmbPreu("C1", "V2"), DELTA);
+    }
+
+    @Test
+    void testRetornaNullSiNoEsModificaRes() {
+        assertNull(dao.actualitzarAmbPreu(new ProvComp("C1", "V1", 5.0)));
+        assertNull(dao.eliminarAmbPreu("C1", "V1"));
+        assertNull(dao.insertarAmbPreu(new ProvComp("C1", "XX", 5.0)));
+        assertNull(dao.insertarAmbPreu(new ProvComp("C1", "V1", -5.0)));
+
+        dao.insertarAmbPreu(new ProvComp("C1", "V1", 5.0));
+        assertNull(dao.insertarAmbPreu(new ProvComp("C1", "V1", 6.0)));
+    }
+}
@@ -0,0 +1,124 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import dao.DAOMunicipi;
+import dao.DAOMunicipiAmbCache;
+import dao.DAOProveidor;
+import dao.DAOProveidorAmbCache;
+import dao.DAOProvincia;
+import dao.DAOProvinciaAmbCache;
+import dao.DAOUnitatMesura;
+import dao.DAOUnitatMesuraAmbCache;
+import util.CacheReferencia;
+
+/**
+ * Test dels DAOs de taules mestres amb cache: mateixos resultats que la BD
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public class TestDAOsReferenciaAmbCache {
+
+    @BeforeEach
+    void preparar() throws Exception {
+        BaseDadesProva.crearEsquema();
+        BaseDadesProva.executar(
+                "INSERT INTO UnitatMesura VALUES ('KG', 'Quilograms')",
+                "INSERT INTO UnitatMesura VALUES ('UN', 'Unitats')",
+                "INSERT INTO Provincia VALUES ('08', 'Barcelona')",
+                "INSERT INTO Provincia VALUES ('17', 'Girona')",
+                "INSERT INTO Municipi VALUES ('08', '019', 'Barcelona')",
+                "INSERT INTO Municipi VALUES ('08', '101', 'Hospitalet')",
+                "INSERT INTO Municipi VALUES ('17', '079', 'Girona')",
+                "INSERT INTO Proveidor VALUES ('V1', 'A1', 'Electrònica Vallès SA', NULL, NULL, NULL, '08', '019')",
+                "INSERT INTO Proveidor VALUES ('V2', 'A2', 'Components Girona SL', NULL, NULL, NULL, '17', '079')",
+                "INSERT INTO Proveidor VALUES ('V3', 'A3', 'Cables 50% SA', NULL, NULL, NULL, '08', '019')");
+    }
+
+    @Test
+    void testMateixosResultatsQueLaBD() {
+        DAOUnitatMesuraAmbCache um = new DAOUnitatMesuraAmbCache();
+        assertEquals(new DAOUnitatMesura().findAll().toString(), um.findAll().toString());
+        assertEquals("Quilograms", um.findById("KG").getUmNom());
+        assertNull(um.findById("XX"));
+
+        DAOProvinciaAmbCache pr = new DAOProvinciaAmbCache();
+        assertEquals(new DAOProvincia().findAll().toString(), pr.findAll().toString());
+        assertEquals("Girona", pr.findById("17").getPrNom());
+
+        DAOMunicipi muBD = new DAOMunicipi();
+        DAOMunicipiAmbCache mu = new DAOMunicipiAmbCache();
+        assertEquals(muBD.findAll().toString(), mu.findAll().toString());
+        assertEquals("Hospitalet", mu.findById("08", "101").getMuNom());
+        assertNull(mu.findById("08", "079"));
+        assertEquals(muBD.getMunicipisDeProvincia("08").toString(), mu.getMunicipisDeProvincia("08").toString());
+        assertEquals(0, mu.getMunicipisDeProvincia("43").size());
+
+        DAOProveidor pvBD = new DAOProveidor();
+        DAOProveidorAmbCache pv = new DAOProveidorAmbCache();
+        assertEquals(pvBD.findAll().toString(), pv.findAll().toString());
+        assertEquals("A2", pv.findById("V2").getPvCif());
+        assertEquals(pvBD.filtrarPerMunicipi("08", "019").toString(), pv.filtrarPerMunicipi("08", "019").toString());
+        for (String patro : new String[] { "sa", "GIRONA", "50%", "v_ll", "%S" }) {
+            assertEquals(pvBD.filtrarPerNom(patro).toString(), pv.filtrarPerNom(patro).toString(), patro);
+        }
+    }
+
+    @Test
+    void testRefrescExplicit() throws Exception {
+        DAOProvinciaAmbCache pr = new DAOProvinciaAmbCache();
+        assertEquals(2, pr.findAll().size());
+
+        BaseDadesProva.executar("INSERT INTO Provincia VALUES ('43', 'Tarragona')");
+        assertNull(pr.findById("43"));
+
+        pr.refrescar();
+        assertEquals("Tarragona", pr.findById("43").getPrNom());
+        assertEquals(3, pr.findAll().size());
+    }
+
+    @Test
+    void testModificarUnResultatNoAlteraLaCache() {
+        DAOProveidorAmbCache pv = new DAOProveidorAmbCache();
+        pv.findById("V1").setPvRaoSocial("Canviat");
+        pv.findAll().get(0).setPvRaoSocial("Canviat");
+        pv.filtrarPerMunicipi("08", "019").get(0).setPvRaoSocial("Canviat");
+        assertEquals("Electrònica Vallès SA", pv.findById("V1").getPvRaoSocial());
+        assertEquals(new DAOProveidor().findAll().toString(), pv.findAll().toString());
+
+        DAOMunicipiAmbCache mu = new DAOMunicipiAmbCache();
+        mu.findById("17", "079").setMuNom("Canviat");
+        mu.getMunicipisDeProvincia("17").get(0).setMuNom("Canviat");
+        assertEquals("Girona", mu.findById("17", "079").getMuNom());
+    }
+
+    @Test
+    void testRefrescPerTTL() throws Exception {
+        AtomicInteger carregues = new AtomicInteger();
+        CacheReferencia<Integer> sense = new CacheReferencia<>("prova", carregues::incrementAndGet, 0);
+        assertEquals(1, sense.get());
+        assertEquals(1, sense.get());
+
+        CacheReferencia<Integer> ttl = new CacheReferencia<>("prova", carregues::incrementAndGet, 20);
+        Integer primera = ttl.get();
+        assertSame(primera, ttl.get());
+        Thread.sleep(50);
+        // Caducada: la petició no espera el refresc, rep l'anterior
+        assertSame(primera, ttl.get());
+        long limit = System.currentTimeMillis() + 5000;
+        Integer refrescada = ttl.get();
+        while (refrescada.equals(primera) && System.currentTimeMillis() < limit) {
+            Thread.sleep(5);
+            refrescada = ttl.get();
+        }
+        assertEquals(primera + 1, refrescada);
+    }
+}
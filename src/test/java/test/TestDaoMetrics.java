@@ -0,0 +1,104 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import dao.DAOFactory;
+import dao.IDAOComponent;
+import model.Component;
+import util.DaoMetrics;
+import util.HistogramaLatencia;
+
+/**
+ * Test de DaoMetrics: histograma i mesures dels DAOs de DAOFactory
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public class TestDaoMetrics {
+
+    @BeforeAll
+    static void preparar() throws Exception {
+        BaseDadesProva.crearEsquema();
+        BaseDadesProva.component("C1", 1.0);
+        BaseDadesProva.component("C2", 2.0);
+        BaseDadesProva.component("C3", 3.0);
+    }
+
+    @Test
+    void testPercentilsHistograma() {
+        HistogramaLatencia h = new HistogramaLatencia();
+        for (int us = 1; us <= 1000; us++) {
+            h.registrar(TimeUnit.MICROSECONDS.toNanos(us));
+        }
+
+        assertEquals(1000, h.getTotal());
+        assertEquals(TimeUnit.MICROSECONDS.toNanos(1000), h.getMaximNanos());
+        // Error relatiu màxim 1/16
+        assertEquals(500_000, h.percentil(50), 500_000 / 16.0);
+        assertEquals(990_000, h.percentil(99), 990_000 / 16.0);
+        assertEquals(999_000, h.percentil(99.9), 999_000 / 16.0);
+        assertEquals(500_500, h.getMitjanaNanos(), 1.0);
+
+        h.reiniciar();
+        assertEquals(0, h.getTotal());
+        assertEquals(0, h.percentil(99));
+    }
+
+    @Test
+    void testMesuresDelsDAOs() throws Exception {
+        DaoMetrics.reiniciar();
+        IDAOComponent dao = DAOFactory.getDAOComponent();
+
+        assertEquals(3, dao.findAll().size());
+        assertEquals(3, dao.findAll().size());
+        // Clau duplicada: el DAO captura la SQLException i retorna false
+        assertFalse(dao.insertar(new Component("C1", "UN", "FAB-C1", 1.0)));
+
+        DaoMetrics.Resum findAll = DaoMetrics.resum("DAOComponent.findAll");
+        assertNotNull(findAll);
+        assertEquals(2, findAll.crides());
+        assertEquals(0, findAll.errors());
+        assertEquals(6, findAll.files());
+        assertTrue(findAll.p50Ms() > 0);
+        assertTrue(findAll.p999Ms() <= findAll.maximMs());
+
+        DaoMetrics.Resum insertar = DaoMetrics.resum("DAOComponent.insertar");
+        assertEquals(1, insertar.crides());
+        assertEquals(1, insertar.errors());
+
+        assertTrue(DaoMetrics.getEsperaConnexio().getTotal() >= 3);
+        assertTrue(DaoMetrics.bolcat().contains("DAOComponent.findAll"));
+
+        Object crides = ManagementFactory.getPlatformMBeanServer()
+                .getAttribute(new ObjectName(DaoMetrics.NOM_JMX), "TotalCrides");
+        assertEquals(3L, crides);
+    }
+
+    @Test
+    void testRegistreJmxIdempotentIDesregistre() throws Exception {
+        ObjectName nom = new ObjectName(DaoMetrics.NOM_JMX);
+        try {
+            // Un segon registre (p.ex. redeploy) substitueix l'anterior en lloc de fallar
+            assertTrue(DaoMetrics.registrarJmx());
+            assertTrue(DaoMetrics.registrarJmx());
+            assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(nom));
+
+            DaoMetrics.desregistrarJmx();
+            assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(nom));
+            DaoMetrics.desregistrarJmx();
+        } finally {
+            DaoMetrics.registrarJmx();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import dao.DAOFactory;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import model.Component;
+
+/**
+ * Test dels esdeveniments de JFR de la capa de persistència (dao.Query, dao.Operation, dao.Transaction)
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public class TestEsdevenimentsJfr {
+
+    @BeforeAll
+    static void preparar() throws Exception {
+        BaseDadesProva.crearEsquema();
+        BaseDadesProva.component("C1", 1.0);
+        BaseDadesProva.component("C2", 2.0);
+    }
+
+    @Test
+    void testEsdevenimentsDelsDAOs() throws Exception {
+        Path fitxer = Files.createTempFile("dao", ".jfr");
+        try (Recording gravacio = new Recording()) {
+            gravacio.enable("dao.Query");
+            gravacio.enable("dao.Operation");
+            gravacio.enable("dao.Transaction");
+            gravacio.start();
+
+            assertEquals(2, DAOFactory.getDAOComponent().findAll().size());
+            assertTrue(DAOFactory.getDAOComponent().insertar(
+                    new Component("C3", "C", "Component C3", null, 10, null, "C3", "UN", "FAB-C3", 3.0)));
+
+            gravacio.stop();
+            gravacio.dump(fitxer);
+        }
+
+        List<RecordedEvent> esdeveniments = RecordingFile.readAllEvents(fitxer);
+        Files.deleteIfExists(fitxer);
+
+        RecordedEvent findAll = unic(esdeveniments, "dao.Query", "findAll");
+        assertEquals("DAOComponent", findAll.getString("classeDao"));
+        assertEquals(2, findAll.getLong("files"));
+        assertEquals(8, findAll.getString("idSql").length());
+        assertTrue(findAll.getString("sql").startsWith("SELECT"));
+        assertFalse(findAll.getBoolean("error"));
+
+        List<RecordedEvent> inserts = del(esdeveniments, "dao.Query", "insertar");
+        assertEquals(2, inserts.size());
+        assertEquals(1, inserts.get(0).getLong("files"));
+
+        RecordedEvent operacio = unic(esdeveniments, "dao.Operation", "findAll");
+        assertEquals(2, operacio.getLong("files"));
+        assertTrue(operacio.getDuration().toNanos() >= findAll.getDuration().toNanos());
+
+        RecordedEvent transaccio = unic(esdeveniments, "dao.Transaction", "insertar");
+        assertEquals("DAOComponent", transaccio.getString("classeDao"));
+        assertEquals(2, transaccio.getLong("sentencies"));
+        assertFalse(transaccio.getBoolean("rollback"));
+    }
+
+    private static List<RecordedEvent> del(List<RecordedEvent> esdeveniments, String tipus, String metode) {
+        return esdeveniments.stream()
+                .filter(e -> e.getEventType().getName().equals(tipus))
+                .filter(e -> metode.equals(e.getString("metode")))
+                .toList();
+    }
+
+    private static RecordedEvent unic(List<RecordedEvent> esdeveniments, String tipus, String metode) {
+        List<RecordedEvent> trobats = del(esdeveniments, tipus, metode);
+        assertEquals(1, trobats.size(), tipus + " " + metode);
+        return trobats.get(0);
+    }
+}
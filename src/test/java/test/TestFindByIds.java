@@ -0,0 +1,89 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import dao.DAOComponent;
+import dao.DAOItem;
+import dao.DAOProducte;
+import dao.DAOProveidor;
+import dao.DAOProveidorAmbCache;
+import model.Component;
+import model.Item;
+import util.ConnexioOracle;
+import util.PoolConnexions;
+
+/**
+ * Test de findByIds: mateixes entitats que findById i poques consultes
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public class TestFindByIds {
+
+    private static final List<String> COMPONENTS = new ArrayList<>();
+
+    @BeforeAll
+    static void preparar() throws Exception {
+        BaseDadesProva.crearEsquema();
+        for (int c = 0; c < 1200; c++) {
+            String codi = String.format("C%04d", c);
+            BaseDadesProva.component(codi, 1.0 + c);
+            COMPONENTS.add(codi);
+        }
+        BaseDadesProva.producte("P1");
+        BaseDadesProva.producte("P2");
+        BaseDadesProva.proveidor("V1");
+        BaseDadesProva.proveidor("V2");
+    }
+
+    @Test
+    void testMateixesEntitatsQueFindById() {
+        DAOComponent dao = new DAOComponent();
+        List<String> codis = new ArrayList<>(COMPONENTS.subList(0, 20));
+        codis.addAll(Arrays.asList("XX", null, "", "C0003"));
+
+        Map<String, Component> components = dao.findByIds(codis);
+        assertEquals(20, components.size());
+        assertFalse(components.containsKey("XX"));
+        for (String codi : COMPONENTS.subList(0, 20)) {
+            assertEquals(dao.findById(codi).toString(), components.get(codi).toString());
+        }
+
+        Map<String, Item> items = new DAOItem().findByIds(List.of("C0001", "P1", "XX"));
+        assertEquals(2, items.size());
+        assertEquals(new DAOItem().findById("P1").toString(), items.get("P1").toString());
+
+        assertEquals(List.of("P1", "P2"), new ArrayList<>(new DAOProducte().findByIds(List.of("P1", "P2", "C0001")).keySet()));
+        assertEquals(new DAOProveidor().findByIds(List.of("V2", "V9")).toString(),
+                new DAOProveidorAmbCache().findByIds(List.of("V2", "V9")).toString());
+        assertTrue(dao.findByIds(List.of()).isEmpty());
+    }
+
+    @Test
+    void testUnaConsultaPerCadaMilClaus() {
+        PoolConnexions pool = ConnexioOracle.getPool();
+        DAOComponent dao = new DAOComponent();
+
+        long abans = preparacions(pool);
+        assertEquals(500, dao.findByIds(COMPONENTS.subList(0, 500)).size());
+        assertEquals(1, preparacions(pool) - abans);
+
+        abans = preparacions(pool);
+        assertEquals(1200, dao.findByIds(COMPONENTS).size());
+        assertEquals(2, preparacions(pool) - abans);
+    }
+
+    private static long preparacions(PoolConnexions pool) {
+        return pool.getEncertsCacheSentencies() + pool.getFalladesCacheSentencies();
+    }
+}
@@ -0,0 +1,138 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.h2.api.Trigger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import bom.CachePreusProductes;
+import dao.DAOProvComp;
+import model.ProvComp;
+import model.ResultatImportacio;
+
+/**
+ * Test de DAOProvComp.importarPreus (tarifa escalonada i un sol MERGE)
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public class TestImportarPreusProvComp {
+
+    private static final double DELTA = 0.0001;
+
+    private final DAOProvComp dao = new DAOProvComp();
+
+    /**
+     * Trigger per sentència (sense FOR EACH ROW) que compta quantes vegades es dispara
+     */
+    public static class ComptadorTrigger implements Trigger {
+        static final AtomicInteger DISPARS = new AtomicInteger();
+
+        @Override
+        public void fire(Connection conn, Object[] filaAnterior, Object[] filaNova) {
+            DISPARS.incrementAndGet();
+        }
+    }
+
+    @BeforeEach
+    void preparar() throws Exception {
+        BaseDadesProva.crearEsquema();
+        for (String c : new String[] { "C1", "C2", "C3" }) {
+            BaseDadesProva.component(c, null);
+        }
+        BaseDadesProva.proveidor("V1");
+        BaseDadesProva.proveidor("V2");
+        dao.insertar(new ProvComp("C1", "V1", 10.0));
+        dao.insertar(new ProvComp("C1", "V2", 30.0));
+        BaseDadesProva.executar("CREATE TRIGGER trg_prov_comp_compta AFTER INSERT, UPDATE ON Prov_Comp "
+                + "CALL \"" + ComptadorTrigger.class.getName() + "\"");
+        ComptadorTrigger.DISPARS.set(0);
+    }
+
+    @Test
+    void testInsereixIActualitzaEnUnLot() {
+        ResultatImportacio resultat = dao.importarPreus(List.of(
+                new ProvComp("C1", "V1", 20.0),
+                new ProvComp("C2", "V1", 4.0),
+                new ProvComp("C3", "V1", 6.0)));
+
+        assertEquals(2, resultat.inserides());
+        assertEquals(1, resultat.actualitzades());
+        assertEquals(1, ComptadorTrigger.DISPARS.get());
+        assertEquals(25.0, resultat.preusMigs().get("C1"), DELTA);
+        assertEquals(4.0, resultat.preusMigs().get("C2"), DELTA);
+        assertEquals(6.0, resultat.preusMigs().get("C3"), DELTA);
+        assertEquals(20.0, dao.findById("C1", "V1").getPcPreu(), DELTA);
+        assertEquals(4, dao.findAll().size());
+    }
+
+    @Test
+    void testTarifaGranDisparaElTriggerUnSolCop() throws Exception {
+        List<ProvComp> tarifa = new ArrayList<>();
+        for (int i = 1; i <= 200; i++) {
+            BaseDadesProva.proveidor("W" + i);
+            tarifa.add(new ProvComp("C" + (i % 3 + 1), "W" + i, (double) i));
+        }
+        tarifa.add(new ProvComp("C1", "V1", 15.0));
+
+        ResultatImportacio resultat = dao.importarPreus(tarifa);
+
+        assertEquals(200, resultat.inserides());
+        assertEquals(1, resultat.actualitzades());
+        assertEquals(1, ComptadorTrigger.DISPARS.get());
+        assertEquals(15.0, dao.findById("C1", "V1").getPcPreu(), DELTA);
+        assertEquals(202, dao.findAll().size());
+    }
+
+    @Test
+    void testTarifaInvalidaNoAplicaRes() {
+        assertNull(dao.importarPreus(List.of(
+                new ProvComp("C2", "V1", 4.0),
+                new ProvComp("C3", "V1", -1.0))));
+        assertNull(dao.importarPreus(List.of(
+                new ProvComp("C2", "V1", 4.0),
+                new ProvComp("C2", "V1", 5.0))));
+        assertEquals(2, dao.findAll().size());
+    }
+
+    @Test
+    void testErrorDeClauForaneaDesfaTot() {
+        assertNull(dao.importarPreus(List.of(
+                new ProvComp("C2", "V1", 4.0),
+                new ProvComp("C2", "XX", 5.0))));
+        assertNull(dao.findById("C2", "V1"));
+
+        // El rollback també buida la taula temporal: la tarifa següent no n'hereta files
+        ResultatImportacio resultat = dao.importarPreus(List.of(new ProvComp("C3", "V2", 7.0)));
+        assertEquals(1, resultat.inserides());
+        assertEquals(0, resultat.actualitzades());
+        assertEquals(3, dao.findAll().size());
+    }
+
+    @Test
+    void testActualitzaLaCacheDePreus() throws Exception {
+        BaseDadesProva.producte("P1");
+        BaseDadesProva.linia("P1", "C1", 2);
+        BaseDadesProva.linia("P1", "C2", 1);
+        dao.insertar(new ProvComp("C2", "V2", 1.0));
+
+        CachePreusProductes cache = CachePreusProductes.activar();
+        try {
+            assertEquals(41.0, cache.getPreu("P1"), DELTA);
+            dao.importarPreus(List.of(
+                    new ProvComp("C1", "V1", 50.0),
+                    new ProvComp("C2", "V2", 3.0)));
+            assertEquals(83.0, cache.getPreu("P1"), DELTA);
+        } finally {
+            CachePreusProductes.desactivar();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import dao.DAOProdItem;
+import model.ProdItem;
+
+/**
+ * Test de DAOProdItem.insertarBatch (càrrega massiva de BOM amb JDBC batch)
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public class TestInsertarBatchProdItem {
+
+    private static final int PRODUCTES = 10;
+    private static final int COMPONENTS = 1000;
+
+    private final DAOProdItem dao = new DAOProdItem();
+
+    @BeforeEach
+    void preparar() throws Exception {
+        BaseDadesProva.crearEsquema();
+        for (int c = 0; c < COMPONENTS; c++) {
+            BaseDadesProva.component("C" + c, 1.0);
+        }
+        for (int p = 0; p < PRODUCTES; p++) {
+            BaseDadesProva.producte("P" + p);
+        }
+    }
+
+    @Test
+    void testImportaBOMde10kLinies() {
+        List<ProdItem> linies = new ArrayList<>();
+        for (int p = 0; p < PRODUCTES; p++) {
+            for (int c = 0; c < COMPONENTS; c++) {
+                linies.add(new ProdItem("P" + p, "C" + c, 1 + c % 5));
+            }
+        }
+
+        long inici = System.nanoTime();
+        int[] resultat = dao.insertarBatch(linies, 1000);
+        long ms = (System.nanoTime() - inici) / 1_000_000;
+        System.out.println("10k línies inserides en " + ms + " ms");
+
+        assertEquals(linies.size(), resultat.length);
+        for (int r : resultat) {
+            assertEquals(true, r == 1 || r == Statement.SUCCESS_NO_INFO);
+        }
+        assertEquals(PRODUCTES * COMPONENTS, dao.countTotal());
+    }
+
+    @Test
+    void testLiniaInvalidaNoInsereixRes() {
+        List<ProdItem> linies = List.of(
+                new ProdItem("P0", "C0", 1),
+                new ProdItem("P0", "P0", 1),    // CHECK: es conté a si mateix
+                new ProdItem("P0", "C1", 0),    // Quantitat invàlida
+                new ProdItem("P0", "C0", 2));   // Repetida dins el lot
+
+        int[] resultat = dao.insertarBatch(linies);
+
+        assertEquals(0, resultat[0]);
+        assertEquals(Statement.EXECUTE_FAILED, resultat[1]);
+        assertEquals(Statement.EXECUTE_FAILED, resultat[2]);
+        assertEquals(Statement.EXECUTE_FAILED, resultat[3]);
+        assertEquals(0, dao.countTotal());
+    }
+
+    @Test
+    void testErrorAlaBDDesfaTotElLot() {
+        dao.insertar(new ProdItem("P1", "C5", 1));
+
+        List<ProdItem> linies = new ArrayList<>();
+        for (int c = 0; c < 10; c++) {
+            linies.add(new ProdItem("P1", "C" + c, 1));
+        }
+
+        int[] resultat = dao.insertarBatch(linies, 3);
+
+        assertEquals(Statement.EXECUTE_FAILED, resultat[5]);
+        assertEquals(0, resultat[0]);
+        assertEquals(1, dao.countTotal());
+    }
+}
@@ -0,0 +1,58 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import util.ConnexioOracle;
+import util.MapejadorColumnes;
+
+/**
+ * Test de MapejadorColumnes: posicions resoltes per ResultSet
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public class TestMapejadorColumnes {
+
+    private static final MapejadorColumnes<String> MAPEJADOR = new MapejadorColumnes<>(
+            (rs, c) -> rs.getString(c[0]) + ":" + rs.getInt(c[1]),
+            "it_codi", "IT_STOCK");
+
+    @BeforeAll
+    static void preparar() throws Exception {
+        BaseDadesProva.crearEsquema();
+        BaseDadesProva.component("C1", 1.0);
+        BaseDadesProva.component("C2", 2.0);
+    }
+
+    @Test
+    void testOrdreDeColumnesDiferentPerConsulta() throws SQLException {
+        assertEquals("C1:10 C2:10", consultar("SELECT it_codi, it_nom, it_stock FROM Item ORDER BY it_codi"));
+        assertEquals("C1:10 C2:10", consultar("SELECT it_stock, it_codi FROM Item ORDER BY it_codi"));
+    }
+
+    @Test
+    void testColumnaQueFalta() {
+        assertThrows(SQLException.class, () -> consultar("SELECT it_codi FROM Item"));
+    }
+
+    private static String consultar(String sql) throws SQLException {
+        StringBuilder sb = new StringBuilder();
+        try (Connection conn = ConnexioOracle.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                sb.append(sb.length() > 0 ? " " : "").append(MAPEJADOR.mapejar(rs));
+            }
+        }
+        return sb.toString();
+    }
+}
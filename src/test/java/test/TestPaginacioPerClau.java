@@ -0,0 +1,100 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import dao.DAOComponent;
+import dao.DAOItem;
+import dao.DAOProducte;
+import model.Component;
+import model.Pagina;
+import model.Producte;
+
+/**
+ * Test de findPageAfter (paginació per clau) d'Item, Component i Producte
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public class TestPaginacioPerClau {
+
+    @BeforeAll
+    static void preparar() throws Exception {
+        BaseDadesProva.crearEsquema();
+        for (int c = 0; c < 25; c++) {
+            BaseDadesProva.component(String.format("C%03d", c), 1.0);
+        }
+        for (int p = 0; p < 7; p++) {
+            BaseDadesProva.producte(String.format("P%03d", p));
+        }
+    }
+
+    @Test
+    void testRecorreTotsElsItems() {
+        DAOItem dao = new DAOItem();
+        List<String> esperats = new ArrayList<>();
+        dao.findAll().forEach(i -> esperats.add(i.getItCodi()));
+
+        assertEquals(esperats, recorrer(dao::findPageAfter, 10, i -> i.getItCodi()));
+        assertEquals(esperats, recorrer(dao::findPageAfter, 32, i -> i.getItCodi()));
+        assertEquals(esperats, recorrer(dao::findPageAfter, 1000, i -> i.getItCodi()));
+    }
+
+    @Test
+    void testMateixesPaginesQueFindAllPaginat() {
+        DAOComponent dao = new DAOComponent();
+        Pagina<Component> pagina = dao.findPageAfter(null, 10);
+        int numero = 1;
+        while (true) {
+            List<String> perOffset = new ArrayList<>();
+            dao.findAllPaginat(numero, 10).forEach(c -> perOffset.add(c.getItCodi()));
+            List<String> perClau = new ArrayList<>();
+            pagina.elements().forEach(c -> perClau.add(c.getItCodi()));
+            assertEquals(perOffset, perClau, "Pàgina " + numero);
+
+            if (!pagina.teMes()) {
+                break;
+            }
+            pagina = dao.findPageAfter(pagina.seguent(), 10);
+            numero++;
+        }
+        assertEquals(3, numero);
+        assertEquals(5, pagina.elements().size());
+    }
+
+    @Test
+    void testProductesICursorsInvalids() {
+        DAOProducte dao = new DAOProducte();
+        assertEquals(7, recorrer(dao::findPageAfter, 3, p -> p.getPrCodi()).size());
+
+        Pagina<Producte> exacta = dao.findPageAfter(null, 7);
+        assertEquals(7, exacta.elements().size());
+        assertFalse(exacta.teMes());
+
+        assertTrue(dao.findPageAfter("no-és-base64!", 5).elements().isEmpty());
+        assertTrue(dao.findPageAfter("UDAwMQ", 5).elements().isEmpty());
+        assertTrue(dao.findPageAfter(null, 0).elements().isEmpty());
+    }
+
+    private static <T> List<String> recorrer(BiFunction<String, Integer, Pagina<T>> pagines, int mida,
+                                             Function<T, String> codi) {
+        List<String> codis = new ArrayList<>();
+        String cursor = null;
+        do {
+            Pagina<T> pagina = pagines.apply(cursor, mida);
+            assertTrue(pagina.elements().size() <= mida);
+            pagina.elements().forEach(e -> codis.add(codi.apply(e)));
+            cursor = pagina.seguent();
+        } while (cursor != null);
+        return codis;
+    }
+}
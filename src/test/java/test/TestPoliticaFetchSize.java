@@ -0,0 +1,113 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import dao.DAOItem;
+import util.ConnexioOracle;
+import util.PoliticaFetchSize;
+
+/**
+ * Test de PoliticaFetchSize: prioritats de configuració i mode adaptatiu amb els DAOs
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public class TestPoliticaFetchSize {
+
+    private static final String SQL_FIND_ALL_ITEMS = "SELECT i.it_codi, i.it_tipus, i.it_nom, i.it_desc, i.it_stock, i.it_foto, "
+            + "       c.cm_codi, c.cm_um_codi, c.cm_codi_fabricant, c.cm_preu_mig, p.pr_codi "
+            + "FROM Item i "
+            + "LEFT JOIN Component c ON c.cm_codi = i.it_codi "
+            + "LEFT JOIN Producte p ON p.pr_codi = i.it_codi "
+            + "ORDER BY it_codi";
+
+    private static PoliticaFetchSize original;
+
+    @BeforeAll
+    static void preparar() throws Exception {
+        BaseDadesProva.crearEsquema();
+        for (int c = 0; c < 300; c++) {
+            BaseDadesProva.component(String.format("C%03d", c), 1.0);
+        }
+        original = ConnexioOracle.getPool().getPoliticaFetchSize();
+    }
+
+    @AfterEach
+    void restaurar() {
+        ConnexioOracle.getPool().setPoliticaFetchSize(original);
+    }
+
+    @Test
+    void testPrioritatsDeConfiguracio() {
+        Properties props = new Properties();
+        props.setProperty("db.fetch.defecte", "50");
+        props.setProperty("db.fetch.metode.findById", "2");
+        props.setProperty("db.fetch.metode.DAOItem.findAll", "1000");
+        PoliticaFetchSize politica = PoliticaFetchSize.desDePropietats(props);
+
+        assertEquals(1000, politica.decidir("DAOItem", "findAll", "SQL").fetchSize());
+        assertEquals(50, politica.decidir("DAOComponent", "findAll", "SQL").fetchSize());
+        assertEquals(2, politica.decidir("DAOComponent", "findById", "SQL").fetchSize());
+        assertFalse(politica.decidir("DAOComponent", "findAll", "SQL").comptarFiles());
+    }
+
+    @Test
+    void testAdaptatiuCreixIDecreixAPoc() {
+        PoliticaFetchSize politica = new PoliticaFetchSize(10, Map.of("findById", 2), true, 500);
+
+        assertEquals(10, politica.decidir("DAOItem", "findAll", "Q").fetchSize());
+        assertTrue(politica.decidir("DAOItem", "findAll", "Q").comptarFiles());
+
+        politica.registrarFiles("Q", 300);
+        assertEquals(301, politica.decidir("DAOItem", "findAll", "Q").fetchSize());
+        politica.registrarFiles("Q", 9000);
+        assertEquals(500, politica.decidir("DAOItem", "findAll", "Q").fetchSize());
+        politica.registrarFiles("Q", 0);
+        assertEquals(6750, politica.getFilesEstimades("Q"));
+
+        // Els valors explícits no depenen de les files
+        assertEquals(2, politica.decidir("DAOItem", "findById", "Q").fetchSize());
+    }
+
+    @Test
+    void testNomesSAplicaALesSentenciesDelsDAOs() throws Exception {
+        PoliticaFetchSize politica = new PoliticaFetchSize(77, Map.of("findById", 2), true, 5000);
+        ConnexioOracle.getPool().setPoliticaFetchSize(politica);
+
+        assertEquals(300, new DAOItem().findAll().size());
+        assertEquals(300, politica.getFilesEstimades(SQL_FIND_ALL_ITEMS));
+        assertEquals(301, politica.decidir("DAOItem", "findAll", SQL_FIND_ALL_ITEMS).fetchSize());
+
+        try (Connection conn = ConnexioOracle.getConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT it_codi FROM Item")) {
+            // Sentència preparada fora dels DAOs: fetch size del driver
+            assertFalse(ps.getFetchSize() == 77 || ps.getFetchSize() == 301);
+        }
+        try (Connection conn = ConnexioOracle.getConnection();
+             PreparedStatement ps = conn.prepareStatement(SQL_FIND_ALL_ITEMS)) {
+            // L'origen es guarda per SQL: no es torna a mirar la pila
+            assertEquals(301, ps.getFetchSize());
+        }
+    }
+
+    @Test
+    void testSenseValorsPerMetodeNoEsMiraLaPila() throws Exception {
+        ConnexioOracle.getPool().setPoliticaFetchSize(new PoliticaFetchSize(77, Map.of(), false, 5000));
+
+        try (Connection conn = ConnexioOracle.getConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT it_nom FROM Item")) {
+            assertEquals(77, ps.getFetchSize());
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import util.PoolConnexions;
+
+/**
+ * Test de PoolConnexions sobre una BD H2 pròpia (no la de ConnexioOracle):
+ * espera acotada, retorn i descart de connexions i LRU de la cache de sentències
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public class TestPoolConnexions {
+
+    private static final String URL = "jdbc:h2:mem:provapool;MODE=Oracle;DB_CLOSE_DELAY=-1";
+
+    private PoolConnexions pool;
+
+    @BeforeEach
+    void crearPool() throws SQLException {
+        // min = 0: el manteniment no obre connexions pel seu compte
+        pool = new PoolConnexions(URL, "sa", "", 0, 1, 200, 300000, 2, 2);
+        try (Connection conn = pool.obtenir();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS Prova (id INT PRIMARY KEY)");
+            stmt.execute("DELETE FROM Prova");
+        }
+    }
+
+    @AfterEach
+    void tancarPool() {
+        pool.tancar();
+    }
+
+    @Test
+    void testTimeoutSiElPoolEsPle() throws Exception {
+        try (Connection prestada = pool.obtenir()) {
+            long inici = System.nanoTime();
+            SQLException e = assertThrows(SQLException.class, pool::obtenir);
+            long esperaMs = (System.nanoTime() - inici) / 1_000_000;
+
+            assertTrue(e.getMessage().contains("Timeout"), e.getMessage());
+            assertTrue(esperaMs >= 150, "Ha esperat " + esperaMs + " ms");
+            assertEquals(1, pool.getPrestades());
+        }
+
+        // Retornada la connexió, el préstec torna a funcionar
+        try (Connection conn = pool.obtenir()) {
+            assertFalse(conn.isClosed());
+        }
+    }
+
+    @Test
+    void testCloseRetornaLaConnexioIDesfaLaTransaccio() throws Exception {
+        Connection fisica;
+        try (Connection conn = pool.obtenir()) {
+            fisica = conn.unwrap(Connection.class);
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("INSERT INTO Prova VALUES (1)");
+            }
+            // close() sense commit
+        }
+        assertEquals(0, pool.getPrestades());
+        assertEquals(1, pool.getLliures());
+
+        try (Connection conn = pool.obtenir();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM Prova")) {
+            assertSame(fisica, conn.unwrap(Connection.class));
+            assertTrue(conn.getAutoCommit());
+            assertTrue(rs.next());
+            assertEquals(0, rs.getInt(1));
+        }
+        assertEquals(1, pool.getTotalObertes());
+    }
+
+    @Test
+    void testConnexioTrencadaEsDescarta() throws Exception {
+        Connection fisica;
+        try (Connection conn = pool.obtenir()) {
+            fisica = conn.unwrap(Connection.class);
+            fisica.close();
+        }
+        assertEquals(0, pool.getTotalObertes());
+        assertEquals(0, pool.getLliures());
+        assertEquals(0, pool.getPrestades());
+
+        try (Connection conn = pool.obtenir()) {
+            assertNotSame(fisica, conn.unwrap(Connection.class));
+            assertFalse(conn.isClosed());
+        }
+    }
+
+    @Test
+    void testCloseTancaLesSentenciesObertes() throws Exception {
+        Statement oblidada;
+        try (Connection conn = pool.obtenir()) {
+            oblidada = conn.createStatement();
+            // Moltes sentències obertes i tancades dins el mateix préstec
+            for (int i = 0; i < 100; i++) {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("SELECT 1 FROM DUAL");
+                }
+            }
+            assertFalse(oblidada.isClosed());
+        }
+        assertTrue(oblidada.isClosed());
+    }
+
+    @Test
+    void testLRUTancaLaSentenciaExpulsada() throws Exception {
+        try (Connection conn = pool.obtenir()) {
+            PreparedStatement a = preparar(conn, "SELECT 1 FROM DUAL");
+            PreparedStatement b = preparar(conn, "SELECT 2 FROM DUAL");
+            assertFalse(a.isClosed());
+
+            // Mida de la cache = 2: la tercera expulsa la menys usada (la primera)
+            PreparedStatement c = preparar(conn, "SELECT 3 FROM DUAL");
+            assertTrue(a.isClosed());
+            assertFalse(b.isClosed());
+            assertFalse(c.isClosed());
+
+            long encerts = pool.getEncertsCacheSentencies();
+            assertSame(b, preparar(conn, "SELECT 2 FROM DUAL"));
+            assertEquals(encerts + 1, pool.getEncertsCacheSentencies());
+        }
+    }
+
+    /**
+     * Prepara, executa i tanca una sentència (torna a la cache)
+     * @return Sentència física de la cache
+     */
+    private static PreparedStatement preparar(Connection conn, String sql) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            assertTrue(rs.next());
+            return ps.unwrap(PreparedStatement.class);
+        }
+    }
+}
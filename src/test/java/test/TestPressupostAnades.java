@@ -0,0 +1,86 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import dao.DAOComponent;
+import dao.DAOProducte;
+import util.PressupostAnades;
+
+/**
+ * Test del pressupost d'anades a la BD i del detector de N+1
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public class TestPressupostAnades {
+
+    private static final List<String> CODIS = new ArrayList<>();
+
+    @BeforeAll
+    static void preparar() throws Exception {
+        BaseDadesProva.crearEsquema();
+        for (int i = 1; i <= 12; i++) {
+            CODIS.add("C" + i);
+            BaseDadesProva.component("C" + i, (double) i);
+        }
+        BaseDadesProva.producte("P1");
+        BaseDadesProva.producte("P2");
+        BaseDadesProva.linia("P1", "P2", 2);
+        BaseDadesProva.linia("P2", "C1", 3);
+        BaseDadesProva.linia("P1", "C2", 1);
+    }
+
+    @Test
+    void testPreuTotalEsUnaSolaAnada() {
+        // Regressió: el BOM es calcula amb una sola consulta, no una per nivell
+        try (PressupostAnades pressupost = PressupostAnades.obrir("preuP1", 1, 1, true)) {
+            assertEquals(3 * 1.0 * 2 + 2.0, new DAOProducte().calcularPreuTotal("P1"), 0.0001);
+            assertEquals(1, pressupost.getAnades());
+        }
+    }
+
+    @Test
+    void testBuclePerFilaEsDetectaComNMesU() {
+        DAOComponent dao = new DAOComponent();
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> {
+            try (PressupostAnades pressupost = PressupostAnades.obrir("bucleFindById", 100, 10, true)) {
+                for (String codi : CODIS) {
+                    dao.findById(codi);
+                }
+            }
+        });
+        assertTrue(e.getMessage().contains("N+1"), e.getMessage());
+        assertTrue(e.getMessage().contains("DAOComponent.findById"), e.getMessage());
+
+        // La mateixa feina amb una sola consulta és dins el pressupost
+        try (PressupostAnades pressupost = PressupostAnades.obrir("findByIds", 1, 10, true)) {
+            assertEquals(12, dao.findByIds(CODIS).size());
+        }
+    }
+
+    @Test
+    void testPressupostSuperatNomésRegistraSenseLlancar() {
+        DAOComponent dao = new DAOComponent();
+        PressupostAnades exterior = PressupostAnades.obrir("exterior", 10, 10, false);
+        try (PressupostAnades interior = PressupostAnades.obrir("interior", 2, 10, false)) {
+            dao.findById("C1");
+            dao.findById("C1");
+            dao.findAll();
+            assertEquals(3, interior.getAnades());
+            assertEquals(1, interior.getInfraccions().size());
+            assertTrue(interior.getInfraccions().get(0).contains("DAOComponent.findAll"));
+        }
+        // Els àmbits niats també compten per a l'exterior
+        assertEquals(3, exterior.getAnades());
+        assertTrue(exterior.getInfraccions().isEmpty());
+        exterior.close();
+    }
+}
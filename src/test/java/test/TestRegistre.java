@@ -0,0 +1,101 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import util.AppenderAsincron;
+import util.Registre;
+
+/**
+ * Test del registre dels DAOs: nivells i appender asíncron
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public class TestRegistre {
+
+    @Test
+    void testNivellDesactivatNoConstrueixElMissatge() {
+        Registre log = Registre.per("TestRegistre");
+        Registre.setNivell("TestRegistre", Registre.Nivell.WARN);
+        try {
+            AtomicInteger construits = new AtomicInteger();
+            log.info(() -> "info " + construits.incrementAndGet());
+            log.debug(() -> "debug " + construits.incrementAndGet());
+            assertEquals(0, construits.get());
+            assertFalse(log.isActiu(Registre.Nivell.INFO));
+
+            log.warn(() -> "avís " + construits.incrementAndGet());
+            assertEquals(1, construits.get());
+            assertTrue(log.isActiu(Registre.Nivell.ERROR));
+        } finally {
+            Registre.setNivell("TestRegistre", Registre.Nivell.INFO);
+        }
+    }
+
+    @Test
+    void testAppenderAsincronMantéOrdrePerFil() throws Exception {
+        List<String> linies = Collections.synchronizedList(new ArrayList<>());
+        AppenderAsincron appender = new AppenderAsincron(1024, e -> linies.add(e.format()));
+
+        List<Thread> fils = new ArrayList<>();
+        for (int f = 0; f < 4; f++) {
+            String nom = "F" + f;
+            fils.add(Thread.ofVirtual().start(() -> {
+                for (int i = 0; i < 200; i++) {
+                    appender.escriure(new Registre.Entrada(0, Registre.Nivell.INFO, nom, String.valueOf(i), null));
+                }
+            }));
+        }
+        for (Thread fil : fils) {
+            fil.join();
+        }
+        appender.buidar();
+        appender.tancar();
+
+        assertEquals(800, linies.size());
+        assertEquals(0, appender.getDescartades());
+        for (int f = 0; f < 4; f++) {
+            String prefix = "[INFO - F" + f + "] ";
+            List<String> delFil = linies.stream().filter(l -> l.startsWith(prefix)).toList();
+            for (int i = 0; i < 200; i++) {
+                assertEquals(prefix + i, delFil.get(i));
+            }
+        }
+    }
+
+    @Test
+    void testBufferPleDescartaSenseBloquejar() throws Exception {
+        CountDownLatch desbloquejar = new CountDownLatch(1);
+        List<String> linies = Collections.synchronizedList(new ArrayList<>());
+        AppenderAsincron appender = new AppenderAsincron(4, e -> {
+            try {
+                desbloquejar.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            linies.add(e.format());
+        });
+
+        // La sortida està bloquejada: el buffer s'omple i la resta es descarta
+        for (int i = 0; i < 20; i++) {
+            appender.escriure(new Registre.Entrada(0, Registre.Nivell.INFO, "T", String.valueOf(i), null));
+        }
+        assertTrue(appender.getDescartades() >= 20 - 4 - 1);
+
+        desbloquejar.countDown();
+        appender.buidar();
+        appender.tancar();
+        assertTrue(linies.size() >= 4);
+        assertEquals("[INFO - T] 0", linies.get(0));
+    }
+}
@@ -0,0 +1,84 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import dao.DAOComponent;
+import dao.DAOItem;
+import model.Component;
+import model.ComponentResum;
+import model.Item;
+import model.ItemResum;
+import model.Pagina;
+
+/**
+ * Test dels resums d'Item i Component (llistats sense it_desc ni it_foto)
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public class TestResums {
+
+    @BeforeAll
+    static void preparar() throws Exception {
+        BaseDadesProva.crearEsquema();
+        for (int c = 0; c < 23; c++) {
+            BaseDadesProva.component(String.format("C%02d", c), c == 7 ? null : 2.0 * c);
+        }
+        BaseDadesProva.producte("P1");
+        BaseDadesProva.executar("UPDATE Item SET it_desc = RPAD('x', 2000, 'x')");
+    }
+
+    @Test
+    void testResumsItemsCoincideixenAmbLesEntitats() {
+        DAOItem dao = new DAOItem();
+        List<Item> items = dao.findAll();
+        List<ItemResum> resums = dao.findAllResum();
+
+        assertEquals(items.size(), resums.size());
+        for (int i = 0; i < items.size(); i++) {
+            Item item = items.get(i);
+            ItemResum resum = resums.get(i);
+            assertEquals(item.getItCodi(), resum.itCodi());
+            assertEquals(item.getItTipus(), resum.itTipus());
+            assertEquals(item.getItNom(), resum.itNom());
+            assertEquals(item.getItStock(), resum.itStock());
+        }
+        assertEquals(16.0, resums.get(8).cmPreuMig());
+        assertNull(resums.get(7).cmPreuMig());
+        assertNull(resums.get(23).cmPreuMig());
+
+        // L'entitat sencera es carrega quan cal
+        assertEquals(2000, dao.findById(resums.get(0).itCodi()).getItDesc().length());
+    }
+
+    @Test
+    void testPaginesDeResumsDeComponents() {
+        DAOComponent dao = new DAOComponent();
+        List<String> perPagines = new ArrayList<>();
+        Pagina<ComponentResum> pagina = dao.findPageResumAfter(null, 5);
+        while (true) {
+            pagina.elements().forEach(r -> perPagines.add(r.cmCodi()));
+            if (!pagina.teMes()) {
+                break;
+            }
+            pagina = dao.findPageResumAfter(pagina.seguent(), 5);
+        }
+
+        List<String> esperats = new ArrayList<>();
+        dao.findAll().forEach(c -> esperats.add(c.getCmCodi()));
+        assertEquals(esperats, perPagines);
+
+        Component c3 = dao.findById("C03");
+        ComponentResum r3 = dao.findAllResum().get(3);
+        assertEquals(c3.getCmPreuMig(), r3.cmPreuMig());
+        assertEquals(c3.getCmUmCodi(), r3.cmUmCodi());
+        assertEquals(0, dao.findPageResumAfter(null, 0).elements().size());
+    }
+}
@@ -0,0 +1,82 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import dao.DAOComponent;
+import dao.DAOItem;
+import dao.DAOProdItem;
+import dao.DAOProvComp;
+import model.Component;
+import model.Item;
+import model.ProdItem;
+import model.ProvComp;
+import util.ConnexioOracle;
+
+/**
+ * Test de streamAll: mateixes files que findAll i connexió retornada al pool en tancar
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public class TestStreamAll {
+
+    @BeforeAll
+    static void preparar() throws Exception {
+        BaseDadesProva.crearEsquema();
+        BaseDadesProva.proveidor("V1");
+        for (int c = 0; c < 1200; c++) {
+            BaseDadesProva.component(String.format("C%04d", c), null);
+        }
+        BaseDadesProva.producte("P1");
+        for (int c = 0; c < 30; c++) {
+            BaseDadesProva.linia("P1", String.format("C%04d", c), 1 + c);
+        }
+        DAOProvComp dao = new DAOProvComp();
+        for (int c = 0; c < 40; c++) {
+            dao.insertar(new ProvComp(String.format("C%04d", c), "V1", 1.0 + c));
+        }
+    }
+
+    @Test
+    void testMateixesFilesQueFindAll() {
+        try (Stream<Item> items = new DAOItem().streamAll()) {
+            assertEquals(new DAOItem().findAll().toString(), items.collect(Collectors.toList()).toString());
+        }
+        DAOComponent daoComponent = new DAOComponent();
+        try (Stream<Component> components = daoComponent.streamAll()) {
+            assertEquals(daoComponent.findAll().toString(), components.collect(Collectors.toList()).toString());
+        }
+        DAOProvComp daoProvComp = new DAOProvComp();
+        try (Stream<ProvComp> relacions = daoProvComp.streamAll()) {
+            assertEquals(daoProvComp.findAll().toString(), relacions.collect(Collectors.toList()).toString());
+        }
+        DAOProdItem daoProdItem = new DAOProdItem();
+        try (Stream<ProdItem> linies = daoProdItem.streamAll()) {
+            assertEquals(daoProdItem.findAll().toString(), linies.collect(Collectors.toList()).toString());
+        }
+    }
+
+    @Test
+    void testTancarRetornaLaConnexio() {
+        int prestades = ConnexioOracle.getPool().getPrestades();
+
+        Stream<Item> items = new DAOItem().streamAll();
+        assertEquals(prestades + 1, ConnexioOracle.getPool().getPrestades());
+        List<Item> primers = items.limit(5).collect(Collectors.toList());
+        assertEquals(5, primers.size());
+        items.close();
+        assertEquals(prestades, ConnexioOracle.getPool().getPrestades());
+
+        // Sense close(): en acabar les dades també es retorna
+        long total = new DAOItem().streamAll().count();
+        assertEquals(1201, total);
+        assertEquals(prestades, ConnexioOracle.getPool().getPrestades());
+    }
+}
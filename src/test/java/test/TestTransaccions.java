@@ -0,0 +1,108 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import util.ConnexioOracle;
+import util.Transaccions;
+
+/**
+ * Test de les unitats de treball marcades per desfer (rollback-only)
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public class TestTransaccions {
+
+    @BeforeAll
+    static void preparar() throws Exception {
+        BaseDadesProva.crearEsquema();
+    }
+
+    @BeforeEach
+    void netejar() throws SQLException {
+        BaseDadesProva.executar("DELETE FROM Provincia");
+    }
+
+    @Test
+    void testUnitatCorrectaFaCommit() throws Exception {
+        AtomicBoolean executada = new AtomicBoolean();
+        Transaccions.executarEnTransaccio(() -> {
+            BaseDadesProva.executar("INSERT INTO Provincia VALUES ('08', 'Barcelona')");
+            Transaccions.despresDelCommit(() -> executada.set(true));
+        });
+        assertEquals(1, provincies());
+        assertTrue(executada.get());
+    }
+
+    @Test
+    void testMarcarRollbackDesfaLaUnitat() throws Exception {
+        AtomicBoolean executada = new AtomicBoolean();
+        assertThrows(SQLException.class, () -> Transaccions.executarEnTransaccio(() -> {
+            BaseDadesProva.executar("INSERT INTO Provincia VALUES ('08', 'Barcelona')");
+            Transaccions.despresDelCommit(() -> executada.set(true));
+            Transaccions.marcarRollback();
+        }));
+        assertEquals(0, provincies());
+        assertFalse(executada.get());
+    }
+
+    @Test
+    void testRollbackDUnDAOMarcaLaUnitat() throws Exception {
+        assertThrows(SQLException.class, () -> Transaccions.executarEnTransaccio(() -> {
+            BaseDadesProva.executar("INSERT INTO Provincia VALUES ('08', 'Barcelona')");
+            // Un DAO que desfà la seva part: commit() posterior no fa res
+            try (Connection conn = ConnexioOracle.getConnection()) {
+                conn.rollback();
+                conn.commit();
+            }
+            BaseDadesProva.executar("INSERT INTO Provincia VALUES ('17', 'Girona')");
+        }));
+        assertEquals(0, provincies());
+    }
+
+    @Test
+    void testErrorSQLEmpassatMarcaLaUnitat() throws Exception {
+        assertThrows(SQLException.class, () -> Transaccions.executarEnTransaccio(() -> {
+            BaseDadesProva.executar("INSERT INTO Provincia VALUES ('08', 'Barcelona')");
+            // Clau repetida: el DAO capturaria l'excepció i retornaria false
+            try {
+                BaseDadesProva.executar("INSERT INTO Provincia VALUES ('08', 'Barcelona')");
+            } catch (SQLException e) {
+                // Empassada
+            }
+        }));
+        assertEquals(0, provincies());
+    }
+
+    @Test
+    void testUnitatNiadaDesfaLExterior() throws Exception {
+        assertThrows(SQLException.class, () -> Transaccions.executarEnTransaccio(() -> {
+            BaseDadesProva.executar("INSERT INTO Provincia VALUES ('08', 'Barcelona')");
+            Transaccions.executarEnTransaccio(Transaccions::marcarRollback);
+        }));
+        assertEquals(0, provincies());
+        assertFalse(Transaccions.actiu());
+    }
+
+    private static int provincies() throws SQLException {
+        try (Connection conn = ConnexioOracle.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM Provincia")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import dao.DAOProvComp;
+import model.ProvComp;
+import model.VistaProveidorComponent;
+
+/**
+ * Test de la vista de proveïdors d'un component (una sola consulta JOIN)
+ *
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public class TestVistaProveidorComponent {
+
+    private static final double DELTA = 0.0001;
+
+    private final DAOProvComp dao = new DAOProvComp();
+
+    @BeforeAll
+    static void preparar() throws Exception {
+        BaseDadesProva.crearEsquema();
+        BaseDadesProva.executar(
+                "INSERT INTO Provincia VALUES ('08', 'Barcelona')",
+                "INSERT INTO Municipi VALUES ('08', '019', 'Barcelona')",
+                "INSERT INTO Proveidor VALUES ('V1', 'A1', 'Electrònica Vallès SA', 'C/ Major 1', 'Anna', '930000000', '08', '019')");
+        BaseDadesProva.proveidor("V2");
+        for (String c : new String[] { "C1", "C2", "C3" }) {
+            BaseDadesProva.component(c, null);
+        }
+        DAOProvComp dao = new DAOProvComp();
+        dao.insertar(new ProvComp("C1", "V1", 10.0));
+        dao.insertar(new ProvComp("C1", "V2", 12.5));
+        dao.insertar(new ProvComp("C2", "V1", 3.0));
+    }
+
+    @Test
+    void testUnComponent() {
+        List<VistaProveidorComponent> vistes = dao.getVistaProveidorsDelComponent("C1");
+        assertEquals(2, vistes.size());
+
+        VistaProveidorComponent v1 = vistes.get(0);
+        assertEquals("V1", v1.pvCodi());
+        assertEquals(10.0, v1.pcPreu(), DELTA);
+        assertEquals("Electrònica Vallès SA", v1.pvRaoSocial());
+        assertEquals("Anna", v1.pvPersonaContacte());
+        assertEquals("Barcelona", v1.prNom());
+        assertEquals("Barcelona", v1.muNom());
+
+        // Proveïdor sense municipi: LEFT JOIN
+        VistaProveidorComponent v2 = vistes.get(1);
+        assertEquals("V2", v2.pvCodi());
+        assertNull(v2.muNom());
+        assertNull(v2.prNom());
+
+        // Mateixos proveïdors i preus que getProveidorsDelComponent
+        List<ProvComp> relacions = dao.getProveidorsDelComponent("C1");
+        for (int i = 0; i < relacions.size(); i++) {
+            assertEquals(relacions.get(i).getPcPvCodi(), vistes.get(i).pvCodi());
+            assertEquals(relacions.get(i).getPcPreu(), vistes.get(i).pcPreu(), DELTA);
+        }
+
+        assertTrue(dao.getVistaProveidorsDelComponent("C3").isEmpty());
+        assertTrue(dao.getVistaProveidorsDelComponent(null).isEmpty());
+    }
+
+    @Test
+    void testMoltsComponents() {
+        Map<String, List<VistaProveidorComponent>> perComponent =
+                dao.getVistaProveidorsDeComponents(List.of("C1", "C2", "C3", "XX"));
+
+        assertEquals(List.of("C1", "C2"), List.copyOf(perComponent.keySet()));
+        assertEquals(dao.getVistaProveidorsDelComponent("C1"), perComponent.get("C1"));
+        assertEquals(1, perComponent.get("C2").size());
+        assertFalse(perComponent.containsKey("C3"));
+    }
+}
@@ -0,0 +1,28 @@
+package test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.h2.api.Trigger;
+
+/**
+ * Emulació a H2 del trigger Oracle trg_prov_comp_after
+ * Recalcula cm_preu_mig = AVG(pc_preu) després de cada canvi a Prov_Comp
+ * (per fila: H2 no permet DML dins un trigger per sentència)
+ * 
+ * @author DomenechObiolAlbert
+ * @version 1.0
+ */
+public class TriggerPreuMig implements Trigger {
+
+    @Override
+    public void fire(Connection conn, Object[] filaAnterior, Object[] filaNova) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("""
+                UPDATE Component c
+                SET cm_preu_mig = (SELECT AVG(pc_preu) FROM Prov_Comp WHERE pc_cm_codi = c.cm_codi)
+                """);
+        }
+    }
+}
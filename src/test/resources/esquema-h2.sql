@@ -0,0 +1,80 @@
+-- Esquema de la BD local (H2 en mode Oracle) per als tests JUnit
+-- Reprodueix les taules d'Oracle sense paquets PL/SQL
+-- El trigger de Prov_Comp s'emula amb una classe Java (test.TriggerPreuMig)
+
+CREATE TABLE UnitatMesura (
+    um_codi     VARCHAR2(10)  PRIMARY KEY,
+    um_nom      VARCHAR2(50)  NOT NULL
+);
+
+CREATE TABLE Provincia (
+    pr_codi     VARCHAR2(2)   PRIMARY KEY,
+    pr_nom      VARCHAR2(50)  NOT NULL
+);
+
+CREATE TABLE Municipi (
+    mu_pr_codi  VARCHAR2(2)   NOT NULL REFERENCES Provincia (pr_codi),
+    mu_num      VARCHAR2(5)   NOT NULL,
+    mu_nom      VARCHAR2(100) NOT NULL,
+    PRIMARY KEY (mu_pr_codi, mu_num)
+);
+
+CREATE TABLE Proveidor (
+    pv_codi              VARCHAR2(10)  PRIMARY KEY,
+    pv_cif               VARCHAR2(15)  NOT NULL UNIQUE,
+    pv_rao_social        VARCHAR2(100) NOT NULL,
+    pv_lin_adre_fac      VARCHAR2(200),
+    pv_persona_contacte  VARCHAR2(100),
+    pv_telef_contacte    VARCHAR2(20),
+    pv_mu_pr_codi        VARCHAR2(2),
+    pv_mu_num            VARCHAR2(5),
+    FOREIGN KEY (pv_mu_pr_codi, pv_mu_num) REFERENCES Municipi (mu_pr_codi, mu_num)
+);
+
+CREATE TABLE Item (
+    it_codi     VARCHAR2(10)  PRIMARY KEY,
+    it_tipus    CHAR(1)       NOT NULL CHECK (it_tipus IN ('C', 'P')),
+    it_nom      VARCHAR2(100) NOT NULL,
+    it_desc     VARCHAR2(4000),
+    it_stock    NUMBER(10)    DEFAULT 0,
+    it_foto     VARCHAR2(200)
+);
+
+CREATE TABLE Component (
+    cm_codi            VARCHAR2(10)  PRIMARY KEY REFERENCES Item (it_codi),
+    cm_um_codi         VARCHAR2(10)  NOT NULL REFERENCES UnitatMesura (um_codi),
+    cm_codi_fabricant  VARCHAR2(50)  NOT NULL,
+    cm_preu_mig        NUMBER(12, 2)
+);
+
+CREATE TABLE Producte (
+    pr_codi     VARCHAR2(10)  PRIMARY KEY REFERENCES Item (it_codi)
+);
+
+CREATE TABLE Prod_Item (
+    pi_pr_codi  VARCHAR2(10)  NOT NULL REFERENCES Producte (pr_codi),
+    pi_it_codi  VARCHAR2(10)  NOT NULL REFERENCES Item (it_codi),
+    quantitat   NUMBER(10)    NOT NULL CHECK (quantitat > 0),
+    PRIMARY KEY (pi_pr_codi, pi_it_codi),
+    CHECK (pi_pr_codi <> pi_it_codi)
+);
+
+CREATE TABLE Prov_Comp (
+    pc_cm_codi  VARCHAR2(10)  NOT NULL REFERENCES Component (cm_codi),
+    pc_pv_codi  VARCHAR2(10)  NOT NULL REFERENCES Proveidor (pv_codi),
+    pc_preu     NUMBER(12, 2) NOT NULL,
+    PRIMARY KEY (pc_cm_codi, pc_pv_codi)
+);
+
+-- Escalonament de tarifes (DAOProvComp.importarPreus)
+CREATE GLOBAL TEMPORARY TABLE Prov_Comp_Tarifa (
+    pt_cm_codi  VARCHAR2(10)  NOT NULL,
+    pt_pv_codi  VARCHAR2(10)  NOT NULL,
+    pt_preu     NUMBER(12, 2) NOT NULL,
+    PRIMARY KEY (pt_cm_codi, pt_pv_codi)
+) ON COMMIT DELETE ROWS;
+
+CREATE TRIGGER trg_prov_comp_after
+    AFTER INSERT, UPDATE, DELETE ON Prov_Comp
+    FOR EACH ROW
+    CALL 'test.TriggerPreuMig';